@@ -0,0 +1,163 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.codelibs.opensearch.fess.FessAnalysisPlugin;
+import org.codelibs.opensearch.fess.service.BenchmarkServiceFactory;
+import org.codelibs.opensearch.fess.service.FessAnalysisService;
+import org.opensearch.Version;
+import org.opensearch.cluster.metadata.IndexMetadata;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.env.Environment;
+import org.opensearch.index.IndexSettings;
+
+/**
+ * Shared setup of the analysis benchmarks.
+ *
+ * <p>Delegates are resolved from the benchmark class path and, when the
+ * {@code fess.benchmark.plugins} system property points to an OpenSearch
+ * {@code plugins} directory, from the jars of each plugin found there.
+ * Components whose delegate is not found measure their fallback path.</p>
+ */
+final class AnalysisBenchmarkSupport {
+
+    static final String PLUGINS_DIR_PROPERTY = "fess.benchmark.plugins";
+
+    private AnalysisBenchmarkSupport() {
+    }
+
+    static String corpus(final String lang) {
+        try (InputStream in = AnalysisBenchmarkSupport.class.getResourceAsStream("/corpus/" + lang + ".txt")) {
+            if (in == null) {
+                throw new IllegalArgumentException("Unknown corpus: " + lang);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static IndexSettings indexSettings() {
+        return new IndexSettings(IndexMetadata.builder("benchmark")
+                .settings(Settings.builder()
+                        .put(IndexMetadata.SETTING_VERSION_CREATED, Version.CURRENT)
+                        .put(IndexMetadata.SETTING_NUMBER_OF_SHARDS, 1)
+                        .put(IndexMetadata.SETTING_NUMBER_OF_REPLICAS, 0))
+                .build(), Settings.EMPTY);
+    }
+
+    static Environment environment() {
+        try {
+            final Path home = Files.createTempDirectory("fess-benchmark");
+            return new Environment(Settings.builder().put(Environment.PATH_HOME_SETTING.getKey(), home.toString()).build(), null);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Creates the plugin and wires a service into its plugin component.
+     */
+    static FessAnalysisPlugin plugin(final Settings settings, final Environment env) {
+        final FessAnalysisPlugin plugin = new FessAnalysisPlugin();
+        BenchmarkServiceFactory.create(settings, pluginComponent(plugin, env), classLoaders());
+        return plugin;
+    }
+
+    static FessAnalysisService fessAnalysisService(final FessAnalysisPlugin plugin, final Environment env) {
+        return pluginComponent(plugin, env).getFessAnalysisService();
+    }
+
+    private static FessAnalysisPlugin.PluginComponent pluginComponent(final FessAnalysisPlugin plugin, final Environment env) {
+        return (FessAnalysisPlugin.PluginComponent) plugin.createComponents(null, null, null, null, null, null, env, null, null, null, null)
+                .iterator()
+                .next();
+    }
+
+    static List<ClassLoader> classLoaders() {
+        final ClassLoader parent = AnalysisBenchmarkSupport.class.getClassLoader();
+        final List<ClassLoader> loaders = new ArrayList<>();
+        final String pluginsDir = System.getProperty(PLUGINS_DIR_PROPERTY);
+        if (pluginsDir != null && !pluginsDir.isBlank()) {
+            try (Stream<Path> plugins = Files.list(Paths.get(pluginsDir))) {
+                for (final Path plugin : plugins.filter(Files::isDirectory).sorted().toList()) {
+                    loaders.add(new URLClassLoader(jars(plugin), parent));
+                }
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        loaders.add(parent);
+        return loaders;
+    }
+
+    private static URL[] jars(final Path plugin) throws IOException {
+        try (Stream<Path> files = Files.list(plugin)) {
+            return files.filter(p -> p.getFileName().toString().endsWith(".jar")).map(p -> {
+                try {
+                    return p.toUri().toURL();
+                } catch (final MalformedURLException e) {
+                    throw new IllegalStateException(e);
+                }
+            }).toArray(URL[]::new);
+        }
+    }
+
+    /**
+     * Consumes the stream and returns the number of tokens.
+     */
+    static long consume(final Tokenizer tokenizer, final TokenStream stream, final Reader reader) throws IOException {
+        long tokens = 0;
+        tokenizer.setReader(reader);
+        stream.reset();
+        while (stream.incrementToken()) {
+            tokens++;
+        }
+        stream.end();
+        stream.close();
+        return tokens;
+    }
+
+    /**
+     * Reads the reader to the end and returns the number of characters.
+     */
+    static long consume(final Reader reader, final char[] buffer) throws IOException {
+        long chars = 0;
+        int len;
+        while ((len = reader.read(buffer, 0, buffer.length)) != -1) {
+            chars += len;
+        }
+        reader.close();
+        return chars;
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.benchmark;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+import org.codelibs.opensearch.fess.FessAnalysisPlugin;
+import org.codelibs.opensearch.fess.service.FessAnalysisService;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.env.Environment;
+import org.opensearch.index.IndexSettings;
+import org.opensearch.index.analysis.CharFilterFactory;
+import org.opensearch.index.analysis.TokenFilterFactory;
+import org.opensearch.index.analysis.TokenizerFactory;
+import org.opensearch.indices.analysis.AnalysisModule.AnalysisProvider;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Analyzes a corpus document with each component registered by
+ * {@link FessAnalysisPlugin}. Token filters read from a {@link StandardTokenizer}.
+ * The {@code tokens} and {@code chars} counters give the per-token and
+ * per-character throughput; run with {@code -prof gc} for allocation rates.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AnalysisComponentBenchmark {
+
+    @Param({ "fess_japanese_tokenizer", "fess_japanese_reloadable_tokenizer", "fess_korean_tokenizer", "fess_vietnamese_tokenizer",
+            "fess_simplified_chinese_tokenizer", "fess_multilingual_tokenizer", "fess_japanese_baseform", "fess_japanese_part_of_speech",
+            "fess_japanese_readingform", "fess_japanese_stemmer", "fess_japanese_fused", "fess_japanese_iteration_mark",
+            "fess_traditional_chinese_convert" })
+    public String component;
+
+    @Param({ "ja", "ko", "zh", "vi" })
+    public String corpus;
+
+    /** Tokenizer fallback used when the delegate is not installed. */
+    @Param({ "empty" })
+    public String fallback;
+
+    /** The {@code engine} setting of the components that have one. */
+    @Param({ "delegate" })
+    public String engine;
+
+    private String text;
+
+    private Tokenizer tokenizer;
+
+    private TokenStream tokenStream;
+
+    private CharFilterFactory charFilterFactory;
+
+    private final char[] buffer = new char[1024];
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Counters {
+
+        public long tokens;
+
+        public long chars;
+
+        @Setup(Level.Iteration)
+        public void clean() {
+            tokens = 0;
+            chars = 0;
+        }
+    }
+
+    @Setup
+    public void setup() throws IOException {
+        text = AnalysisBenchmarkSupport.corpus(corpus);
+        final Environment env = AnalysisBenchmarkSupport.environment();
+        final IndexSettings indexSettings = AnalysisBenchmarkSupport.indexSettings();
+        final Settings settings = Settings.builder().put(FessAnalysisService.FALLBACK_SETTING.getKey(), fallback).build();
+        final FessAnalysisPlugin plugin = AnalysisBenchmarkSupport.plugin(settings, env);
+        final Settings componentSettings = Settings.builder().put("engine", engine).build();
+
+        final AnalysisProvider<TokenizerFactory> tokenizerProvider = plugin.getTokenizers().get(component);
+        if (tokenizerProvider != null) {
+            tokenizer = tokenizerProvider.get(indexSettings, env, component, componentSettings).create();
+            tokenStream = tokenizer;
+            return;
+        }
+        final AnalysisProvider<TokenFilterFactory> tokenFilterProvider = plugin.getTokenFilters().get(component);
+        if (tokenFilterProvider != null) {
+            tokenizer = new StandardTokenizer();
+            tokenStream = tokenFilterProvider.get(indexSettings, env, component, componentSettings).create(tokenizer);
+            return;
+        }
+        final AnalysisProvider<CharFilterFactory> charFilterProvider = plugin.getCharFilters().get(component);
+        if (charFilterProvider != null) {
+            charFilterFactory = charFilterProvider.get(indexSettings, env, component, componentSettings);
+            return;
+        }
+        throw new IllegalArgumentException("Unknown component: " + component);
+    }
+
+    @Benchmark
+    public long analyze(final Counters counters) throws IOException {
+        if (charFilterFactory != null) {
+            final long chars = AnalysisBenchmarkSupport.consume(charFilterFactory.create(new StringReader(text)), buffer);
+            counters.chars += chars;
+            return chars;
+        }
+        final long tokens = AnalysisBenchmarkSupport.consume(tokenizer, tokenStream, new StringReader(text));
+        counters.tokens += tokens;
+        counters.chars += text.length();
+        return tokens;
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.benchmark;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+import org.codelibs.opensearch.fess.FessAnalysisPlugin;
+import org.codelibs.opensearch.fess.analysis.ChineseConvertDictionary;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.env.Environment;
+import org.opensearch.index.analysis.CharFilterFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the engines of fess_traditional_chinese_convert on the zh corpus.
+ * The t2s input is the s2t conversion of the corpus. The delegate engine
+ * needs the STConvert plugin on the class path or in
+ * {@code -Dbenchmark.plugins}; otherwise it measures the pass-through reader.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ChineseConvertBenchmark {
+
+    private static final String COMPONENT = "fess_traditional_chinese_convert";
+
+    @Param({ "delegate", "native" })
+    public String engine;
+
+    @Param({ "s2t", "t2s" })
+    public String convertType;
+
+    private String text;
+
+    private CharFilterFactory charFilterFactory;
+
+    private final char[] buffer = new char[1024];
+
+    @Setup
+    public void setup() throws IOException {
+        final String corpus = AnalysisBenchmarkSupport.corpus("zh");
+        if (ChineseConvertDictionary.Type.of(convertType) == ChineseConvertDictionary.Type.T2S) {
+            text = ChineseConvertDictionary.get(ChineseConvertDictionary.Type.S2T).convert(corpus);
+        } else {
+            text = corpus;
+        }
+        final Environment env = AnalysisBenchmarkSupport.environment();
+        final FessAnalysisPlugin plugin = AnalysisBenchmarkSupport.plugin(Settings.EMPTY, env);
+        final Settings settings = Settings.builder().put("engine", engine).put("convert_type", convertType).build();
+        charFilterFactory = plugin.getCharFilters().get(COMPONENT).get(AnalysisBenchmarkSupport.indexSettings(), env, COMPONENT, settings);
+    }
+
+    @Benchmark
+    public long convert() throws IOException {
+        return AnalysisBenchmarkSupport.consume(charFilterFactory.create(new StringReader(text)), buffer);
+    }
+}
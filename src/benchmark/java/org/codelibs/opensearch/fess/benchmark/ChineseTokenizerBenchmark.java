@@ -0,0 +1,80 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.benchmark;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.cn.smart.HMMChineseTokenizer;
+import org.codelibs.opensearch.fess.FessAnalysisPlugin;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.env.Environment;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the native engine of fess_simplified_chinese_tokenizer in each
+ * mode with the SmartCN tokenizer that the delegate engine wraps, on the zh
+ * corpus. SmartCN is measured directly from lucene-analysis-smartcn, which
+ * the benchmark profile puts on the class path.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ChineseTokenizerBenchmark {
+
+    private static final String COMPONENT = "fess_simplified_chinese_tokenizer";
+
+    /** {@code smartcn}, or a mode of the native engine. */
+    @Param({ "smartcn", "forward", "backward", "bidirectional" })
+    public String tokenizer;
+
+    private String text;
+
+    private Tokenizer instance;
+
+    @Setup
+    public void setup() throws IOException {
+        text = AnalysisBenchmarkSupport.corpus("zh");
+        if ("smartcn".equals(tokenizer)) {
+            instance = new HMMChineseTokenizer();
+            return;
+        }
+        final Environment env = AnalysisBenchmarkSupport.environment();
+        final FessAnalysisPlugin plugin = AnalysisBenchmarkSupport.plugin(Settings.EMPTY, env);
+        final Settings settings = Settings.builder().put("engine", "native").put("mode", tokenizer).build();
+        instance = plugin.getTokenizers().get(COMPONENT).get(AnalysisBenchmarkSupport.indexSettings(), env, COMPONENT, settings).create();
+    }
+
+    @Benchmark
+    public long analyze() throws IOException {
+        return AnalysisBenchmarkSupport.consume(instance, instance, new StringReader(text));
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.benchmark;
+
+import java.lang.reflect.Constructor;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.lucene.analysis.Tokenizer;
+import org.codelibs.opensearch.fess.FessAnalysisPlugin;
+import org.codelibs.opensearch.fess.analysis.EmptyTokenizer;
+import org.codelibs.opensearch.fess.service.FessAnalysisService;
+import org.opensearch.OpenSearchException;
+import org.opensearch.Version;
+import org.opensearch.cluster.metadata.IndexMetadata;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.env.Environment;
+import org.opensearch.index.IndexSettings;
+import org.opensearch.index.analysis.TokenizerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the reflective, privileged delegate instantiation used by the
+ * factories before with the cached constructor handles of {@link FessAnalysisService}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DelegateInstantiationBenchmark {
+
+    private FessAnalysisService fessAnalysisService;
+
+    private IndexSettings indexSettings;
+
+    private Settings settings;
+
+    @Setup
+    public void setup() {
+        fessAnalysisService = new FessAnalysisService(Settings.EMPTY, null, new FessAnalysisPlugin.PluginComponent());
+        indexSettings = new IndexSettings(IndexMetadata.builder("benchmark")
+                .settings(Settings.builder()
+                        .put(IndexMetadata.SETTING_VERSION_CREATED, Version.CURRENT)
+                        .put(IndexMetadata.SETTING_NUMBER_OF_SHARDS, 1)
+                        .put(IndexMetadata.SETTING_NUMBER_OF_REPLICAS, 0))
+                .build(), Settings.EMPTY);
+        settings = Settings.builder().put("mode", "search").build();
+    }
+
+    @Benchmark
+    public TokenizerFactory reflection() {
+        final Class<?> tokenizerFactoryClass = BenchmarkTokenizerFactory.class;
+        return AccessController.doPrivileged((PrivilegedAction<TokenizerFactory>) () -> {
+            try {
+                final Constructor<?> constructor =
+                        tokenizerFactoryClass.getConstructor(IndexSettings.class, Environment.class, String.class, Settings.class);
+                return (TokenizerFactory) constructor.newInstance(indexSettings, null, "benchmark", settings);
+            } catch (final Exception e) {
+                throw new OpenSearchException("Failed to load " + tokenizerFactoryClass.getName(), e);
+            }
+        });
+    }
+
+    @Benchmark
+    public TokenizerFactory methodHandle() {
+        return fessAnalysisService.newInstance(BenchmarkTokenizerFactory.class, TokenizerFactory.class, indexSettings, null, "benchmark",
+                settings);
+    }
+
+    /**
+     * A delegate with a trivial constructor, so that only the instantiation
+     * path itself is measured.
+     */
+    public static class BenchmarkTokenizerFactory implements TokenizerFactory {
+
+        private final String name;
+
+        public BenchmarkTokenizerFactory(final IndexSettings indexSettings, final Environment env, final String name,
+                final Settings settings) {
+            this.name = name;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public Tokenizer create() {
+            return new EmptyTokenizer();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.benchmark;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.codelibs.opensearch.fess.FessAnalysisPlugin;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.env.Environment;
+import org.opensearch.index.IndexSettings;
+import org.opensearch.index.analysis.TokenFilterFactory;
+import org.opensearch.indices.analysis.AnalysisModule.AnalysisProvider;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares fess_japanese_fused with the chain of fess_japanese_baseform,
+ * fess_japanese_part_of_speech, fess_japanese_stemmer and, with
+ * {@code readingForm}, fess_japanese_readingform on the ja corpus. The
+ * {@code tokens} counter gives the time per token. Kuromoji must be on the
+ * class path or in {@code -Dbenchmark.plugins}; otherwise both run over the
+ * bigram fallback, and the chained wrappers pass tokens through.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JapaneseFusedFilterBenchmark {
+
+    @Param({ "chained", "fused" })
+    public String filter;
+
+    @Param({ "false", "true" })
+    public boolean readingForm;
+
+    private String text;
+
+    private Tokenizer tokenizer;
+
+    private TokenStream stream;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Counters {
+
+        public long tokens;
+
+        @Setup(Level.Iteration)
+        public void clean() {
+            tokens = 0;
+        }
+    }
+
+    @Setup
+    public void setup() {
+        text = AnalysisBenchmarkSupport.corpus("ja");
+        final Environment env = AnalysisBenchmarkSupport.environment();
+        final IndexSettings indexSettings = AnalysisBenchmarkSupport.indexSettings();
+        final FessAnalysisPlugin plugin = AnalysisBenchmarkSupport.plugin(Settings.EMPTY, env);
+        final Map<String, AnalysisProvider<TokenFilterFactory>> filters = plugin.getTokenFilters();
+        try {
+            tokenizer = plugin.getTokenizers()
+                    .get("fess_japanese_tokenizer")
+                    .get(indexSettings, env, "tokenizer", Settings.builder().put("fallback", "bigram").build())
+                    .create();
+            if ("fused".equals(filter)) {
+                final Settings settings = Settings.builder().put("reading_form", readingForm).build();
+                stream = create(filters, "fess_japanese_fused", indexSettings, env, settings, tokenizer);
+            } else {
+                stream = create(filters, "fess_japanese_baseform", indexSettings, env, Settings.EMPTY, tokenizer);
+                stream = create(filters, "fess_japanese_part_of_speech", indexSettings, env, Settings.EMPTY, stream);
+                stream = create(filters, "fess_japanese_stemmer", indexSettings, env, Settings.EMPTY, stream);
+                if (readingForm) {
+                    stream = create(filters, "fess_japanese_readingform", indexSettings, env, Settings.EMPTY, stream);
+                }
+            }
+        } catch (final IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static TokenStream create(final Map<String, AnalysisProvider<TokenFilterFactory>> filters, final String type,
+            final IndexSettings indexSettings, final Environment env, final Settings settings, final TokenStream input)
+            throws IOException {
+        return filters.get(type).get(indexSettings, env, type, settings).create(input);
+    }
+
+    @Benchmark
+    public long analyze(final Counters counters) throws IOException {
+        final long tokens = AnalysisBenchmarkSupport.consume(tokenizer, stream, new StringReader(text));
+        counters.tokens += tokens;
+        return tokens;
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.benchmark;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.core.WhitespaceTokenizer;
+import org.codelibs.opensearch.fess.FessAnalysisPlugin;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.env.Environment;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures fess_japanese_readingform with {@code use_romaji} on the katakana
+ * words of the ja corpus, which the filter romanizes when the tokenizer
+ * provides no readings. The delegate engine needs the Kuromoji plugin on the
+ * class path or in {@code -Dbenchmark.plugins}; otherwise it measures the
+ * pass-through filter.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ReadingFormBenchmark {
+
+    private static final String COMPONENT = "fess_japanese_readingform";
+
+    @Param({ "delegate", "native" })
+    public String engine;
+
+    @Param({ "hepburn" })
+    public String romajiType;
+
+    /** The romaji cache of the native engine. */
+    @Param({ "0", "256" })
+    public int cacheSize;
+
+    private String text;
+
+    private Tokenizer tokenizer;
+
+    private TokenStream tokenStream;
+
+    @Setup
+    public void setup() throws IOException {
+        final StringBuilder words = new StringBuilder();
+        final Matcher matcher = Pattern.compile("\\p{IsKatakana}+").matcher(AnalysisBenchmarkSupport.corpus("ja"));
+        while (matcher.find()) {
+            words.append(matcher.group()).append(' ');
+        }
+        text = words.toString();
+        final Environment env = AnalysisBenchmarkSupport.environment();
+        final FessAnalysisPlugin plugin = AnalysisBenchmarkSupport.plugin(Settings.EMPTY, env);
+        final Settings settings = Settings.builder()
+                .put("engine", engine)
+                .put("use_romaji", true)
+                .put("romaji_type", romajiType)
+                .put("romaji_cache_size", cacheSize)
+                .build();
+        tokenizer = new WhitespaceTokenizer();
+        tokenStream = plugin.getTokenFilters()
+                .get(COMPONENT)
+                .get(AnalysisBenchmarkSupport.indexSettings(), env, COMPONENT, settings)
+                .create(tokenizer);
+    }
+
+    @Benchmark
+    public long analyze() throws IOException {
+        return AnalysisBenchmarkSupport.consume(tokenizer, tokenStream, new StringReader(text));
+    }
+}
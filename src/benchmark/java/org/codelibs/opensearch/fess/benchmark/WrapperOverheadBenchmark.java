@@ -0,0 +1,232 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.benchmark;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.charfilter.MappingCharFilter;
+import org.apache.lucene.analysis.charfilter.NormalizeCharMap;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+import org.codelibs.opensearch.fess.FessAnalysisPlugin;
+import org.codelibs.opensearch.fess.index.analysis.AbstractFessCharFilterFactory;
+import org.codelibs.opensearch.fess.index.analysis.AbstractFessTokenFilterFactory;
+import org.codelibs.opensearch.fess.index.analysis.AbstractFessTokenizerFactory;
+import org.codelibs.opensearch.fess.service.FessAnalysisService;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.env.Environment;
+import org.opensearch.index.IndexSettings;
+import org.opensearch.index.analysis.CharFilterFactory;
+import org.opensearch.index.analysis.TokenFilterFactory;
+import org.opensearch.index.analysis.TokenizerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of the Fess wrapper factories over calling the same
+ * delegate directly, with and without analysis statistics.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class WrapperOverheadBenchmark {
+
+    @Param({ "false", "true" })
+    public boolean stats;
+
+    @Param({ "ja" })
+    public String corpus;
+
+    private String text;
+
+    private Tokenizer delegateTokenizer;
+
+    private Tokenizer wrapperTokenizer;
+
+    private Tokenizer delegateSource;
+
+    private TokenStream delegateTokenFilter;
+
+    private Tokenizer wrapperSource;
+
+    private TokenStream wrapperTokenFilter;
+
+    private CharFilterFactory delegateCharFilterFactory;
+
+    private CharFilterFactory wrapperCharFilterFactory;
+
+    private final char[] buffer = new char[1024];
+
+    @Setup
+    public void setup() {
+        text = AnalysisBenchmarkSupport.corpus(corpus);
+        final Environment env = AnalysisBenchmarkSupport.environment();
+        final IndexSettings indexSettings = AnalysisBenchmarkSupport.indexSettings();
+        final Settings settings = Settings.builder().put(FessAnalysisService.STATS_ENABLED_SETTING.getKey(), stats).build();
+        final FessAnalysisPlugin plugin = AnalysisBenchmarkSupport.plugin(settings, env);
+        final FessAnalysisService fessAnalysisService = AnalysisBenchmarkSupport.fessAnalysisService(plugin, env);
+
+        delegateTokenizer = new TokenizerDelegate(indexSettings, env, "tokenizer", Settings.EMPTY).create();
+        wrapperTokenizer = new WrapperTokenizerFactory(indexSettings, env, "tokenizer", Settings.EMPTY, fessAnalysisService).create();
+
+        delegateSource = new StandardTokenizer();
+        delegateTokenFilter = new TokenFilterDelegate(indexSettings, env, "filter", Settings.EMPTY).create(delegateSource);
+        wrapperSource = new StandardTokenizer();
+        wrapperTokenFilter =
+                new WrapperTokenFilterFactory(indexSettings, env, "filter", Settings.EMPTY, fessAnalysisService).create(wrapperSource);
+
+        delegateCharFilterFactory = new CharFilterDelegate(indexSettings, env, "char_filter", Settings.EMPTY);
+        wrapperCharFilterFactory = new WrapperCharFilterFactory(indexSettings, env, "char_filter", Settings.EMPTY, fessAnalysisService);
+    }
+
+    @Benchmark
+    public long tokenizerDelegate() throws IOException {
+        return AnalysisBenchmarkSupport.consume(delegateTokenizer, delegateTokenizer, new StringReader(text));
+    }
+
+    @Benchmark
+    public long tokenizerWrapper() throws IOException {
+        return AnalysisBenchmarkSupport.consume(wrapperTokenizer, wrapperTokenizer, new StringReader(text));
+    }
+
+    @Benchmark
+    public long tokenFilterDelegate() throws IOException {
+        return AnalysisBenchmarkSupport.consume(delegateSource, delegateTokenFilter, new StringReader(text));
+    }
+
+    @Benchmark
+    public long tokenFilterWrapper() throws IOException {
+        return AnalysisBenchmarkSupport.consume(wrapperSource, wrapperTokenFilter, new StringReader(text));
+    }
+
+    @Benchmark
+    public long charFilterDelegate() throws IOException {
+        return AnalysisBenchmarkSupport.consume(delegateCharFilterFactory.create(new StringReader(text)), buffer);
+    }
+
+    @Benchmark
+    public long charFilterWrapper() throws IOException {
+        return AnalysisBenchmarkSupport.consume(wrapperCharFilterFactory.create(new StringReader(text)), buffer);
+    }
+
+    public static class TokenizerDelegate implements TokenizerFactory {
+
+        private final String name;
+
+        public TokenizerDelegate(final IndexSettings indexSettings, final Environment env, final String name, final Settings settings) {
+            this.name = name;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public Tokenizer create() {
+            return new StandardTokenizer();
+        }
+    }
+
+    public static class TokenFilterDelegate implements TokenFilterFactory {
+
+        private final String name;
+
+        public TokenFilterDelegate(final IndexSettings indexSettings, final Environment env, final String name,
+                final Settings settings) {
+            this.name = name;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public TokenStream create(final TokenStream tokenStream) {
+            return new LowerCaseFilter(tokenStream);
+        }
+    }
+
+    public static class CharFilterDelegate implements CharFilterFactory {
+
+        private static final NormalizeCharMap CHAR_MAP;
+
+        static {
+            final NormalizeCharMap.Builder builder = new NormalizeCharMap.Builder();
+            builder.add("ゝ", "");
+            builder.add("ゞ", "");
+            CHAR_MAP = builder.build();
+        }
+
+        private final String name;
+
+        public CharFilterDelegate(final IndexSettings indexSettings, final Environment env, final String name, final Settings settings) {
+            this.name = name;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public Reader create(final Reader reader) {
+            return new MappingCharFilter(CHAR_MAP, reader);
+        }
+    }
+
+    public static class WrapperTokenizerFactory extends AbstractFessTokenizerFactory {
+
+        public WrapperTokenizerFactory(final IndexSettings indexSettings, final Environment env, final String name,
+                final Settings settings, final FessAnalysisService fessAnalysisService) {
+            super(indexSettings, env, name, settings, fessAnalysisService, TokenizerDelegate.class.getName());
+        }
+    }
+
+    public static class WrapperTokenFilterFactory extends AbstractFessTokenFilterFactory {
+
+        public WrapperTokenFilterFactory(final IndexSettings indexSettings, final Environment env, final String name,
+                final Settings settings, final FessAnalysisService fessAnalysisService) {
+            super(indexSettings, env, name, settings, fessAnalysisService, TokenFilterDelegate.class.getName());
+        }
+    }
+
+    public static class WrapperCharFilterFactory extends AbstractFessCharFilterFactory {
+
+        public WrapperCharFilterFactory(final IndexSettings indexSettings, final Environment env, final String name,
+                final Settings settings, final FessAnalysisService fessAnalysisService) {
+            super(indexSettings, env, name, settings, fessAnalysisService, CharFilterDelegate.class.getName());
+        }
+    }
+}
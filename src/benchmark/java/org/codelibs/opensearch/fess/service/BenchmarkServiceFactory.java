@@ -0,0 +1,38 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.service;
+
+import java.util.List;
+
+import org.codelibs.opensearch.fess.FessAnalysisPlugin;
+import org.opensearch.common.settings.Settings;
+
+/**
+ * Creates a {@link FessAnalysisService} outside of a node, resolving
+ * delegates from the given class loaders instead of the installed plugins.
+ */
+public final class BenchmarkServiceFactory {
+
+    private BenchmarkServiceFactory() {
+    }
+
+    public static FessAnalysisService create(final Settings settings, final FessAnalysisPlugin.PluginComponent pluginComponent,
+            final List<ClassLoader> classLoaders) {
+        final FessAnalysisService fessAnalysisService = new FessAnalysisService(settings, null, pluginComponent);
+        fessAnalysisService.initClassIndex(classLoaders);
+        return fessAnalysisService;
+    }
+}
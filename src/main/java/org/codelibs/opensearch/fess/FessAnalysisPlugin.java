@@ -20,45 +20,78 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Supplier;
 
+import org.codelibs.opensearch.fess.action.BulkAnalyzeAction;
+import org.codelibs.opensearch.fess.action.FessAnalysisProfileAction;
+import org.codelibs.opensearch.fess.action.FessAnalysisStatsAction;
+import org.codelibs.opensearch.fess.action.TransportBulkAnalyzeAction;
+import org.codelibs.opensearch.fess.action.TransportFessAnalysisProfileAction;
+import org.codelibs.opensearch.fess.action.TransportFessAnalysisStatsAction;
 import org.codelibs.opensearch.fess.index.analysis.ChineseTokenizerFactory;
 import org.codelibs.opensearch.fess.index.analysis.JapaneseBaseFormFilterFactory;
+import org.codelibs.opensearch.fess.index.analysis.JapaneseFusedFilterFactory;
 import org.codelibs.opensearch.fess.index.analysis.JapaneseIterationMarkCharFilterFactory;
 import org.codelibs.opensearch.fess.index.analysis.JapaneseKatakanaStemmerFactory;
 import org.codelibs.opensearch.fess.index.analysis.JapanesePartOfSpeechFilterFactory;
 import org.codelibs.opensearch.fess.index.analysis.JapaneseReadingFormFilterFactory;
 import org.codelibs.opensearch.fess.index.analysis.JapaneseTokenizerFactory;
 import org.codelibs.opensearch.fess.index.analysis.KoreanTokenizerFactory;
+import org.codelibs.opensearch.fess.index.analysis.MultilingualTokenizerFactory;
 import org.codelibs.opensearch.fess.index.analysis.ReloadableJapaneseTokenizerFactory;
 import org.codelibs.opensearch.fess.index.analysis.TraditionalChineseConvertCharFilterFactory;
 import org.codelibs.opensearch.fess.index.analysis.VietnameseTokenizerFactory;
+import org.codelibs.opensearch.fess.rest.RestBulkAnalyzeAction;
+import org.codelibs.opensearch.fess.rest.RestFessAnalysisProfileAction;
+import org.codelibs.opensearch.fess.rest.RestFessAnalysisStatsAction;
 import org.codelibs.opensearch.fess.service.FessAnalysisService;
+import org.codelibs.opensearch.fess.stats.AnalysisProfiler;
+import org.codelibs.opensearch.fess.stats.AnalysisSlowLog;
+import org.opensearch.action.ActionRequest;
 import org.opensearch.cluster.metadata.IndexNameExpressionResolver;
+import org.opensearch.cluster.node.DiscoveryNodes;
 import org.opensearch.cluster.service.ClusterService;
 import org.opensearch.common.lifecycle.LifecycleComponent;
+import org.opensearch.common.settings.ClusterSettings;
+import org.opensearch.common.settings.IndexScopedSettings;
+import org.opensearch.common.settings.Setting;
 import org.opensearch.common.settings.Settings;
+import org.opensearch.common.settings.SettingsFilter;
+import org.opensearch.common.util.concurrent.OpenSearchExecutors;
+import org.opensearch.core.action.ActionResponse;
 import org.opensearch.core.common.io.stream.NamedWriteableRegistry;
+import org.opensearch.core.index.Index;
 import org.opensearch.core.xcontent.NamedXContentRegistry;
 import org.opensearch.env.Environment;
 import org.opensearch.env.NodeEnvironment;
+import org.opensearch.index.IndexModule;
+import org.opensearch.index.IndexService;
+import org.opensearch.index.IndexSettings;
 import org.opensearch.index.analysis.CharFilterFactory;
 import org.opensearch.index.analysis.TokenFilterFactory;
 import org.opensearch.index.analysis.TokenizerFactory;
+import org.opensearch.index.shard.IndexEventListener;
 import org.opensearch.indices.SystemIndexDescriptor;
 import org.opensearch.indices.analysis.AnalysisModule.AnalysisProvider;
+import org.opensearch.indices.cluster.IndicesClusterStateService.AllocatedIndices.IndexRemovalReason;
+import org.opensearch.plugins.ActionPlugin;
 import org.opensearch.plugins.AnalysisPlugin;
 import org.opensearch.plugins.MapperPlugin;
 import org.opensearch.plugins.Plugin;
 import org.opensearch.plugins.SystemIndexPlugin;
 import org.opensearch.repositories.RepositoriesService;
+import org.opensearch.rest.RestController;
+import org.opensearch.rest.RestHandler;
 import org.opensearch.script.ScriptService;
+import org.opensearch.threadpool.ExecutorBuilder;
+import org.opensearch.threadpool.FixedExecutorBuilder;
 import org.opensearch.threadpool.ThreadPool;
 import org.opensearch.transport.client.Client;
 import org.opensearch.watcher.ResourceWatcherService;
 
-public class FessAnalysisPlugin extends Plugin implements AnalysisPlugin, MapperPlugin, SystemIndexPlugin {
+public class FessAnalysisPlugin extends Plugin implements ActionPlugin, AnalysisPlugin, MapperPlugin, SystemIndexPlugin {
 
     private final PluginComponent pluginComponent = new PluginComponent();
 
@@ -74,11 +107,106 @@ public class FessAnalysisPlugin extends Plugin implements AnalysisPlugin, Mapper
             ResourceWatcherService resourceWatcherService, ScriptService scriptService, NamedXContentRegistry xContentRegistry,
             Environment environment, NodeEnvironment nodeEnvironment, NamedWriteableRegistry namedWriteableRegistry,
             IndexNameExpressionResolver indexNameExpressionResolver, Supplier<RepositoriesService> repositoriesServiceSupplier) {
+        pluginComponent.setThreadPool(threadPool);
+        pluginComponent.setEnvironment(environment);
+        pluginComponent.setNodeEnvironment(nodeEnvironment);
+        pluginComponent.setResourceWatcherService(resourceWatcherService);
+        final AnalysisProfiler profiler = new AnalysisProfiler(clusterService.getSettings());
+        clusterService.getClusterSettings()
+                .addSettingsUpdateConsumer(AnalysisProfiler.SAMPLE_INTERVAL_SETTING, profiler::setSampleInterval);
+        pluginComponent.setAnalysisProfiler(profiler);
         final Collection<Object> components = new ArrayList<>();
         components.add(pluginComponent);
         return components;
     }
 
+    @Override
+    public List<ActionHandler<? extends ActionRequest, ? extends ActionResponse>> getActions() {
+        return Arrays.asList(//
+                new ActionHandler<>(FessAnalysisStatsAction.INSTANCE, TransportFessAnalysisStatsAction.class), //
+                new ActionHandler<>(BulkAnalyzeAction.INSTANCE, TransportBulkAnalyzeAction.class), //
+                new ActionHandler<>(FessAnalysisProfileAction.INSTANCE, TransportFessAnalysisProfileAction.class));
+    }
+
+    @Override
+    public List<RestHandler> getRestHandlers(final Settings settings, final RestController restController,
+            final ClusterSettings clusterSettings, final IndexScopedSettings indexScopedSettings, final SettingsFilter settingsFilter,
+            final IndexNameExpressionResolver indexNameExpressionResolver, final Supplier<DiscoveryNodes> nodesInCluster) {
+        return Arrays.asList(//
+                new RestFessAnalysisStatsAction(), //
+                new RestBulkAnalyzeAction(), //
+                new RestFessAnalysisProfileAction());
+    }
+
+    @Override
+    public List<ExecutorBuilder<?>> getExecutorBuilders(final Settings settings) {
+        final int processors = OpenSearchExecutors.allocatedProcessors(settings);
+        return List.of(
+                new FixedExecutorBuilder(settings, TransportBulkAnalyzeAction.EXECUTOR, processors, 1000,
+                        "thread_pool." + TransportBulkAnalyzeAction.EXECUTOR),
+                // callers run rejected segments themselves, so a short queue suffices
+                new FixedExecutorBuilder(settings, FessAnalysisService.PARALLEL_EXECUTOR, processors, 100,
+                        "thread_pool." + FessAnalysisService.PARALLEL_EXECUTOR));
+    }
+
+    @Override
+    public List<Setting<?>> getSettings() {
+        return Arrays.asList(//
+                FessAnalysisService.SHARED_DELEGATES_SETTING, //
+                FessAnalysisService.LAZY_DELEGATES_SETTING, //
+                FessAnalysisService.FALLBACK_SETTING, //
+                FessAnalysisService.STATS_ENABLED_SETTING, //
+                FessAnalysisService.USER_DICTIONARY_RELOAD_SETTING, //
+                FessAnalysisService.QUERY_CACHE_SIZE_SETTING, //
+                FessAnalysisService.BULK_ANALYZE_MAX_TEXTS_SETTING, //
+                FessAnalysisService.PREWARM_ENABLED_SETTING, //
+                FessAnalysisService.PREWARM_TEXT_SETTING, //
+                FessAnalysisService.PREWARM_ITERATIONS_SETTING, //
+                AnalysisSlowLog.WARN_THRESHOLD_SETTING, //
+                AnalysisSlowLog.INFO_THRESHOLD_SETTING, //
+                AnalysisSlowLog.DEBUG_THRESHOLD_SETTING, //
+                AnalysisSlowLog.TRACE_THRESHOLD_SETTING, //
+                AnalysisSlowLog.SAMPLE_INTERVAL_SETTING, //
+                AnalysisProfiler.SAMPLE_INTERVAL_SETTING);
+    }
+
+    @Override
+    public void onIndexModule(final IndexModule indexModule) {
+        final AnalysisSlowLog slowLog = new AnalysisSlowLog(indexModule.getIndex(), indexModule.getSettings());
+        indexModule.addSettingsUpdateConsumer(AnalysisSlowLog.WARN_THRESHOLD_SETTING, slowLog::setWarnThreshold);
+        indexModule.addSettingsUpdateConsumer(AnalysisSlowLog.INFO_THRESHOLD_SETTING, slowLog::setInfoThreshold);
+        indexModule.addSettingsUpdateConsumer(AnalysisSlowLog.DEBUG_THRESHOLD_SETTING, slowLog::setDebugThreshold);
+        indexModule.addSettingsUpdateConsumer(AnalysisSlowLog.TRACE_THRESHOLD_SETTING, slowLog::setTraceThreshold);
+        indexModule.addSettingsUpdateConsumer(AnalysisSlowLog.SAMPLE_INTERVAL_SETTING, slowLog::setSampleInterval);
+        // temporary index services, e.g. those validating a mapping, are closed without an event, so only the index services
+        // that the node has created register shared state, and release it when they are removed
+        indexModule.addIndexEventListener(new IndexEventListener() {
+            @Override
+            public void afterIndexCreated(final IndexService indexService) {
+                final FessAnalysisService fessAnalysisService = pluginComponent.getFessAnalysisService();
+                if (fessAnalysisService != null) {
+                    fessAnalysisService.addSlowLog(slowLog);
+                    fessAnalysisService.registerIndex(indexService);
+                }
+            }
+
+            @Override
+            public void afterIndexRemoved(final Index index, final IndexSettings indexSettings, final IndexRemovalReason reason) {
+                final FessAnalysisService fessAnalysisService = pluginComponent.getFessAnalysisService();
+                if (fessAnalysisService != null) {
+                    fessAnalysisService.unregisterIndex(index);
+                    fessAnalysisService.releaseDelegates(index);
+                    fessAnalysisService.releaseUserDictionaries(index);
+                    fessAnalysisService.clearQueryCache(index);
+                    fessAnalysisService.removeSlowLog(slowLog);
+                    if (reason == IndexRemovalReason.DELETED) {
+                        fessAnalysisService.removeStats(index);
+                    }
+                }
+            }
+        });
+    }
+
     @Override
     public Map<String, AnalysisProvider<CharFilterFactory>> getCharFilters() {
         final Map<String, AnalysisProvider<CharFilterFactory>> extra = new HashMap<>();
@@ -103,6 +231,8 @@ public class FessAnalysisPlugin extends Plugin implements AnalysisPlugin, Mapper
                 env, name, settings, pluginComponent.getFessAnalysisService()));
         extra.put("fess_japanese_stemmer", (indexSettings, env, name, settings) -> new JapaneseKatakanaStemmerFactory(indexSettings, env,
                 name, settings, pluginComponent.getFessAnalysisService()));
+        extra.put("fess_japanese_fused", (indexSettings, env, name, settings) -> new JapaneseFusedFilterFactory(indexSettings, env,
+                name, settings, pluginComponent.getFessAnalysisService()));
         return extra;
     }
 
@@ -120,6 +250,8 @@ public class FessAnalysisPlugin extends Plugin implements AnalysisPlugin, Mapper
                 name, settings, pluginComponent.getFessAnalysisService()));
         extra.put("fess_simplified_chinese_tokenizer", (indexSettings, env, name, settings) -> new ChineseTokenizerFactory(indexSettings,
                 env, name, settings, pluginComponent.getFessAnalysisService()));
+        extra.put("fess_multilingual_tokenizer", (indexSettings, env, name, settings) -> new MultilingualTokenizerFactory(indexSettings,
+                env, name, settings, pluginComponent.getFessAnalysisService()));
         return extra;
     }
 
@@ -139,6 +271,16 @@ public class FessAnalysisPlugin extends Plugin implements AnalysisPlugin, Mapper
     public static class PluginComponent {
         private FessAnalysisService fessAnalysisService;
 
+        private ThreadPool threadPool;
+
+        private Environment environment;
+
+        private NodeEnvironment nodeEnvironment;
+
+        private ResourceWatcherService resourceWatcherService;
+
+        private AnalysisProfiler analysisProfiler;
+
         public FessAnalysisService getFessAnalysisService() {
             return fessAnalysisService;
         }
@@ -146,5 +288,45 @@ public class FessAnalysisPlugin extends Plugin implements AnalysisPlugin, Mapper
         public void setFessAnalysisService(final FessAnalysisService fessAnalysisService) {
             this.fessAnalysisService = fessAnalysisService;
         }
+
+        public ThreadPool getThreadPool() {
+            return threadPool;
+        }
+
+        public void setThreadPool(final ThreadPool threadPool) {
+            this.threadPool = threadPool;
+        }
+
+        public Environment getEnvironment() {
+            return environment;
+        }
+
+        public void setEnvironment(final Environment environment) {
+            this.environment = environment;
+        }
+
+        public NodeEnvironment getNodeEnvironment() {
+            return nodeEnvironment;
+        }
+
+        public void setNodeEnvironment(final NodeEnvironment nodeEnvironment) {
+            this.nodeEnvironment = nodeEnvironment;
+        }
+
+        public ResourceWatcherService getResourceWatcherService() {
+            return resourceWatcherService;
+        }
+
+        public void setResourceWatcherService(final ResourceWatcherService resourceWatcherService) {
+            this.resourceWatcherService = resourceWatcherService;
+        }
+
+        public AnalysisProfiler getAnalysisProfiler() {
+            return analysisProfiler;
+        }
+
+        public void setAnalysisProfiler(final AnalysisProfiler analysisProfiler) {
+            this.analysisProfiler = analysisProfiler;
+        }
     }
 }
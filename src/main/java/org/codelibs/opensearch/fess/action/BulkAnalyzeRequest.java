@@ -0,0 +1,106 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.action;
+
+import static org.opensearch.action.ValidateActions.addValidationError;
+
+import java.io.IOException;
+
+import org.opensearch.action.ActionRequestValidationException;
+import org.opensearch.action.support.single.shard.SingleShardRequest;
+import org.opensearch.core.common.io.stream.StreamInput;
+import org.opensearch.core.common.io.stream.StreamOutput;
+
+/**
+ * Texts to analyze, each with the name of its analyzer. A null analyzer
+ * means the default {@link #analyzer()} of the request.
+ */
+public class BulkAnalyzeRequest extends SingleShardRequest<BulkAnalyzeRequest> {
+
+    private String analyzer;
+
+    private String[] texts = new String[0];
+
+    private String[] analyzers = new String[0];
+
+    public BulkAnalyzeRequest() {
+    }
+
+    public BulkAnalyzeRequest(final String index) {
+        super(index);
+    }
+
+    public BulkAnalyzeRequest(final StreamInput in) throws IOException {
+        super(in);
+        analyzer = in.readOptionalString();
+        texts = in.readStringArray();
+        analyzers = in.readArray(StreamInput::readOptionalString, String[]::new);
+    }
+
+    @Override
+    public void writeTo(final StreamOutput out) throws IOException {
+        super.writeTo(out);
+        out.writeOptionalString(analyzer);
+        out.writeStringArray(texts);
+        out.writeArray(StreamOutput::writeOptionalString, analyzers);
+    }
+
+    @Override
+    public ActionRequestValidationException validate() {
+        ActionRequestValidationException validationException = null;
+        if (texts.length == 0) {
+            validationException = addValidationError("texts is missing", validationException);
+        }
+        if (analyzers.length != texts.length) {
+            validationException = addValidationError("analyzers must have the same length as texts", validationException);
+        }
+        for (int i = 0; i < texts.length; i++) {
+            if (texts[i] == null) {
+                validationException = addValidationError("text [" + i + "] is missing", validationException);
+            } else if (analyzer == null && analyzers[i] == null) {
+                validationException = addValidationError("text [" + i + "] has no analyzer", validationException);
+            }
+        }
+        return validationException;
+    }
+
+    public String analyzer() {
+        return analyzer;
+    }
+
+    public BulkAnalyzeRequest analyzer(final String analyzer) {
+        this.analyzer = analyzer;
+        return this;
+    }
+
+    public String[] texts() {
+        return texts;
+    }
+
+    public String[] analyzers() {
+        return analyzers;
+    }
+
+    public BulkAnalyzeRequest texts(final String[] texts, final String[] analyzers) {
+        this.texts = texts;
+        this.analyzers = analyzers;
+        return this;
+    }
+
+    String analyzer(final int i) {
+        return analyzers[i] != null ? analyzers[i] : analyzer;
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.action;
+
+import java.io.IOException;
+
+import org.opensearch.core.action.ActionResponse;
+import org.opensearch.core.common.io.stream.StreamInput;
+import org.opensearch.core.common.io.stream.StreamOutput;
+import org.opensearch.core.xcontent.ToXContentObject;
+import org.opensearch.core.xcontent.XContentBuilder;
+
+/**
+ * The terms of each text of a {@link BulkAnalyzeRequest}, in request order.
+ */
+public class BulkAnalyzeResponse extends ActionResponse implements ToXContentObject {
+
+    private final String[][] terms;
+
+    private final long tookInMillis;
+
+    public BulkAnalyzeResponse(final String[][] terms, final long tookInMillis) {
+        this.terms = terms;
+        this.tookInMillis = tookInMillis;
+    }
+
+    public BulkAnalyzeResponse(final StreamInput in) throws IOException {
+        super(in);
+        terms = in.readArray(StreamInput::readStringArray, String[][]::new);
+        tookInMillis = in.readVLong();
+    }
+
+    @Override
+    public void writeTo(final StreamOutput out) throws IOException {
+        out.writeArray(StreamOutput::writeStringArray, terms);
+        out.writeVLong(tookInMillis);
+    }
+
+    @Override
+    public XContentBuilder toXContent(final XContentBuilder builder, final Params params) throws IOException {
+        builder.startObject();
+        builder.field("took", tookInMillis);
+        builder.startArray("tokens");
+        for (final String[] t : terms) {
+            builder.startArray();
+            for (final String term : t) {
+                builder.value(term);
+            }
+            builder.endArray();
+        }
+        builder.endArray();
+        builder.endObject();
+        return builder;
+    }
+
+    public String[][] getTerms() {
+        return terms;
+    }
+
+    public long getTookInMillis() {
+        return tookInMillis;
+    }
+}
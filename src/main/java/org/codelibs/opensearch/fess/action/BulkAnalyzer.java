@@ -0,0 +1,135 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.action;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.opensearch.OpenSearchException;
+
+/**
+ * Analyzes texts in chunks on the calling thread and on up to
+ * {@code parallelism - 1} helpers of an executor. Each thread pulls the next
+ * chunk, so a busy or rejecting executor only reduces parallelism. Analyzers
+ * reuse their token streams per thread, so a helper builds the components of
+ * an analyzer once and then only resets them.
+ */
+final class BulkAnalyzer {
+
+    static final int CHUNK_SIZE = 64;
+
+    private final Analyzer[] analyzers;
+
+    private final String[] texts;
+
+    private final int maxTokenCount;
+
+    private final String[][] terms;
+
+    private final int chunkCount;
+
+    private final AtomicInteger nextChunk = new AtomicInteger();
+
+    private final CountDownLatch done;
+
+    private final AtomicReference<Exception> failure = new AtomicReference<>();
+
+    /**
+     * @param analyzers the analyzer of each text
+     */
+    BulkAnalyzer(final Analyzer[] analyzers, final String[] texts, final int maxTokenCount) {
+        this.analyzers = analyzers;
+        this.texts = texts;
+        this.maxTokenCount = maxTokenCount;
+        terms = new String[texts.length][];
+        chunkCount = (texts.length + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        done = new CountDownLatch(chunkCount);
+    }
+
+    String[][] analyze(final Executor executor, final int parallelism) {
+        final int helpers = Math.min(parallelism, chunkCount) - 1;
+        for (int i = 0; i < helpers; i++) {
+            try {
+                executor.execute(this::run);
+            } catch (final RejectedExecutionException e) {
+                break;
+            }
+        }
+        run();
+        try {
+            done.await();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OpenSearchException("Interrupted while analyzing texts.", e);
+        }
+        final Exception e = failure.get();
+        if (e instanceof final RuntimeException re) {
+            throw re;
+        }
+        if (e != null) {
+            throw new OpenSearchException("Failed to analyze texts.", e);
+        }
+        return terms;
+    }
+
+    private void run() {
+        int chunk;
+        while ((chunk = nextChunk.getAndIncrement()) < chunkCount) {
+            try {
+                if (failure.get() == null) {
+                    final int end = Math.min(texts.length, (chunk + 1) * CHUNK_SIZE);
+                    for (int i = chunk * CHUNK_SIZE; i < end; i++) {
+                        terms[i] = analyze(analyzers[i], texts[i]);
+                    }
+                }
+            } catch (final Exception e) {
+                failure.compareAndSet(null, e);
+            } finally {
+                done.countDown();
+            }
+        }
+    }
+
+    private String[] analyze(final Analyzer analyzer, final String text) {
+        final List<String> list = new ArrayList<>();
+        try (TokenStream stream = analyzer.tokenStream("", text)) {
+            final CharTermAttribute termAtt = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                if (list.size() >= maxTokenCount) {
+                    throw new IllegalStateException("The number of tokens produced by calling _analyze has exceeded the allowed maximum of ["
+                            + maxTokenCount + "]. This limit can be set by changing the [index.analyze.max_token_count] index level"
+                            + " setting.");
+                }
+                list.add(termAtt.toString());
+            }
+            stream.end();
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return list.toArray(new String[list.size()]);
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.action;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+
+import org.codelibs.opensearch.fess.stats.StageStats;
+import org.opensearch.action.support.nodes.BaseNodeResponse;
+import org.opensearch.cluster.node.DiscoveryNode;
+import org.opensearch.core.common.io.stream.StreamInput;
+import org.opensearch.core.common.io.stream.StreamOutput;
+import org.opensearch.core.xcontent.ToXContentFragment;
+import org.opensearch.core.xcontent.XContentBuilder;
+
+public class FessAnalysisNodeProfile extends BaseNodeResponse implements ToXContentFragment {
+
+    private final int sampleInterval;
+
+    // index -> stage -> component
+    private final Map<String, Map<String, Map<String, StageStats>>> indices;
+
+    public FessAnalysisNodeProfile(final DiscoveryNode node, final int sampleInterval,
+            final Map<String, Map<String, Map<String, StageStats>>> indices) {
+        super(node);
+        this.sampleInterval = sampleInterval;
+        this.indices = indices != null ? indices : Collections.emptyMap();
+    }
+
+    public FessAnalysisNodeProfile(final StreamInput in) throws IOException {
+        super(in);
+        sampleInterval = in.readVInt();
+        indices = in.readMap(StreamInput::readString,
+                i -> i.readMap(StreamInput::readString, i2 -> i2.readMap(StreamInput::readString, StageStats::new)));
+    }
+
+    @Override
+    public void writeTo(final StreamOutput out) throws IOException {
+        super.writeTo(out);
+        out.writeVInt(sampleInterval);
+        out.writeMap(indices, StreamOutput::writeString, (o, stages) -> o.writeMap(stages, StreamOutput::writeString,
+                (o2, components) -> o2.writeMap(components, StreamOutput::writeString, (o3, stats) -> stats.writeTo(o3))));
+    }
+
+    @Override
+    public XContentBuilder toXContent(final XContentBuilder builder, final Params params) throws IOException {
+        builder.startObject(getNode().getId());
+        builder.field("name", getNode().getName());
+        builder.field("sample_interval", sampleInterval);
+        builder.startObject("indices");
+        for (final Map.Entry<String, Map<String, Map<String, StageStats>>> index : indices.entrySet()) {
+            builder.startObject(index.getKey());
+            for (final Map.Entry<String, Map<String, StageStats>> stage : index.getValue().entrySet()) {
+                builder.startObject(stage.getKey());
+                for (final Map.Entry<String, StageStats> component : stage.getValue().entrySet()) {
+                    builder.startObject(component.getKey());
+                    component.getValue().toXContent(builder, params);
+                    builder.endObject();
+                }
+                builder.endObject();
+            }
+            builder.endObject();
+        }
+        builder.endObject();
+        builder.endObject();
+        return builder;
+    }
+
+    public int getSampleInterval() {
+        return sampleInterval;
+    }
+
+    public Map<String, Map<String, Map<String, StageStats>>> getIndices() {
+        return indices;
+    }
+}
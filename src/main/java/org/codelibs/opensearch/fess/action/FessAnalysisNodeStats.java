@@ -0,0 +1,120 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.action;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+
+import org.codelibs.opensearch.fess.stats.ComponentStats;
+import org.codelibs.opensearch.fess.stats.QueryCacheStats;
+import org.opensearch.action.support.nodes.BaseNodeResponse;
+import org.opensearch.cluster.node.DiscoveryNode;
+import org.opensearch.core.common.io.stream.StreamInput;
+import org.opensearch.core.common.io.stream.StreamOutput;
+import org.opensearch.core.xcontent.ToXContentFragment;
+import org.opensearch.core.xcontent.XContentBuilder;
+
+public class FessAnalysisNodeStats extends BaseNodeResponse implements ToXContentFragment {
+
+    private final long classIndexHits;
+
+    private final long classIndexMisses;
+
+    private final int sharedDelegates;
+
+    private final QueryCacheStats queryCache;
+
+    private final Map<String, Map<String, ComponentStats>> indices;
+
+    public FessAnalysisNodeStats(final DiscoveryNode node, final long classIndexHits, final long classIndexMisses,
+            final int sharedDelegates, final QueryCacheStats queryCache, final Map<String, Map<String, ComponentStats>> indices) {
+        super(node);
+        this.classIndexHits = classIndexHits;
+        this.classIndexMisses = classIndexMisses;
+        this.sharedDelegates = sharedDelegates;
+        this.queryCache = queryCache;
+        this.indices = indices != null ? indices : Collections.emptyMap();
+    }
+
+    public FessAnalysisNodeStats(final StreamInput in) throws IOException {
+        super(in);
+        classIndexHits = in.readVLong();
+        classIndexMisses = in.readVLong();
+        sharedDelegates = in.readVInt();
+        queryCache = in.readOptionalWriteable(QueryCacheStats::new);
+        indices = in.readMap(StreamInput::readString, i -> i.readMap(StreamInput::readString, ComponentStats::new));
+    }
+
+    @Override
+    public void writeTo(final StreamOutput out) throws IOException {
+        super.writeTo(out);
+        out.writeVLong(classIndexHits);
+        out.writeVLong(classIndexMisses);
+        out.writeVInt(sharedDelegates);
+        out.writeOptionalWriteable(queryCache);
+        out.writeMap(indices, StreamOutput::writeString, (o, components) -> o.writeMap(components, StreamOutput::writeString, (o2, stats) -> stats.writeTo(o2)));
+    }
+
+    @Override
+    public XContentBuilder toXContent(final XContentBuilder builder, final Params params) throws IOException {
+        builder.startObject(getNode().getId());
+        builder.field("name", getNode().getName());
+        builder.startObject("class_index");
+        builder.field("hits", classIndexHits);
+        builder.field("misses", classIndexMisses);
+        builder.endObject();
+        builder.field("shared_delegates", sharedDelegates);
+        if (queryCache != null) {
+            builder.startObject("query_cache");
+            queryCache.toXContent(builder, params);
+            builder.endObject();
+        }
+        builder.startObject("indices");
+        for (final Map.Entry<String, Map<String, ComponentStats>> index : indices.entrySet()) {
+            builder.startObject(index.getKey());
+            for (final Map.Entry<String, ComponentStats> component : index.getValue().entrySet()) {
+                builder.startObject(component.getKey());
+                component.getValue().toXContent(builder, params);
+                builder.endObject();
+            }
+            builder.endObject();
+        }
+        builder.endObject();
+        builder.endObject();
+        return builder;
+    }
+
+    public long getClassIndexHits() {
+        return classIndexHits;
+    }
+
+    public long getClassIndexMisses() {
+        return classIndexMisses;
+    }
+
+    public int getSharedDelegates() {
+        return sharedDelegates;
+    }
+
+    public QueryCacheStats getQueryCache() {
+        return queryCache;
+    }
+
+    public Map<String, Map<String, ComponentStats>> getIndices() {
+        return indices;
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.action;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.opensearch.action.FailedNodeException;
+import org.opensearch.action.support.nodes.BaseNodesResponse;
+import org.opensearch.cluster.ClusterName;
+import org.opensearch.core.common.io.stream.StreamInput;
+import org.opensearch.core.common.io.stream.StreamOutput;
+import org.opensearch.core.xcontent.ToXContentFragment;
+import org.opensearch.core.xcontent.XContentBuilder;
+
+public class FessAnalysisStatsResponse extends BaseNodesResponse<FessAnalysisNodeStats> implements ToXContentFragment {
+
+    public FessAnalysisStatsResponse(final StreamInput in) throws IOException {
+        super(in);
+    }
+
+    public FessAnalysisStatsResponse(final ClusterName clusterName, final List<FessAnalysisNodeStats> nodes,
+            final List<FailedNodeException> failures) {
+        super(clusterName, nodes, failures);
+    }
+
+    @Override
+    protected List<FessAnalysisNodeStats> readNodesFrom(final StreamInput in) throws IOException {
+        return in.readList(FessAnalysisNodeStats::new);
+    }
+
+    @Override
+    protected void writeNodesTo(final StreamOutput out, final List<FessAnalysisNodeStats> nodes) throws IOException {
+        out.writeList(nodes);
+    }
+
+    @Override
+    public XContentBuilder toXContent(final XContentBuilder builder, final Params params) throws IOException {
+        builder.startObject("nodes");
+        for (final FessAnalysisNodeStats nodeStats : getNodes()) {
+            nodeStats.toXContent(builder, params);
+        }
+        builder.endObject();
+        return builder;
+    }
+}
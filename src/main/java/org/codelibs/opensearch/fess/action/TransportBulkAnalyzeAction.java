@@ -0,0 +1,141 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.action;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.codelibs.opensearch.fess.FessAnalysisPlugin.PluginComponent;
+import org.codelibs.opensearch.fess.service.FessAnalysisService;
+import org.opensearch.action.support.ActionFilters;
+import org.opensearch.action.support.single.shard.TransportSingleShardAction;
+import org.opensearch.cluster.ClusterState;
+import org.opensearch.cluster.metadata.IndexNameExpressionResolver;
+import org.opensearch.cluster.metadata.ResolvedIndices;
+import org.opensearch.cluster.routing.ShardsIterator;
+import org.opensearch.cluster.service.ClusterService;
+import org.opensearch.common.inject.Inject;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.core.common.io.stream.Writeable;
+import org.opensearch.core.index.shard.ShardId;
+import org.opensearch.index.IndexService;
+import org.opensearch.index.IndexSettings;
+import org.opensearch.indices.IndicesService;
+import org.opensearch.threadpool.ThreadPool;
+import org.opensearch.transport.TransportService;
+
+/**
+ * Analyzes the texts of a {@link BulkAnalyzeRequest} on a node holding the
+ * index (or the local node without an index), in parallel on the
+ * {@value #EXECUTOR} thread pool.
+ */
+public class TransportBulkAnalyzeAction extends TransportSingleShardAction<BulkAnalyzeRequest, BulkAnalyzeResponse> {
+
+    public static final String EXECUTOR = "fess_bulk_analyze";
+
+    private final Settings settings;
+
+    private final IndicesService indicesService;
+
+    private final PluginComponent pluginComponent;
+
+    @Inject
+    public TransportBulkAnalyzeAction(final Settings settings, final ThreadPool threadPool, final ClusterService clusterService,
+            final TransportService transportService, final IndicesService indicesService, final ActionFilters actionFilters,
+            final IndexNameExpressionResolver indexNameExpressionResolver, final PluginComponent pluginComponent) {
+        super(BulkAnalyzeAction.NAME, threadPool, clusterService, transportService, actionFilters, indexNameExpressionResolver,
+                BulkAnalyzeRequest::new, ThreadPool.Names.ANALYZE);
+        this.settings = settings;
+        this.indicesService = indicesService;
+        this.pluginComponent = pluginComponent;
+    }
+
+    @Override
+    protected Writeable.Reader<BulkAnalyzeResponse> getResponseReader() {
+        return BulkAnalyzeResponse::new;
+    }
+
+    @Override
+    protected boolean resolveIndex(final BulkAnalyzeRequest request) {
+        return request.index() != null;
+    }
+
+    @Override
+    public ResolvedIndices resolveIndices(final BulkAnalyzeRequest request) {
+        if (request.index() == null) {
+            return ResolvedIndices.of(ResolvedIndices.Local.of());
+        }
+        return super.resolveIndices(request);
+    }
+
+    @Override
+    protected ShardsIterator shards(final ClusterState state, final InternalRequest request) {
+        if (request.concreteIndex() == null) {
+            // no index, so analyze locally
+            return null;
+        }
+        return state.routingTable().index(request.concreteIndex()).randomAllActiveShardsIt();
+    }
+
+    @Override
+    protected BulkAnalyzeResponse shardOperation(final BulkAnalyzeRequest request, final ShardId shardId) throws IOException {
+        final long startTime = System.nanoTime();
+        final FessAnalysisService fessAnalysisService = pluginComponent.getFessAnalysisService();
+        final String[] texts = request.texts();
+        final int maxTexts = fessAnalysisService.getBulkAnalyzeMaxTexts();
+        if (texts.length > maxTexts) {
+            throw new IllegalArgumentException("The number of texts [" + texts.length + "] has exceeded the allowed maximum of [" + maxTexts
+                    + "]. This limit can be set by changing the [" + FessAnalysisService.BULK_ANALYZE_MAX_TEXTS_SETTING.getKey()
+                    + "] node setting.");
+        }
+        final IndexService indexService = shardId != null ? indicesService.indexServiceSafe(shardId.getIndex()) : null;
+        final int maxTokenCount = indexService != null ? indexService.getIndexSettings().getMaxTokenCount()
+                : IndexSettings.MAX_TOKEN_COUNT_SETTING.get(settings);
+
+        final Map<String, Analyzer> analyzerMap = new HashMap<>();
+        final Analyzer[] analyzers = new Analyzer[texts.length];
+        for (int i = 0; i < texts.length; i++) {
+            final String name = request.analyzer(i);
+            Analyzer analyzer = analyzerMap.get(name);
+            if (analyzer == null) {
+                analyzer = getAnalyzer(name, indexService);
+                analyzerMap.put(name, analyzer);
+            }
+            analyzers[i] = analyzer;
+        }
+
+        final String[][] terms = new BulkAnalyzer(analyzers, texts, maxTokenCount).analyze(threadPool.executor(EXECUTOR),
+                threadPool.info(EXECUTOR).getMax() + 1);
+        return new BulkAnalyzeResponse(terms, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+    }
+
+    private Analyzer getAnalyzer(final String name, final IndexService indexService) throws IOException {
+        if (indexService != null) {
+            final Analyzer analyzer = indexService.getIndexAnalyzers().get(name);
+            if (analyzer != null) {
+                return analyzer;
+            }
+        }
+        final Analyzer analyzer = indicesService.getAnalysis().getAnalyzer(name);
+        if (analyzer == null) {
+            throw new IllegalArgumentException("failed to find " + (indexService != null ? "" : "global ") + "analyzer [" + name + "]");
+        }
+        return analyzer;
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.action;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.codelibs.opensearch.fess.FessAnalysisPlugin.PluginComponent;
+import org.codelibs.opensearch.fess.service.FessAnalysisService;
+import org.codelibs.opensearch.fess.stats.FessAnalysisStats;
+import org.opensearch.action.FailedNodeException;
+import org.opensearch.action.support.ActionFilters;
+import org.opensearch.action.support.nodes.TransportNodesAction;
+import org.opensearch.cluster.service.ClusterService;
+import org.opensearch.common.inject.Inject;
+import org.opensearch.core.common.io.stream.StreamInput;
+import org.opensearch.threadpool.ThreadPool;
+import org.opensearch.transport.TransportRequest;
+import org.opensearch.transport.TransportService;
+
+public class TransportFessAnalysisStatsAction extends TransportNodesAction<FessAnalysisStatsRequest, FessAnalysisStatsResponse, //
+        TransportFessAnalysisStatsAction.NodeRequest, FessAnalysisNodeStats> {
+
+    private final PluginComponent pluginComponent;
+
+    @Inject
+    public TransportFessAnalysisStatsAction(final ThreadPool threadPool, final ClusterService clusterService,
+            final TransportService transportService, final ActionFilters actionFilters, final PluginComponent pluginComponent) {
+        super(FessAnalysisStatsAction.NAME, threadPool, clusterService, transportService, actionFilters, FessAnalysisStatsRequest::new,
+                NodeRequest::new, ThreadPool.Names.MANAGEMENT, FessAnalysisNodeStats.class);
+        this.pluginComponent = pluginComponent;
+    }
+
+    @Override
+    protected FessAnalysisStatsResponse newResponse(final FessAnalysisStatsRequest request, final List<FessAnalysisNodeStats> responses,
+            final List<FailedNodeException> failures) {
+        return new FessAnalysisStatsResponse(clusterService.getClusterName(), responses, failures);
+    }
+
+    @Override
+    protected NodeRequest newNodeRequest(final FessAnalysisStatsRequest request) {
+        return new NodeRequest();
+    }
+
+    @Override
+    protected FessAnalysisNodeStats newNodeResponse(final StreamInput in) throws IOException {
+        return new FessAnalysisNodeStats(in);
+    }
+
+    @Override
+    protected FessAnalysisNodeStats nodeOperation(final NodeRequest request) {
+        final FessAnalysisService fessAnalysisService = pluginComponent.getFessAnalysisService();
+        final FessAnalysisStats analysisStats = fessAnalysisService.getAnalysisStats();
+        return new FessAnalysisNodeStats(clusterService.localNode(), fessAnalysisService.getClassIndexHits(),
+                fessAnalysisService.getClassIndexMisses(), fessAnalysisService.getSharedDelegateCount(),
+                fessAnalysisService.getQueryCacheStats(),
+                analysisStats != null ? analysisStats.snapshot() : null);
+    }
+
+    public static class NodeRequest extends TransportRequest {
+
+        public NodeRequest() {
+        }
+
+        public NodeRequest(final StreamInput in) throws IOException {
+            super(in);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.analysis;
+
+import java.io.IOException;
+import java.io.Reader;
+
+import org.apache.lucene.analysis.CharFilter;
+import org.codelibs.opensearch.fess.stats.AnalysisCounters;
+
+/**
+ * Ends the input after {@code maxChars} chars, or at the first read after
+ * {@code maxNanos} have passed since this reader was created, so that a
+ * pathological document is analyzed only in part. A truncated stream is
+ * counted once in {@link AnalysisCounters} when it is closed. Offsets are
+ * corrected by the wrapped reader.
+ */
+public class BudgetCharFilter extends CharFilter {
+
+    private final long maxChars;
+
+    private final long maxNanos;
+
+    private final AnalysisCounters counters;
+
+    private final long startTime;
+
+    private long chars;
+
+    private boolean truncated;
+
+    private boolean closed;
+
+    /**
+     * @param maxChars the maximum number of chars, or 0 for no limit
+     * @param maxNanos the maximum time in nanoseconds, or 0 for no limit
+     * @param counters the counters of truncated streams, or null
+     */
+    public BudgetCharFilter(final Reader input, final long maxChars, final long maxNanos, final AnalysisCounters counters) {
+        super(input);
+        this.maxChars = maxChars;
+        this.maxNanos = maxNanos;
+        this.counters = counters;
+        startTime = maxNanos > 0 ? System.nanoTime() : 0;
+    }
+
+    @Override
+    public int read(final char[] cbuf, final int off, final int len) throws IOException {
+        if (truncated || len == 0) {
+            return truncated ? -1 : 0;
+        }
+        if (maxNanos > 0 && System.nanoTime() - startTime > maxNanos) {
+            return truncate();
+        }
+        int limit = len;
+        if (maxChars > 0) {
+            if (chars >= maxChars) {
+                // the input is truncated only if something is left
+                return input.read() == -1 ? -1 : truncate();
+            }
+            limit = (int) Math.min(len, maxChars - chars);
+        }
+        final int n = input.read(cbuf, off, limit);
+        if (n > 0) {
+            chars += n;
+        }
+        return n;
+    }
+
+    private int truncate() {
+        truncated = true;
+        return -1;
+    }
+
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    @Override
+    protected int correct(final int currentOff) {
+        return currentOff;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            if (truncated && counters != null) {
+                counters.onTruncated();
+            }
+        }
+        super.close();
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.analysis;
+
+import java.io.IOException;
+
+import org.apache.lucene.analysis.Tokenizer;
+import org.codelibs.opensearch.fess.stats.AnalysisCounters;
+
+/**
+ * Stops a stream cleanly when its input exceeds {@code maxChars} chars, its
+ * output exceeds {@code maxTokens} tokens, or it has run for more than
+ * {@code maxNanos}: the tokens produced so far are kept and the stream ends.
+ * The time is checked when the delegate reads input and every
+ * {@value #TIME_CHECK_INTERVAL} tokens, so one call of the delegate is not
+ * interrupted. A truncated stream is counted once in
+ * {@link AnalysisCounters} in {@link #end()}.
+ */
+public final class BudgetTokenizer extends DelegatingTokenizer {
+
+    static final int TIME_CHECK_INTERVAL = 16;
+
+    private final long maxChars;
+
+    private final long maxTokens;
+
+    private final long maxNanos;
+
+    private final AnalysisCounters counters;
+
+    private BudgetCharFilter reader;
+
+    private long tokens;
+
+    private long startTime;
+
+    private boolean truncated;
+
+    /**
+     * @param maxChars the maximum number of input chars, or 0 for no limit
+     * @param maxTokens the maximum number of tokens, or 0 for no limit
+     * @param maxNanos the maximum time in nanoseconds, or 0 for no limit
+     * @param counters the counters of truncated streams, or null
+     */
+    public BudgetTokenizer(final Tokenizer delegate, final long maxChars, final long maxTokens, final long maxNanos,
+            final AnalysisCounters counters) {
+        super(delegate);
+        this.maxChars = maxChars;
+        this.maxTokens = maxTokens;
+        this.maxNanos = maxNanos;
+        this.counters = counters;
+    }
+
+    @Override
+    public final boolean incrementToken() throws IOException {
+        if (truncated) {
+            return false;
+        }
+        if (maxNanos > 0 && tokens % TIME_CHECK_INTERVAL == 0 && tokens > 0 && System.nanoTime() - startTime > maxNanos) {
+            truncated = true;
+            return false;
+        }
+        if (!delegate.incrementToken()) {
+            return false;
+        }
+        if (maxTokens > 0 && tokens >= maxTokens) {
+            truncated = true;
+            return false;
+        }
+        tokens++;
+        return true;
+    }
+
+    @Override
+    protected void resetDelegate() throws IOException {
+        tokens = 0;
+        truncated = false;
+        startTime = maxNanos > 0 ? System.nanoTime() : 0;
+        if (maxChars > 0 || maxNanos > 0) {
+            reader = new BudgetCharFilter(input, maxChars, maxNanos, null);
+            delegate.setReader(reader);
+            delegate.reset();
+        } else {
+            reader = null;
+            super.resetDelegate();
+        }
+    }
+
+    @Override
+    public void end() throws IOException {
+        super.end();
+        if (isTruncated() && counters != null) {
+            counters.onTruncated();
+        }
+    }
+
+    /**
+     * Returns whether the current stream was cut short by the budget.
+     */
+    public boolean isTruncated() {
+        return truncated || reader != null && reader.isTruncated();
+    }
+}
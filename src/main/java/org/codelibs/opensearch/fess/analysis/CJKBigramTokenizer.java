@@ -0,0 +1,288 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.analysis;
+
+import java.io.IOException;
+
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.analysis.tokenattributes.OffsetAttribute;
+import org.apache.lucene.analysis.tokenattributes.TypeAttribute;
+
+/**
+ * A dictionary-free tokenizer used when no language plugin is installed.
+ *
+ * <p>Runs of Han, Hiragana, Katakana and Hangul characters are emitted as
+ * overlapping bigrams, and a run of a single character as a unigram. Runs of
+ * other letters and digits are emitted as words, split at
+ * {@code maxTokenLength}. Everything else separates tokens.</p>
+ *
+ * <p>The input is read through a fixed buffer and no objects are allocated
+ * per token.</p>
+ */
+public final class CJKBigramTokenizer extends Tokenizer {
+
+    public static final String WORD_TYPE = "<ALPHANUM>";
+
+    public static final String DOUBLE_TYPE = "<DOUBLE>";
+
+    public static final String SINGLE_TYPE = "<SINGLE>";
+
+    public static final int DEFAULT_MAX_TOKEN_LENGTH = 255;
+
+    private static final int BUFFER_SIZE = 4096;
+
+    private static final int NONE = -1;
+
+    private final CharTermAttribute termAtt = addAttribute(CharTermAttribute.class);
+
+    private final OffsetAttribute offsetAtt = addAttribute(OffsetAttribute.class);
+
+    private final TypeAttribute typeAtt = addAttribute(TypeAttribute.class);
+
+    private final int maxTokenLength;
+
+    private final char[] buffer = new char[BUFFER_SIZE];
+
+    private int bufferLength;
+
+    private int bufferOffset;
+
+    // absolute offset of the next char to read
+    private int offset;
+
+    // start and length of the last code point returned by read()
+    private int codePointStart;
+
+    private int codePointLength;
+
+    // a code point read ahead and not consumed yet
+    private int pending = NONE;
+
+    private int pendingStart;
+
+    private int pendingLength;
+
+    // the previous code point of the current CJK run
+    private int previous = NONE;
+
+    private int previousStart;
+
+    private int previousLength;
+
+    private int runLength;
+
+    public CJKBigramTokenizer() {
+        this(DEFAULT_MAX_TOKEN_LENGTH);
+    }
+
+    public CJKBigramTokenizer(final int maxTokenLength) {
+        if (maxTokenLength < 1) {
+            throw new IllegalArgumentException("maxTokenLength must be greater than 0: " + maxTokenLength);
+        }
+        this.maxTokenLength = maxTokenLength;
+    }
+
+    @Override
+    public boolean incrementToken() throws IOException {
+        clearAttributes();
+        while (true) {
+            final int codePoint = next();
+            if (codePoint == NONE) {
+                if (previous != NONE) {
+                    final boolean single = runLength == 1;
+                    final int start = previousStart;
+                    final int length = previousLength;
+                    final int c = previous;
+                    previous = NONE;
+                    if (single) {
+                        emit(c, NONE, start, start + length, SINGLE_TYPE);
+                        return true;
+                    }
+                }
+                return false;
+            }
+
+            if (isCJK(codePoint)) {
+                if (previous == NONE) {
+                    previous = codePoint;
+                    previousStart = codePointStart;
+                    previousLength = codePointLength;
+                    runLength = 1;
+                    continue;
+                }
+                emit(previous, codePoint, previousStart, codePointStart + codePointLength, DOUBLE_TYPE);
+                previous = codePoint;
+                previousStart = codePointStart;
+                previousLength = codePointLength;
+                runLength++;
+                return true;
+            }
+
+            if (previous != NONE) {
+                final boolean single = runLength == 1;
+                final int c = previous;
+                previous = NONE;
+                if (single) {
+                    pushBack(codePoint);
+                    emit(c, NONE, previousStart, previousStart + previousLength, SINGLE_TYPE);
+                    return true;
+                }
+            }
+
+            if (isWordChar(codePoint)) {
+                readWord(codePoint);
+                return true;
+            }
+        }
+    }
+
+    private void readWord(final int first) throws IOException {
+        final int start = codePointStart;
+        int end = codePointStart + codePointLength;
+        char[] term = termAtt.buffer();
+        int length = 0;
+        int codePoints = 0;
+        int codePoint = first;
+        while (true) {
+            if (length + 2 > term.length) {
+                term = termAtt.resizeBuffer(length + 2);
+            }
+            length += Character.toChars(codePoint, term, length);
+            end = codePointStart + codePointLength;
+            if (++codePoints >= maxTokenLength) {
+                break;
+            }
+            codePoint = next();
+            if (codePoint == NONE) {
+                break;
+            }
+            if (!isWordChar(codePoint) || isCJK(codePoint)) {
+                pushBack(codePoint);
+                break;
+            }
+        }
+        termAtt.setLength(length);
+        offsetAtt.setOffset(correctOffset(start), correctOffset(end));
+        typeAtt.setType(WORD_TYPE);
+    }
+
+    private void emit(final int first, final int second, final int start, final int end, final String type) {
+        final char[] term = termAtt.resizeBuffer(4);
+        int length = Character.toChars(first, term, 0);
+        if (second != NONE) {
+            length += Character.toChars(second, term, length);
+        }
+        termAtt.setLength(length);
+        offsetAtt.setOffset(correctOffset(start), correctOffset(end));
+        typeAtt.setType(type);
+    }
+
+    private void pushBack(final int codePoint) {
+        pending = codePoint;
+        pendingStart = codePointStart;
+        pendingLength = codePointLength;
+    }
+
+    private int next() throws IOException {
+        if (pending != NONE) {
+            final int codePoint = pending;
+            pending = NONE;
+            codePointStart = pendingStart;
+            codePointLength = pendingLength;
+            return codePoint;
+        }
+        final int high = read();
+        if (high == NONE) {
+            return NONE;
+        }
+        codePointStart = offset - 1;
+        codePointLength = 1;
+        if (Character.isHighSurrogate((char) high)) {
+            final int low = read();
+            if (low != NONE) {
+                if (Character.isLowSurrogate((char) low)) {
+                    codePointLength = 2;
+                    return Character.toCodePoint((char) high, (char) low);
+                }
+                // an unpaired surrogate is returned as is; keep the next char
+                offset--;
+                bufferOffset--;
+            }
+        }
+        return high;
+    }
+
+    private int read() throws IOException {
+        if (bufferOffset >= bufferLength) {
+            // keep the last char so that an unpaired surrogate can be unread
+            int keep = 0;
+            if (bufferLength > 0) {
+                buffer[0] = buffer[bufferLength - 1];
+                keep = 1;
+            }
+            final int length = input.read(buffer, keep, buffer.length - keep);
+            if (length <= 0) {
+                bufferLength = keep;
+                bufferOffset = keep;
+                return NONE;
+            }
+            bufferLength = keep + length;
+            bufferOffset = keep;
+        }
+        offset++;
+        return buffer[bufferOffset++];
+    }
+
+    static boolean isCJK(final int codePoint) {
+        if (codePoint < 0x1100) {
+            return false;
+        }
+        if (codePoint == 0x30FC || codePoint == 0xFF70) {
+            // prolonged sound marks belong to the Katakana word they follow
+            return true;
+        }
+        final Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+        return script == Character.UnicodeScript.HAN || script == Character.UnicodeScript.HIRAGANA
+                || script == Character.UnicodeScript.KATAKANA || script == Character.UnicodeScript.HANGUL;
+    }
+
+    static boolean isWordChar(final int codePoint) {
+        if (Character.isLetterOrDigit(codePoint)) {
+            return true;
+        }
+        final int type = Character.getType(codePoint);
+        return type == Character.NON_SPACING_MARK || type == Character.COMBINING_SPACING_MARK;
+    }
+
+    @Override
+    public void end() throws IOException {
+        super.end();
+        final int finalOffset = correctOffset(offset);
+        offsetAtt.setOffset(finalOffset, finalOffset);
+    }
+
+    @Override
+    public void reset() throws IOException {
+        super.reset();
+        bufferLength = 0;
+        bufferOffset = 0;
+        offset = 0;
+        pending = NONE;
+        previous = NONE;
+        runLength = 0;
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.analysis;
+
+import java.util.Arrays;
+
+import org.apache.lucene.util.Accountable;
+import org.apache.lucene.util.ArrayUtil;
+import org.apache.lucene.util.AttributeImpl;
+import org.apache.lucene.util.RamUsageEstimator;
+
+/**
+ * The tokens of one input, stored in flat arrays. Offsets are relative to the
+ * input before char filter correction. Attributes other than the term, offset,
+ * position and type attributes are kept as immutable copies. Instances are
+ * shared between threads and never modified.
+ */
+public final class CachedTokens implements Accountable {
+
+    private static final long BASE_RAM_BYTES = RamUsageEstimator.shallowSizeOfInstance(CachedTokens.class);
+
+    // rough size of one copied attribute
+    private static final long EXTRA_RAM_BYTES = 64;
+
+    final int size;
+
+    final char[] terms;
+
+    // the term of token i is terms[termStarts[i], termStarts[i + 1])
+    final int[] termStarts;
+
+    final int[] positionIncrements;
+
+    final int[] positionLengths;
+
+    final int[] startOffsets;
+
+    final int[] endOffsets;
+
+    final String[] types;
+
+    // extras[i * extraCount + j] is the j-th extra attribute of token i
+    final AttributeImpl[] extras;
+
+    final int extraCount;
+
+    final int finalOffset;
+
+    // the position increment after end(), e.g. of trailing tokens the tokenizer skipped
+    final int finalPositionIncrement;
+
+    private CachedTokens(final Builder builder, final int finalOffset, final int finalPositionIncrement) {
+        size = builder.size;
+        terms = Arrays.copyOf(builder.terms, builder.termStarts[size]);
+        termStarts = Arrays.copyOf(builder.termStarts, size + 1);
+        positionIncrements = Arrays.copyOf(builder.positionIncrements, size);
+        positionLengths = Arrays.copyOf(builder.positionLengths, size);
+        startOffsets = Arrays.copyOf(builder.startOffsets, size);
+        endOffsets = Arrays.copyOf(builder.endOffsets, size);
+        types = Arrays.copyOf(builder.types, size);
+        extraCount = builder.extraCount;
+        extras = Arrays.copyOf(builder.extras, size * extraCount);
+        this.finalOffset = finalOffset;
+        this.finalPositionIncrement = finalPositionIncrement;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public long ramBytesUsed() {
+        // termStarts is one longer than the other four int arrays
+        return BASE_RAM_BYTES + RamUsageEstimator.sizeOf(terms) + 5L * RamUsageEstimator.sizeOf(termStarts)
+                + RamUsageEstimator.shallowSizeOf(types) + RamUsageEstimator.shallowSizeOf(extras) + extras.length * EXTRA_RAM_BYTES;
+    }
+
+    /**
+     * Collects the tokens of a stream. A builder is reused across streams.
+     */
+    static final class Builder {
+
+        private int size;
+
+        private char[] terms = new char[64];
+
+        private int[] termStarts = new int[9];
+
+        private int[] positionIncrements = new int[8];
+
+        private int[] positionLengths = new int[8];
+
+        private int[] startOffsets = new int[8];
+
+        private int[] endOffsets = new int[8];
+
+        private String[] types = new String[8];
+
+        private AttributeImpl[] extras;
+
+        private final int extraCount;
+
+        Builder(final int extraCount) {
+            this.extraCount = extraCount;
+            extras = new AttributeImpl[8 * extraCount];
+        }
+
+        void clear() {
+            size = 0;
+            Arrays.fill(extras, null);
+        }
+
+        void add(final char[] term, final int termLength, final int positionIncrement, final int positionLength, final int startOffset,
+                final int endOffset, final String type, final AttributeImpl[] extraAttributes) {
+            if (size == positionIncrements.length) {
+                final int newSize = ArrayUtil.oversize(size + 1, Integer.BYTES);
+                termStarts = Arrays.copyOf(termStarts, newSize + 1);
+                positionIncrements = Arrays.copyOf(positionIncrements, newSize);
+                positionLengths = Arrays.copyOf(positionLengths, newSize);
+                startOffsets = Arrays.copyOf(startOffsets, newSize);
+                endOffsets = Arrays.copyOf(endOffsets, newSize);
+                types = Arrays.copyOf(types, newSize);
+                extras = Arrays.copyOf(extras, newSize * extraCount);
+            }
+            final int termStart = termStarts[size];
+            terms = ArrayUtil.grow(terms, termStart + termLength);
+            System.arraycopy(term, 0, terms, termStart, termLength);
+            termStarts[size + 1] = termStart + termLength;
+            positionIncrements[size] = positionIncrement;
+            positionLengths[size] = positionLength;
+            startOffsets[size] = startOffset;
+            endOffsets[size] = endOffset;
+            types[size] = type;
+            for (int i = 0; i < extraCount; i++) {
+                extras[size * extraCount + i] = extraAttributes[i].clone();
+            }
+            size++;
+        }
+
+        CachedTokens build(final int finalOffset, final int finalPositionIncrement) {
+            return new CachedTokens(this, finalOffset, finalPositionIncrement);
+        }
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.analysis;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.analysis.tokenattributes.OffsetAttribute;
+import org.apache.lucene.analysis.tokenattributes.PackedTokenAttributeImpl;
+import org.apache.lucene.analysis.tokenattributes.PositionIncrementAttribute;
+import org.apache.lucene.analysis.tokenattributes.PositionLengthAttribute;
+import org.apache.lucene.analysis.tokenattributes.TypeAttribute;
+import org.apache.lucene.util.AttributeImpl;
+import org.apache.lucene.util.AttributeSource;
+
+/**
+ * Replays the tokens of inputs of up to {@code maxLength} chars from a
+ * {@link TokenCache}, and runs the delegate only for inputs that are not
+ * cached yet or longer. Attributes of the delegate other than the term,
+ * offset, position and type attributes are cached as copies.
+ */
+public final class CachingTokenizer extends DelegatingTokenizer {
+
+    private final CharTermAttribute termAtt = addAttribute(CharTermAttribute.class);
+
+    private final OffsetAttribute offsetAtt = addAttribute(OffsetAttribute.class);
+
+    private final PositionIncrementAttribute posIncAtt = addAttribute(PositionIncrementAttribute.class);
+
+    private final PositionLengthAttribute posLenAtt = addAttribute(PositionLengthAttribute.class);
+
+    private final TypeAttribute typeAtt = addAttribute(TypeAttribute.class);
+
+    private final TokenCache cache;
+
+    private final Object owner;
+
+    private final Supplier<Object> generation;
+
+    private final int maxLength;
+
+    private final AttributeImpl[] extraAttributes;
+
+    private final CachedTokens.Builder builder;
+
+    private final PrefixReader prefixReader = new PrefixReader();
+
+    private final char[] buffer;
+
+    private int length;
+
+    private Object currentGeneration;
+
+    // the cached tokens being replayed, or null when the delegate runs
+    private CachedTokens replay;
+
+    private int replayIndex;
+
+    // whether the tokens of the delegate are recorded for the cache
+    private boolean recording;
+
+    /**
+     * @param owner the configuration of the delegate, which tokenizers with the same output share
+     * @param generation the current dictionary generation of the owner, or null
+     */
+    public CachingTokenizer(final Tokenizer delegate, final TokenCache cache, final Object owner, final Supplier<Object> generation,
+            final int maxLength) {
+        super(delegate);
+        this.cache = cache;
+        this.owner = owner;
+        this.generation = generation;
+        this.maxLength = maxLength;
+        buffer = new char[maxLength + 1];
+        extraAttributes = extraAttributes(delegate);
+        builder = new CachedTokens.Builder(extraAttributes.length);
+    }
+
+    /**
+     * Returns the attributes of {@code source} other than the term, offset,
+     * position and type attributes, which {@link CachedTokens} store as copies.
+     */
+    static AttributeImpl[] extraAttributes(final AttributeSource source) {
+        final List<AttributeImpl> extras = new ArrayList<>();
+        final Iterator<AttributeImpl> iterator = source.getAttributeImplsIterator();
+        while (iterator.hasNext()) {
+            final AttributeImpl impl = iterator.next();
+            if (!(impl instanceof PackedTokenAttributeImpl || impl instanceof CharTermAttribute || impl instanceof OffsetAttribute
+                    || impl instanceof PositionIncrementAttribute || impl instanceof PositionLengthAttribute
+                    || impl instanceof TypeAttribute)) {
+                extras.add(impl);
+            }
+        }
+        return extras.toArray(new AttributeImpl[0]);
+    }
+
+    @Override
+    public final boolean incrementToken() throws IOException {
+        if (replay != null) {
+            if (replayIndex >= replay.size) {
+                return false;
+            }
+            clearAttributes();
+            final int i = replayIndex++;
+            termAtt.copyBuffer(replay.terms, replay.termStarts[i], replay.termStarts[i + 1] - replay.termStarts[i]);
+            posIncAtt.setPositionIncrement(replay.positionIncrements[i]);
+            posLenAtt.setPositionLength(replay.positionLengths[i]);
+            offsetAtt.setOffset(correctOffset(replay.startOffsets[i]), correctOffset(replay.endOffsets[i]));
+            typeAtt.setType(replay.types[i]);
+            for (int j = 0; j < extraAttributes.length; j++) {
+                replay.extras[i * replay.extraCount + j].copyTo(extraAttributes[j]);
+            }
+            return true;
+        }
+        if (!delegate.incrementToken()) {
+            return false;
+        }
+        final int startOffset = offsetAtt.startOffset();
+        final int endOffset = offsetAtt.endOffset();
+        if (recording) {
+            builder.add(termAtt.buffer(), termAtt.length(), posIncAtt.getPositionIncrement(), posLenAtt.getPositionLength(), startOffset,
+                    endOffset, typeAtt.type(), extraAttributes);
+        }
+        // the delegate reads the buffered prefix, not the (char filtered) input
+        offsetAtt.setOffset(correctOffset(startOffset), correctOffset(endOffset));
+        return true;
+    }
+
+    @Override
+    protected void resetDelegate() throws IOException {
+        replay = null;
+        recording = false;
+        length = 0;
+        int read;
+        while (length < buffer.length && (read = input.read(buffer, length, buffer.length - length)) != -1) {
+            length += read;
+        }
+        if (length <= maxLength) {
+            currentGeneration = generation != null ? generation.get() : null;
+            final CachedTokens tokens = cache.get(owner, currentGeneration, new String(buffer, 0, length));
+            if (tokens != null) {
+                replay = tokens;
+                replayIndex = 0;
+                return;
+            }
+            recording = true;
+            builder.clear();
+        }
+        prefixReader.reset(buffer, length, input);
+        delegate.setReader(prefixReader);
+        delegate.reset();
+    }
+
+    @Override
+    protected void endDelegate() throws IOException {
+        if (replay != null) {
+            final int finalOffset = correctOffset(replay.finalOffset);
+            offsetAtt.setOffset(finalOffset, finalOffset);
+            posIncAtt.setPositionIncrement(replay.finalPositionIncrement);
+            return;
+        }
+        delegate.end();
+        final int finalOffset = offsetAtt.endOffset();
+        if (recording) {
+            recording = false;
+            cache.put(owner, currentGeneration, new String(buffer, 0, length),
+                    builder.build(finalOffset, posIncAtt.getPositionIncrement()));
+        }
+        offsetAtt.setOffset(correctOffset(finalOffset), correctOffset(finalOffset));
+    }
+
+    @Override
+    public void close() throws IOException {
+        replay = null;
+        recording = false;
+        super.close();
+    }
+
+    /**
+     * Reads the buffered prefix of the input, then the rest of the input.
+     */
+    private static final class PrefixReader extends Reader {
+
+        private char[] prefix;
+
+        private int offset;
+
+        private int length;
+
+        private Reader input;
+
+        void reset(final char[] prefix, final int length, final Reader input) {
+            this.prefix = prefix;
+            this.length = length;
+            this.input = input;
+            offset = 0;
+        }
+
+        @Override
+        public int read(final char[] cbuf, final int off, final int len) throws IOException {
+            if (offset < length) {
+                final int n = Math.min(len, length - offset);
+                System.arraycopy(prefix, offset, cbuf, off, n);
+                offset += n;
+                return n;
+            }
+            return input.read(cbuf, off, len);
+        }
+
+        @Override
+        public void close() {
+            // the input is closed by this tokenizer
+        }
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.analysis;
+
+import java.io.IOException;
+import java.io.Reader;
+
+import org.apache.lucene.analysis.charfilter.BaseCharFilter;
+import org.codelibs.opensearch.fess.util.DoubleArrayTrie;
+
+/**
+ * Converts Traditional/Simplified Chinese with the longest match of a
+ * {@link ChineseConvertDictionary}.
+ *
+ * <p>The input is read through a fixed window that always holds at least the
+ * longest key ahead of the current position, so memory does not grow with the
+ * input. Offsets are corrected like
+ * {@link org.apache.lucene.analysis.charfilter.MappingCharFilter}.</p>
+ */
+public final class ChineseConvertCharFilter extends BaseCharFilter {
+
+    private final DoubleArrayTrie trie;
+
+    private final char[] values;
+
+    private final ChineseConvertDictionary dictionary;
+
+    private final int lookahead;
+
+    private final char[] buffer;
+
+    private int position;
+
+    private int limit;
+
+    private boolean eof;
+
+    private int pendingOffset;
+
+    private int pendingLength;
+
+    // chars consumed from the input
+    private int inputOffset;
+
+    public ChineseConvertCharFilter(final Reader in, final ChineseConvertDictionary dictionary) {
+        super(in);
+        this.dictionary = dictionary;
+        trie = dictionary.getTrie();
+        values = dictionary.values();
+        lookahead = Math.max(1, dictionary.getMaxKeyLength());
+        buffer = new char[Math.max(1024, lookahead * 4)];
+    }
+
+    @Override
+    public void reset() throws IOException {
+        input.reset();
+        position = 0;
+        limit = 0;
+        eof = false;
+        pendingLength = 0;
+        inputOffset = 0;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (pendingLength == 0) {
+            if (limit - position < lookahead && !eof) {
+                fill();
+            }
+            if (position == limit) {
+                return -1;
+            }
+            final long match = trie.longestMatch(buffer, position, limit - position);
+            if (match < 0) {
+                inputOffset++;
+                return buffer[position++];
+            }
+            replace(match);
+        }
+        pendingLength--;
+        return values[pendingOffset++];
+    }
+
+    @Override
+    public int read(final char[] cbuf, final int off, final int len) throws IOException {
+        int count = 0;
+        while (count < len) {
+            if (pendingLength > 0) {
+                final int n = Math.min(pendingLength, len - count);
+                System.arraycopy(values, pendingOffset, cbuf, off + count, n);
+                pendingOffset += n;
+                pendingLength -= n;
+                count += n;
+                continue;
+            }
+            if (limit - position < lookahead && !eof) {
+                fill();
+            }
+            if (position == limit) {
+                break;
+            }
+            final long match = trie.longestMatch(buffer, position, limit - position);
+            if (match < 0) {
+                cbuf[off + count++] = buffer[position++];
+                inputOffset++;
+            } else {
+                replace(match);
+            }
+        }
+        return count == 0 && len > 0 ? -1 : count;
+    }
+
+    private void replace(final long match) {
+        final int id = (int) (match >>> 32);
+        final int matchLength = (int) match;
+        final int valueLength = dictionary.valueLength(id);
+        position += matchLength;
+        inputOffset += matchLength;
+        final int diff = matchLength - valueLength;
+        if (diff != 0) {
+            final int prevCumulativeDiff = getLastCumulativeDiff();
+            if (diff > 0) {
+                addOffCorrectMap(inputOffset - diff - prevCumulativeDiff, prevCumulativeDiff + diff);
+            } else {
+                final int outputStart = inputOffset - prevCumulativeDiff;
+                for (int i = 0; i < -diff; i++) {
+                    addOffCorrectMap(outputStart + i, prevCumulativeDiff - i - 1);
+                }
+            }
+        }
+        pendingOffset = dictionary.valueOffset(id);
+        pendingLength = valueLength;
+    }
+
+    private void fill() throws IOException {
+        if (position > 0) {
+            System.arraycopy(buffer, position, buffer, 0, limit - position);
+            limit -= position;
+            position = 0;
+        }
+        while (limit < buffer.length) {
+            final int n = input.read(buffer, limit, buffer.length - limit);
+            if (n < 0) {
+                eof = true;
+                return;
+            }
+            limit += n;
+            if (limit >= lookahead) {
+                return;
+            }
+        }
+    }
+}
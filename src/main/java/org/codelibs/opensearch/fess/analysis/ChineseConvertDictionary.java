@@ -0,0 +1,173 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.analysis;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.codelibs.opensearch.fess.util.DoubleArrayTrie;
+
+/**
+ * Traditional/Simplified Chinese conversion table, loaded once per node from
+ * the OpenCC dictionaries bundled with this plugin.
+ */
+public final class ChineseConvertDictionary {
+
+    /** The conversion direction. */
+    public enum Type {
+        /** Simplified to Traditional. */
+        S2T("STCharacters.txt", "STPhrases.txt"),
+        /** Traditional to Simplified. */
+        T2S("TSCharacters.txt", "TSPhrases.txt");
+
+        private final String[] resources;
+
+        Type(final String... resources) {
+            this.resources = resources;
+        }
+
+        public static Type of(final String value) {
+            try {
+                return valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (final IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown convert type [" + value + "], expected one of [s2t, t2s]", e);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private static final Map<Type, ChineseConvertDictionary> INSTANCES = new EnumMap<>(Type.class);
+
+    private final DoubleArrayTrie trie;
+
+    private final char[] values;
+
+    // values of the key id are values[valueOffsets[id], valueOffsets[id + 1])
+    private final int[] valueOffsets;
+
+    ChineseConvertDictionary(final Map<String, String> mappings) {
+        final List<String> keys = new ArrayList<>(mappings.keySet());
+        trie = DoubleArrayTrie.build(keys);
+        valueOffsets = new int[keys.size() + 1];
+        int length = 0;
+        for (int i = 0; i < keys.size(); i++) {
+            valueOffsets[i] = length;
+            length += mappings.get(keys.get(i)).length();
+        }
+        valueOffsets[keys.size()] = length;
+        values = new char[length];
+        for (int i = 0; i < keys.size(); i++) {
+            final String value = mappings.get(keys.get(i));
+            value.getChars(0, value.length(), values, valueOffsets[i]);
+        }
+    }
+
+    /**
+     * Returns the shared dictionary of the given type, loading it on the first call.
+     */
+    public static ChineseConvertDictionary get(final Type type) {
+        synchronized (INSTANCES) {
+            return INSTANCES.computeIfAbsent(type, ChineseConvertDictionary::load);
+        }
+    }
+
+    private static ChineseConvertDictionary load(final Type type) {
+        // phrases are read last, so they win over single characters
+        final Map<String, String> mappings = new TreeMap<>();
+        for (final String resource : type.resources) {
+            try (InputStream in = ChineseConvertDictionary.class.getResourceAsStream("opencc/" + resource)) {
+                if (in == null) {
+                    throw new IllegalStateException("opencc/" + resource + " is not found.");
+                }
+                read(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)), mappings);
+            } catch (final IOException e) {
+                throw new UncheckedIOException("Failed to load opencc/" + resource, e);
+            }
+        }
+        return new ChineseConvertDictionary(mappings);
+    }
+
+    static void read(final BufferedReader reader, final Map<String, String> mappings) throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            final int tab = line.indexOf('\t');
+            if (tab <= 0) {
+                continue;
+            }
+            int end = line.indexOf(' ', tab + 1);
+            if (end < 0) {
+                end = line.length();
+            }
+            if (end > tab + 1) {
+                mappings.put(line.substring(0, tab), line.substring(tab + 1, end));
+            }
+        }
+    }
+
+    public DoubleArrayTrie getTrie() {
+        return trie;
+    }
+
+    public int getMaxKeyLength() {
+        return trie.getMaxKeyLength();
+    }
+
+    char[] values() {
+        return values;
+    }
+
+    int valueOffset(final int id) {
+        return valueOffsets[id];
+    }
+
+    int valueLength(final int id) {
+        return valueOffsets[id + 1] - valueOffsets[id];
+    }
+
+    /**
+     * Converts the text with longest-match lookup.
+     */
+    public String convert(final String text) {
+        final char[] chars = text.toCharArray();
+        final StringBuilder buf = new StringBuilder(chars.length);
+        int pos = 0;
+        while (pos < chars.length) {
+            final long match = trie.longestMatch(chars, pos, chars.length - pos);
+            if (match < 0) {
+                buf.append(chars[pos++]);
+            } else {
+                final int id = (int) (match >>> 32);
+                buf.append(values, valueOffset(id), valueLength(id));
+                pos += (int) match;
+            }
+        }
+        return buf.toString();
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.analysis;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.codelibs.opensearch.fess.util.DoubleArrayTrie;
+
+/**
+ * Simplified Chinese words in a double-array trie, and their reversed chars in
+ * a second trie for backward matching. Each word has a weight from 0 to
+ * {@link #MAX_WEIGHT}, a log scale of its frequency kept in one byte per
+ * word, that {@link ChineseMaxMatchTokenizer} uses to break ties.
+ */
+public final class ChineseLexicon {
+
+    public static final int MAX_WEIGHT = 255;
+
+    private static final String RESOURCE = "chinese/words.txt";
+
+    private static Map<String, Integer> defaultWords;
+
+    private static ChineseLexicon defaultLexicon;
+
+    private final DoubleArrayTrie forward;
+
+    private final DoubleArrayTrie backward;
+
+    // the weight of each word, by id in the forward trie
+    private final byte[] weights;
+
+    ChineseLexicon(final Map<String, Integer> frequencies) {
+        final TreeMap<String, Integer> words = new TreeMap<>(frequencies);
+        words.remove("");
+        forward = DoubleArrayTrie.build(new ArrayList<>(words.keySet()));
+        weights = new byte[words.size()];
+        final TreeSet<String> reversed = new TreeSet<>();
+        int id = 0;
+        for (final Map.Entry<String, Integer> entry : words.entrySet()) {
+            weights[id++] = (byte) weight(entry.getValue());
+            reversed.add(reverse(entry.getKey()));
+        }
+        backward = DoubleArrayTrie.build(new ArrayList<>(reversed));
+    }
+
+    static int weight(final int frequency) {
+        return frequency <= 0 ? 0 : (int) Math.min(MAX_WEIGHT, Math.round(Math.log1p(frequency) * 16));
+    }
+
+    // reverses chars, not code points, as the backward walk reads them
+    private static String reverse(final String word) {
+        final char[] chars = new char[word.length()];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = word.charAt(chars.length - 1 - i);
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Returns the lexicon bundled with this plugin, loading it on the first call.
+     */
+    public static synchronized ChineseLexicon getDefault() {
+        if (defaultLexicon == null) {
+            defaultLexicon = new ChineseLexicon(getDefaultWords());
+        }
+        return defaultLexicon;
+    }
+
+    /**
+     * Returns a lexicon of the bundled words and {@code words}, each a word
+     * optionally followed by whitespace and its frequency. A word without a
+     * frequency gets the highest weight.
+     */
+    public static ChineseLexicon withWords(final Collection<String> words) {
+        final Map<String, Integer> allWords = new HashMap<>(getDefaultWords());
+        for (final String word : words) {
+            parse(word, Integer.MAX_VALUE, allWords);
+        }
+        return new ChineseLexicon(allWords);
+    }
+
+    private static synchronized Map<String, Integer> getDefaultWords() {
+        if (defaultWords == null) {
+            try (InputStream in = ChineseLexicon.class.getResourceAsStream(RESOURCE)) {
+                if (in == null) {
+                    throw new IllegalStateException(RESOURCE + " is not found.");
+                }
+                defaultWords = read(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)));
+            } catch (final IOException e) {
+                throw new UncheckedIOException("Failed to load " + RESOURCE, e);
+            }
+        }
+        return defaultWords;
+    }
+
+    static Map<String, Integer> read(final BufferedReader reader) throws IOException {
+        final Map<String, Integer> words = new HashMap<>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (!line.isEmpty() && line.charAt(0) != '#') {
+                parse(line, 0, words);
+            }
+        }
+        return words;
+    }
+
+    private static void parse(final String line, final int defaultFrequency, final Map<String, Integer> words) {
+        final String[] values = line.trim().split("\\s+");
+        if (values[0].isEmpty()) {
+            return;
+        }
+        if (values.length > 2) {
+            throw new IllegalArgumentException("Invalid word [" + line + "], expected a word and an optional frequency");
+        }
+        int frequency = defaultFrequency;
+        if (values.length == 2) {
+            try {
+                frequency = Integer.parseInt(values[1]);
+            } catch (final NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid frequency of word [" + line + "]", e);
+            }
+        }
+        words.put(values[0], frequency);
+    }
+
+    /** The trie of the words; ids index {@link #getWeight(int)}. */
+    public DoubleArrayTrie getForwardTrie() {
+        return forward;
+    }
+
+    /** The trie of the words with their chars in reverse order. */
+    public DoubleArrayTrie getBackwardTrie() {
+        return backward;
+    }
+
+    /**
+     * Returns the weight of the word with the given id in the forward trie.
+     */
+    public int getWeight(final int id) {
+        return weights[id] & 0xFF;
+    }
+
+    public int size() {
+        return forward.size();
+    }
+}
@@ -0,0 +1,410 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.analysis;
+
+import java.io.IOException;
+import java.util.Locale;
+
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.analysis.tokenattributes.OffsetAttribute;
+import org.apache.lucene.analysis.tokenattributes.TypeAttribute;
+import org.apache.lucene.util.ArrayUtil;
+import org.codelibs.opensearch.fess.util.DoubleArrayTrie;
+
+/**
+ * Segments Simplified Chinese text by maximum matching against a
+ * {@link ChineseLexicon}. A run of Han characters is split into the longest
+ * words of the lexicon, scanning forward, backward, or both ways; a character
+ * that starts no word is a token of its own. Runs of other letters and digits
+ * are emitted as words, split at {@code maxTokenLength}, and everything else
+ * separates tokens.
+ *
+ * <p>In {@link Mode#BIDIRECTIONAL} mode the segmentation with fewer tokens
+ * wins, then the one with fewer single characters, then the one with the
+ * higher total word weight, and finally the backward one.</p>
+ *
+ * <p>The input is read through a buffer that only keeps the current run, a run
+ * longer than {@link #MAX_RUN_LENGTH} chars is segmented in pieces, and the
+ * segmentation is kept in preallocated arrays, so no objects are allocated
+ * per sentence or token.</p>
+ */
+public final class ChineseMaxMatchTokenizer extends Tokenizer {
+
+    /** The direction of maximum matching. */
+    public enum Mode {
+        /** Longest words from the start of a run. */
+        FORWARD,
+        /** Longest words from the end of a run. */
+        BACKWARD,
+        /** Both, keeping the better segmentation. */
+        BIDIRECTIONAL;
+
+        public static Mode of(final String value) {
+            try {
+                return valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (final IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown mode [" + value + "], expected one of [forward, backward, bidirectional]", e);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    public static final String WORD_TYPE = CJKBigramTokenizer.WORD_TYPE;
+
+    public static final String IDEOGRAPHIC_TYPE = "<IDEOGRAPHIC>";
+
+    public static final int DEFAULT_MAX_TOKEN_LENGTH = 255;
+
+    public static final int MAX_RUN_LENGTH = 1024;
+
+    private static final int BUFFER_SIZE = 4096;
+
+    private static final int NONE = -1;
+
+    private final CharTermAttribute termAtt = addAttribute(CharTermAttribute.class);
+
+    private final OffsetAttribute offsetAtt = addAttribute(OffsetAttribute.class);
+
+    private final TypeAttribute typeAtt = addAttribute(TypeAttribute.class);
+
+    private final ChineseLexicon lexicon;
+
+    private final DoubleArrayTrie forward;
+
+    private final DoubleArrayTrie backward;
+
+    private final Mode mode;
+
+    private final int maxTokenLength;
+
+    private char[] buffer = new char[BUFFER_SIZE];
+
+    // offset of buffer[0] in the input
+    private int bufferOffset;
+
+    private int bufferLength;
+
+    private int position;
+
+    // the first index of the buffer that is still needed
+    private int mark;
+
+    private boolean exhausted;
+
+    // the words of the current run as buffer ranges
+    private final int[] starts = new int[MAX_RUN_LENGTH];
+
+    private final int[] ends = new int[MAX_RUN_LENGTH];
+
+    private int count;
+
+    private int next;
+
+    // the backward segmentation while comparing it with the forward one
+    private final int[] backwardStarts;
+
+    private final int[] backwardEnds;
+
+    public ChineseMaxMatchTokenizer(final ChineseLexicon lexicon) {
+        this(lexicon, Mode.BIDIRECTIONAL, DEFAULT_MAX_TOKEN_LENGTH);
+    }
+
+    public ChineseMaxMatchTokenizer(final ChineseLexicon lexicon, final Mode mode, final int maxTokenLength) {
+        if (maxTokenLength < 1) {
+            throw new IllegalArgumentException("maxTokenLength must be greater than 0: " + maxTokenLength);
+        }
+        this.lexicon = lexicon;
+        forward = lexicon.getForwardTrie();
+        backward = lexicon.getBackwardTrie();
+        this.mode = mode;
+        this.maxTokenLength = maxTokenLength;
+        backwardStarts = mode == Mode.BIDIRECTIONAL ? new int[MAX_RUN_LENGTH] : null;
+        backwardEnds = mode == Mode.BIDIRECTIONAL ? new int[MAX_RUN_LENGTH] : null;
+    }
+
+    @Override
+    public boolean incrementToken() throws IOException {
+        clearAttributes();
+        if (next < count) {
+            emit(starts[next], ends[next]);
+            next++;
+            return true;
+        }
+        while (true) {
+            mark = position;
+            final int codePoint = codePoint();
+            if (codePoint == NONE) {
+                return false;
+            }
+            if (isHan(codePoint)) {
+                segment(scanRun());
+                emit(starts[0], ends[0]);
+                next = 1;
+                return true;
+            }
+            if (CJKBigramTokenizer.isWordChar(codePoint)) {
+                readWord();
+                return true;
+            }
+            position += Character.charCount(codePoint);
+        }
+    }
+
+    /**
+     * Reads the Han run at the current position, up to {@link #MAX_RUN_LENGTH}
+     * chars, and returns its end; it starts at {@link #mark}.
+     */
+    private int scanRun() throws IOException {
+        while (true) {
+            final int codePoint = codePoint();
+            if (codePoint == NONE || !isHan(codePoint)) {
+                break;
+            }
+            final int length = Character.charCount(codePoint);
+            if (position + length - mark > MAX_RUN_LENGTH) {
+                break;
+            }
+            position += length;
+        }
+        return position;
+    }
+
+    private void segment(final int end) {
+        switch (mode) {
+        case FORWARD:
+            count = matchForward(mark, end, starts, ends);
+            break;
+        case BACKWARD:
+            count = matchBackward(mark, end, starts, ends);
+            break;
+        default:
+            count = matchForward(mark, end, starts, ends);
+            final int backwardCount = matchBackward(mark, end, backwardStarts, backwardEnds);
+            if (isBackwardBetter(backwardCount)) {
+                System.arraycopy(backwardStarts, 0, starts, 0, backwardCount);
+                System.arraycopy(backwardEnds, 0, ends, 0, backwardCount);
+                count = backwardCount;
+            }
+            break;
+        }
+    }
+
+    private int matchForward(final int start, final int end, final int[] wordStarts, final int[] wordEnds) {
+        int n = 0;
+        int i = start;
+        while (i < end) {
+            final long match = forward.longestMatch(buffer, i, end - i);
+            final int length = match < 0 ? charCount(i, end) : (int) match;
+            wordStarts[n] = i;
+            wordEnds[n] = i + length;
+            n++;
+            i += length;
+        }
+        return n;
+    }
+
+    private int matchBackward(final int start, final int end, final int[] wordStarts, final int[] wordEnds) {
+        final int maxKeyLength = backward.getMaxKeyLength();
+        int n = 0;
+        int j = end;
+        while (j > start) {
+            int length = 0;
+            int state = 0;
+            for (int i = j - 1; i >= start && j - i <= maxKeyLength; i--) {
+                state = backward.next(state, buffer[i]);
+                if (state < 0) {
+                    break;
+                }
+                if (backward.value(state) >= 0) {
+                    length = j - i;
+                }
+            }
+            if (length == 0) {
+                length = j - 1 > start && Character.isLowSurrogate(buffer[j - 1]) && Character.isHighSurrogate(buffer[j - 2]) ? 2 : 1;
+            }
+            wordStarts[n] = j - length;
+            wordEnds[n] = j;
+            n++;
+            j -= length;
+        }
+        // the words were found from the end
+        for (int lo = 0, hi = n - 1; lo < hi; lo++, hi--) {
+            swap(wordStarts, lo, hi);
+            swap(wordEnds, lo, hi);
+        }
+        return n;
+    }
+
+    private static void swap(final int[] values, final int i, final int j) {
+        final int value = values[i];
+        values[i] = values[j];
+        values[j] = value;
+    }
+
+    private boolean isBackwardBetter(final int backwardCount) {
+        if (backwardCount != count) {
+            return backwardCount < count;
+        }
+        boolean same = true;
+        for (int i = 0; i < count; i++) {
+            if (starts[i] != backwardStarts[i]) {
+                same = false;
+                break;
+            }
+        }
+        if (same) {
+            return false;
+        }
+        final int singles = countSingles(starts, ends, count);
+        final int backwardSingles = countSingles(backwardStarts, backwardEnds, count);
+        if (backwardSingles != singles) {
+            return backwardSingles < singles;
+        }
+        return sumWeights(backwardStarts, backwardEnds, count) >= sumWeights(starts, ends, count);
+    }
+
+    private int countSingles(final int[] wordStarts, final int[] wordEnds, final int n) {
+        int singles = 0;
+        for (int i = 0; i < n; i++) {
+            if (wordEnds[i] - wordStarts[i] == charCount(wordStarts[i], wordEnds[i])) {
+                singles++;
+            }
+        }
+        return singles;
+    }
+
+    private int sumWeights(final int[] wordStarts, final int[] wordEnds, final int n) {
+        int sum = 0;
+        for (int i = 0; i < n; i++) {
+            final int id = forward.get(buffer, wordStarts[i], wordEnds[i] - wordStarts[i]);
+            if (id >= 0) {
+                sum += lexicon.getWeight(id);
+            }
+        }
+        return sum;
+    }
+
+    // the length of the code point at buffer[i], which ends before end
+    private int charCount(final int i, final int end) {
+        return i + 1 < end && Character.isHighSurrogate(buffer[i]) && Character.isLowSurrogate(buffer[i + 1]) ? 2 : 1;
+    }
+
+    private void emit(final int start, final int end) {
+        final int length = end - start;
+        final char[] term = termAtt.resizeBuffer(length);
+        System.arraycopy(buffer, start, term, 0, length);
+        termAtt.setLength(length);
+        offsetAtt.setOffset(correctOffset(bufferOffset + start), correctOffset(bufferOffset + end));
+        typeAtt.setType(IDEOGRAPHIC_TYPE);
+    }
+
+    private void readWord() throws IOException {
+        final int start = bufferOffset + position;
+        char[] term = termAtt.buffer();
+        int length = 0;
+        int codePoints = 0;
+        while (codePoints < maxTokenLength) {
+            mark = position;
+            final int codePoint = codePoint();
+            if (codePoint == NONE || isHan(codePoint) || !CJKBigramTokenizer.isWordChar(codePoint)) {
+                break;
+            }
+            if (length + 2 > term.length) {
+                term = termAtt.resizeBuffer(length + 2);
+            }
+            length += Character.toChars(codePoint, term, length);
+            position += Character.charCount(codePoint);
+            codePoints++;
+        }
+        termAtt.setLength(length);
+        offsetAtt.setOffset(correctOffset(start), correctOffset(bufferOffset + position));
+        typeAtt.setType(WORD_TYPE);
+    }
+
+    /**
+     * Returns the code point at the current position without consuming it,
+     * or {@link #NONE} at the end of the input.
+     */
+    private int codePoint() throws IOException {
+        if (position >= bufferLength && !fill()) {
+            return NONE;
+        }
+        final char c = buffer[position];
+        if (!Character.isHighSurrogate(c)) {
+            return c;
+        }
+        if (position + 1 >= bufferLength) {
+            fill();
+        }
+        final int low = position + 1;
+        return low < bufferLength && Character.isLowSurrogate(buffer[low]) ? Character.toCodePoint(c, buffer[low]) : c;
+    }
+
+    /**
+     * Drops the buffer before {@link #mark} and reads more input.
+     */
+    private boolean fill() throws IOException {
+        if (exhausted) {
+            return false;
+        }
+        if (mark > 0) {
+            System.arraycopy(buffer, mark, buffer, 0, bufferLength - mark);
+            bufferOffset += mark;
+            bufferLength -= mark;
+            position -= mark;
+            mark = 0;
+        }
+        if (bufferLength == buffer.length) {
+            buffer = ArrayUtil.grow(buffer, bufferLength + 1);
+        }
+        final int length = input.read(buffer, bufferLength, buffer.length - bufferLength);
+        if (length <= 0) {
+            exhausted = true;
+            return false;
+        }
+        bufferLength += length;
+        return true;
+    }
+
+    static boolean isHan(final int codePoint) {
+        return codePoint >= 0x4E00 && codePoint <= 0x9FFF || codePoint >= 0x3400 && codePoint <= 0x4DBF
+                || codePoint >= 0xF900 && codePoint <= 0xFAFF || codePoint >= 0x20000 && codePoint <= 0x3FFFF || codePoint == 0x3007;
+    }
+
+    @Override
+    public void end() throws IOException {
+        super.end();
+        final int finalOffset = correctOffset(bufferOffset + bufferLength);
+        offsetAtt.setOffset(finalOffset, finalOffset);
+    }
+
+    @Override
+    public void reset() throws IOException {
+        super.reset();
+        bufferOffset = 0;
+        bufferLength = 0;
+        position = 0;
+        mark = 0;
+        exhausted = false;
+        count = 0;
+        next = 0;
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.analysis;
+
+import java.io.IOException;
+
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.tokenattributes.OffsetAttribute;
+import org.apache.lucene.analysis.tokenattributes.PositionIncrementAttribute;
+
+/**
+ * Feeds the input to a tokenizer in chunks of at most {@code chunkSize}
+ * chars, so that a delegate that buffers its whole input never holds more
+ * than one chunk of a large document.
+ *
+ * <p>A chunk ends after the last sentence terminator in its second half, or
+ * failing that after the last whitespace, or at {@code chunkSize} chars. The
+ * delegate is reset for each chunk; offsets are shifted to the position of
+ * the chunk in the input, and the trailing position gap of a chunk, such as
+ * that of removed stop words, is added to the first token of the next.</p>
+ */
+public final class ChunkedTokenizer extends DelegatingTokenizer {
+
+    private final OffsetAttribute offsetAtt = addAttribute(OffsetAttribute.class);
+
+    private final PositionIncrementAttribute posIncAtt = addAttribute(PositionIncrementAttribute.class);
+
+    private final SegmentReader segmentReader = new SegmentReader();
+
+    private final char[] buffer;
+
+    private int length;
+
+    // the end of the current chunk in the buffer
+    private int chunkEnd;
+
+    // offset of buffer[0] in the input
+    private int bufferOffset;
+
+    private boolean exhausted;
+
+    private boolean ended;
+
+    private int positionGap;
+
+    public ChunkedTokenizer(final Tokenizer delegate, final int chunkSize) {
+        super(delegate);
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize must be greater than 0: " + chunkSize);
+        }
+        buffer = new char[chunkSize];
+    }
+
+    @Override
+    public final boolean incrementToken() throws IOException {
+        while (!ended) {
+            if (delegate.incrementToken()) {
+                offsetAtt.setOffset(correctOffset(bufferOffset + offsetAtt.startOffset()),
+                        correctOffset(bufferOffset + offsetAtt.endOffset()));
+                if (positionGap > 0) {
+                    posIncAtt.setPositionIncrement(posIncAtt.getPositionIncrement() + positionGap);
+                    positionGap = 0;
+                }
+                return true;
+            }
+            delegate.end();
+            positionGap += posIncAtt.getPositionIncrement();
+            if (!nextChunk()) {
+                ended = true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Moves to the next chunk and passes it to the delegate.
+     *
+     * @return false at the end of the input
+     */
+    private boolean nextChunk() throws IOException {
+        System.arraycopy(buffer, chunkEnd, buffer, 0, length - chunkEnd);
+        bufferOffset += chunkEnd;
+        length -= chunkEnd;
+        while (!exhausted && length < buffer.length) {
+            final int read = input.read(buffer, length, buffer.length - length);
+            if (read == -1) {
+                exhausted = true;
+            } else {
+                length += read;
+            }
+        }
+        if (length == 0) {
+            chunkEnd = 0;
+            return false;
+        }
+        chunkEnd = exhausted ? length : findChunkEnd(buffer, 0, length);
+        delegate.close();
+        segmentReader.reset(buffer, 0, chunkEnd);
+        delegate.setReader(segmentReader);
+        delegate.reset();
+        return true;
+    }
+
+    /**
+     * Returns the end of a chunk of {@code buffer[start, end)} followed by
+     * more input: after the last sentence terminator in its second half, or
+     * failing that after the last whitespace, or at {@code end} unless that
+     * splits a surrogate pair.
+     */
+    static int findChunkEnd(final char[] buffer, final int start, final int end) {
+        final int min = start + (end - start) / 2;
+        for (int i = end - 1; i >= min; i--) {
+            if (isSentenceEnd(buffer, i, end)) {
+                return i + 1;
+            }
+        }
+        for (int i = end - 1; i >= min; i--) {
+            if (Character.isWhitespace(buffer[i])) {
+                return i + 1;
+            }
+        }
+        return Character.isHighSurrogate(buffer[end - 1]) && end - start > 1 ? end - 1 : end;
+    }
+
+    private static boolean isSentenceEnd(final char[] buffer, final int i, final int end) {
+        switch (buffer[i]) {
+        case '\n':
+        case '。':
+        case '！':
+        case '？':
+        case '．':
+            return true;
+        case '.':
+        case '!':
+        case '?':
+            // not the point of a number or an abbreviation
+            return i + 1 < end && Character.isWhitespace(buffer[i + 1]);
+        default:
+            return false;
+        }
+    }
+
+    @Override
+    protected void resetDelegate() throws IOException {
+        length = 0;
+        chunkEnd = 0;
+        bufferOffset = 0;
+        exhausted = false;
+        positionGap = 0;
+        ended = !nextChunk();
+    }
+
+    @Override
+    protected void endDelegate() throws IOException {
+        final int finalOffset = correctOffset(bufferOffset + length);
+        offsetAtt.setOffset(finalOffset, finalOffset);
+        posIncAtt.setPositionIncrement(positionGap);
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.analysis;
+
+import org.apache.lucene.util.Attribute;
+
+/**
+ * Passes the time of the last counted stage of an analysis chain to the next
+ * one, which subtracts it to count its own time. The time is kept when the
+ * token attributes are cleared.
+ */
+public interface CountingAttribute extends Attribute {
+
+    /**
+     * Returns the time of the stage that ended last, including the stages
+     * before it.
+     */
+    long getUpstreamNanos();
+
+    void setUpstreamNanos(long nanos);
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.analysis;
+
+import org.apache.lucene.util.AttributeImpl;
+import org.apache.lucene.util.AttributeReflector;
+
+public final class CountingAttributeImpl extends AttributeImpl implements CountingAttribute {
+
+    private long upstreamNanos;
+
+    @Override
+    public long getUpstreamNanos() {
+        return upstreamNanos;
+    }
+
+    @Override
+    public void setUpstreamNanos(final long nanos) {
+        upstreamNanos = nanos;
+    }
+
+    @Override
+    public void clear() {
+        // the time belongs to the stream, not to a token
+    }
+
+    @Override
+    public void end() {
+        // kept for the end() of the later stages
+    }
+
+    @Override
+    public void reflectWith(final AttributeReflector reflector) {
+        // not a property of the tokens
+    }
+
+    @Override
+    public void copyTo(final AttributeImpl target) {
+        ((CountingAttribute) target).setUpstreamNanos(upstreamNanos);
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.analysis;
+
+import java.io.IOException;
+import java.io.Reader;
+
+import org.apache.lucene.analysis.CharFilter;
+import org.codelibs.opensearch.fess.stats.AnalysisCounters;
+
+/**
+ * Records the characters read and the time spent in reading into
+ * {@link AnalysisCounters}, less the time of reading the counted char filters
+ * before it. Offsets are corrected by the wrapped reader.
+ */
+public class CountingCharFilter extends CharFilter {
+
+    // the time spent in reading counted char filters on each thread, as a reader is read by the thread that analyzes it
+    private static final ThreadLocal<long[]> READ_NANOS = ThreadLocal.withInitial(() -> new long[1]);
+
+    private final AnalysisCounters counters;
+
+    private long chars;
+
+    private long nanos;
+
+    private boolean closed;
+
+    public CountingCharFilter(final Reader input, final AnalysisCounters counters) {
+        super(input);
+        this.counters = counters;
+    }
+
+    @Override
+    public int read(final char[] cbuf, final int off, final int len) throws IOException {
+        final long[] readNanos = READ_NANOS.get();
+        final long upstreamNanos = readNanos[0];
+        final long startTime = System.nanoTime();
+        final int n;
+        try {
+            n = input.read(cbuf, off, len);
+        } finally {
+            final long elapsed = System.nanoTime() - startTime;
+            nanos += elapsed - (readNanos[0] - upstreamNanos);
+            readNanos[0] = upstreamNanos + elapsed;
+        }
+        if (n > 0) {
+            chars += n;
+        }
+        return n;
+    }
+
+    /**
+     * Returns the time that the current thread has spent in reading counted
+     * char filters. A stage reading them subtracts the difference between two
+     * calls from its own time.
+     */
+    static long readNanos() {
+        return READ_NANOS.get()[0];
+    }
+
+    @Override
+    protected int correct(final int currentOff) {
+        return currentOff;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            counters.onStream(0, chars, nanos);
+        }
+        super.close();
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.analysis;
+
+import java.io.IOException;
+
+import org.apache.lucene.analysis.TokenFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.tokenattributes.OffsetAttribute;
+import org.codelibs.opensearch.fess.stats.AnalysisCounters;
+
+/**
+ * Records tokens, characters and elapsed time of each stream into
+ * {@link AnalysisCounters}. The time is that of the filter less the time of
+ * the counted stages before it, which it reads from {@link CountingAttribute}.
+ */
+public class CountingTokenFilter extends TokenFilter {
+
+    private final AnalysisCounters counters;
+
+    private final OffsetAttribute offsetAtt = addAttribute(OffsetAttribute.class);
+
+    // whether no stage before this one is counted
+    private final boolean first;
+
+    private final CountingAttribute countingAtt;
+
+    private long tokens;
+
+    private long nanos;
+
+    public CountingTokenFilter(final TokenStream input, final AnalysisCounters counters) {
+        super(input);
+        this.counters = counters;
+        first = !input.hasAttribute(CountingAttribute.class);
+        countingAtt = addAttribute(CountingAttribute.class);
+    }
+
+    @Override
+    public final boolean incrementToken() throws IOException {
+        final long startTime = System.nanoTime();
+        try {
+            if (input.incrementToken()) {
+                tokens++;
+                return true;
+            }
+            return false;
+        } finally {
+            nanos += System.nanoTime() - startTime;
+        }
+    }
+
+    @Override
+    public void reset() throws IOException {
+        final long startTime = System.nanoTime();
+        super.reset();
+        nanos = System.nanoTime() - startTime;
+        tokens = 0;
+    }
+
+    @Override
+    public void end() throws IOException {
+        final long startTime = System.nanoTime();
+        super.end();
+        nanos += System.nanoTime() - startTime;
+        // the stages before this one have ended first
+        final long upstreamNanos = first ? 0 : countingAtt.getUpstreamNanos();
+        countingAtt.setUpstreamNanos(nanos);
+        counters.onStream(tokens, offsetAtt.endOffset(), nanos - upstreamNanos);
+    }
+}
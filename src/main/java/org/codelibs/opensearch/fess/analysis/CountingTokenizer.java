@@ -0,0 +1,81 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.analysis;
+
+import java.io.IOException;
+
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.tokenattributes.OffsetAttribute;
+import org.codelibs.opensearch.fess.stats.AnalysisCounters;
+
+/**
+ * Records tokens, characters and elapsed time of each stream into
+ * {@link AnalysisCounters}. Counters are updated once per stream in {@link #end()}.
+ * The time is that of the tokenizer less the time of reading the counted char
+ * filters, so that each stage is counted once.
+ */
+public class CountingTokenizer extends DelegatingTokenizer {
+
+    private final AnalysisCounters counters;
+
+    private final OffsetAttribute offsetAtt = addAttribute(OffsetAttribute.class);
+
+    private final CountingAttribute countingAtt = addAttribute(CountingAttribute.class);
+
+    private long tokens;
+
+    private long nanos;
+
+    // the read time of the counted char filters when this stream was reset
+    private long readNanos;
+
+    public CountingTokenizer(final Tokenizer delegate, final AnalysisCounters counters) {
+        super(delegate);
+        this.counters = counters;
+    }
+
+    @Override
+    public final boolean incrementToken() throws IOException {
+        final long startTime = System.nanoTime();
+        try {
+            if (delegate.incrementToken()) {
+                tokens++;
+                return true;
+            }
+            return false;
+        } finally {
+            nanos += System.nanoTime() - startTime;
+        }
+    }
+
+    @Override
+    public void reset() throws IOException {
+        readNanos = CountingCharFilter.readNanos();
+        final long startTime = System.nanoTime();
+        super.reset();
+        nanos = System.nanoTime() - startTime;
+        tokens = 0;
+    }
+
+    @Override
+    public void end() throws IOException {
+        final long startTime = System.nanoTime();
+        super.end();
+        nanos += System.nanoTime() - startTime;
+        countingAtt.setUpstreamNanos(nanos);
+        counters.onStream(tokens, offsetAtt.endOffset(), nanos - (CountingCharFilter.readNanos() - readNanos));
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.analysis;
+
+import java.io.IOException;
+import java.util.Iterator;
+
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.util.Attribute;
+import org.apache.lucene.util.AttributeFactory;
+import org.apache.lucene.util.AttributeImpl;
+
+/**
+ * A tokenizer that forwards to another tokenizer. Both share the same
+ * attribute instances, so no state is copied per token. Subclasses must
+ * declare {@link #incrementToken()} final, as Lucene asserts.
+ */
+public abstract class DelegatingTokenizer extends Tokenizer {
+
+    protected final Tokenizer delegate;
+
+    protected DelegatingTokenizer(final Tokenizer delegate) {
+        super(new SharedAttributeFactory(delegate));
+        this.delegate = delegate;
+        final Iterator<Class<? extends Attribute>> iterator = delegate.getAttributeClassesIterator();
+        while (iterator.hasNext()) {
+            addAttribute(iterator.next());
+        }
+    }
+
+    @Override
+    public boolean incrementToken() throws IOException {
+        return delegate.incrementToken();
+    }
+
+    @Override
+    public void reset() throws IOException {
+        super.reset();
+        resetDelegate();
+    }
+
+    /**
+     * Passes the input to the delegate and resets it.
+     */
+    protected void resetDelegate() throws IOException {
+        delegate.setReader(input);
+        delegate.reset();
+    }
+
+    @Override
+    public void end() throws IOException {
+        super.end();
+        endDelegate();
+    }
+
+    protected void endDelegate() throws IOException {
+        delegate.end();
+    }
+
+    @Override
+    public void close() throws IOException {
+        delegate.close();
+        super.close();
+    }
+
+    private static final class SharedAttributeFactory extends AttributeFactory {
+        private final Tokenizer delegate;
+
+        SharedAttributeFactory(final Tokenizer delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public AttributeImpl createAttributeInstance(final Class<? extends Attribute> attClass) {
+            // attributes added later are also registered to the delegate, so that it clears them
+            return (AttributeImpl) delegate.addAttribute(attClass);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.analysis;
+
+import java.io.IOException;
+
+import org.apache.lucene.analysis.TokenFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.analysis.tokenattributes.KeywordAttribute;
+import org.apache.lucene.analysis.tokenattributes.PositionIncrementAttribute;
+import org.apache.lucene.util.Attribute;
+
+/**
+ * Applies, in one pass, what the chain of Kuromoji's base form filter, part
+ * of speech stop filter, katakana stem filter and (optionally) reading form
+ * filter does, in that order. Attributes that the tokenizer does not provide
+ * are skipped, as the chained filters would find them empty.
+ */
+public final class JapaneseFusedFilter extends TokenFilter {
+
+    private final CharTermAttribute termAtt = addAttribute(CharTermAttribute.class);
+
+    private final KeywordAttribute keywordAtt = addAttribute(KeywordAttribute.class);
+
+    private final PositionIncrementAttribute posIncAtt = addAttribute(PositionIncrementAttribute.class);
+
+    private final KuromojiAttributes kuromoji;
+
+    private final Attribute baseFormAtt;
+
+    private final Attribute partOfSpeechAtt;
+
+    private final Attribute readingAtt;
+
+    private final PartOfSpeechTags.Matcher stopTags;
+
+    private final int minimumKatakanaLength;
+
+    private final boolean useRomaji;
+
+    private final StringBuilder romaji;
+
+    private int skippedPositions;
+
+    /**
+     * @param kuromoji the Kuromoji attributes, or null without Kuromoji
+     * @param readingForm whether terms are replaced by their readings
+     */
+    public JapaneseFusedFilter(final TokenStream input, final KuromojiAttributes kuromoji, final PartOfSpeechTags stopTags,
+            final int minimumKatakanaLength, final boolean readingForm, final boolean useRomaji) {
+        super(input);
+        this.kuromoji = kuromoji;
+        baseFormAtt = getAttribute(input, kuromoji != null ? kuromoji.baseFormClass : null);
+        partOfSpeechAtt = stopTags.isEmpty() ? null : getAttribute(input, kuromoji != null ? kuromoji.partOfSpeechClass : null);
+        readingAtt = readingForm ? getAttribute(input, kuromoji != null ? kuromoji.readingClass : null) : null;
+        this.stopTags = stopTags.matcher();
+        this.minimumKatakanaLength = minimumKatakanaLength;
+        // romaji of unknown words is derived from the term, even without readings
+        this.useRomaji = readingForm && useRomaji && kuromoji != null;
+        romaji = this.useRomaji ? new StringBuilder() : null;
+    }
+
+    private static Attribute getAttribute(final TokenStream input, final Class<? extends Attribute> attClass) {
+        return attClass != null && input.hasAttribute(attClass) ? input.getAttribute(attClass) : null;
+    }
+
+    @Override
+    public boolean incrementToken() throws IOException {
+        skippedPositions = 0;
+        while (input.incrementToken()) {
+            if (partOfSpeechAtt != null) {
+                final String partOfSpeech = kuromoji.getPartOfSpeech(partOfSpeechAtt);
+                if (stopTags.isStop(partOfSpeech)) {
+                    skippedPositions += posIncAtt.getPositionIncrement();
+                    continue;
+                }
+            }
+            if (skippedPositions != 0) {
+                posIncAtt.setPositionIncrement(posIncAtt.getPositionIncrement() + skippedPositions);
+            }
+            if (!keywordAtt.isKeyword()) {
+                if (baseFormAtt != null) {
+                    final String baseForm = kuromoji.getBaseForm(baseFormAtt);
+                    if (baseForm != null) {
+                        termAtt.setEmpty().append(baseForm);
+                    }
+                }
+                termAtt.setLength(KatakanaStemmer.stem(termAtt.buffer(), termAtt.length(), minimumKatakanaLength));
+            }
+            final String reading = readingAtt != null ? kuromoji.getReading(readingAtt) : null;
+            if (useRomaji) {
+                romaji.setLength(0);
+                kuromoji.getRomanization(romaji, reading != null ? reading : termAtt);
+                termAtt.setEmpty().append(romaji);
+            } else if (reading != null) {
+                termAtt.setEmpty().append(reading);
+            }
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void reset() throws IOException {
+        super.reset();
+        skippedPositions = 0;
+    }
+
+    @Override
+    public void end() throws IOException {
+        super.end();
+        posIncAtt.setPositionIncrement(posIncAtt.getPositionIncrement() + skippedPositions);
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.analysis;
+
+import java.io.IOException;
+
+import org.apache.lucene.analysis.TokenFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.analysis.tokenattributes.KeywordAttribute;
+
+/**
+ * Removes the trailing prolonged sound mark of katakana terms of at least
+ * the minimum length, like Kuromoji's katakana stem filter, by shortening the
+ * term buffer in place. It needs no Kuromoji attributes, so it works behind
+ * any tokenizer. Keyword tokens are left unchanged.
+ */
+public final class JapaneseKatakanaStemFilter extends TokenFilter {
+
+    public static final int DEFAULT_MINIMUM_LENGTH = KatakanaStemmer.DEFAULT_MINIMUM_LENGTH;
+
+    private final CharTermAttribute termAtt = addAttribute(CharTermAttribute.class);
+
+    private final KeywordAttribute keywordAtt = addAttribute(KeywordAttribute.class);
+
+    private final int minimumLength;
+
+    public JapaneseKatakanaStemFilter(final TokenStream input, final int minimumLength) {
+        super(input);
+        if (minimumLength < 1) {
+            throw new IllegalArgumentException("minimumLength must be greater than 0: " + minimumLength);
+        }
+        this.minimumLength = minimumLength;
+    }
+
+    @Override
+    public boolean incrementToken() throws IOException {
+        if (!input.incrementToken()) {
+            return false;
+        }
+        if (!keywordAtt.isKeyword()) {
+            termAtt.setLength(KatakanaStemmer.stem(termAtt.buffer(), termAtt.length(), minimumLength));
+        }
+        return true;
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.analysis;
+
+import org.apache.lucene.analysis.FilteringTokenFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.util.Attribute;
+
+/**
+ * Removes the tokens whose part of speech is a stop tag, like Kuromoji's part
+ * of speech stop filter, with the tags matched by {@link PartOfSpeechTags}.
+ * Tokens without a part of speech are kept.
+ */
+public final class JapanesePartOfSpeechStopFilter extends FilteringTokenFilter {
+
+    private final KuromojiAttributes kuromoji;
+
+    private final Attribute partOfSpeechAtt;
+
+    private final PartOfSpeechTags.Matcher stopTags;
+
+    /**
+     * @param kuromoji the Kuromoji attributes, or null without Kuromoji
+     */
+    public JapanesePartOfSpeechStopFilter(final TokenStream input, final KuromojiAttributes kuromoji, final PartOfSpeechTags stopTags) {
+        super(input);
+        this.kuromoji = kuromoji;
+        partOfSpeechAtt = kuromoji != null && !stopTags.isEmpty() && input.hasAttribute(kuromoji.partOfSpeechClass)
+                ? input.getAttribute(kuromoji.partOfSpeechClass)
+                : null;
+        this.stopTags = stopTags.matcher();
+    }
+
+    @Override
+    protected boolean accept() {
+        return partOfSpeechAtt == null || !stopTags.isStop(kuromoji.getPartOfSpeech(partOfSpeechAtt));
+    }
+}
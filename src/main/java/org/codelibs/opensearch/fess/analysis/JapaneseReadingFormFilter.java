@@ -0,0 +1,123 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.analysis;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.apache.lucene.analysis.TokenFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.util.ArrayUtil;
+import org.apache.lucene.util.Attribute;
+
+/**
+ * Replaces terms by their readings, like Kuromoji's reading form filter.
+ * With a {@link RomajiConverter} the reading, or the term of a token without
+ * one, is written to the term buffer as romaji. The romaji of recent words
+ * are kept in a direct-mapped cache of {@code cacheSize} entries, so that hot
+ * words are copied instead of converted; an entry is replaced by the next
+ * word that maps to its slot.
+ */
+public final class JapaneseReadingFormFilter extends TokenFilter {
+
+    /** Longer words are not cached. */
+    static final int MAX_CACHED_LENGTH = 32;
+
+    private final CharTermAttribute termAtt = addAttribute(CharTermAttribute.class);
+
+    private final KuromojiAttributes kuromoji;
+
+    private final Attribute readingAtt;
+
+    private final RomajiConverter romaji;
+
+    private final char[][] cacheKeys;
+
+    private final char[][] cacheValues;
+
+    private char[] source = new char[MAX_CACHED_LENGTH];
+
+    /**
+     * @param kuromoji the Kuromoji attributes, or null without Kuromoji
+     * @param romaji the converter of readings to romaji, or null for katakana readings
+     * @param cacheSize the number of cached words, or 0 for no cache
+     */
+    public JapaneseReadingFormFilter(final TokenStream input, final KuromojiAttributes kuromoji, final RomajiConverter romaji,
+            final int cacheSize) {
+        super(input);
+        this.kuromoji = kuromoji;
+        readingAtt = kuromoji != null && input.hasAttribute(kuromoji.readingClass) ? input.getAttribute(kuromoji.readingClass) : null;
+        this.romaji = romaji;
+        if (romaji != null && cacheSize > 0) {
+            final int size = Integer.highestOneBit(cacheSize - 1) << 1;
+            cacheKeys = new char[Math.max(size, 1)][];
+            cacheValues = new char[cacheKeys.length][];
+        } else {
+            cacheKeys = null;
+            cacheValues = null;
+        }
+    }
+
+    @Override
+    public boolean incrementToken() throws IOException {
+        if (!input.incrementToken()) {
+            return false;
+        }
+        final String reading = readingAtt != null ? kuromoji.getReading(readingAtt) : null;
+        if (romaji == null) {
+            if (reading != null) {
+                termAtt.setEmpty().append(reading);
+            }
+            return true;
+        }
+        final int length;
+        if (reading != null) {
+            length = reading.length();
+            source = ArrayUtil.grow(source, length);
+            reading.getChars(0, length, source, 0);
+        } else {
+            length = termAtt.length();
+            source = ArrayUtil.grow(source, length);
+            System.arraycopy(termAtt.buffer(), 0, source, 0, length);
+        }
+        toRomaji(length);
+        return true;
+    }
+
+    private void toRomaji(final int length) {
+        int slot = -1;
+        if (cacheKeys != null && length <= MAX_CACHED_LENGTH) {
+            int hash = 0;
+            for (int i = 0; i < length; i++) {
+                hash = 31 * hash + source[i];
+            }
+            slot = (hash ^ hash >>> 16) & cacheKeys.length - 1;
+            final char[] key = cacheKeys[slot];
+            if (key != null && Arrays.equals(key, 0, key.length, source, 0, length)) {
+                termAtt.copyBuffer(cacheValues[slot], 0, cacheValues[slot].length);
+                return;
+            }
+        }
+        final char[] buffer = termAtt.resizeBuffer(RomajiConverter.maxLength(length));
+        final int romajiLength = romaji.convert(source, length, buffer);
+        termAtt.setLength(romajiLength);
+        if (slot >= 0) {
+            cacheKeys[slot] = Arrays.copyOf(source, length);
+            cacheValues[slot] = Arrays.copyOf(buffer, romajiLength);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.analysis;
+
+/**
+ * Removes the trailing prolonged sound mark of katakana terms, as
+ * Kuromoji's {@code JapaneseKatakanaStemFilter} does.
+ */
+final class KatakanaStemmer {
+
+    static final int DEFAULT_MINIMUM_LENGTH = 4;
+
+    private static final char PROLONGED_SOUND_MARK = 'ー';
+
+    // Character.UnicodeBlock.KATAKANA; half-width katakana is another block
+    private static final char KATAKANA_START = '\u30A0';
+
+    private static final char KATAKANA_END = '\u30FF';
+
+    private KatakanaStemmer() {
+    }
+
+    /**
+     * Returns the length of the stem of {@code term}. The term is only read,
+     * so a filter can cut it in place without allocating.
+     */
+    static int stem(final char[] term, final int length, final int minimumLength) {
+        if (length == 0 || length < minimumLength || term[length - 1] != PROLONGED_SOUND_MARK) {
+            return length;
+        }
+        for (int i = 0; i < length; i++) {
+            final char c = term[i];
+            if (c < KATAKANA_START || c > KATAKANA_END) {
+                return length;
+            }
+        }
+        return length - 1;
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.analysis;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.apache.lucene.util.Attribute;
+
+/**
+ * Access to the token attributes of Kuromoji. Kuromoji is loaded by the class
+ * loader of its plugin, so its attributes are resolved by name and read
+ * through method handles.
+ */
+public final class KuromojiAttributes {
+
+    static final String BASE_FORM_ATTRIBUTE = "org.apache.lucene.analysis.ja.tokenattributes.BaseFormAttribute";
+
+    static final String PART_OF_SPEECH_ATTRIBUTE = "org.apache.lucene.analysis.ja.tokenattributes.PartOfSpeechAttribute";
+
+    static final String READING_ATTRIBUTE = "org.apache.lucene.analysis.ja.tokenattributes.ReadingAttribute";
+
+    static final String TO_STRING_UTIL = "org.apache.lucene.analysis.ja.dict.ToStringUtil";
+
+    static final String JAPANESE_ANALYZER = "org.apache.lucene.analysis.ja.JapaneseAnalyzer";
+
+    private static final MethodType GETTER = MethodType.methodType(String.class, Attribute.class);
+
+    final Class<? extends Attribute> baseFormClass;
+
+    final Class<? extends Attribute> partOfSpeechClass;
+
+    final Class<? extends Attribute> readingClass;
+
+    private final MethodHandle baseForm;
+
+    private final MethodHandle partOfSpeech;
+
+    private final MethodHandle reading;
+
+    private final MethodHandle romanization;
+
+    private final MethodHandle defaultStopTags;
+
+    private KuromojiAttributes(final Class<?> baseFormClass, final Class<?> partOfSpeechClass, final Class<?> readingClass,
+            final Class<?> toStringUtil, final Class<?> japaneseAnalyzer) throws ReflectiveOperationException {
+        final MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        this.baseFormClass = baseFormClass.asSubclass(Attribute.class);
+        this.partOfSpeechClass = partOfSpeechClass.asSubclass(Attribute.class);
+        this.readingClass = readingClass.asSubclass(Attribute.class);
+        baseForm = lookup.findVirtual(baseFormClass, "getBaseForm", MethodType.methodType(String.class)).asType(GETTER);
+        partOfSpeech = lookup.findVirtual(partOfSpeechClass, "getPartOfSpeech", MethodType.methodType(String.class)).asType(GETTER);
+        reading = lookup.findVirtual(readingClass, "getReading", MethodType.methodType(String.class)).asType(GETTER);
+        romanization = lookup.findStatic(toStringUtil, "getRomanization",
+                MethodType.methodType(void.class, Appendable.class, CharSequence.class));
+        defaultStopTags = lookup.findStatic(japaneseAnalyzer, "getDefaultStopTags", MethodType.methodType(Set.class));
+    }
+
+    /**
+     * Returns the attributes of the Kuromoji found by {@code loader}, or null
+     * if Kuromoji is not installed.
+     */
+    public static KuromojiAttributes load(final Function<String, Class<?>> loader) {
+        final Class<?> baseFormClass = loader.apply(BASE_FORM_ATTRIBUTE);
+        final Class<?> partOfSpeechClass = loader.apply(PART_OF_SPEECH_ATTRIBUTE);
+        final Class<?> readingClass = loader.apply(READING_ATTRIBUTE);
+        final Class<?> toStringUtil = loader.apply(TO_STRING_UTIL);
+        final Class<?> japaneseAnalyzer = loader.apply(JAPANESE_ANALYZER);
+        if (baseFormClass == null || partOfSpeechClass == null || readingClass == null || toStringUtil == null
+                || japaneseAnalyzer == null) {
+            return null;
+        }
+        try {
+            return new KuromojiAttributes(baseFormClass, partOfSpeechClass, readingClass, toStringUtil, japaneseAnalyzer);
+        } catch (final ReflectiveOperationException e) {
+            throw new IllegalStateException("Failed to access the Kuromoji attributes.", e);
+        }
+    }
+
+    String getBaseForm(final Attribute attribute) {
+        try {
+            return (String) baseForm.invokeExact(attribute);
+        } catch (final Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    String getPartOfSpeech(final Attribute attribute) {
+        try {
+            return (String) partOfSpeech.invokeExact(attribute);
+        } catch (final Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    String getReading(final Attribute attribute) {
+        try {
+            return (String) reading.invokeExact(attribute);
+        } catch (final Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    void getRomanization(final Appendable builder, final CharSequence s) throws IOException {
+        try {
+            romanization.invokeExact(builder, s);
+        } catch (final IOException e) {
+            throw e;
+        } catch (final Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    /**
+     * Returns the stop tags of the Kuromoji {@code JapaneseAnalyzer}.
+     */
+    @SuppressWarnings("unchecked")
+    public Set<String> getDefaultStopTags() {
+        try {
+            return (Set<String>) defaultStopTags.invokeExact();
+        } catch (final Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    private static RuntimeException rethrow(final Throwable t) {
+        if (t instanceof final RuntimeException e) {
+            return e;
+        }
+        if (t instanceof final Error e) {
+            throw e;
+        }
+        return new IllegalStateException(t);
+    }
+}
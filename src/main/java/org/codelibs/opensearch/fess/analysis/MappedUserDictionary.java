@@ -0,0 +1,220 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.analysis;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.codelibs.opensearch.fess.util.DoubleArrayTrie;
+
+/**
+ * A Japanese user dictionary in the Kuromoji CSV format
+ * ({@code surface,segmentation,readings,part-of-speech}), compiled into a
+ * binary file and memory-mapped, so that the entries live outside the heap
+ * and one file can be shared by every index on the node.
+ *
+ * <p>Only the surface forms and their segmentation are kept; readings and
+ * parts of speech are validated but not stored.</p>
+ */
+public final class MappedUserDictionary {
+
+    private static final int MAGIC = 0x46554431;
+
+    private final Path file;
+
+    private final long sizeInBytes;
+
+    private final DoubleArrayTrie trie;
+
+    // segments of the entry id are segmentLengths[segmentStarts[id], segmentStarts[id + 1])
+    private final IntBuffer segmentStarts;
+
+    private final CharBuffer segmentLengths;
+
+    private MappedUserDictionary(final Path file, final ByteBuffer buffer) {
+        this.file = file;
+        sizeInBytes = buffer.limit();
+        if (buffer.getInt() != MAGIC) {
+            throw new IllegalArgumentException(file + " is not a compiled user dictionary.");
+        }
+        trie = DoubleArrayTrie.readFrom(buffer);
+        final int segmentCount = buffer.getInt();
+        segmentStarts = buffer.slice(buffer.position(), (trie.size() + 1) * Integer.BYTES).asIntBuffer();
+        buffer.position(buffer.position() + (trie.size() + 1) * Integer.BYTES);
+        segmentLengths = buffer.slice(buffer.position(), segmentCount * Character.BYTES).asCharBuffer();
+    }
+
+    /**
+     * Maps a file written by {@link #compile(Reader, Path)}.
+     */
+    public static MappedUserDictionary open(final Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // the mapping stays valid after the channel is closed
+            return new MappedUserDictionary(file, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Parses a Kuromoji user dictionary and writes the compiled form to
+     * {@code file}. The file is replaced atomically, so readers never see a
+     * partial file.
+     *
+     * @throws IllegalArgumentException if an entry is malformed
+     */
+    public static void compile(final Reader source, final Path file) throws IOException {
+        final Map<String, char[]> entries = parse(source);
+        final List<String> keys = new ArrayList<>(entries.keySet());
+        final DoubleArrayTrie trie = DoubleArrayTrie.build(keys);
+        final Path tmp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream os = Files.newOutputStream(tmp);
+                    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os))) {
+                out.writeInt(MAGIC);
+                trie.writeTo(out);
+                int segmentCount = 0;
+                for (final char[] segments : entries.values()) {
+                    segmentCount += segments.length;
+                }
+                out.writeInt(segmentCount);
+                int start = 0;
+                for (final char[] segments : entries.values()) {
+                    out.writeInt(start);
+                    start += segments.length;
+                }
+                out.writeInt(start);
+                for (final char[] segments : entries.values()) {
+                    for (final char length : segments) {
+                        out.writeChar(length);
+                    }
+                }
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    static Map<String, char[]> parse(final Reader source) throws IOException {
+        // the first entry of a surface form wins, as in Kuromoji
+        final Map<String, char[]> entries = new TreeMap<>();
+        final BufferedReader reader = new BufferedReader(source);
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.startsWith("#") || line.isBlank()) {
+                continue;
+            }
+            final List<String> values = parseCsv(line);
+            if (values.size() < 4) {
+                throw new IllegalArgumentException("Illegal user dictionary entry at line " + lineNumber + ": " + line);
+            }
+            final String surface = values.get(0).replaceAll("\\s", "");
+            final String[] segmentation = values.get(1).trim().split(" +");
+            final String[] readings = values.get(2).trim().split(" +");
+            if (surface.isEmpty() || segmentation.length != readings.length) {
+                throw new IllegalArgumentException("Illegal user dictionary entry at line " + lineNumber + ": " + line
+                        + " - the number of segmentations (" + segmentation.length + ") does not match the number of readings ("
+                        + readings.length + ")");
+            }
+            if (!String.join("", segmentation).equals(surface)) {
+                throw new IllegalArgumentException("Illegal user dictionary entry at line " + lineNumber + ": " + line
+                        + " - the concatenated segmentation does not match the surface form (" + surface + ")");
+            }
+            final char[] lengths = new char[segmentation.length];
+            for (int i = 0; i < segmentation.length; i++) {
+                lengths[i] = (char) segmentation[i].length();
+            }
+            entries.putIfAbsent(surface, lengths);
+        }
+        return entries;
+    }
+
+    private static List<String> parseCsv(final String line) {
+        final List<String> values = new ArrayList<>();
+        final StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            final char c = line.charAt(i);
+            if (c == '"') {
+                if (quoted && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else {
+                    quoted = !quoted;
+                }
+            } else if (c == ',' && !quoted) {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    /**
+     * Finds the longest surface form that is a prefix of {@code chars[offset, offset + length)}.
+     *
+     * @return -1 if no entry matches, otherwise the entry id in the upper 32 bits and the match length in the lower 32 bits
+     */
+    public long longestMatch(final char[] chars, final int offset, final int length) {
+        return trie.longestMatch(chars, offset, length);
+    }
+
+    public int getSegmentCount(final int id) {
+        return segmentStarts.get(id + 1) - segmentStarts.get(id);
+    }
+
+    public int getSegmentLength(final int id, final int index) {
+        return segmentLengths.get(segmentStarts.get(id) + index);
+    }
+
+    /** The length of the longest surface form. */
+    public int getMaxLength() {
+        return trie.getMaxKeyLength();
+    }
+
+    /** The number of entries. */
+    public int size() {
+        return trie.size();
+    }
+
+    public long getSizeInBytes() {
+        return sizeInBytes;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+}
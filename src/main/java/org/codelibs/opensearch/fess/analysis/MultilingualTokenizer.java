@@ -0,0 +1,480 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.analysis;
+
+import java.io.IOException;
+import java.text.Normalizer;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.tokenattributes.OffsetAttribute;
+import org.apache.lucene.util.Attribute;
+
+/**
+ * Splits the input into script runs and tokenizes each run with the
+ * tokenizer of its language.
+ *
+ * <p>Han and Kana characters form one run, which is Japanese if it contains
+ * Kana. A Han-only run is Japanese once Kana has been seen in the stream, and
+ * {@code hanLanguage} otherwise. Hangul runs are Korean. Runs of other letters
+ * are split by word: a word with Vietnamese-specific letters or marks, or
+ * with other diacritics in the shape of a Vietnamese syllable such as
+ * {@code Hà}, is Vietnamese, and a word that cannot be a Vietnamese syllable
+ * is not. The other words, such as {@code an}, go with the words before them,
+ * or after them at the start of a run. Digits, spaces and punctuation stay in
+ * the current run.</p>
+ *
+ * <p>Attributes of the language tokenizers are copied to this tokenizer, and
+ * offsets are shifted to the position of the run in the input.</p>
+ *
+ * <p>The input is read through a buffer that only keeps the current run. A
+ * run longer than {@link #MAX_RUN_LENGTH} chars is split after its last digit,
+ * space or punctuation, or at the limit if it has none, and each piece is
+ * tokenized on its own.</p>
+ */
+public final class MultilingualTokenizer extends Tokenizer {
+
+    public enum Language {
+        JA, KO, ZH, VI, OTHER
+    }
+
+    public static final int MAX_RUN_LENGTH = 4096;
+
+    private static final int BUFFER_SIZE = 2 * MAX_RUN_LENGTH;
+
+    private static final int NONE = -1;
+
+    private static final int COMMON = 0;
+
+    private static final int HAN = 1;
+
+    private static final int KANA = 2;
+
+    private static final int HANGUL = 3;
+
+    private static final int LETTER = 4;
+
+    // the initial consonants of Vietnamese syllables, longest first, as base letters
+    private static final String[] ONSETS = { "ngh", "ng", "nh", "ch", "gh", "gi", "kh", "ph", "qu", "th", "tr", "b", "c", "d", "g", "h",
+            "k", "l", "m", "n", "p", "r", "s", "t", "v", "x", "" };
+
+    private static final int MAX_SYLLABLE_LENGTH = 8;
+
+    // the lower case base letter of each letter of the Vietnamese alphabet, and 0 for other chars
+    private static final char[] BASE_LETTERS = new char[0x1EFA];
+
+    static {
+        for (char c = 'a'; c <= 'z'; c++) {
+            if ("fjwz".indexOf(c) < 0) {
+                BASE_LETTERS[c] = c;
+                BASE_LETTERS[Character.toUpperCase(c)] = c;
+            }
+        }
+        BASE_LETTERS['đ'] = 'd';
+        BASE_LETTERS['Đ'] = 'd';
+        final StringBuilder letters = new StringBuilder("àáâãèéêìíòóôõùúýăĩũơư");
+        for (char c = 0x1EA0; c <= 0x1EF9; c++) {
+            letters.append(c);
+        }
+        for (int i = 0; i < letters.length(); i++) {
+            final char c = letters.charAt(i);
+            final char base = Character.toLowerCase(Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD).charAt(0));
+            BASE_LETTERS[c] = base;
+            BASE_LETTERS[Character.toUpperCase(c)] = base;
+        }
+    }
+
+    private final OffsetAttribute offsetAtt = addAttribute(OffsetAttribute.class);
+
+    private final Map<Language, Tokenizer> tokenizers;
+
+    private final Language hanLanguage;
+
+    private final SegmentReader segmentReader = new SegmentReader();
+
+    private final char[] buffer = new char[BUFFER_SIZE];
+
+    private final char[] syllable = new char[MAX_SYLLABLE_LENGTH];
+
+    // offset of buffer[0] in the input
+    private int bufferOffset;
+
+    private int bufferLength;
+
+    private int position;
+
+    // the start of the current run in the buffer
+    private int mark;
+
+    private boolean exhausted;
+
+    private boolean kanaSeen;
+
+    private Tokenizer current;
+
+    private int currentOffset;
+
+    /**
+     * @param tokenizers the tokenizer of each language
+     * @param defaultTokenizer the tokenizer of languages missing in {@code tokenizers}, and of other scripts
+     * @param hanLanguage the language of Han-only runs before any Kana is seen
+     */
+    public MultilingualTokenizer(final Map<Language, Tokenizer> tokenizers, final Tokenizer defaultTokenizer,
+            final Language hanLanguage) {
+        this.tokenizers = new EnumMap<>(Language.class);
+        for (final Language language : Language.values()) {
+            final Tokenizer tokenizer = tokenizers.get(language);
+            this.tokenizers.put(language, tokenizer != null ? tokenizer : defaultTokenizer);
+        }
+        this.hanLanguage = hanLanguage;
+        for (final Tokenizer tokenizer : this.tokenizers.values()) {
+            final Iterator<Class<? extends Attribute>> iterator = tokenizer.getAttributeClassesIterator();
+            while (iterator.hasNext()) {
+                addAttribute(iterator.next());
+            }
+        }
+    }
+
+    @Override
+    public boolean incrementToken() throws IOException {
+        clearAttributes();
+        while (true) {
+            if (current != null) {
+                if (current.incrementToken()) {
+                    current.copyTo(this);
+                    offsetAtt.setOffset(correctOffset(currentOffset + offsetAtt.startOffset()),
+                            correctOffset(currentOffset + offsetAtt.endOffset()));
+                    return true;
+                }
+                current.end();
+                current.close();
+                current = null;
+                clearAttributes();
+            }
+            mark = position;
+            if (codePoint() == NONE) {
+                return false;
+            }
+            final Language language = nextRun();
+            current = tokenizers.get(language);
+            currentOffset = bufferOffset + mark;
+            segmentReader.reset(buffer, mark, position - mark);
+            current.setReader(segmentReader);
+            current.reset();
+        }
+    }
+
+    /**
+     * Advances {@link #position} from {@link #mark} to the end of the next run, up to
+     * {@link #MAX_RUN_LENGTH} chars, and returns its language.
+     */
+    private Language nextRun() throws IOException {
+        int runScript = COMMON;
+        boolean kana = false;
+        // the language of the words of a letter run, or null while all of them may be Vietnamese or not
+        Language letterLanguage = null;
+        // the start of the current word of a letter run, or -1 between words
+        int wordStart = -1;
+        boolean wordVietnamese = false;
+        boolean wordAccented = false;
+        // the state after the last common code point of the run, where a long run is split
+        int splitEnd = -1;
+        boolean splitKana = false;
+        Language splitLetterLanguage = null;
+        // wordStart and splitEnd are relative to mark, which fill() moves
+        while (true) {
+            final int codePoint = codePoint();
+            if (codePoint == NONE) {
+                break;
+            }
+            final int script = script(codePoint);
+            final int group = script == KANA ? HAN : script;
+            if (script != COMMON && runScript != COMMON && runScript != group) {
+                break;
+            }
+            final int length = Character.charCount(codePoint);
+            if (position + length - mark > MAX_RUN_LENGTH) {
+                if (splitEnd > 0) {
+                    position = mark + splitEnd;
+                    kana = splitKana;
+                    letterLanguage = splitLetterLanguage;
+                    wordStart = -1;
+                }
+                break;
+            }
+            if (script != COMMON) {
+                runScript = group;
+                kana |= script == KANA;
+            }
+            if (runScript == LETTER) {
+                if (script == LETTER || isMark(codePoint)) {
+                    if (wordStart < 0) {
+                        wordStart = position - mark;
+                        wordVietnamese = false;
+                        wordAccented = false;
+                    }
+                    wordVietnamese |= isVietnamese(codePoint);
+                    wordAccented |= codePoint >= 0x80;
+                } else if (wordStart >= 0) {
+                    final Language language = wordLanguage(wordStart, wordVietnamese, wordAccented);
+                    if (letterLanguage != null && language != null && language != letterLanguage) {
+                        // the run ends before the word
+                        position = mark + wordStart;
+                        return letterLanguage;
+                    }
+                    if (letterLanguage == null) {
+                        letterLanguage = language;
+                    }
+                    wordStart = -1;
+                }
+            }
+            position += length;
+            if (script == COMMON && runScript != COMMON && wordStart < 0) {
+                splitEnd = position - mark;
+                splitKana = kana;
+                splitLetterLanguage = letterLanguage;
+            }
+        }
+        if (wordStart >= 0) {
+            final Language language = wordLanguage(wordStart, wordVietnamese, wordAccented);
+            if (letterLanguage != null && language != null && language != letterLanguage) {
+                position = mark + wordStart;
+            } else if (letterLanguage == null) {
+                letterLanguage = language;
+            }
+        }
+
+        switch (runScript) {
+        case HAN:
+            if (kana) {
+                kanaSeen = true;
+                return Language.JA;
+            }
+            return kanaSeen ? Language.JA : hanLanguage;
+        case HANGUL:
+            return Language.KO;
+        case LETTER:
+            return letterLanguage == Language.VI ? Language.VI : Language.OTHER;
+        default:
+            return Language.OTHER;
+        }
+    }
+
+    /**
+     * Returns the language of the word from {@code wordStart} to the current
+     * position: {@link Language#VI} if it has Vietnamese-specific letters or
+     * marks, or is an accented Vietnamese syllable, null if it is a syllable
+     * without accents, and {@link Language#OTHER} otherwise.
+     */
+    private Language wordLanguage(final int wordStart, final boolean vietnamese, final boolean accented) {
+        if (vietnamese) {
+            return Language.VI;
+        }
+        if (!isVietnameseSyllable(mark + wordStart, position)) {
+            return Language.OTHER;
+        }
+        return accented ? Language.VI : null;
+    }
+
+    /**
+     * Returns whether {@code buffer[start, end)} is made of letters of the
+     * Vietnamese alphabet in the shape of a syllable: an initial consonant, one
+     * to three vowels and a final consonant, each of which may be empty
+     * except the vowels.
+     */
+    private boolean isVietnameseSyllable(final int start, final int end) {
+        int length = 0;
+        for (int i = start; i < end;) {
+            final int codePoint = Character.codePointAt(buffer, i, end);
+            i += Character.charCount(codePoint);
+            if (isMark(codePoint)) {
+                continue;
+            }
+            final char base = codePoint < BASE_LETTERS.length ? BASE_LETTERS[codePoint] : 0;
+            if (base == 0 || length == syllable.length) {
+                return false;
+            }
+            syllable[length++] = base;
+        }
+        for (final String onset : ONSETS) {
+            if (startsWith(syllable, length, onset) && isRhyme(syllable, onset.length(), length)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean startsWith(final char[] chars, final int length, final String prefix) {
+        if (prefix.length() > length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (chars[i] != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isRhyme(final char[] chars, final int start, final int end) {
+        int i = start;
+        while (i < end && i - start < 3 && "aeiouy".indexOf(chars[i]) >= 0) {
+            i++;
+        }
+        if (i == start) {
+            return false;
+        }
+        switch (end - i) {
+        case 0:
+            return true;
+        case 1:
+            return "cmnpt".indexOf(chars[i]) >= 0;
+        case 2:
+            return chars[i] == 'c' && chars[i + 1] == 'h' || chars[i] == 'n' && (chars[i + 1] == 'g' || chars[i + 1] == 'h');
+        default:
+            return false;
+        }
+    }
+
+    private static boolean isMark(final int codePoint) {
+        final int type = Character.getType(codePoint);
+        return type == Character.NON_SPACING_MARK || type == Character.COMBINING_SPACING_MARK || type == Character.ENCLOSING_MARK;
+    }
+
+    /**
+     * Returns the code point at the current position without consuming it,
+     * or {@link #NONE} at the end of the input.
+     */
+    private int codePoint() throws IOException {
+        if (position >= bufferLength && !fill()) {
+            return NONE;
+        }
+        final char c = buffer[position];
+        if (!Character.isHighSurrogate(c)) {
+            return c;
+        }
+        if (position + 1 >= bufferLength) {
+            fill();
+        }
+        final int low = position + 1;
+        return low < bufferLength && Character.isLowSurrogate(buffer[low]) ? Character.toCodePoint(c, buffer[low]) : c;
+    }
+
+    /**
+     * Drops the buffer before {@link #mark} and reads more input. The run
+     * is at most {@link #MAX_RUN_LENGTH} chars, so the buffer never fills up.
+     */
+    private boolean fill() throws IOException {
+        if (exhausted) {
+            return false;
+        }
+        if (mark > 0) {
+            System.arraycopy(buffer, mark, buffer, 0, bufferLength - mark);
+            bufferOffset += mark;
+            bufferLength -= mark;
+            position -= mark;
+            mark = 0;
+        }
+        final int length = input.read(buffer, bufferLength, buffer.length - bufferLength);
+        if (length <= 0) {
+            exhausted = true;
+            return false;
+        }
+        bufferLength += length;
+        return true;
+    }
+
+    static int script(final int codePoint) {
+        if (codePoint < 0x80) {
+            return Character.isLetter(codePoint) ? LETTER : COMMON;
+        }
+        if (codePoint == 0x30FC || codePoint == 0xFF70) {
+            return KANA;
+        }
+        final Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+        switch (script) {
+        case HAN:
+            return HAN;
+        case HIRAGANA:
+        case KATAKANA:
+            return KANA;
+        case HANGUL:
+            return HANGUL;
+        case COMMON:
+        case INHERITED:
+            // combining marks and variation selectors stay with the run they follow
+            return COMMON;
+        default:
+            return Character.isLetter(codePoint) ? LETTER : COMMON;
+        }
+    }
+
+    static boolean isVietnamese(final int codePoint) {
+        switch (codePoint) {
+        case 'đ':
+        case 'Đ':
+        case 'ă':
+        case 'Ă':
+        case 'ơ':
+        case 'Ơ':
+        case 'ư':
+        case 'Ư':
+            // combining grave, acute, tilde, hook above and dot below
+        case 0x0300:
+        case 0x0301:
+        case 0x0303:
+        case 0x0309:
+        case 0x0323:
+            return true;
+        default:
+            // Latin Extended Additional letters with Vietnamese tone marks
+            return codePoint >= 0x1EA0 && codePoint <= 0x1EF9;
+        }
+    }
+
+    @Override
+    public void reset() throws IOException {
+        super.reset();
+        if (current != null) {
+            current.close();
+            current = null;
+        }
+        bufferOffset = 0;
+        bufferLength = 0;
+        position = 0;
+        mark = 0;
+        exhausted = false;
+        kanaSeen = false;
+    }
+
+    @Override
+    public void end() throws IOException {
+        super.end();
+        final int finalOffset = correctOffset(bufferOffset + bufferLength);
+        offsetAtt.setOffset(finalOffset, finalOffset);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (current != null) {
+            current.close();
+            current = null;
+        }
+        super.close();
+    }
+}
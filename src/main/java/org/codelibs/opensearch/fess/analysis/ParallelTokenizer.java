@@ -0,0 +1,346 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.analysis;
+
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.analysis.tokenattributes.OffsetAttribute;
+import org.apache.lucene.analysis.tokenattributes.PositionIncrementAttribute;
+import org.apache.lucene.analysis.tokenattributes.PositionLengthAttribute;
+import org.apache.lucene.analysis.tokenattributes.TypeAttribute;
+import org.apache.lucene.util.AttributeImpl;
+import org.apache.lucene.util.ThreadInterruptedException;
+
+/**
+ * Tokenizes up to {@code maxSegments} segments of {@code segmentSize} chars
+ * of a large input concurrently, each with its own delegate, and emits their
+ * tokens in order. Segments end at the same sentence boundaries as the chunks
+ * of {@link ChunkedTokenizer}, so the tokens are the same as those of a
+ * chunked tokenizer with a {@code chunkSize} of {@code segmentSize}.
+ *
+ * <p>The first segment of each batch runs on the calling thread, and so does
+ * a segment that the executor rejects. An input of at most one segment is
+ * tokenized without the executor.</p>
+ */
+public final class ParallelTokenizer extends DelegatingTokenizer {
+
+    private final CharTermAttribute termAtt = addAttribute(CharTermAttribute.class);
+
+    private final OffsetAttribute offsetAtt = addAttribute(OffsetAttribute.class);
+
+    private final PositionIncrementAttribute posIncAtt = addAttribute(PositionIncrementAttribute.class);
+
+    private final PositionLengthAttribute posLenAtt = addAttribute(PositionLengthAttribute.class);
+
+    private final TypeAttribute typeAtt = addAttribute(TypeAttribute.class);
+
+    private final Supplier<Tokenizer> tokenizerFactory;
+
+    private final Executor executor;
+
+    private final int segmentSize;
+
+    private final AttributeImpl[] extraAttributes;
+
+    // created on first use, except the first
+    private final Segment[] segments;
+
+    private final char[] buffer;
+
+    private int length;
+
+    // the end of the segments of the current batch in the buffer
+    private int batchEnd;
+
+    // offset of buffer[0] in the input
+    private int bufferOffset;
+
+    private boolean exhausted;
+
+    // the number of segments in the current batch
+    private int segmentCount;
+
+    // the segment and the token being emitted
+    private int segmentIndex;
+
+    private int tokenIndex;
+
+    private int positionGap;
+
+    private boolean ended;
+
+    /**
+     * @param tokenizerFactory creates the delegates of the segments after the first
+     * @param executor runs the segments after the first of a batch, or null to run all on the calling thread
+     */
+    public ParallelTokenizer(final Supplier<Tokenizer> tokenizerFactory, final Executor executor, final int segmentSize,
+            final int maxSegments) {
+        super(tokenizerFactory.get());
+        if (segmentSize < 1) {
+            throw new IllegalArgumentException("segmentSize must be greater than 0: " + segmentSize);
+        }
+        if (maxSegments < 1) {
+            throw new IllegalArgumentException("maxSegments must be greater than 0: " + maxSegments);
+        }
+        this.tokenizerFactory = tokenizerFactory;
+        this.executor = executor;
+        this.segmentSize = segmentSize;
+        extraAttributes = CachingTokenizer.extraAttributes(delegate);
+        segments = new Segment[maxSegments];
+        segments[0] = new Segment(delegate);
+        buffer = new char[Math.multiplyExact(segmentSize, maxSegments)];
+    }
+
+    @Override
+    public final boolean incrementToken() throws IOException {
+        while (!ended) {
+            if (segmentIndex < segmentCount) {
+                final Segment segment = segments[segmentIndex];
+                final CachedTokens tokens = segment.tokens;
+                if (tokenIndex < tokens.size) {
+                    emit(tokens, tokenIndex++, bufferOffset + segment.start);
+                    return true;
+                }
+                positionGap += tokens.finalPositionIncrement;
+                segment.tokens = null;
+                segmentIndex++;
+                tokenIndex = 0;
+            } else if (!nextBatch()) {
+                ended = true;
+            }
+        }
+        return false;
+    }
+
+    private void emit(final CachedTokens tokens, final int i, final int offset) {
+        clearAttributes();
+        termAtt.copyBuffer(tokens.terms, tokens.termStarts[i], tokens.termStarts[i + 1] - tokens.termStarts[i]);
+        posIncAtt.setPositionIncrement(tokens.positionIncrements[i] + positionGap);
+        positionGap = 0;
+        posLenAtt.setPositionLength(tokens.positionLengths[i]);
+        offsetAtt.setOffset(correctOffset(offset + tokens.startOffsets[i]), correctOffset(offset + tokens.endOffsets[i]));
+        typeAtt.setType(tokens.types[i]);
+        for (int j = 0; j < extraAttributes.length; j++) {
+            tokens.extras[i * tokens.extraCount + j].copyTo(extraAttributes[j]);
+        }
+    }
+
+    /**
+     * Reads the next batch of segments and tokenizes them.
+     *
+     * @return false at the end of the input
+     */
+    private boolean nextBatch() throws IOException {
+        System.arraycopy(buffer, batchEnd, buffer, 0, length - batchEnd);
+        bufferOffset += batchEnd;
+        length -= batchEnd;
+        while (!exhausted && length < buffer.length) {
+            final int read = input.read(buffer, length, buffer.length - length);
+            if (read == -1) {
+                exhausted = true;
+            } else {
+                length += read;
+            }
+        }
+        segmentCount = 0;
+        segmentIndex = 0;
+        tokenIndex = 0;
+        int start = 0;
+        // the same boundaries as ChunkedTokenizer, which splits only a full chunk
+        while (segmentCount < segments.length && start < length) {
+            final int end;
+            if (length - start >= segmentSize) {
+                end = ChunkedTokenizer.findChunkEnd(buffer, start, start + segmentSize);
+            } else if (exhausted) {
+                end = length;
+            } else {
+                // carried over to the next batch
+                break;
+            }
+            if (segments[segmentCount] == null) {
+                segments[segmentCount] = new Segment(tokenizerFactory.get());
+            }
+            segments[segmentCount].start = start;
+            segments[segmentCount].end = end;
+            segmentCount++;
+            start = end;
+        }
+        batchEnd = start;
+        if (segmentCount == 0) {
+            return false;
+        }
+        tokenize();
+        return true;
+    }
+
+    private void tokenize() throws IOException {
+        if (segmentCount == 1 || executor == null) {
+            for (int i = 0; i < segmentCount; i++) {
+                segments[i].call();
+            }
+            return;
+        }
+        final FutureTask<?>[] tasks = new FutureTask<?>[segmentCount];
+        for (int i = 1; i < segmentCount; i++) {
+            tasks[i] = new FutureTask<>(segments[i]);
+            try {
+                executor.execute(tasks[i]);
+            } catch (final RejectedExecutionException e) {
+                tasks[i].run();
+            }
+        }
+        Throwable failure = null;
+        try {
+            segments[0].call();
+        } catch (final IOException | RuntimeException e) {
+            failure = e;
+        }
+        // the tasks read the buffer, so all must finish before it changes
+        InterruptedException interrupted = null;
+        for (int i = 1; i < segmentCount; i++) {
+            while (true) {
+                try {
+                    tasks[i].get();
+                    break;
+                } catch (final InterruptedException e) {
+                    interrupted = e;
+                } catch (final ExecutionException e) {
+                    if (failure == null) {
+                        failure = e.getCause();
+                    } else {
+                        failure.addSuppressed(e.getCause());
+                    }
+                    break;
+                }
+            }
+        }
+        if (interrupted != null) {
+            Thread.currentThread().interrupt();
+            if (failure == null) {
+                failure = new ThreadInterruptedException(interrupted);
+            }
+        }
+        if (failure instanceof IOException) {
+            throw (IOException) failure;
+        }
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+        if (failure != null) {
+            throw new IOException(failure);
+        }
+    }
+
+    @Override
+    protected void resetDelegate() throws IOException {
+        length = 0;
+        batchEnd = 0;
+        bufferOffset = 0;
+        exhausted = false;
+        segmentCount = 0;
+        segmentIndex = 0;
+        tokenIndex = 0;
+        positionGap = 0;
+        ended = !nextBatch();
+    }
+
+    @Override
+    protected void endDelegate() throws IOException {
+        final int finalOffset = correctOffset(bufferOffset + length);
+        offsetAtt.setOffset(finalOffset, finalOffset);
+        posIncAtt.setPositionIncrement(positionGap);
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i].tokens = null;
+        }
+        segmentCount = 0;
+        super.close();
+    }
+
+    /**
+     * A delegate and the tokens it produced for {@code buffer[start, end)}.
+     */
+    private final class Segment implements Callable<Void> {
+
+        private final Tokenizer tokenizer;
+
+        private final CharTermAttribute termAtt;
+
+        private final OffsetAttribute offsetAtt;
+
+        private final PositionIncrementAttribute posIncAtt;
+
+        private final PositionLengthAttribute posLenAtt;
+
+        private final TypeAttribute typeAtt;
+
+        private final AttributeImpl[] extraAttributes;
+
+        private final CachedTokens.Builder builder;
+
+        private final SegmentReader reader = new SegmentReader();
+
+        int start;
+
+        int end;
+
+        CachedTokens tokens;
+
+        Segment(final Tokenizer tokenizer) {
+            this.tokenizer = tokenizer;
+            termAtt = tokenizer.addAttribute(CharTermAttribute.class);
+            offsetAtt = tokenizer.addAttribute(OffsetAttribute.class);
+            posIncAtt = tokenizer.addAttribute(PositionIncrementAttribute.class);
+            posLenAtt = tokenizer.addAttribute(PositionLengthAttribute.class);
+            typeAtt = tokenizer.addAttribute(TypeAttribute.class);
+            extraAttributes = CachingTokenizer.extraAttributes(tokenizer);
+            builder = new CachedTokens.Builder(extraAttributes.length);
+        }
+
+        @Override
+        public Void call() throws IOException {
+            builder.clear();
+            reader.reset(buffer, start, end - start);
+            tokenizer.setReader(reader);
+            try {
+                tokenizer.reset();
+                while (tokenizer.incrementToken()) {
+                    builder.add(termAtt.buffer(), termAtt.length(), posIncAtt.getPositionIncrement(), posLenAtt.getPositionLength(),
+                            offsetAtt.startOffset(), offsetAtt.endOffset(), typeAtt.type(), extraAttributes);
+                }
+                tokenizer.end();
+                tokens = builder.build(offsetAtt.endOffset(), posIncAtt.getPositionIncrement());
+            } finally {
+                tokenizer.close();
+            }
+            return null;
+        }
+    }
+}
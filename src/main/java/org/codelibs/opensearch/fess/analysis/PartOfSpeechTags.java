@@ -0,0 +1,174 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.analysis;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The stop tags of a part of speech filter, matched without hashing the part
+ * of speech of every token.
+ *
+ * The stop tags and their ancestors in the tag hierarchy ({@code 助詞} is the
+ * parent of {@code 助詞-格助詞}) are interned into small integer ids when the
+ * filter factory is built, and the stop tags become a bitset over those ids.
+ * A {@link Matcher}, owned by one token stream, remembers the id of each part
+ * of speech String instance it has seen. Kuromoji hands out the same instance
+ * for every token of a tag, so after the first token of a tag a match is an
+ * identity lookup and a bit test.
+ */
+public final class PartOfSpeechTags {
+
+    public static final PartOfSpeechTags EMPTY = new PartOfSpeechTags(Collections.emptySet(), false);
+
+    private static final char SEPARATOR = '-';
+
+    private static final int NO_ID = -1;
+
+    private final Set<String> stopTags;
+
+    private final boolean prefixMatch;
+
+    private final Map<String, Integer> ids = new HashMap<>();
+
+    private final long[] stops;
+
+    /**
+     * @param stopTags the tags of the tokens to remove
+     * @param prefixMatch whether a stop tag also removes the tokens of its
+     *        descendants, e.g. {@code 助詞} those of {@code 助詞-格助詞-一般}
+     */
+    public PartOfSpeechTags(final Collection<String> stopTags, final boolean prefixMatch) {
+        this.stopTags = Collections.unmodifiableSet(new LinkedHashSet<>(stopTags));
+        this.prefixMatch = prefixMatch;
+        final List<Integer> parents = new ArrayList<>();
+        for (final String tag : this.stopTags) {
+            intern(tag, parents);
+        }
+        stops = new long[(parents.size() + 63) >>> 6];
+        for (final String tag : this.stopTags) {
+            set(ids.get(tag));
+        }
+        if (prefixMatch) {
+            // parents are interned before their children
+            for (int id = 0; id < parents.size(); id++) {
+                final int parent = parents.get(id);
+                if (parent != NO_ID && isStop(parent)) {
+                    set(id);
+                }
+            }
+        }
+    }
+
+    private int intern(final String tag, final List<Integer> parents) {
+        final Integer id = ids.get(tag);
+        if (id != null) {
+            return id;
+        }
+        final int separator = tag.lastIndexOf(SEPARATOR);
+        final int parent = separator > 0 ? intern(tag.substring(0, separator), parents) : NO_ID;
+        final int newId = parents.size();
+        parents.add(parent);
+        ids.put(tag, newId);
+        return newId;
+    }
+
+    private void set(final int id) {
+        stops[id >>> 6] |= 1L << id;
+    }
+
+    private boolean isStop(final int id) {
+        return id != NO_ID && (stops[id >>> 6] & 1L << id) != 0;
+    }
+
+    /**
+     * Returns the id of a part of speech: its own, or with prefix matching
+     * that of its nearest interned ancestor.
+     */
+    int idOf(final String partOfSpeech) {
+        String tag = partOfSpeech;
+        while (true) {
+            final Integer id = ids.get(tag);
+            if (id != null) {
+                return id;
+            }
+            final int separator = tag.lastIndexOf(SEPARATOR);
+            if (!prefixMatch || separator <= 0) {
+                return NO_ID;
+            }
+            tag = tag.substring(0, separator);
+        }
+    }
+
+    public boolean isEmpty() {
+        return stopTags.isEmpty();
+    }
+
+    public Set<String> getStopTags() {
+        return stopTags;
+    }
+
+    public boolean isPrefixMatch() {
+        return prefixMatch;
+    }
+
+    /**
+     * Returns a matcher for one token stream; matchers are not thread-safe.
+     */
+    public Matcher matcher() {
+        return new Matcher(this);
+    }
+
+    public static final class Matcher {
+
+        private static final int SIZE = 128;
+
+        private final PartOfSpeechTags tags;
+
+        private final String[] keys = new String[SIZE];
+
+        private final int[] values = new int[SIZE];
+
+        Matcher(final PartOfSpeechTags tags) {
+            this.tags = tags;
+        }
+
+        /**
+         * Returns whether a token with the given part of speech is removed.
+         */
+        public boolean isStop(final String partOfSpeech) {
+            if (partOfSpeech == null || tags.stops.length == 0) {
+                return false;
+            }
+            final int slot = System.identityHashCode(partOfSpeech) & SIZE - 1;
+            final int id;
+            if (keys[slot] == partOfSpeech) {
+                id = values[slot];
+            } else {
+                id = tags.idOf(partOfSpeech);
+                keys[slot] = partOfSpeech;
+                values[slot] = id;
+            }
+            return tags.isStop(id);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.analysis;
+
+import java.io.IOException;
+import java.io.Reader;
+
+import org.apache.lucene.analysis.CharFilter;
+import org.codelibs.opensearch.fess.stats.AnalysisProfiler;
+import org.codelibs.opensearch.fess.stats.AnalysisProfiler.Stage;
+
+/**
+ * Records the time of reading a char filter in sampled streams, less the time
+ * of the profiled char filters it reads. {@link ProfilingTokenizer} attaches
+ * the profile when it samples a stream; without one, reads are only forwarded.
+ */
+public final class ProfilingCharFilter extends CharFilter {
+
+    private final Reader upstream;
+
+    private final AnalysisProfiler profiler;
+
+    private final String index;
+
+    private final String component;
+
+    private StreamProfile profile;
+
+    private long nanos;
+
+    private boolean closed;
+
+    /**
+     * @param filtered the char filter to profile
+     * @param upstream the reader that {@code filtered} reads
+     */
+    public ProfilingCharFilter(final Reader filtered, final Reader upstream, final AnalysisProfiler profiler, final String index,
+            final String component) {
+        super(filtered);
+        this.upstream = upstream;
+        this.profiler = profiler;
+        this.index = index;
+        this.component = component;
+    }
+
+    /**
+     * Attaches {@code profile} to {@code reader} and the readers it reads, as
+     * long as they are profiled char filters.
+     */
+    static void attach(final Reader reader, final StreamProfile profile) {
+        Reader current = reader;
+        while (current instanceof ProfilingCharFilter) {
+            final ProfilingCharFilter charFilter = (ProfilingCharFilter) current;
+            charFilter.profile = profile;
+            current = charFilter.upstream;
+        }
+    }
+
+    @Override
+    public int read(final char[] cbuf, final int off, final int len) throws IOException {
+        if (profile == null) {
+            return input.read(cbuf, off, len);
+        }
+        final long readNanos = profile.readNanos;
+        final long startTime = System.nanoTime();
+        try {
+            return input.read(cbuf, off, len);
+        } finally {
+            final long elapsed = System.nanoTime() - startTime;
+            nanos += elapsed - (profile.readNanos - readNanos);
+            profile.readNanos = readNanos + elapsed;
+        }
+    }
+
+    @Override
+    protected int correct(final int currentOff) {
+        return currentOff;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            if (profile != null) {
+                profiler.record(index, Stage.CHAR_FILTER, component, nanos);
+            }
+        }
+        super.close();
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.analysis;
+
+import java.io.IOException;
+
+import org.apache.lucene.analysis.TokenFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.codelibs.opensearch.fess.stats.AnalysisProfiler;
+import org.codelibs.opensearch.fess.stats.AnalysisProfiler.Stage;
+
+/**
+ * Records the time of a token filter in sampled streams, less the time of the
+ * profiled stages before it. The first profiled stage of a chain decides
+ * whether a stream is sampled; later ones read the decision from
+ * {@link ProfileAttribute}. An unsampled stream is only forwarded.
+ */
+public final class ProfilingTokenFilter extends TokenFilter {
+
+    private final AnalysisProfiler profiler;
+
+    private final String index;
+
+    private final String component;
+
+    // whether no stage before this one is profiled
+    private final boolean first;
+
+    private final ProfileAttribute profileAtt;
+
+    private StreamProfile profile;
+
+    private long nanos;
+
+    public ProfilingTokenFilter(final TokenStream input, final AnalysisProfiler profiler, final String index, final String component) {
+        super(input);
+        this.profiler = profiler;
+        this.index = index;
+        this.component = component;
+        first = !input.hasAttribute(ProfileAttribute.class);
+        profileAtt = addAttribute(ProfileAttribute.class);
+    }
+
+    @Override
+    public boolean incrementToken() throws IOException {
+        if (profile == null) {
+            return input.incrementToken();
+        }
+        final long startTime = System.nanoTime();
+        try {
+            return input.incrementToken();
+        } finally {
+            nanos += System.nanoTime() - startTime;
+        }
+    }
+
+    @Override
+    public void reset() throws IOException {
+        if (first) {
+            profile = profiler.sample() ? new StreamProfile() : null;
+            profileAtt.setProfile(profile);
+            if (profile != null) {
+                profile.startTime = System.nanoTime();
+            }
+            super.reset();
+        } else {
+            // the stages before this one reset first, and the first of them has started the profile
+            super.reset();
+            profile = profileAtt.getProfile();
+        }
+        if (profile != null) {
+            nanos = System.nanoTime() - profile.startTime;
+        }
+    }
+
+    @Override
+    public void end() throws IOException {
+        if (profile == null) {
+            super.end();
+            return;
+        }
+        final long startTime = System.nanoTime();
+        super.end();
+        nanos += System.nanoTime() - startTime;
+        profiler.record(index, Stage.TOKEN_FILTER, component, nanos - profile.upstreamNanos);
+        profile.upstreamNanos = nanos;
+    }
+
+    @Override
+    public void close() throws IOException {
+        profile = null;
+        super.close();
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.analysis;
+
+import java.io.IOException;
+
+import org.apache.lucene.analysis.Tokenizer;
+import org.codelibs.opensearch.fess.stats.AnalysisProfiler;
+import org.codelibs.opensearch.fess.stats.AnalysisProfiler.Stage;
+
+/**
+ * Decides whether a stream is profiled, and for a sampled stream records the
+ * time of the tokenizer less the time of reading the profiled char filters.
+ * An unsampled stream is only forwarded.
+ */
+public final class ProfilingTokenizer extends DelegatingTokenizer {
+
+    private final ProfileAttribute profileAtt = addAttribute(ProfileAttribute.class);
+
+    private final AnalysisProfiler profiler;
+
+    private final String index;
+
+    private final String component;
+
+    private StreamProfile profile;
+
+    private long nanos;
+
+    public ProfilingTokenizer(final Tokenizer delegate, final AnalysisProfiler profiler, final String index, final String component) {
+        super(delegate);
+        this.profiler = profiler;
+        this.index = index;
+        this.component = component;
+    }
+
+    @Override
+    public final boolean incrementToken() throws IOException {
+        if (profile == null) {
+            return delegate.incrementToken();
+        }
+        final long startTime = System.nanoTime();
+        try {
+            return delegate.incrementToken();
+        } finally {
+            nanos += System.nanoTime() - startTime;
+        }
+    }
+
+    @Override
+    public void reset() throws IOException {
+        profile = profiler.sample() ? new StreamProfile() : null;
+        profileAtt.setProfile(profile);
+        if (profile == null) {
+            super.reset();
+            return;
+        }
+        profile.startTime = System.nanoTime();
+        super.reset();
+        nanos = System.nanoTime() - profile.startTime;
+    }
+
+    @Override
+    protected void resetDelegate() throws IOException {
+        if (profile != null) {
+            ProfilingCharFilter.attach(input, profile);
+        }
+        super.resetDelegate();
+    }
+
+    @Override
+    public void end() throws IOException {
+        if (profile == null) {
+            super.end();
+            return;
+        }
+        final long startTime = System.nanoTime();
+        super.end();
+        nanos += System.nanoTime() - startTime;
+        profile.upstreamNanos = nanos;
+        profiler.record(index, Stage.TOKENIZER, component, nanos - profile.readNanos);
+    }
+
+    @Override
+    public void close() throws IOException {
+        profile = null;
+        super.close();
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.analysis;
+
+import java.util.Locale;
+
+/**
+ * Converts katakana to romaji with lookup tables built once per system,
+ * following the romanization of Kuromoji's {@code ToStringUtil}. Each
+ * position is matched against the longest of a three-kana, two-kana and
+ * one-kana entry: a yōon followed by {@code ウ} and an o-column kana followed
+ * by {@code ウ} are long vowels, other long vowels are spelled out. The sokuon
+ * {@code ッ} doubles the consonant of a following k, s, t or p kana, {@code ン}
+ * becomes m before a b, p or m kana (Hepburn only) and takes an apostrophe
+ * before a vowel or y, and {@code ー} is dropped. Other characters are copied
+ * unchanged.
+ */
+public final class RomajiConverter {
+
+    /** The romanization system. */
+    public enum Type {
+        /** Modified Hepburn, with macrons for long vowels, as the delegate engine. */
+        HEPBURN,
+        /** Kunrei-shiki, with circumflexes for long vowels. */
+        KUNREI;
+
+        public static Type of(final String value) {
+            try {
+                return valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (final IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown romaji type [" + value + "], expected one of [hepburn, kunrei]", e);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private static final char FIRST = 'ァ';
+
+    private static final char LAST = 'ヺ';
+
+    // the kana that follow the first kana of a two-kana entry
+    private static final String SECOND = "ァィゥェォャュョヮウ";
+
+    // the kana that follow the first two kana of a three-kana entry
+    private static final String THIRD = "ウェ";
+
+    private static final char SOKUON = 'ッ';
+
+    // the kana the sokuon doubles, by rows of k, s, t and p
+    private static final String GEMINATES = "カキクケコサシスセソタチツテトパピプペポ";
+
+    private static final String GEMINATE_CONSONANTS = "kstp";
+
+    private static final char N = 'ン';
+
+    // the kana before which ン is m in Hepburn
+    private static final String LABIALS = "バビブベボパピプペポマミムメモ";
+
+    // the kana before which ン takes an apostrophe
+    private static final String APOSTROPHE_FOLLOWERS = "アイウエオヤユヨ";
+
+    private static final char PROLONGED_SOUND_MARK = 'ー';
+
+    // kana, Hepburn, Kunrei
+    private static final String[] MORAE = { //
+            "ァ a a", "ア a a", "ィ i i", "イ i i", "ゥ u u", "ウ u u", "ェ e e", "エ e e", "ォ o o", "オ o o", //
+            "カ ka ka", "ガ ga ga", "キ ki ki", "ギ gi gi", "ク ku ku", "グ gu gu", "ケ ke ke", "ゲ ge ge", "コ ko ko", "ゴ go go", //
+            "サ sa sa", "ザ za za", "シ shi si", "ジ ji zi", "ス su su", "ズ zu zu", "セ se se", "ゼ ze ze", "ソ so so", "ゾ zo zo", //
+            "タ ta ta", "ダ da da", "チ chi ti", "ヂ ji zi", "ツ tsu tu", "ヅ zu zu", "テ te te", "デ de de", "ト to to", "ド do do", //
+            "ナ na na", "ニ ni ni", "ヌ nu nu", "ネ ne ne", "ノ no no", //
+            "ハ ha ha", "バ ba ba", "パ pa pa", "ヒ hi hi", "ビ bi bi", "ピ pi pi", "フ fu hu", "ブ bu bu", "プ pu pu", //
+            "ヘ he he", "ベ be be", "ペ pe pe", "ホ ho ho", "ボ bo bo", "ポ po po", //
+            "マ ma ma", "ミ mi mi", "ム mu mu", "メ me me", "モ mo mo", //
+            "ャ ya ya", "ヤ ya ya", "ュ yu yu", "ユ yu yu", "ョ yo yo", "ヨ yo yo", //
+            "ラ ra ra", "リ ri ri", "ル ru ru", "レ re re", "ロ ro ro", //
+            "ヮ wa wa", "ワ wa wa", "ヰ i i", "ヱ e e", "ヲ o o", "ヴ v v", //
+            "ヷ va va", "ヸ vi vi", "ヹ ve ve", "ヺ vo vo" };
+
+    // the consonants of the kana that combine with ャュョ and ェ, Hepburn and Kunrei
+    private static final String[] PALATALS = { //
+            "キ ky ky", "ギ gy gy", "シ sh sy", "ジ j zy", "チ ch ty", "ヂ j zy", "ニ ny ny", "ヒ hy hy", "ビ by by", "ピ py py", //
+            "ミ my my", "リ ry ry" };
+
+    // the o-column kana that ウ lengthens, Hepburn and Kunrei
+    private static final String[] LONG_O = { //
+            "オ ", "コ k", "ゴ g", "ソ s", "ゾ z", "ト t", "ド d", "ノ n", "ホ h", "ボ b", "ポ p", "モ m", "ヨ y", "ロ r" };
+
+    private static final String[] DIGRAPHS = { //
+            "イィ yi yi", "イェ ye ye", "ウァ wa wa", "ウィ wi wi", "ウゥ wu wu", "ウェ we we", "ウォ wo wo", "ウュ wyu wyu", //
+            "クァ kwa kwa", "クィ kwi kwi", "クェ kwe kwe", "クォ kwo kwo", "クヮ kwa kwa", //
+            "グァ gwa gwa", "グィ gwi gwi", "グェ gwe gwe", "グォ gwo gwo", "グヮ gwa gwa", "スィ si si", "ズィ zi zi", //
+            "ツァ tsa tsa", "ツィ tsi tsi", "ツェ tse tse", "ツォ tso tso", "ツュ tsyu tsyu", "ティ ti ti", "テゥ tu tu", //
+            "テュ tyu tyu", "ディ di di", "デュ dyu dyu", "トゥ tu tu", "ドゥ du du", "ホゥ hu hu", //
+            "ファ fa fa", "フィ fi fi", "フェ fe fe", "フォ fo fo", "フャ fya fya", "フュ fyu fyu", "フョ fyo fyo" };
+
+    private static final String[] TRIGRAPHS = { "フィェ fye fye", "ヴィェ vye vye" };
+
+    private static final RomajiConverter HEPBURN = new RomajiConverter(Type.HEPBURN, "ūō");
+
+    private static final RomajiConverter KUNREI = new RomajiConverter(Type.KUNREI, "ûô");
+
+    private final Type type;
+
+    private final char[][] morae = new char[LAST - FIRST + 1][];
+
+    // the entry of kana and following kana is at (kana - FIRST) * SECOND.length() + index of following kana
+    private final char[][] digraphs = new char[(LAST - FIRST + 1) * SECOND.length()][];
+
+    // the entry of a digraph index and following kana is at digraph index * THIRD.length() + index of following kana
+    private final char[][] trigraphs = new char[digraphs.length * THIRD.length()][];
+
+    private RomajiConverter(final Type type, final String longVowels) {
+        this.type = type;
+        final int column = type == Type.HEPBURN ? 1 : 2;
+        for (final String mora : MORAE) {
+            final String[] values = mora.split(" ");
+            morae[values[0].charAt(0) - FIRST] = values[column].toCharArray();
+        }
+        for (final String palatal : PALATALS) {
+            final String[] values = palatal.split(" ");
+            final char kana = values[0].charAt(0);
+            for (int i = 0; i < 3; i++) {
+                digraphs[digraphIndex(kana, "ャュョ".charAt(i))] = (values[column] + "auo".charAt(i)).toCharArray();
+            }
+            digraphs[digraphIndex(kana, 'ェ')] = (values[column] + 'e').toCharArray();
+            trigraphs[trigraphIndex(kana, 'ュ', 'ウ')] = (values[column] + longVowels.charAt(0)).toCharArray();
+            trigraphs[trigraphIndex(kana, 'ョ', 'ウ')] = (values[column] + longVowels.charAt(1)).toCharArray();
+        }
+        for (final String longO : LONG_O) {
+            digraphs[digraphIndex(longO.charAt(0), 'ウ')] = (longO.substring(2) + longVowels.charAt(1)).toCharArray();
+        }
+        for (final String digraph : DIGRAPHS) {
+            final String[] values = digraph.split(" ");
+            digraphs[digraphIndex(values[0].charAt(0), values[0].charAt(1))] = values[column].toCharArray();
+        }
+        for (final String trigraph : TRIGRAPHS) {
+            final String[] values = trigraph.split(" ");
+            trigraphs[trigraphIndex(values[0].charAt(0), values[0].charAt(1), values[0].charAt(2))] = values[column].toCharArray();
+        }
+    }
+
+    private static int digraphIndex(final char kana, final char second) {
+        return (kana - FIRST) * SECOND.length() + SECOND.indexOf(second);
+    }
+
+    private static int trigraphIndex(final char kana, final char second, final char third) {
+        return digraphIndex(kana, second) * THIRD.length() + THIRD.indexOf(third);
+    }
+
+    public static RomajiConverter get(final Type type) {
+        return type == Type.HEPBURN ? HEPBURN : KUNREI;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Returns the largest number of chars {@link #convert} writes for
+     * {@code length} chars of input.
+     */
+    public static int maxLength(final int length) {
+        return length * 3;
+    }
+
+    /**
+     * Writes the romaji of {@code src[0, length)} to {@code dst}, which must
+     * hold {@link #maxLength(int)} chars, and returns the number of chars
+     * written.
+     */
+    public int convert(final char[] src, final int length, final char[] dst) {
+        int out = 0;
+        for (int i = 0; i < length; i++) {
+            final char c = src[i];
+            final char next = i + 1 < length ? src[i + 1] : 0;
+            if (c == SOKUON) {
+                final int geminate = GEMINATES.indexOf(next);
+                if (geminate >= 0) {
+                    dst[out++] = GEMINATE_CONSONANTS.charAt(geminate / 5);
+                }
+            } else if (c == N) {
+                dst[out++] = type == Type.HEPBURN && LABIALS.indexOf(next) >= 0 ? 'm' : 'n';
+                if (APOSTROPHE_FOLLOWERS.indexOf(next) >= 0) {
+                    dst[out++] = '\'';
+                }
+            } else if (c != PROLONGED_SOUND_MARK) {
+                if (c < FIRST || c > LAST) {
+                    dst[out++] = c;
+                    continue;
+                }
+                char[] romaji = null;
+                final int second = SECOND.indexOf(next);
+                if (second >= 0) {
+                    final int digraph = (c - FIRST) * SECOND.length() + second;
+                    final int third = i + 2 < length ? THIRD.indexOf(src[i + 2]) : -1;
+                    if (third >= 0 && (romaji = trigraphs[digraph * THIRD.length() + third]) != null) {
+                        i += 2;
+                    } else if ((romaji = digraphs[digraph]) != null) {
+                        i++;
+                    }
+                }
+                if (romaji == null) {
+                    romaji = morae[c - FIRST];
+                }
+                if (romaji == null) {
+                    dst[out++] = c;
+                } else {
+                    System.arraycopy(romaji, 0, dst, out, romaji.length);
+                    out += romaji.length;
+                }
+            }
+        }
+        return out;
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.analysis;
+
+import java.io.Reader;
+
+/**
+ * A reusable reader over a range of a char array.
+ */
+final class SegmentReader extends Reader {
+
+    private char[] chars;
+
+    private int offset;
+
+    private int end;
+
+    void reset(final char[] chars, final int offset, final int length) {
+        this.chars = chars;
+        this.offset = offset;
+        this.end = offset + length;
+    }
+
+    @Override
+    public int read(final char[] cbuf, final int off, final int len) {
+        if (offset >= end) {
+            return -1;
+        }
+        final int n = Math.min(len, end - offset);
+        System.arraycopy(chars, offset, cbuf, off, n);
+        offset += n;
+        return n;
+    }
+
+    @Override
+    public void close() {
+        // the array is owned by the tokenizer
+    }
+}
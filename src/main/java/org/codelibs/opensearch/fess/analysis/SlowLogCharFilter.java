@@ -0,0 +1,74 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.analysis;
+
+import java.io.IOException;
+import java.io.Reader;
+
+import org.apache.lucene.analysis.CharFilter;
+import org.codelibs.opensearch.fess.stats.AnalysisSlowLog;
+
+/**
+ * Times the reads of a sampled char filter and passes the total to
+ * {@link AnalysisSlowLog} when it is closed. Char filters are created per
+ * stream, so unsampled streams are not wrapped at all.
+ */
+public final class SlowLogCharFilter extends CharFilter {
+
+    private final AnalysisSlowLog slowLog;
+
+    private final String component;
+
+    private final String type;
+
+    private long chars;
+
+    private long nanos;
+
+    private boolean closed;
+
+    public SlowLogCharFilter(final Reader input, final AnalysisSlowLog slowLog, final String component, final String type) {
+        super(input);
+        this.slowLog = slowLog;
+        this.component = component;
+        this.type = type;
+    }
+
+    @Override
+    public int read(final char[] cbuf, final int off, final int len) throws IOException {
+        final long startTime = System.nanoTime();
+        final int n = input.read(cbuf, off, len);
+        nanos += System.nanoTime() - startTime;
+        if (n > 0) {
+            chars += n;
+        }
+        return n;
+    }
+
+    @Override
+    protected int correct(final int currentOff) {
+        return currentOff;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            slowLog.onStream(component, type, chars, -1, nanos);
+        }
+        super.close();
+    }
+}
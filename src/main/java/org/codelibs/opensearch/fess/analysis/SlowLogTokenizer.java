@@ -0,0 +1,76 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.analysis;
+
+import java.io.IOException;
+
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.tokenattributes.OffsetAttribute;
+import org.codelibs.opensearch.fess.stats.AnalysisSlowLog;
+
+/**
+ * Times the streams that {@link AnalysisSlowLog#sample()} selects and passes
+ * them to the slowlog in {@link #end()}. Other streams are only forwarded.
+ */
+public final class SlowLogTokenizer extends DelegatingTokenizer {
+
+    private final OffsetAttribute offsetAtt = addAttribute(OffsetAttribute.class);
+
+    private final AnalysisSlowLog slowLog;
+
+    private final String component;
+
+    private final String type;
+
+    private boolean timed;
+
+    private long tokens;
+
+    private long startTime;
+
+    public SlowLogTokenizer(final Tokenizer delegate, final AnalysisSlowLog slowLog, final String component, final String type) {
+        super(delegate);
+        this.slowLog = slowLog;
+        this.component = component;
+        this.type = type;
+    }
+
+    @Override
+    public final boolean incrementToken() throws IOException {
+        if (delegate.incrementToken()) {
+            tokens++;
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void reset() throws IOException {
+        timed = slowLog.sample();
+        tokens = 0;
+        startTime = timed ? System.nanoTime() : 0;
+        super.reset();
+    }
+
+    @Override
+    public void end() throws IOException {
+        super.end();
+        if (timed) {
+            timed = false;
+            slowLog.onStream(component, type, offsetAtt.endOffset(), tokens, System.nanoTime() - startTime);
+        }
+    }
+}
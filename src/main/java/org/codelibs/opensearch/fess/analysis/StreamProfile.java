@@ -0,0 +1,32 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.analysis;
+
+/**
+ * The timings of one profiled stream, which its stages share through
+ * {@link ProfileAttribute}. It is only created for sampled streams.
+ */
+public final class StreamProfile {
+
+    // when the first profiled stage started to reset
+    long startTime;
+
+    // the time of the stages that have ended, each including the stages before it
+    long upstreamNanos;
+
+    // the time spent in reading profiled char filters
+    long readNanos;
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.analysis;
+
+/**
+ * A cache of the tokens a tokenizer produced for an input text.
+ */
+public interface TokenCache {
+
+    /**
+     * Returns the tokens of {@code text}, or null.
+     *
+     * @param owner the tokenizer configuration, compared by identity
+     * @param generation the dictionary generation of the owner, compared by identity, or null
+     */
+    CachedTokens get(Object owner, Object generation, String text);
+
+    void put(Object owner, Object generation, String text, CachedTokens tokens);
+}
@@ -0,0 +1,255 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.analysis;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Iterator;
+import java.util.function.Supplier;
+
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.analysis.tokenattributes.OffsetAttribute;
+import org.apache.lucene.util.Attribute;
+
+/**
+ * Segments the longest {@link MappedUserDictionary} entries at each position
+ * of the input, and tokenizes the text between them with another tokenizer.
+ *
+ * <p>An entry is emitted as one token per segment. The attributes of the
+ * other tokenizer are copied to this tokenizer, and its offsets are shifted
+ * to the position of the text in the input.</p>
+ *
+ * <p>The input is streamed through a window of the longest entry plus
+ * {@link #READ_SIZE} chars: the other tokenizer reads the text between
+ * entries through a reader that stops before the next entry, so neither
+ * holds the whole input.</p>
+ *
+ * <p>The dictionary is taken from the supplier on each {@link #reset()}, so a
+ * reloaded dictionary is used from the next stream on.</p>
+ */
+public final class UserDictionaryTokenizer extends Tokenizer {
+
+    static final int READ_SIZE = 1024;
+
+    private final CharTermAttribute termAtt = addAttribute(CharTermAttribute.class);
+
+    private final OffsetAttribute offsetAtt = addAttribute(OffsetAttribute.class);
+
+    private final Tokenizer tokenizer;
+
+    private final Supplier<MappedUserDictionary> dictionarySupplier;
+
+    private MappedUserDictionary dictionary;
+
+    private final GapReader gapReader = new GapReader();
+
+    private char[] buffer = new char[0];
+
+    // the offset of buffer[0] in the input
+    private int bufferStart;
+
+    // the offset of the end of the text in the buffer
+    private int bufferEnd;
+
+    private boolean exhausted;
+
+    private int lookahead;
+
+    private int position;
+
+    // the start of the text before the pending entry, which goes to the tokenizer first
+    private int gapStart;
+
+    private boolean gapEnded;
+
+    private boolean tokenizing;
+
+    private int entry = -1;
+
+    private int entrySegment;
+
+    private int entryOffset;
+
+    public UserDictionaryTokenizer(final Tokenizer tokenizer, final MappedUserDictionary dictionary) {
+        this(tokenizer, () -> dictionary);
+    }
+
+    public UserDictionaryTokenizer(final Tokenizer tokenizer, final Supplier<MappedUserDictionary> dictionarySupplier) {
+        this.tokenizer = tokenizer;
+        this.dictionarySupplier = dictionarySupplier;
+        final Iterator<Class<? extends Attribute>> iterator = tokenizer.getAttributeClassesIterator();
+        while (iterator.hasNext()) {
+            addAttribute(iterator.next());
+        }
+    }
+
+    @Override
+    public boolean incrementToken() throws IOException {
+        clearAttributes();
+        while (true) {
+            if (tokenizing) {
+                if (tokenizer.incrementToken()) {
+                    tokenizer.copyTo(this);
+                    offsetAtt.setOffset(correctOffset(gapStart + offsetAtt.startOffset()),
+                            correctOffset(gapStart + offsetAtt.endOffset()));
+                    return true;
+                }
+                tokenizer.end();
+                tokenizer.close();
+                tokenizing = false;
+                // skips the text that the tokenizer did not read
+                scanGap(null, 0, Integer.MAX_VALUE);
+                clearAttributes();
+            }
+            if (entry >= 0) {
+                if (entrySegment < dictionary.getSegmentCount(entry)) {
+                    final int segmentLength = dictionary.getSegmentLength(entry, entrySegment++);
+                    termAtt.copyBuffer(buffer, entryOffset - bufferStart, segmentLength);
+                    offsetAtt.setOffset(correctOffset(entryOffset), correctOffset(entryOffset + segmentLength));
+                    entryOffset += segmentLength;
+                    return true;
+                }
+                entry = -1;
+            }
+            fill();
+            if (position >= bufferEnd) {
+                return false;
+            }
+            if (!matchEntry()) {
+                gapStart = position;
+                gapEnded = false;
+                tokenizer.setReader(gapReader);
+                tokenizer.reset();
+                tokenizing = true;
+            }
+        }
+    }
+
+    /**
+     * Reads the input until the buffer holds the longest entry from {@link #position}, or the input ends.
+     * Only the text before the position is discarded, so this must not be called while an entry is pending.
+     */
+    private void fill() throws IOException {
+        while (!exhausted && bufferEnd - position < lookahead) {
+            if (bufferEnd - bufferStart == buffer.length) {
+                System.arraycopy(buffer, position - bufferStart, buffer, 0, bufferEnd - position);
+                bufferStart = position;
+            }
+            final int offset = bufferEnd - bufferStart;
+            final int read = input.read(buffer, offset, buffer.length - offset);
+            if (read == -1) {
+                exhausted = true;
+            } else {
+                bufferEnd += read;
+            }
+        }
+    }
+
+    /**
+     * Makes the longest entry at {@link #position} pending, and advances the position past it.
+     *
+     * @return false if no entry starts at the position
+     */
+    private boolean matchEntry() {
+        final long match = dictionary.longestMatch(buffer, position - bufferStart, bufferEnd - position);
+        if (match < 0) {
+            return false;
+        }
+        entry = (int) (match >>> 32);
+        entrySegment = 0;
+        entryOffset = position;
+        position += (int) match;
+        return true;
+    }
+
+    /**
+     * Copies the text from {@link #position} up to the next entry or the end
+     * of the input, at most {@code len} chars, to {@code cbuf}, or skips it if
+     * {@code cbuf} is null.
+     *
+     * @return the number of chars, or -1 at the end of the gap
+     */
+    private int scanGap(final char[] cbuf, final int off, final int len) throws IOException {
+        int n = 0;
+        while (n < len && !gapEnded) {
+            fill();
+            if (position >= bufferEnd || matchEntry()) {
+                gapEnded = true;
+                break;
+            }
+            if (cbuf != null) {
+                cbuf[off + n] = buffer[position - bufferStart];
+            }
+            position++;
+            n++;
+        }
+        return n == 0 && len > 0 ? -1 : n;
+    }
+
+    @Override
+    public void reset() throws IOException {
+        super.reset();
+        if (tokenizing) {
+            tokenizer.close();
+            tokenizing = false;
+        }
+        dictionary = dictionarySupplier.get();
+        lookahead = Math.max(dictionary.getMaxLength(), 1);
+        if (buffer.length != lookahead + READ_SIZE) {
+            buffer = new char[lookahead + READ_SIZE];
+        }
+        bufferStart = 0;
+        bufferEnd = 0;
+        exhausted = false;
+        position = 0;
+        gapStart = 0;
+        gapEnded = true;
+        entry = -1;
+    }
+
+    @Override
+    public void end() throws IOException {
+        super.end();
+        final int finalOffset = correctOffset(bufferEnd);
+        offsetAtt.setOffset(finalOffset, finalOffset);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (tokenizing) {
+            tokenizer.close();
+            tokenizing = false;
+        }
+        super.close();
+    }
+
+    /**
+     * Reads the text between two entries.
+     */
+    private final class GapReader extends Reader {
+
+        @Override
+        public int read(final char[] cbuf, final int off, final int len) throws IOException {
+            return scanGap(cbuf, off, len);
+        }
+
+        @Override
+        public void close() {
+            // the input is owned by the tokenizer
+        }
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.analysis;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeSet;
+
+import org.codelibs.opensearch.fess.util.DoubleArrayTrie;
+
+/**
+ * Multi-syllable Vietnamese words in a double-array trie. The keys are the
+ * lowercase NFC form of the words with their syllables separated by a single
+ * space, which is how {@link VietnameseTokenizer} walks the trie.
+ */
+public final class VietnameseLexicon {
+
+    static final char SEPARATOR = ' ';
+
+    private static final String RESOURCE = "vietnamese/words.txt";
+
+    private static List<String> defaultWords;
+
+    private static VietnameseLexicon defaultLexicon;
+
+    private final DoubleArrayTrie trie;
+
+    private final int maxSyllables;
+
+    VietnameseLexicon(final Collection<String> words) {
+        final TreeSet<String> keys = new TreeSet<>();
+        int max = 1;
+        for (final String word : words) {
+            final String key = normalize(word);
+            if (!key.isEmpty()) {
+                keys.add(key);
+                max = Math.max(max, key.split(" ").length);
+            }
+        }
+        trie = DoubleArrayTrie.build(new ArrayList<>(keys));
+        maxSyllables = max;
+    }
+
+    private static String normalize(final String word) {
+        return Normalizer.normalize(word, Normalizer.Form.NFC).toLowerCase(Locale.ROOT).trim().replaceAll("\\s+", " ");
+    }
+
+    /**
+     * Returns the lexicon bundled with this plugin, loading it on the first call.
+     */
+    public static synchronized VietnameseLexicon getDefault() {
+        if (defaultLexicon == null) {
+            defaultLexicon = new VietnameseLexicon(getDefaultWords());
+        }
+        return defaultLexicon;
+    }
+
+    /**
+     * Returns a lexicon of the bundled words and {@code words}.
+     */
+    public static VietnameseLexicon withWords(final Collection<String> words) {
+        final List<String> allWords = new ArrayList<>(getDefaultWords());
+        allWords.addAll(words);
+        return new VietnameseLexicon(allWords);
+    }
+
+    private static synchronized List<String> getDefaultWords() {
+        if (defaultWords == null) {
+            try (InputStream in = VietnameseLexicon.class.getResourceAsStream(RESOURCE)) {
+                if (in == null) {
+                    throw new IllegalStateException(RESOURCE + " is not found.");
+                }
+                defaultWords = read(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)));
+            } catch (final IOException e) {
+                throw new UncheckedIOException("Failed to load " + RESOURCE, e);
+            }
+        }
+        return defaultWords;
+    }
+
+    static List<String> read(final BufferedReader reader) throws IOException {
+        final List<String> words = new ArrayList<>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (!line.isEmpty() && line.charAt(0) != '#') {
+                words.add(line);
+            }
+        }
+        return words;
+    }
+
+    public DoubleArrayTrie getTrie() {
+        return trie;
+    }
+
+    /** The number of syllables of the longest word. */
+    public int getMaxSyllables() {
+        return maxSyllables;
+    }
+
+    public int size() {
+        return trie.size();
+    }
+}
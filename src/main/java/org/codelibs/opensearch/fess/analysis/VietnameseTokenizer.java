@@ -0,0 +1,268 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.analysis;
+
+import java.io.IOException;
+
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.analysis.tokenattributes.OffsetAttribute;
+import org.apache.lucene.util.ArrayUtil;
+import org.codelibs.opensearch.fess.util.DoubleArrayTrie;
+
+/**
+ * Segments Vietnamese text into words. Syllables are runs of letters, digits
+ * and combining marks; consecutive syllables separated by whitespace only are
+ * joined into one token when they form the longest word of the
+ * {@link VietnameseLexicon} starting at the first of them. The term of a
+ * joined word has its syllables separated by a single space.
+ *
+ * <p>The input is read through a buffer that only keeps the syllables still
+ * needed for a lookahead of {@link VietnameseLexicon#getMaxSyllables()}
+ * syllables, so memory does not depend on the length of the input.</p>
+ */
+public final class VietnameseTokenizer extends Tokenizer {
+
+    public static final int DEFAULT_MAX_TOKEN_LENGTH = 255;
+
+    private static final int BUFFER_SIZE = 4096;
+
+    // a longer run of whitespace does not join syllables
+    private static final int MAX_SEPARATOR_LENGTH = 8;
+
+    private static final int ROOT = 0;
+
+    private final CharTermAttribute termAtt = addAttribute(CharTermAttribute.class);
+
+    private final OffsetAttribute offsetAtt = addAttribute(OffsetAttribute.class);
+
+    private final DoubleArrayTrie trie;
+
+    private final int maxTokenLength;
+
+    private char[] buffer = new char[BUFFER_SIZE];
+
+    // offset of buffer[0] in the input
+    private int bufferOffset;
+
+    private int bufferLength;
+
+    private int position;
+
+    // the first index of the buffer that is still needed
+    private int keep;
+
+    private boolean exhausted;
+
+    // the lookahead stopped at a separator that does not join syllables
+    private boolean blocked;
+
+    // the scanned syllables that are not emitted yet, as buffer ranges
+    private final int[] starts;
+
+    private final int[] ends;
+
+    // joins[i] is whether syllable i + 1 follows syllable i after whitespace only
+    private final boolean[] joins;
+
+    private int count;
+
+    public VietnameseTokenizer(final VietnameseLexicon lexicon) {
+        this(lexicon, DEFAULT_MAX_TOKEN_LENGTH);
+    }
+
+    public VietnameseTokenizer(final VietnameseLexicon lexicon, final int maxTokenLength) {
+        if (maxTokenLength < 1) {
+            throw new IllegalArgumentException("maxTokenLength must be greater than 0: " + maxTokenLength);
+        }
+        trie = lexicon.getTrie();
+        this.maxTokenLength = maxTokenLength;
+        starts = new int[lexicon.getMaxSyllables()];
+        ends = new int[starts.length];
+        joins = new boolean[starts.length];
+    }
+
+    @Override
+    public boolean incrementToken() throws IOException {
+        clearAttributes();
+        if (count == 0 && !scan(false)) {
+            return false;
+        }
+        int last = 0;
+        int state = ROOT;
+        match: for (int k = 0; k < starts.length; k++) {
+            if (k > 0) {
+                if (k >= count && !scan(true) || !joins[k - 1]) {
+                    break;
+                }
+                state = trie.next(state, VietnameseLexicon.SEPARATOR);
+                if (state < 0) {
+                    break;
+                }
+            }
+            for (int i = starts[k]; i < ends[k]; i++) {
+                state = trie.next(state, Character.toLowerCase(buffer[i]));
+                if (state < 0) {
+                    break match;
+                }
+            }
+            if (k > 0 && trie.value(state) >= 0) {
+                last = k;
+            }
+        }
+        emit(last);
+        return true;
+    }
+
+    private void emit(final int last) {
+        int length = 0;
+        for (int k = 0; k <= last; k++) {
+            length += ends[k] - starts[k] + (k > 0 ? 1 : 0);
+        }
+        final char[] term = termAtt.resizeBuffer(length);
+        int termLength = 0;
+        for (int k = 0; k <= last; k++) {
+            if (k > 0) {
+                term[termLength++] = VietnameseLexicon.SEPARATOR;
+            }
+            System.arraycopy(buffer, starts[k], term, termLength, ends[k] - starts[k]);
+            termLength += ends[k] - starts[k];
+        }
+        termAtt.setLength(termLength);
+        offsetAtt.setOffset(correctOffset(bufferOffset + starts[0]), correctOffset(bufferOffset + ends[last]));
+        final int emitted = last + 1;
+        count -= emitted;
+        System.arraycopy(starts, emitted, starts, 0, count);
+        System.arraycopy(ends, emitted, ends, 0, count);
+        System.arraycopy(joins, emitted, joins, 0, count);
+    }
+
+    /**
+     * Scans the next syllable into the queue. In a lookahead, a separator
+     * that cannot join the syllables is not skipped past.
+     *
+     * @return whether a syllable was scanned
+     */
+    private boolean scan(final boolean lookahead) throws IOException {
+        if (lookahead && blocked) {
+            return false;
+        }
+        int separator = 0;
+        boolean whitespace = true;
+        while (true) {
+            if (position >= bufferLength) {
+                keep = count > 0 ? starts[0] : position;
+                if (!fill()) {
+                    return false;
+                }
+            }
+            final char c = buffer[position];
+            if (isSyllableChar(c)) {
+                break;
+            }
+            if (!Character.isWhitespace(c) || ++separator > MAX_SEPARATOR_LENGTH) {
+                whitespace = false;
+                if (lookahead) {
+                    blocked = true;
+                    return false;
+                }
+            }
+            position++;
+        }
+        blocked = false;
+        if (count > 0) {
+            joins[count - 1] = whitespace && separator > 0;
+        }
+        int start = position;
+        while (position - start < maxTokenLength || Character.isLowSurrogate(buffer[position])) {
+            position++;
+            if (position >= bufferLength) {
+                keep = count > 0 ? starts[0] : start;
+                final int shift = keep;
+                final boolean filled = fill();
+                start -= shift;
+                if (!filled) {
+                    break;
+                }
+            }
+            if (!isSyllableChar(buffer[position])) {
+                break;
+            }
+        }
+        starts[count] = start;
+        ends[count] = position;
+        joins[count] = false;
+        count++;
+        return true;
+    }
+
+    private static boolean isSyllableChar(final char c) {
+        if (Character.isLetterOrDigit(c) || Character.isSurrogate(c)) {
+            return true;
+        }
+        final int type = Character.getType(c);
+        return type == Character.NON_SPACING_MARK || type == Character.COMBINING_SPACING_MARK;
+    }
+
+    /**
+     * Drops the buffer before {@code keep} and reads more input.
+     */
+    private boolean fill() throws IOException {
+        if (exhausted) {
+            return false;
+        }
+        if (keep > 0) {
+            System.arraycopy(buffer, keep, buffer, 0, bufferLength - keep);
+            bufferOffset += keep;
+            bufferLength -= keep;
+            position -= keep;
+            for (int i = 0; i < count; i++) {
+                starts[i] -= keep;
+                ends[i] -= keep;
+            }
+            keep = 0;
+        }
+        if (bufferLength == buffer.length) {
+            buffer = ArrayUtil.grow(buffer, bufferLength + 1);
+        }
+        final int length = input.read(buffer, bufferLength, buffer.length - bufferLength);
+        if (length <= 0) {
+            exhausted = true;
+            return false;
+        }
+        bufferLength += length;
+        return true;
+    }
+
+    @Override
+    public void end() throws IOException {
+        super.end();
+        final int finalOffset = correctOffset(bufferOffset + bufferLength);
+        offsetAtt.setOffset(finalOffset, finalOffset);
+    }
+
+    @Override
+    public void reset() throws IOException {
+        super.reset();
+        bufferOffset = 0;
+        bufferLength = 0;
+        position = 0;
+        keep = 0;
+        exhausted = false;
+        blocked = false;
+        count = 0;
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.index.analysis;
+
+import java.io.Reader;
+
+import org.codelibs.opensearch.fess.analysis.BudgetCharFilter;
+import org.codelibs.opensearch.fess.analysis.CountingCharFilter;
+import org.codelibs.opensearch.fess.analysis.ProfilingCharFilter;
+import org.codelibs.opensearch.fess.analysis.SlowLogCharFilter;
+import org.codelibs.opensearch.fess.service.FessAnalysisService;
+import org.codelibs.opensearch.fess.stats.AnalysisCounters;
+import org.codelibs.opensearch.fess.stats.AnalysisProfiler;
+import org.codelibs.opensearch.fess.stats.AnalysisSlowLog;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.env.Environment;
+import org.opensearch.index.IndexSettings;
+import org.opensearch.index.analysis.AbstractCharFilterFactory;
+import org.opensearch.index.analysis.CharFilterFactory;
+
+/**
+ * Base class of the Fess char filter factories, which delegate to the first
+ * char filter factory found in the installed plugins. The
+ * {@code budget_max_chars} and {@code budget_max_time} settings end the
+ * filtered input early, counting it as truncated. Sampled inputs whose
+ * filtering is slower than the thresholds of the index are written to the
+ * {@link AnalysisSlowLog}.
+ */
+public abstract class AbstractFessCharFilterFactory extends AbstractCharFilterFactory implements FessAnalysisComponent {
+
+    protected final FessAnalysisService fessAnalysisService;
+
+    private final DelegateHolder<CharFilterFactory> charFilterFactory;
+
+    private final AnalysisCounters counters;
+
+    private final AnalysisBudget budget;
+
+    private final AnalysisProfiler profiler;
+
+    private final String index;
+
+    private final String type;
+
+    protected AbstractFessCharFilterFactory(final IndexSettings indexSettings, final Environment env, final String name,
+            final Settings settings, final FessAnalysisService fessAnalysisService, final String... factoryClasses) {
+        super(indexSettings, name);
+        this.fessAnalysisService = fessAnalysisService;
+        charFilterFactory = DelegateHolder.create(CharFilterFactory.class, factoryClasses, indexSettings, env, name, settings,
+                fessAnalysisService, logger);
+        type = settings.get("type", name);
+        counters = fessAnalysisService.getAnalysisCounters(indexSettings, type);
+        profiler = fessAnalysisService.getAnalysisProfiler();
+        index = indexSettings.getIndex().getName();
+        budget = AnalysisBudget.of(settings);
+        if (budget.maxTokens > 0) {
+            throw new IllegalArgumentException("[" + AnalysisBudget.MAX_TOKENS + "] is not supported by char filters");
+        }
+    }
+
+    protected CharFilterFactory getCharFilterFactory() {
+        return charFilterFactory.get();
+    }
+
+    @Override
+    public void onIndexRegistered() {
+        charFilterFactory.register();
+    }
+
+    @Override
+    public Reader create(final Reader reader) {
+        // looked up per call, as the index registers its slowlog after creating its components
+        final AnalysisSlowLog slowLog = fessAnalysisService.getSlowLog(indexSettings);
+        Reader filtered = createReader(reader);
+        if (counters != null && filtered != reader) {
+            counters.onCreate();
+            filtered = new CountingCharFilter(filtered, counters);
+        }
+        if (slowLog != null && filtered != reader && slowLog.sample()) {
+            filtered = new SlowLogCharFilter(filtered, slowLog, name(), type);
+        }
+        if (!budget.isUnlimited()) {
+            filtered = new BudgetCharFilter(filtered, budget.maxChars, budget.maxNanos, counters);
+        }
+        if (profiler != null && filtered != reader && profiler.isEnabled()) {
+            // char filters are created per stream, so none is wrapped while profiling is disabled
+            filtered = new ProfilingCharFilter(filtered, reader, profiler, index, type);
+        }
+        return filtered;
+    }
+
+    protected Reader createReader(final Reader reader) {
+        final CharFilterFactory factory = getCharFilterFactory();
+        if (factory != null) {
+            return factory.create(reader);
+        }
+        return reader;
+    }
+
+    AnalysisBudget getBudget() {
+        return budget;
+    }
+}
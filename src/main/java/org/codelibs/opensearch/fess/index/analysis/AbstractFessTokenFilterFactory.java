@@ -0,0 +1,101 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.index.analysis;
+
+import org.apache.lucene.analysis.TokenStream;
+import org.codelibs.opensearch.fess.analysis.CountingTokenFilter;
+import org.codelibs.opensearch.fess.analysis.ProfilingTokenFilter;
+import org.codelibs.opensearch.fess.analysis.SlowLogTokenFilter;
+import org.codelibs.opensearch.fess.service.FessAnalysisService;
+import org.codelibs.opensearch.fess.stats.AnalysisCounters;
+import org.codelibs.opensearch.fess.stats.AnalysisProfiler;
+import org.codelibs.opensearch.fess.stats.AnalysisSlowLog;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.env.Environment;
+import org.opensearch.index.IndexSettings;
+import org.opensearch.index.analysis.AbstractTokenFilterFactory;
+import org.opensearch.index.analysis.TokenFilterFactory;
+
+/**
+ * Base class of the Fess token filter factories, which delegate to the first
+ * token filter factory found in the installed plugins. Sampled streams slower
+ * than the thresholds of the index are written to the {@link AnalysisSlowLog}.
+ */
+public abstract class AbstractFessTokenFilterFactory extends AbstractTokenFilterFactory implements FessAnalysisComponent {
+
+    protected final FessAnalysisService fessAnalysisService;
+
+    private final DelegateHolder<TokenFilterFactory> tokenFilterFactory;
+
+    private final AnalysisCounters counters;
+
+    private final AnalysisProfiler profiler;
+
+    private final String index;
+
+    private final String type;
+
+    protected AbstractFessTokenFilterFactory(final IndexSettings indexSettings, final Environment env, final String name,
+            final Settings settings, final FessAnalysisService fessAnalysisService, final String... factoryClasses) {
+        super(indexSettings, name, settings);
+        this.fessAnalysisService = fessAnalysisService;
+        tokenFilterFactory = DelegateHolder.create(TokenFilterFactory.class, factoryClasses, indexSettings, env, name, settings,
+                fessAnalysisService, logger);
+        type = settings.get("type", name);
+        counters = fessAnalysisService.getAnalysisCounters(indexSettings, type);
+        profiler = fessAnalysisService.getAnalysisProfiler();
+        index = indexSettings.getIndex().getName();
+    }
+
+    protected TokenFilterFactory getTokenFilterFactory() {
+        return tokenFilterFactory.get();
+    }
+
+    @Override
+    public void onIndexRegistered() {
+        tokenFilterFactory.register();
+    }
+
+    @Override
+    public TokenStream create(final TokenStream tokenStream) {
+        TokenStream stream = createTokenStream(tokenStream);
+        if (stream == tokenStream) {
+            return stream;
+        }
+        if (counters != null) {
+            counters.onCreate();
+            stream = new CountingTokenFilter(stream, counters);
+        }
+        // looked up per call, as the index registers its slowlog after creating its components
+        final AnalysisSlowLog slowLog = fessAnalysisService.getSlowLog(indexSettings);
+        // no wrapper while all thresholds are disabled; a wrapped token filter samples each stream it is reset for
+        if (slowLog != null && slowLog.isEnabled()) {
+            stream = new SlowLogTokenFilter(stream, slowLog, name(), type);
+        }
+        if (profiler != null) {
+            stream = new ProfilingTokenFilter(stream, profiler, index, type);
+        }
+        return stream;
+    }
+
+    protected TokenStream createTokenStream(final TokenStream tokenStream) {
+        final TokenFilterFactory factory = getTokenFilterFactory();
+        if (factory != null) {
+            return factory.create(tokenStream);
+        }
+        return tokenStream;
+    }
+}
@@ -0,0 +1,265 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.index.analysis;
+
+import java.util.Arrays;
+
+import org.apache.lucene.analysis.Tokenizer;
+import org.codelibs.opensearch.fess.analysis.BudgetTokenizer;
+import org.codelibs.opensearch.fess.analysis.CJKBigramTokenizer;
+import org.codelibs.opensearch.fess.analysis.CachingTokenizer;
+import org.codelibs.opensearch.fess.analysis.ChunkedTokenizer;
+import org.codelibs.opensearch.fess.analysis.CountingTokenizer;
+import org.codelibs.opensearch.fess.analysis.EmptyTokenizer;
+import org.codelibs.opensearch.fess.analysis.ParallelTokenizer;
+import org.codelibs.opensearch.fess.analysis.ProfilingTokenizer;
+import org.codelibs.opensearch.fess.analysis.SlowLogTokenizer;
+import org.codelibs.opensearch.fess.analysis.TokenCache;
+import org.codelibs.opensearch.fess.service.FessAnalysisService;
+import org.codelibs.opensearch.fess.stats.AnalysisCounters;
+import org.codelibs.opensearch.fess.stats.AnalysisProfiler;
+import org.codelibs.opensearch.fess.stats.AnalysisSlowLog;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.env.Environment;
+import org.opensearch.index.IndexSettings;
+import org.opensearch.index.analysis.AbstractTokenizerFactory;
+import org.opensearch.index.analysis.TokenizerFactory;
+
+/**
+ * Base class of the Fess tokenizer factories, which delegate to the first
+ * tokenizer factory found in the installed plugins. When none is installed,
+ * the {@code fallback} setting decides whether the tokenizer produces no
+ * tokens, CJK bigrams, or rejects the settings. With {@code query_cache},
+ * the tokens of inputs up to {@code query_cache_max_length} chars are cached
+ * on the node. With {@code chunk_size}, the input is passed to the tokenizer
+ * in chunks of that many chars, aligned to sentence boundaries, to bound the
+ * memory of analyzing very large documents. With {@code parallel_segment_size},
+ * up to {@code parallel_max_segments} segments of that many chars are
+ * tokenized concurrently on the {@value FessAnalysisService#PARALLEL_EXECUTOR}
+ * thread pool, each by its own tokenizer. The {@code budget_max_chars},
+ * {@code budget_max_tokens} and {@code budget_max_time} settings stop an
+ * analysis early, counting it as truncated. Sampled streams slower than the
+ * thresholds of the index are written to the {@link AnalysisSlowLog}.
+ */
+public abstract class AbstractFessTokenizerFactory extends AbstractTokenizerFactory implements FessAnalysisComponent {
+
+    static final String FALLBACK = "fallback";
+
+    static final String FALLBACK_MAX_TOKEN_LENGTH = "fallback_max_token_length";
+
+    static final String QUERY_CACHE = "query_cache";
+
+    static final String QUERY_CACHE_MAX_LENGTH = "query_cache_max_length";
+
+    static final int DEFAULT_QUERY_CACHE_MAX_LENGTH = 64;
+
+    static final String CHUNK_SIZE = "chunk_size";
+
+    static final String PARALLEL_SEGMENT_SIZE = "parallel_segment_size";
+
+    static final String PARALLEL_MAX_SEGMENTS = "parallel_max_segments";
+
+    static final int DEFAULT_PARALLEL_MAX_SEGMENTS = 4;
+
+    protected final FessAnalysisService fessAnalysisService;
+
+    private final DelegateHolder<TokenizerFactory> tokenizerFactory;
+
+    private final TokenizerFallback fallback;
+
+    private final int fallbackMaxTokenLength;
+
+    private final AnalysisCounters counters;
+
+    private final TokenCache queryCache;
+
+    private final int queryCacheMaxLength;
+
+    private final int chunkSize;
+
+    private final int parallelSegmentSize;
+
+    private final int parallelMaxSegments;
+
+    private final AnalysisBudget budget;
+
+    private final AnalysisProfiler profiler;
+
+    private final String index;
+
+    private final String type;
+
+    protected AbstractFessTokenizerFactory(final IndexSettings indexSettings, final Environment env, final String name,
+            final Settings settings, final FessAnalysisService fessAnalysisService, final String... factoryClasses) {
+        super(indexSettings, settings, name);
+        this.fessAnalysisService = fessAnalysisService;
+        tokenizerFactory = DelegateHolder.create(TokenizerFactory.class, factoryClasses, indexSettings, env, name, settings,
+                fessAnalysisService, logger);
+        final String fallbackValue = settings.get(FALLBACK);
+        if (fallbackValue != null) {
+            fallback = TokenizerFallback.of(fallbackValue);
+        } else {
+            fallback = getDefaultFallback();
+        }
+        fallbackMaxTokenLength = settings.getAsInt(FALLBACK_MAX_TOKEN_LENGTH, CJKBigramTokenizer.DEFAULT_MAX_TOKEN_LENGTH);
+        if (fallback == TokenizerFallback.FAIL && factoryClasses.length > 0 && !isAvailable(tokenizerFactory, factoryClasses)) {
+            throw new IllegalArgumentException(
+                    "[" + name + "] requires one of " + Arrays.toString(factoryClasses) + ", but none of them is installed.");
+        }
+        type = settings.get("type", name);
+        counters = fessAnalysisService.getAnalysisCounters(indexSettings, type);
+        queryCache = settings.getAsBoolean(QUERY_CACHE, false) ? fessAnalysisService.getQueryCache(indexSettings) : null;
+        queryCacheMaxLength = settings.getAsInt(QUERY_CACHE_MAX_LENGTH, DEFAULT_QUERY_CACHE_MAX_LENGTH);
+        if (queryCacheMaxLength < 0) {
+            throw new IllegalArgumentException("[" + QUERY_CACHE_MAX_LENGTH + "] must be >= 0, but was [" + queryCacheMaxLength + "]");
+        }
+        chunkSize = settings.getAsInt(CHUNK_SIZE, 0);
+        if (chunkSize < 0) {
+            throw new IllegalArgumentException("[" + CHUNK_SIZE + "] must be >= 0, but was [" + chunkSize + "]");
+        }
+        parallelSegmentSize = settings.getAsInt(PARALLEL_SEGMENT_SIZE, 0);
+        if (parallelSegmentSize < 0) {
+            throw new IllegalArgumentException("[" + PARALLEL_SEGMENT_SIZE + "] must be >= 0, but was [" + parallelSegmentSize + "]");
+        }
+        parallelMaxSegments = settings.getAsInt(PARALLEL_MAX_SEGMENTS, DEFAULT_PARALLEL_MAX_SEGMENTS);
+        if (parallelMaxSegments < 1) {
+            throw new IllegalArgumentException("[" + PARALLEL_MAX_SEGMENTS + "] must be >= 1, but was [" + parallelMaxSegments + "]");
+        }
+        budget = AnalysisBudget.of(settings);
+        profiler = fessAnalysisService.getAnalysisProfiler();
+        index = indexSettings.getIndex().getName();
+    }
+
+    /**
+     * Returns the fallback used when the {@code fallback} setting is missing.
+     * This is called from the constructor, so it must not use the fields of a
+     * subclass.
+     */
+    protected TokenizerFallback getDefaultFallback() {
+        return fessAnalysisService.getFallback() != null ? fessAnalysisService.getFallback() : TokenizerFallback.EMPTY;
+    }
+
+    /**
+     * Returns whether {@code holder} has a delegate, without loading a lazy one.
+     */
+    boolean isAvailable(final DelegateHolder<?> holder, final String[] factoryClasses) {
+        if (holder.isLoaded()) {
+            return holder.get() != null;
+        }
+        for (final String factoryClass : factoryClasses) {
+            if (fessAnalysisService.loadClass(factoryClass) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    protected TokenizerFactory getTokenizerFactory() {
+        return tokenizerFactory.get();
+    }
+
+    @Override
+    public void onIndexRegistered() {
+        tokenizerFactory.register();
+    }
+
+    @Override
+    public Tokenizer create() {
+        // looked up per call, as the index registers its slowlog after creating its components
+        final AnalysisSlowLog slowLog = fessAnalysisService.getSlowLog(indexSettings);
+        Tokenizer tokenizer;
+        if (parallelSegmentSize > 0) {
+            tokenizer = new ParallelTokenizer(this::createTokenizer, fessAnalysisService.getParallelExecutor(), parallelSegmentSize,
+                    parallelMaxSegments);
+        } else {
+            tokenizer = createTokenizer();
+        }
+        if (chunkSize > 0) {
+            tokenizer = new ChunkedTokenizer(tokenizer, chunkSize);
+        }
+        if (!budget.isUnlimited()) {
+            tokenizer = new BudgetTokenizer(tokenizer, budget.maxChars, budget.maxTokens, budget.maxNanos, counters);
+        }
+        if (queryCache != null) {
+            tokenizer = new CachingTokenizer(tokenizer, queryCache, this, this::getCacheGeneration, queryCacheMaxLength);
+        }
+        if (counters != null) {
+            counters.onCreate();
+            tokenizer = new CountingTokenizer(tokenizer, counters);
+        }
+        // no wrapper while all thresholds are disabled; a wrapped tokenizer samples each stream it is reset for
+        if (slowLog != null && slowLog.isEnabled()) {
+            tokenizer = new SlowLogTokenizer(tokenizer, slowLog, name(), type);
+        }
+        if (profiler != null) {
+            tokenizer = new ProfilingTokenizer(tokenizer, profiler, index, type);
+        }
+        return tokenizer;
+    }
+
+    protected Tokenizer createTokenizer() {
+        final TokenizerFactory factory = getTokenizerFactory();
+        if (factory != null) {
+            return factory.create();
+        }
+        return createFallbackTokenizer();
+    }
+
+    /**
+     * Returns the object whose replacement changes the tokens of this factory,
+     * such as a reloaded dictionary, or null. Cached tokens are only replayed
+     * for the same generation.
+     */
+    protected Object getCacheGeneration() {
+        return null;
+    }
+
+    protected Tokenizer createFallbackTokenizer() {
+        switch (fallback) {
+        case BIGRAM:
+            return new CJKBigramTokenizer(fallbackMaxTokenLength);
+        case FAIL:
+            throw new IllegalStateException("[" + name() + "] has no tokenizer to delegate to.");
+        default:
+            return new EmptyTokenizer();
+        }
+    }
+
+    TokenizerFallback getFallback() {
+        return fallback;
+    }
+
+    TokenCache getQueryCache() {
+        return queryCache;
+    }
+
+    int getChunkSize() {
+        return chunkSize;
+    }
+
+    int getParallelSegmentSize() {
+        return parallelSegmentSize;
+    }
+
+    int getParallelMaxSegments() {
+        return parallelMaxSegments;
+    }
+
+    AnalysisBudget getBudget() {
+        return budget;
+    }
+
+}
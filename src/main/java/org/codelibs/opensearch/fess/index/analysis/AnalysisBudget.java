@@ -0,0 +1,69 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.index.analysis;
+
+import org.opensearch.common.settings.Settings;
+import org.opensearch.common.unit.TimeValue;
+
+/**
+ * The limits of one analysis set on a Fess tokenizer or char filter. A limit
+ * of 0 means no limit.
+ */
+final class AnalysisBudget {
+
+    static final String MAX_CHARS = "budget_max_chars";
+
+    static final String MAX_TOKENS = "budget_max_tokens";
+
+    static final String MAX_TIME = "budget_max_time";
+
+    static final AnalysisBudget UNLIMITED = new AnalysisBudget(0, 0, 0);
+
+    final long maxChars;
+
+    final long maxTokens;
+
+    final long maxNanos;
+
+    private AnalysisBudget(final long maxChars, final long maxTokens, final long maxNanos) {
+        this.maxChars = maxChars;
+        this.maxTokens = maxTokens;
+        this.maxNanos = maxNanos;
+    }
+
+    static AnalysisBudget of(final Settings settings) {
+        final long maxChars = settings.getAsLong(MAX_CHARS, 0L);
+        if (maxChars < 0) {
+            throw new IllegalArgumentException("[" + MAX_CHARS + "] must be >= 0, but was [" + maxChars + "]");
+        }
+        final long maxTokens = settings.getAsLong(MAX_TOKENS, 0L);
+        if (maxTokens < 0) {
+            throw new IllegalArgumentException("[" + MAX_TOKENS + "] must be >= 0, but was [" + maxTokens + "]");
+        }
+        final TimeValue maxTime = settings.getAsTime(MAX_TIME, TimeValue.ZERO);
+        if (maxTime.nanos() < 0) {
+            throw new IllegalArgumentException("[" + MAX_TIME + "] must be >= 0, but was [" + maxTime + "]");
+        }
+        if (maxChars == 0 && maxTokens == 0 && maxTime.nanos() == 0) {
+            return UNLIMITED;
+        }
+        return new AnalysisBudget(maxChars, maxTokens, maxTime.nanos());
+    }
+
+    boolean isUnlimited() {
+        return this == UNLIMITED;
+    }
+}
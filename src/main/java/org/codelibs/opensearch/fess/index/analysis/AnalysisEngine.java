@@ -0,0 +1,59 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.index.analysis;
+
+import java.util.Locale;
+
+import org.opensearch.common.settings.Settings;
+
+/**
+ * Which implementation a Fess analysis component runs.
+ */
+public enum AnalysisEngine {
+    /** The factory of the installed analysis plugin. */
+    DELEGATE,
+    /** The implementation bundled with this plugin. */
+    NATIVE;
+
+    static final String SETTING = "engine";
+
+    /**
+     * Reads the engine from the component settings, defaulting to {@link #DELEGATE}.
+     */
+    public static AnalysisEngine of(final Settings settings) {
+        return of(settings.get(SETTING, DELEGATE.toString()));
+    }
+
+    public static AnalysisEngine of(final String value) {
+        try {
+            return valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (final IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown engine [" + value + "], expected one of [delegate, native]", e);
+        }
+    }
+
+    /**
+     * Returns the delegate factory classes this engine needs: none when running natively.
+     */
+    String[] factories(final String... factoryClasses) {
+        return this == NATIVE ? new String[0] : factoryClasses;
+    }
+
+    @Override
+    public String toString() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
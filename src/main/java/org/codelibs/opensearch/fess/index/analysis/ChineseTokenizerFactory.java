@@ -15,56 +15,67 @@
  */
 package org.codelibs.opensearch.fess.index.analysis;
 
-import java.lang.reflect.Constructor;
-import java.security.AccessController;
-import java.security.PrivilegedAction;
+import java.util.List;
 
 import org.apache.lucene.analysis.Tokenizer;
-import org.codelibs.opensearch.fess.analysis.EmptyTokenizer;
+import org.codelibs.opensearch.fess.analysis.ChineseLexicon;
+import org.codelibs.opensearch.fess.analysis.ChineseMaxMatchTokenizer;
 import org.codelibs.opensearch.fess.service.FessAnalysisService;
-import org.opensearch.OpenSearchException;
 import org.opensearch.common.settings.Settings;
 import org.opensearch.env.Environment;
 import org.opensearch.index.IndexSettings;
-import org.opensearch.index.analysis.AbstractTokenizerFactory;
-import org.opensearch.index.analysis.TokenizerFactory;
+import org.opensearch.index.analysis.Analysis;
 
-public class ChineseTokenizerFactory extends AbstractTokenizerFactory {
+public class ChineseTokenizerFactory extends AbstractFessTokenizerFactory {
 
     // TODO OpenSearch support
-    private static final String FACTORY = "org.opensearch.index.analysis.SmartChineseTokenizerTokenizerFactory";
+    public static final String FACTORY = "org.opensearch.index.analysis.SmartChineseTokenizerTokenizerFactory";
 
-    private TokenizerFactory tokenizerFactory = null;
+    static final String MODE = "mode";
+
+    static final String USER_WORDS = "user_words";
+
+    static final String MAX_TOKEN_LENGTH = "max_token_length";
+
+    private final ChineseLexicon lexicon;
+
+    private final ChineseMaxMatchTokenizer.Mode mode;
+
+    private final int maxTokenLength;
 
     public ChineseTokenizerFactory(final IndexSettings indexSettings, final Environment env, final String name, final Settings settings,
             final FessAnalysisService fessAnalysisService) {
-        super(indexSettings, settings, name);
-
-        final Class<?> tokenizerFactoryClass = fessAnalysisService.loadClass(FACTORY);
-        if (tokenizerFactoryClass != null) {
-            if (logger.isDebugEnabled()) {
-                logger.debug("{} is found.", FACTORY);
+        super(indexSettings, env, name, settings, fessAnalysisService,
+                AnalysisEngine.of(settings).factories(FACTORY));
+        if (AnalysisEngine.of(settings) == AnalysisEngine.NATIVE) {
+            mode = ChineseMaxMatchTokenizer.Mode.of(settings.get(MODE, ChineseMaxMatchTokenizer.Mode.BIDIRECTIONAL.toString()));
+            final List<String> userWords = Analysis.parseWordList(env, settings, USER_WORDS, s -> s);
+            lexicon = userWords != null ? ChineseLexicon.withWords(userWords) : ChineseLexicon.getDefault();
+            maxTokenLength = settings.getAsInt(MAX_TOKEN_LENGTH, ChineseMaxMatchTokenizer.DEFAULT_MAX_TOKEN_LENGTH);
+            if (maxTokenLength < 1) {
+                throw new IllegalArgumentException("[" + MAX_TOKEN_LENGTH + "] must be >= 1, but was [" + maxTokenLength + "]");
             }
-            tokenizerFactory = AccessController.doPrivileged((PrivilegedAction<TokenizerFactory>) () -> {
-                try {
-                    final Constructor<?> constructor =
-                            tokenizerFactoryClass.getConstructor(IndexSettings.class, Environment.class, String.class, Settings.class);
-                    return (TokenizerFactory) constructor.newInstance(indexSettings, env, name, settings);
-                } catch (final Exception e) {
-                    throw new OpenSearchException("Failed to load " + FACTORY, e);
-                }
-            });
-        } else if (logger.isDebugEnabled()) {
-            logger.debug("{} is not found.", FACTORY);
+        } else {
+            lexicon = null;
+            mode = null;
+            maxTokenLength = 0;
         }
     }
 
     @Override
-    public Tokenizer create() {
-        if (tokenizerFactory != null) {
-            return tokenizerFactory.create();
+    protected Tokenizer createTokenizer() {
+        if (lexicon != null) {
+            return new ChineseMaxMatchTokenizer(lexicon, mode, maxTokenLength);
         }
-        return new EmptyTokenizer();
+        return super.createTokenizer();
+    }
+
+    ChineseLexicon getLexicon() {
+        return lexicon;
+    }
+
+    ChineseMaxMatchTokenizer.Mode getMode() {
+        return mode;
     }
 
 }
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.index.analysis;
+
+import org.apache.logging.log4j.Logger;
+import org.codelibs.opensearch.fess.service.FessAnalysisService;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.env.Environment;
+import org.opensearch.index.IndexSettings;
+
+/**
+ * Holds the delegate factory of a Fess wrapper factory. In lazy mode, the
+ * delegate is resolved and built once, on the first call of {@link #get()}.
+ * A delegate built before the node registered its index is only borrowed;
+ * {@link #register()} then makes the index hold it, or the shared delegate
+ * that another index holds already.
+ *
+ * @param <T> the delegate factory type
+ */
+final class DelegateHolder<T> {
+
+    static final String LAZY = "lazy";
+
+    private final Class<T> type;
+
+    private final String[] factoryClasses;
+
+    private final IndexSettings indexSettings;
+
+    private final Environment env;
+
+    private final String name;
+
+    private final Settings settings;
+
+    private final FessAnalysisService fessAnalysisService;
+
+    private final Logger logger;
+
+    private volatile boolean loaded;
+
+    private volatile T delegate;
+
+    private Class<?> delegateClass;
+
+    private DelegateHolder(final Class<T> type, final String[] factoryClasses, final IndexSettings indexSettings, final Environment env,
+            final String name, final Settings settings, final FessAnalysisService fessAnalysisService, final Logger logger) {
+        this.type = type;
+        this.factoryClasses = factoryClasses;
+        this.indexSettings = indexSettings;
+        this.env = env;
+        this.name = name;
+        this.settings = settings;
+        this.fessAnalysisService = fessAnalysisService;
+        this.logger = logger;
+    }
+
+    static <T> DelegateHolder<T> create(final Class<T> type, final String[] factoryClasses, final IndexSettings indexSettings,
+            final Environment env, final String name, final Settings settings, final FessAnalysisService fessAnalysisService,
+            final Logger logger) {
+        final DelegateHolder<T> holder =
+                new DelegateHolder<>(type, factoryClasses, indexSettings, env, name, settings, fessAnalysisService, logger);
+        if (!settings.getAsBoolean(LAZY, fessAnalysisService.isLazyDelegates())) {
+            holder.get();
+        }
+        return holder;
+    }
+
+    T get() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    delegate = load();
+                    loaded = true;
+                }
+            }
+        }
+        return delegate;
+    }
+
+    private T load() {
+        for (final String factoryClass : factoryClasses) {
+            final Class<?> found = fessAnalysisService.loadClass(factoryClass);
+            if (found != null) {
+                if (logger.isDebugEnabled()) {
+                    logger.debug("{} is found.", factoryClass);
+                }
+                delegateClass = found;
+                return fessAnalysisService.acquireDelegate(found, type, indexSettings, env, name, settings);
+            } else if (logger.isDebugEnabled()) {
+                logger.debug("{} is not found.", factoryClass);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Makes the registered index hold the delegate, if it has been built. A
+     * lazy delegate built later is acquired by the registered index anyway.
+     */
+    synchronized void register() {
+        if (loaded && delegate != null) {
+            delegate = fessAnalysisService.registerDelegate(delegateClass, type, indexSettings, settings, delegate);
+        }
+    }
+
+    boolean isLoaded() {
+        return loaded;
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.index.analysis;
+
+/**
+ * An analysis component of the Fess plugin whose index holds shared state on
+ * the node, such as delegate factories and user dictionaries. Components are
+ * created before the node registers their index service, and temporary index
+ * services are never registered, so the components only borrow shared state
+ * until {@link #onIndexRegistered()}.
+ */
+public interface FessAnalysisComponent {
+
+    /**
+     * Makes the index hold the shared state that the component borrowed.
+     * Called once the node has registered the index service that created the
+     * component.
+     */
+    void onIndexRegistered();
+}
@@ -15,58 +15,20 @@
  */
 package org.codelibs.opensearch.fess.index.analysis;
 
-import java.lang.reflect.Constructor;
-import java.security.AccessController;
-import java.security.PrivilegedAction;
-
-import org.apache.lucene.analysis.TokenStream;
 import org.codelibs.opensearch.fess.service.FessAnalysisService;
-import org.opensearch.OpenSearchException;
 import org.opensearch.common.settings.Settings;
 import org.opensearch.env.Environment;
 import org.opensearch.index.IndexSettings;
-import org.opensearch.index.analysis.AbstractTokenFilterFactory;
-import org.opensearch.index.analysis.TokenFilterFactory;
 
-public class JapaneseBaseFormFilterFactory extends AbstractTokenFilterFactory {
+public class JapaneseBaseFormFilterFactory extends AbstractFessTokenFilterFactory {
 
-    private static final String[] FACTORIES = new String[] { //
+    public static final String[] FACTORIES = new String[] { //
             "org.codelibs.opensearch.extension.kuromoji.index.analysis.KuromojiBaseFormFilterFactory", //
             "org.opensearch.index.analysis.KuromojiBaseFormFilterFactory" };
 
-    private TokenFilterFactory tokenFilterFactory = null;
-
     public JapaneseBaseFormFilterFactory(final IndexSettings indexSettings, final Environment env, final String name,
             final Settings settings, final FessAnalysisService fessAnalysisService) {
-        super(indexSettings, name, settings);
-
-        for (final String factoryClass : FACTORIES) {
-            final Class<?> tokenFilterFactoryClass = fessAnalysisService.loadClass(factoryClass);
-            if (tokenFilterFactoryClass != null) {
-                if (logger.isDebugEnabled()) {
-                    logger.debug("{} is found.", factoryClass);
-                }
-                tokenFilterFactory = AccessController.doPrivileged((PrivilegedAction<TokenFilterFactory>) () -> {
-                    try {
-                        final Constructor<?> constructor = tokenFilterFactoryClass.getConstructor(IndexSettings.class, Environment.class,
-                                String.class, Settings.class);
-                        return (TokenFilterFactory) constructor.newInstance(indexSettings, env, name, settings);
-                    } catch (final Exception e) {
-                        throw new OpenSearchException("Failed to load " + factoryClass, e);
-                    }
-                });
-                break;
-            } else if (logger.isDebugEnabled()) {
-                logger.debug("{} is not found.", factoryClass);
-            }
-        }
+        super(indexSettings, env, name, settings, fessAnalysisService, FACTORIES);
     }
 
-    @Override
-    public TokenStream create(final TokenStream tokenStream) {
-        if (tokenFilterFactory != null) {
-            return tokenFilterFactory.create(tokenStream);
-        }
-        return tokenStream;
-    }
 }
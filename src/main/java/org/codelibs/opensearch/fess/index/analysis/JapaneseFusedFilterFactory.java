@@ -0,0 +1,71 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.index.analysis;
+
+import java.util.Set;
+
+import org.apache.lucene.analysis.TokenStream;
+import org.codelibs.opensearch.fess.analysis.JapaneseFusedFilter;
+import org.codelibs.opensearch.fess.analysis.KuromojiAttributes;
+import org.codelibs.opensearch.fess.analysis.PartOfSpeechTags;
+import org.codelibs.opensearch.fess.service.FessAnalysisService;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.env.Environment;
+import org.opensearch.index.IndexSettings;
+
+/**
+ * Applies fess_japanese_baseform, fess_japanese_part_of_speech,
+ * fess_japanese_stemmer and, with {@code reading_form}, fess_japanese_readingform
+ * in one filter. The settings are those of the chained filters, with the
+ * stop tags matched as by the native engine of fess_japanese_part_of_speech.
+ */
+public class JapaneseFusedFilterFactory extends AbstractFessTokenFilterFactory {
+
+    static final String MINIMUM_LENGTH = "minimum_length";
+
+    static final String READING_FORM = "reading_form";
+
+    static final String USE_ROMAJI = "use_romaji";
+
+    private final KuromojiAttributes kuromoji;
+
+    private final PartOfSpeechTags stopTags;
+
+    private final int minimumKatakanaLength;
+
+    private final boolean readingForm;
+
+    private final boolean useRomaji;
+
+    public JapaneseFusedFilterFactory(final IndexSettings indexSettings, final Environment env, final String name, final Settings settings,
+            final FessAnalysisService fessAnalysisService) {
+        super(indexSettings, env, name, settings, fessAnalysisService);
+        kuromoji = KuromojiAttributes.load(fessAnalysisService::loadClass);
+        stopTags = JapanesePartOfSpeechFilterFactory.getStopTags(env, settings, kuromoji);
+        minimumKatakanaLength = settings.getAsInt(MINIMUM_LENGTH, 4);
+        readingForm = settings.getAsBoolean(READING_FORM, false);
+        useRomaji = settings.getAsBoolean(USE_ROMAJI, false);
+    }
+
+    @Override
+    protected TokenStream createTokenStream(final TokenStream tokenStream) {
+        return new JapaneseFusedFilter(tokenStream, kuromoji, stopTags, minimumKatakanaLength, readingForm, useRomaji);
+    }
+
+    Set<String> getStopTags() {
+        return stopTags.getStopTags();
+    }
+}
@@ -15,58 +15,20 @@
  */
 package org.codelibs.opensearch.fess.index.analysis;
 
-import java.io.Reader;
-import java.lang.reflect.Constructor;
-import java.security.AccessController;
-import java.security.PrivilegedAction;
-
 import org.codelibs.opensearch.fess.service.FessAnalysisService;
-import org.opensearch.OpenSearchException;
 import org.opensearch.common.settings.Settings;
 import org.opensearch.env.Environment;
 import org.opensearch.index.IndexSettings;
-import org.opensearch.index.analysis.AbstractCharFilterFactory;
-import org.opensearch.index.analysis.CharFilterFactory;
 
-public class JapaneseIterationMarkCharFilterFactory extends AbstractCharFilterFactory {
+public class JapaneseIterationMarkCharFilterFactory extends AbstractFessCharFilterFactory {
 
-    private static final String[] FACTORIES = new String[] { //
+    public static final String[] FACTORIES = new String[] { //
             "org.codelibs.opensearch.extension.kuromoji.index.analysis.KuromojiIterationMarkCharFilterFactory", //
             "org.opensearch.index.analysis.KuromojiIterationMarkCharFilterFactory" };
 
-    private CharFilterFactory charFilterFactory = null;
-
     public JapaneseIterationMarkCharFilterFactory(final IndexSettings indexSettings, final Environment env, final String name,
             final Settings settings, final FessAnalysisService fessAnalysisService) {
-        super(indexSettings, name);
-
-        for (final String factoryClass : FACTORIES) {
-            final Class<?> charFilterFactoryClass = fessAnalysisService.loadClass(factoryClass);
-            if (charFilterFactoryClass != null) {
-                if (logger.isDebugEnabled()) {
-                    logger.debug("{} is found.", factoryClass);
-                }
-                charFilterFactory = AccessController.doPrivileged((PrivilegedAction<CharFilterFactory>) () -> {
-                    try {
-                        final Constructor<?> constructor =
-                                charFilterFactoryClass.getConstructor(IndexSettings.class, Environment.class, String.class, Settings.class);
-                        return (CharFilterFactory) constructor.newInstance(indexSettings, env, name, settings);
-                    } catch (final Exception e) {
-                        throw new OpenSearchException("Failed to load " + factoryClass, e);
-                    }
-                });
-                break;
-            } else if (logger.isDebugEnabled()) {
-                logger.debug("{} is not found.", factoryClass);
-            }
-        }
+        super(indexSettings, env, name, settings, fessAnalysisService, FACTORIES);
     }
 
-    @Override
-    public Reader create(final Reader reader) {
-        if (charFilterFactory != null) {
-            return charFilterFactory.create(reader);
-        }
-        return reader;
-    }
 }
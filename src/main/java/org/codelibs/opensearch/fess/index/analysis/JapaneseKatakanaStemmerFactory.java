@@ -15,60 +15,43 @@
  */
 package org.codelibs.opensearch.fess.index.analysis;
 
-import java.lang.reflect.Constructor;
-import java.security.AccessController;
-import java.security.PrivilegedAction;
-
 import org.apache.lucene.analysis.TokenStream;
+import org.codelibs.opensearch.fess.analysis.JapaneseKatakanaStemFilter;
 import org.codelibs.opensearch.fess.service.FessAnalysisService;
-import org.opensearch.OpenSearchException;
 import org.opensearch.common.settings.Settings;
 import org.opensearch.env.Environment;
 import org.opensearch.index.IndexSettings;
-import org.opensearch.index.analysis.AbstractTokenFilterFactory;
-import org.opensearch.index.analysis.TokenFilterFactory;
 
-public class JapaneseKatakanaStemmerFactory extends AbstractTokenFilterFactory {
+public class JapaneseKatakanaStemmerFactory extends AbstractFessTokenFilterFactory {
 
-    private static final String[] FACTORIES = new String[] { //
+    public static final String[] FACTORIES = new String[] { //
             "org.codelibs.opensearch.extension.kuromoji.index.analysis.KuromojiKatakanaStemmerFactory", //
             "org.opensearch.index.analysis.KuromojiKatakanaStemmerFactory" };
 
-    private TokenFilterFactory tokenFilterFactory;
+    static final String MINIMUM_LENGTH = "minimum_length";
+
+    private final int minimumLength;
 
     public JapaneseKatakanaStemmerFactory(final IndexSettings indexSettings, final Environment env, final String name,
             final Settings settings, final FessAnalysisService fessAnalysisService) {
-        super(indexSettings, name, settings);
-
-        for (final String factoryClass : FACTORIES) {
-            final Class<?> tokenizerFactoryClass = fessAnalysisService.loadClass(factoryClass);
-            if (tokenizerFactoryClass != null) {
-                if (logger.isDebugEnabled()) {
-                    logger.debug("{} is found.", factoryClass);
-                }
-                tokenFilterFactory = AccessController.doPrivileged((PrivilegedAction<TokenFilterFactory>) () -> {
-                    try {
-                        final Constructor<?> constructor =
-                                tokenizerFactoryClass.getConstructor(IndexSettings.class, Environment.class, String.class, Settings.class);
-                        return (TokenFilterFactory) constructor.newInstance(indexSettings, env, name, settings);
-                    } catch (final Exception e) {
-                        throw new OpenSearchException("Failed to load " + factoryClass, e);
-                    }
-
-                });
-                break;
-            } else if (logger.isDebugEnabled()) {
-                logger.debug("{} is not found.", factoryClass);
+        super(indexSettings, env, name, settings, fessAnalysisService,
+                AnalysisEngine.of(settings).factories(FACTORIES));
+        if (AnalysisEngine.of(settings) == AnalysisEngine.NATIVE) {
+            minimumLength = settings.getAsInt(MINIMUM_LENGTH, JapaneseKatakanaStemFilter.DEFAULT_MINIMUM_LENGTH);
+            if (minimumLength < 1) {
+                throw new IllegalArgumentException("[" + MINIMUM_LENGTH + "] must be >= 1, but was [" + minimumLength + "]");
             }
+        } else {
+            minimumLength = 0;
         }
     }
 
     @Override
-    public TokenStream create(final TokenStream tokenStream) {
-        if (tokenFilterFactory != null) {
-            return tokenFilterFactory.create(tokenStream);
+    protected TokenStream createTokenStream(final TokenStream tokenStream) {
+        if (minimumLength > 0) {
+            return new JapaneseKatakanaStemFilter(tokenStream, minimumLength);
         }
-        return tokenStream;
+        return super.createTokenStream(tokenStream);
     }
 
 }
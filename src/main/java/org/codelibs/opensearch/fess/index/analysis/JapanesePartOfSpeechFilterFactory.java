@@ -15,58 +15,73 @@
  */
 package org.codelibs.opensearch.fess.index.analysis;
 
-import java.lang.reflect.Constructor;
-import java.security.AccessController;
-import java.security.PrivilegedAction;
+import java.util.Collection;
+import java.util.List;
 
 import org.apache.lucene.analysis.TokenStream;
+import org.codelibs.opensearch.fess.analysis.JapanesePartOfSpeechStopFilter;
+import org.codelibs.opensearch.fess.analysis.KuromojiAttributes;
+import org.codelibs.opensearch.fess.analysis.PartOfSpeechTags;
 import org.codelibs.opensearch.fess.service.FessAnalysisService;
-import org.opensearch.OpenSearchException;
 import org.opensearch.common.settings.Settings;
 import org.opensearch.env.Environment;
 import org.opensearch.index.IndexSettings;
-import org.opensearch.index.analysis.AbstractTokenFilterFactory;
-import org.opensearch.index.analysis.TokenFilterFactory;
+import org.opensearch.index.analysis.Analysis;
 
-public class JapanesePartOfSpeechFilterFactory extends AbstractTokenFilterFactory {
+public class JapanesePartOfSpeechFilterFactory extends AbstractFessTokenFilterFactory {
 
-    private static final String[] FACTORIES = new String[] { //
+    public static final String[] FACTORIES = new String[] { //
             "org.codelibs.opensearch.extension.kuromoji.index.analysis.KuromojiPartOfSpeechFilterFactory", //
             "org.opensearch.index.analysis.KuromojiPartOfSpeechFilterFactory" };
 
-    private TokenFilterFactory tokenFilterFactory = null;
+    static final String STOPTAGS = "stoptags";
+
+    static final String PREFIX_MATCH = "prefix_match";
+
+    private final KuromojiAttributes kuromoji;
+
+    private final PartOfSpeechTags stopTags;
 
     public JapanesePartOfSpeechFilterFactory(final IndexSettings indexSettings, final Environment env, final String name,
             final Settings settings, final FessAnalysisService fessAnalysisService) {
-        super(indexSettings, name, settings);
+        super(indexSettings, env, name, settings, fessAnalysisService,
+                AnalysisEngine.of(settings).factories(FACTORIES));
+        if (AnalysisEngine.of(settings) == AnalysisEngine.NATIVE) {
+            kuromoji = KuromojiAttributes.load(fessAnalysisService::loadClass);
+            stopTags = getStopTags(env, settings, kuromoji);
+        } else {
+            kuromoji = null;
+            stopTags = null;
+        }
+    }
 
-        for (final String factoryClass : FACTORIES) {
-            final Class<?> TokenFilterFactoryClass = fessAnalysisService.loadClass(factoryClass);
-            if (TokenFilterFactoryClass != null) {
-                if (logger.isDebugEnabled()) {
-                    logger.debug("{} is found.", factoryClass);
-                }
-                tokenFilterFactory = AccessController.doPrivileged((PrivilegedAction<TokenFilterFactory>) () -> {
-                    try {
-                        final Constructor<?> constructor = TokenFilterFactoryClass.getConstructor(IndexSettings.class, Environment.class,
-                                String.class, Settings.class);
-                        return (TokenFilterFactory) constructor.newInstance(indexSettings, env, name, settings);
-                    } catch (final Exception e) {
-                        throw new OpenSearchException("Failed to load " + factoryClass, e);
-                    }
-                });
-                break;
-            } else if (logger.isDebugEnabled()) {
-                logger.debug("{} is not found.", factoryClass);
-            }
+    /**
+     * Reads {@code stoptags} (or {@code stoptags_path}) as Kuromoji's factory
+     * does, falling back to Kuromoji's default stop tags.
+     */
+    static PartOfSpeechTags getStopTags(final Environment env, final Settings settings, final KuromojiAttributes kuromoji) {
+        final List<String> wordList = Analysis.parseWordList(env, settings, STOPTAGS, s -> s);
+        final Collection<String> tags;
+        if (wordList != null) {
+            tags = wordList;
+        } else if (kuromoji != null) {
+            tags = kuromoji.getDefaultStopTags();
+        } else {
+            return PartOfSpeechTags.EMPTY;
         }
+        return new PartOfSpeechTags(tags, settings.getAsBoolean(PREFIX_MATCH, false));
     }
 
     @Override
-    public TokenStream create(final TokenStream tokenStream) {
-        if (tokenFilterFactory != null) {
-            return tokenFilterFactory.create(tokenStream);
+    protected TokenStream createTokenStream(final TokenStream tokenStream) {
+        if (stopTags != null) {
+            return new JapanesePartOfSpeechStopFilter(tokenStream, kuromoji, stopTags);
         }
-        return tokenStream;
+        return super.createTokenStream(tokenStream);
+    }
+
+    PartOfSpeechTags getStopTags() {
+        return stopTags;
     }
+
 }
@@ -15,59 +15,69 @@
  */
 package org.codelibs.opensearch.fess.index.analysis;
 
-import java.lang.reflect.Constructor;
-import java.security.AccessController;
-import java.security.PrivilegedAction;
-
 import org.apache.lucene.analysis.TokenStream;
+import org.codelibs.opensearch.fess.analysis.JapaneseReadingFormFilter;
+import org.codelibs.opensearch.fess.analysis.KuromojiAttributes;
+import org.codelibs.opensearch.fess.analysis.RomajiConverter;
 import org.codelibs.opensearch.fess.service.FessAnalysisService;
-import org.opensearch.OpenSearchException;
 import org.opensearch.common.settings.Settings;
 import org.opensearch.env.Environment;
 import org.opensearch.index.IndexSettings;
-import org.opensearch.index.analysis.AbstractTokenFilterFactory;
-import org.opensearch.index.analysis.TokenFilterFactory;
 
-public class JapaneseReadingFormFilterFactory extends AbstractTokenFilterFactory {
+public class JapaneseReadingFormFilterFactory extends AbstractFessTokenFilterFactory {
 
-    private static final String[] FACTORIES = new String[] { //
+    public static final String[] FACTORIES = new String[] { //
             "org.codelibs.opensearch.extension.kuromoji.index.analysis.KuromojiReadingFormFilterFactory", //
             "org.opensearch.index.analysis.KuromojiReadingFormFilterFactory" };
 
-    private TokenFilterFactory tokenFilterFactory = null;
+    static final String USE_ROMAJI = "use_romaji";
+
+    static final String ROMAJI_TYPE = "romaji_type";
+
+    static final String ROMAJI_CACHE_SIZE = "romaji_cache_size";
+
+    private static final int MAX_ROMAJI_CACHE_SIZE = 1 << 16;
+
+    private final boolean nativeEngine;
+
+    private final KuromojiAttributes kuromoji;
+
+    private final RomajiConverter romaji;
+
+    private final int romajiCacheSize;
 
     public JapaneseReadingFormFilterFactory(final IndexSettings indexSettings, final Environment env, final String name,
             final Settings settings, final FessAnalysisService fessAnalysisService) {
-        super(indexSettings, name, settings);
-
-        for (final String factoryClass : FACTORIES) {
-            final Class<?> tokenFilterFactoryClass = fessAnalysisService.loadClass(factoryClass);
-            if (tokenFilterFactoryClass != null) {
-                if (logger.isDebugEnabled()) {
-                    logger.debug("{} is found.", factoryClass);
-                }
-                tokenFilterFactory = AccessController.doPrivileged((PrivilegedAction<TokenFilterFactory>) () -> {
-                    try {
-                        final Constructor<?> constructor = tokenFilterFactoryClass.getConstructor(IndexSettings.class, Environment.class,
-                                String.class, Settings.class);
-                        return (TokenFilterFactory) constructor.newInstance(indexSettings, env, name, settings);
-                    } catch (final Exception e) {
-                        throw new OpenSearchException("Failed to load " + factoryClass, e);
-                    }
-                });
-                break;
-            } else if (logger.isDebugEnabled()) {
-                logger.debug("{} is not found.", factoryClass);
+        super(indexSettings, env, name, settings, fessAnalysisService,
+                AnalysisEngine.of(settings).factories(FACTORIES));
+        nativeEngine = AnalysisEngine.of(settings) == AnalysisEngine.NATIVE;
+        if (nativeEngine) {
+            kuromoji = KuromojiAttributes.load(fessAnalysisService::loadClass);
+            romaji = settings.getAsBoolean(USE_ROMAJI, false)
+                    ? RomajiConverter.get(RomajiConverter.Type.of(settings.get(ROMAJI_TYPE, "hepburn")))
+                    : null;
+            romajiCacheSize = settings.getAsInt(ROMAJI_CACHE_SIZE, 256);
+            if (romajiCacheSize < 0 || romajiCacheSize > MAX_ROMAJI_CACHE_SIZE) {
+                throw new IllegalArgumentException("[" + ROMAJI_CACHE_SIZE + "] must be between 0 and " + MAX_ROMAJI_CACHE_SIZE
+                        + ", but was [" + romajiCacheSize + "]");
             }
+        } else {
+            kuromoji = null;
+            romaji = null;
+            romajiCacheSize = 0;
         }
     }
 
     @Override
-    public TokenStream create(final TokenStream tokenStream) {
-        if (tokenFilterFactory != null) {
-            return tokenFilterFactory.create(tokenStream);
+    protected TokenStream createTokenStream(final TokenStream tokenStream) {
+        if (!nativeEngine) {
+            return super.createTokenStream(tokenStream);
+        }
+        if (kuromoji == null && romaji == null) {
+            // no readings to replace the terms with
+            return tokenStream;
         }
-        return tokenStream;
+        return new JapaneseReadingFormFilter(tokenStream, kuromoji, romaji, romajiCacheSize);
     }
 
 }
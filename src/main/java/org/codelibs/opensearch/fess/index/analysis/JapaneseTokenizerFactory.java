@@ -15,60 +15,102 @@
  */
 package org.codelibs.opensearch.fess.index.analysis;
 
-import java.lang.reflect.Constructor;
-import java.security.AccessController;
-import java.security.PrivilegedAction;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Supplier;
 
 import org.apache.lucene.analysis.Tokenizer;
-import org.codelibs.opensearch.fess.analysis.EmptyTokenizer;
+import org.codelibs.opensearch.fess.analysis.MappedUserDictionary;
+import org.codelibs.opensearch.fess.analysis.UserDictionaryTokenizer;
 import org.codelibs.opensearch.fess.service.FessAnalysisService;
-import org.opensearch.OpenSearchException;
 import org.opensearch.common.settings.Settings;
 import org.opensearch.env.Environment;
 import org.opensearch.index.IndexSettings;
-import org.opensearch.index.analysis.AbstractTokenizerFactory;
-import org.opensearch.index.analysis.TokenizerFactory;
 
-public class JapaneseTokenizerFactory extends AbstractTokenizerFactory {
+public class JapaneseTokenizerFactory extends AbstractFessTokenizerFactory {
 
-    private static final String[] FACTORIES = new String[] { //
+    public static final String[] FACTORIES = new String[] { //
             "org.codelibs.opensearch.extension.kuromoji.index.analysis.KuromojiTokenizerFactory", //
             "org.opensearch.index.analysis.KuromojiTokenizerFactory" };
 
-    private TokenizerFactory tokenizerFactory = null;
+    static final String USER_DICTIONARY = "user_dictionary";
+
+    static final String USER_DICTIONARY_RULES = "user_dictionary_rules";
+
+    static final String USER_DICTIONARY_RELOAD = "user_dictionary_reload";
+
+    private final Environment env;
+
+    private final Settings settings;
+
+    private volatile Supplier<MappedUserDictionary> userDictionary;
 
     public JapaneseTokenizerFactory(final IndexSettings indexSettings, final Environment env, final String name, final Settings settings,
             final FessAnalysisService fessAnalysisService) {
-        super(indexSettings, settings, name);
-
-        for (final String factoryClass : FACTORIES) {
-            final Class<?> tokenizerFactoryClass = fessAnalysisService.loadClass(factoryClass);
-            if (tokenizerFactoryClass != null) {
-                if (logger.isDebugEnabled()) {
-                    logger.debug("{} is found.", factoryClass);
-                }
-                tokenizerFactory = AccessController.doPrivileged((PrivilegedAction<TokenizerFactory>) () -> {
-                    try {
-                        final Constructor<?> constructor =
-                                tokenizerFactoryClass.getConstructor(IndexSettings.class, Environment.class, String.class, Settings.class);
-                        return (TokenizerFactory) constructor.newInstance(indexSettings, env, name, settings);
-                    } catch (final Exception e) {
-                        throw new OpenSearchException("Failed to load " + factoryClass, e);
-                    }
-                });
-                break;
-            } else if (logger.isDebugEnabled()) {
-                logger.debug("{} is not found.", factoryClass);
-            }
+        super(indexSettings, env, name, getDelegateSettings(settings), fessAnalysisService, FACTORIES);
+        this.env = env;
+        this.settings = settings;
+        if (getUserDictionaryMode(settings) == UserDictionaryMode.MAPPED) {
+            userDictionary = acquireUserDictionary(indexSettings, env, settings, fessAnalysisService);
+        } else {
+            userDictionary = null;
+        }
+    }
+
+    private static UserDictionaryMode getUserDictionaryMode(final Settings settings) {
+        return UserDictionaryMode.of(settings.get(UserDictionaryMode.SETTING, "delegate"));
+    }
+
+    /**
+     * In mapped mode, the delegate must not load the user dictionary itself.
+     */
+    private static Settings getDelegateSettings(final Settings settings) {
+        if (getUserDictionaryMode(settings) != UserDictionaryMode.MAPPED) {
+            return settings;
+        }
+        return settings.filter(key -> !key.equals(USER_DICTIONARY) && !key.startsWith(USER_DICTIONARY_RULES));
+    }
+
+    private static Supplier<MappedUserDictionary> acquireUserDictionary(final IndexSettings indexSettings, final Environment env,
+            final Settings settings, final FessAnalysisService fessAnalysisService) {
+        final List<String> rules = settings.getAsList(USER_DICTIONARY_RULES);
+        final String path = settings.get(USER_DICTIONARY);
+        if (!rules.isEmpty() && path != null) {
+            throw new IllegalArgumentException(
+                    "It is not allowed to use [" + USER_DICTIONARY + "] in conjunction with [" + USER_DICTIONARY_RULES + "]");
+        }
+        if (!rules.isEmpty()) {
+            return fessAnalysisService.acquireUserDictionary(indexSettings, String.join("\n", rules));
         }
+        if (path == null) {
+            return null;
+        }
+        final Path file = env.configDir().resolve(path);
+        return fessAnalysisService.acquireUserDictionary(indexSettings, file,
+                settings.getAsBoolean(USER_DICTIONARY_RELOAD, fessAnalysisService.isReloadUserDictionaries()));
     }
 
     @Override
-    public Tokenizer create() {
-        if (tokenizerFactory != null) {
-            return tokenizerFactory.create();
+    public void onIndexRegistered() {
+        super.onIndexRegistered();
+        if (userDictionary != null && fessAnalysisService.registerUserDictionary(indexSettings, userDictionary)) {
+            // acquired again, to be held by the index and, if enabled, reloaded
+            userDictionary = acquireUserDictionary(indexSettings, env, settings, fessAnalysisService);
         }
-        return new EmptyTokenizer();
+    }
+
+    @Override
+    protected Tokenizer createTokenizer() {
+        final Tokenizer tokenizer = super.createTokenizer();
+        if (userDictionary != null) {
+            return new UserDictionaryTokenizer(tokenizer, userDictionary);
+        }
+        return tokenizer;
+    }
+
+    @Override
+    protected Object getCacheGeneration() {
+        return userDictionary != null ? userDictionary.get() : null;
     }
 
 }
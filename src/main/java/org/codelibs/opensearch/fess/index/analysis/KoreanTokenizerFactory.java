@@ -15,56 +15,19 @@
  */
 package org.codelibs.opensearch.fess.index.analysis;
 
-import java.lang.reflect.Constructor;
-import java.security.AccessController;
-import java.security.PrivilegedAction;
-
-import org.apache.lucene.analysis.Tokenizer;
-import org.codelibs.opensearch.fess.analysis.EmptyTokenizer;
 import org.codelibs.opensearch.fess.service.FessAnalysisService;
-import org.opensearch.OpenSearchException;
 import org.opensearch.common.settings.Settings;
 import org.opensearch.env.Environment;
 import org.opensearch.index.IndexSettings;
-import org.opensearch.index.analysis.AbstractTokenizerFactory;
-import org.opensearch.index.analysis.TokenizerFactory;
 
-public class KoreanTokenizerFactory extends AbstractTokenizerFactory {
+public class KoreanTokenizerFactory extends AbstractFessTokenizerFactory {
 
     // TODO OpenSearch support
-    private static final String FACTORY = "org.opensearch.index.analysis.NoriTokenizerFactory";
-
-    private TokenizerFactory tokenizerFactory = null;
+    public static final String FACTORY = "org.opensearch.index.analysis.NoriTokenizerFactory";
 
     public KoreanTokenizerFactory(final IndexSettings indexSettings, final Environment env, final String name, final Settings settings,
             final FessAnalysisService fessAnalysisService) {
-        super(indexSettings, settings, name);
-
-        final Class<?> tokenizerFactoryClass = fessAnalysisService.loadClass(FACTORY);
-        if (tokenizerFactoryClass != null) {
-            if (logger.isDebugEnabled()) {
-                logger.debug("{} is found.", FACTORY);
-            }
-            tokenizerFactory = AccessController.doPrivileged((PrivilegedAction<TokenizerFactory>) () -> {
-                try {
-                    final Constructor<?> constructor =
-                            tokenizerFactoryClass.getConstructor(IndexSettings.class, Environment.class, String.class, Settings.class);
-                    return (TokenizerFactory) constructor.newInstance(indexSettings, env, name, settings);
-                } catch (final Exception e) {
-                    throw new OpenSearchException("Failed to load " + FACTORY, e);
-                }
-            });
-        } else if (logger.isDebugEnabled()) {
-            logger.debug("{} is not found.", FACTORY);
-        }
-    }
-
-    @Override
-    public Tokenizer create() {
-        if (tokenizerFactory != null) {
-            return tokenizerFactory.create();
-        }
-        return new EmptyTokenizer();
+        super(indexSettings, env, name, settings, fessAnalysisService, FACTORY);
     }
 
 }
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.index.analysis;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.apache.lucene.analysis.Tokenizer;
+import org.codelibs.opensearch.fess.analysis.CJKBigramTokenizer;
+import org.codelibs.opensearch.fess.analysis.MultilingualTokenizer;
+import org.codelibs.opensearch.fess.analysis.MultilingualTokenizer.Language;
+import org.codelibs.opensearch.fess.service.FessAnalysisService;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.env.Environment;
+import org.opensearch.index.IndexSettings;
+import org.opensearch.index.analysis.TokenizerFactory;
+
+/**
+ * Creates {@link MultilingualTokenizer}s that route script runs to the
+ * Japanese, Korean, Chinese and Vietnamese delegates. Settings prefixed with
+ * {@code ja.}, {@code ko.}, {@code zh.} and {@code vi.} are passed to the
+ * delegate of that language. Runs of other scripts are tokenized with
+ * {@link CJKBigramTokenizer}, and runs whose delegate is not installed with the
+ * {@code fallback}, which is {@code bigram} unless set on the tokenizer. The
+ * wrappers of {@link AbstractFessTokenizerFactory} apply to the whole input.
+ */
+public class MultilingualTokenizerFactory extends AbstractFessTokenizerFactory {
+
+    static final String HAN_LANGUAGE = "han_language";
+
+    private final Map<Language, DelegateHolder<TokenizerFactory>> tokenizerFactories = new EnumMap<>(Language.class);
+
+    private final Language hanLanguage;
+
+    private final int fallbackMaxTokenLength;
+
+    public MultilingualTokenizerFactory(final IndexSettings indexSettings, final Environment env, final String name,
+            final Settings settings, final FessAnalysisService fessAnalysisService) {
+        super(indexSettings, env, name, settings, fessAnalysisService);
+        hanLanguage = Language.valueOf(settings.get(HAN_LANGUAGE, "zh").toUpperCase(Locale.ROOT));
+        if (hanLanguage != Language.JA && hanLanguage != Language.ZH) {
+            throw new IllegalArgumentException("[" + HAN_LANGUAGE + "] must be ja or zh: " + settings.get(HAN_LANGUAGE));
+        }
+        fallbackMaxTokenLength = settings.getAsInt(AbstractFessTokenizerFactory.FALLBACK_MAX_TOKEN_LENGTH,
+                CJKBigramTokenizer.DEFAULT_MAX_TOKEN_LENGTH);
+        addDelegate(Language.JA, JapaneseTokenizerFactory.FACTORIES, indexSettings, env, name, settings, fessAnalysisService);
+        addDelegate(Language.KO, new String[] { KoreanTokenizerFactory.FACTORY }, indexSettings, env, name, settings,
+                fessAnalysisService);
+        addDelegate(Language.ZH, new String[] { ChineseTokenizerFactory.FACTORY }, indexSettings, env, name, settings,
+                fessAnalysisService);
+        addDelegate(Language.VI, new String[] { VietnameseTokenizerFactory.FACTORY }, indexSettings, env, name, settings,
+                fessAnalysisService);
+    }
+
+    @Override
+    protected TokenizerFallback getDefaultFallback() {
+        return TokenizerFallback.BIGRAM;
+    }
+
+    private void addDelegate(final Language language, final String[] factoryClasses, final IndexSettings indexSettings,
+            final Environment env, final String name, final Settings settings, final FessAnalysisService fessAnalysisService) {
+        final Settings.Builder builder = Settings.builder().put(settings.getByPrefix(language.name().toLowerCase(Locale.ROOT) + "."));
+        final String lazy = settings.get(DelegateHolder.LAZY);
+        if (lazy != null && builder.get(DelegateHolder.LAZY) == null) {
+            builder.put(DelegateHolder.LAZY, lazy);
+        }
+        final DelegateHolder<TokenizerFactory> holder = DelegateHolder.create(TokenizerFactory.class, factoryClasses, indexSettings, env,
+                name, builder.build(), fessAnalysisService, logger);
+        if (getFallback() == TokenizerFallback.FAIL && !isAvailable(holder, factoryClasses)) {
+            throw new IllegalArgumentException(
+                    "[" + name + "] requires one of " + Arrays.toString(factoryClasses) + ", but none of them is installed.");
+        }
+        tokenizerFactories.put(language, holder);
+    }
+
+    @Override
+    public void onIndexRegistered() {
+        super.onIndexRegistered();
+        tokenizerFactories.values().forEach(DelegateHolder::register);
+    }
+
+    @Override
+    protected Tokenizer createTokenizer() {
+        final Map<Language, Tokenizer> tokenizers = new EnumMap<>(Language.class);
+        for (final Map.Entry<Language, DelegateHolder<TokenizerFactory>> entry : tokenizerFactories.entrySet()) {
+            final TokenizerFactory factory = entry.getValue().get();
+            tokenizers.put(entry.getKey(), factory != null ? factory.create() : createFallbackTokenizer());
+        }
+        return new MultilingualTokenizer(tokenizers, new CJKBigramTokenizer(fallbackMaxTokenLength), hanLanguage);
+    }
+}
@@ -16,52 +16,39 @@
 package org.codelibs.opensearch.fess.index.analysis;
 
 import java.io.Reader;
-import java.lang.reflect.Constructor;
-import java.security.AccessController;
-import java.security.PrivilegedAction;
 
+import org.codelibs.opensearch.fess.analysis.ChineseConvertCharFilter;
+import org.codelibs.opensearch.fess.analysis.ChineseConvertDictionary;
 import org.codelibs.opensearch.fess.service.FessAnalysisService;
-import org.opensearch.OpenSearchException;
 import org.opensearch.common.settings.Settings;
 import org.opensearch.env.Environment;
 import org.opensearch.index.IndexSettings;
-import org.opensearch.index.analysis.AbstractCharFilterFactory;
-import org.opensearch.index.analysis.CharFilterFactory;
 
-public class TraditionalChineseConvertCharFilterFactory extends AbstractCharFilterFactory {
+public class TraditionalChineseConvertCharFilterFactory extends AbstractFessCharFilterFactory {
 
-    private static final String FACTORY = "org.opensearch.index.analysis.STConvertCharFilterFactory";
+    public static final String FACTORY = "org.opensearch.index.analysis.STConvertCharFilterFactory";
 
-    private CharFilterFactory charFilterFactory = null;
+    static final String CONVERT_TYPE = "convert_type";
+
+    private final ChineseConvertDictionary dictionary;
 
     public TraditionalChineseConvertCharFilterFactory(final IndexSettings indexSettings, final Environment env, final String name,
             final Settings settings, final FessAnalysisService fessAnalysisService) {
-        super(indexSettings, name);
-
-        final Class<?> charFilterFactoryClass = fessAnalysisService.loadClass(FACTORY);
-        if (charFilterFactoryClass != null) {
-            if (logger.isDebugEnabled()) {
-                logger.debug("{} is found.", FACTORY);
-            }
-            charFilterFactory = AccessController.doPrivileged((PrivilegedAction<CharFilterFactory>) () -> {
-                try {
-                    final Constructor<?> constructor =
-                            charFilterFactoryClass.getConstructor(IndexSettings.class, Environment.class, String.class, Settings.class);
-                    return (CharFilterFactory) constructor.newInstance(indexSettings, env, name, settings);
-                } catch (final Exception e) {
-                    throw new OpenSearchException("Failed to load " + FACTORY, e);
-                }
-            });
-        } else if (logger.isDebugEnabled()) {
-            logger.debug("{} is not found.", FACTORY);
+        super(indexSettings, env, name, settings, fessAnalysisService,
+                AnalysisEngine.of(settings).factories(FACTORY));
+        if (AnalysisEngine.of(settings) == AnalysisEngine.NATIVE) {
+            dictionary = ChineseConvertDictionary.get(ChineseConvertDictionary.Type.of(settings.get(CONVERT_TYPE, "s2t")));
+        } else {
+            dictionary = null;
         }
     }
 
     @Override
-    public Reader create(final Reader reader) {
-        if (charFilterFactory != null) {
-            return charFilterFactory.create(reader);
+    protected Reader createReader(final Reader reader) {
+        if (dictionary != null) {
+            return new ChineseConvertCharFilter(reader, dictionary);
         }
-        return reader;
+        return super.createReader(reader);
     }
-}
\ No newline at end of file
+
+}
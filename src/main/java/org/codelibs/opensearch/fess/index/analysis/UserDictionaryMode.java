@@ -0,0 +1,43 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.index.analysis;
+
+import java.util.Locale;
+
+/**
+ * Where the user dictionary of a Fess Japanese tokenizer is loaded.
+ */
+public enum UserDictionaryMode {
+    /** By the delegate, on the heap of each index. */
+    DELEGATE,
+    /** Compiled once per node into a memory-mapped file shared by all indices. */
+    MAPPED;
+
+    static final String SETTING = "user_dictionary_mode";
+
+    public static UserDictionaryMode of(final String value) {
+        try {
+            return valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (final IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown user dictionary mode [" + value + "], expected one of [delegate, mapped]", e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -15,56 +15,57 @@
  */
 package org.codelibs.opensearch.fess.index.analysis;
 
-import java.lang.reflect.Constructor;
-import java.security.AccessController;
-import java.security.PrivilegedAction;
+import java.util.List;
 
 import org.apache.lucene.analysis.Tokenizer;
-import org.codelibs.opensearch.fess.analysis.EmptyTokenizer;
+import org.codelibs.opensearch.fess.analysis.VietnameseLexicon;
+import org.codelibs.opensearch.fess.analysis.VietnameseTokenizer;
 import org.codelibs.opensearch.fess.service.FessAnalysisService;
-import org.opensearch.OpenSearchException;
 import org.opensearch.common.settings.Settings;
 import org.opensearch.env.Environment;
 import org.opensearch.index.IndexSettings;
-import org.opensearch.index.analysis.AbstractTokenizerFactory;
-import org.opensearch.index.analysis.TokenizerFactory;
+import org.opensearch.index.analysis.Analysis;
 
-public class VietnameseTokenizerFactory extends AbstractTokenizerFactory {
+public class VietnameseTokenizerFactory extends AbstractFessTokenizerFactory {
 
     // TODO OpenSearch support
-    private static final String FACTORY = "org.codelibs.opensearch.vi.analysis.VietnameseTokenizerFactory";
+    public static final String FACTORY = "org.codelibs.opensearch.vi.analysis.VietnameseTokenizerFactory";
 
-    private TokenizerFactory tokenizerFactory = null;
+    static final String USER_WORDS = "user_words";
+
+    static final String MAX_TOKEN_LENGTH = "max_token_length";
+
+    private final VietnameseLexicon lexicon;
+
+    private final int maxTokenLength;
 
     public VietnameseTokenizerFactory(final IndexSettings indexSettings, final Environment env, final String name, final Settings settings,
             final FessAnalysisService fessAnalysisService) {
-        super(indexSettings, settings, name);
-
-        final Class<?> tokenizerFactoryClass = fessAnalysisService.loadClass(FACTORY);
-        if (tokenizerFactoryClass != null) {
-            if (logger.isDebugEnabled()) {
-                logger.debug("{} is found.", FACTORY);
+        super(indexSettings, env, name, settings, fessAnalysisService,
+                AnalysisEngine.of(settings).factories(FACTORY));
+        if (AnalysisEngine.of(settings) == AnalysisEngine.NATIVE) {
+            final List<String> userWords = Analysis.parseWordList(env, settings, USER_WORDS, s -> s);
+            lexicon = userWords != null ? VietnameseLexicon.withWords(userWords) : VietnameseLexicon.getDefault();
+            maxTokenLength = settings.getAsInt(MAX_TOKEN_LENGTH, VietnameseTokenizer.DEFAULT_MAX_TOKEN_LENGTH);
+            if (maxTokenLength < 1) {
+                throw new IllegalArgumentException("[" + MAX_TOKEN_LENGTH + "] must be >= 1, but was [" + maxTokenLength + "]");
             }
-            tokenizerFactory = AccessController.doPrivileged((PrivilegedAction<TokenizerFactory>) () -> {
-                try {
-                    final Constructor<?> constructor =
-                            tokenizerFactoryClass.getConstructor(IndexSettings.class, Environment.class, String.class, Settings.class);
-                    return (TokenizerFactory) constructor.newInstance(indexSettings, env, name, settings);
-                } catch (final Exception e) {
-                    throw new OpenSearchException("Failed to load " + FACTORY, e);
-                }
-            });
-        } else if (logger.isDebugEnabled()) {
-            logger.debug("{} is not found.", FACTORY);
+        } else {
+            lexicon = null;
+            maxTokenLength = 0;
         }
     }
 
     @Override
-    public Tokenizer create() {
-        if (tokenizerFactory != null) {
-            return tokenizerFactory.create();
+    protected Tokenizer createTokenizer() {
+        if (lexicon != null) {
+            return new VietnameseTokenizer(lexicon, maxTokenLength);
         }
-        return new EmptyTokenizer();
+        return super.createTokenizer();
+    }
+
+    VietnameseLexicon getLexicon() {
+        return lexicon;
     }
 
 }
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.rest;
+
+import static org.opensearch.rest.RestRequest.Method.GET;
+import static org.opensearch.rest.RestRequest.Method.POST;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.codelibs.opensearch.fess.action.BulkAnalyzeAction;
+import org.codelibs.opensearch.fess.action.BulkAnalyzeRequest;
+import org.opensearch.core.xcontent.XContentParser;
+import org.opensearch.rest.BaseRestHandler;
+import org.opensearch.rest.RestRequest;
+import org.opensearch.rest.action.RestToXContentListener;
+import org.opensearch.transport.client.node.NodeClient;
+
+/**
+ * Analyzes many texts in one request:
+ *
+ * <pre>
+ * { "analyzer": "ja_analyzer", "texts": [ "text", { "text": "text", "analyzer": "other" } ] }
+ * </pre>
+ */
+public class RestBulkAnalyzeAction extends BaseRestHandler {
+
+    @Override
+    public String getName() {
+        return "fess_bulk_analyze_action";
+    }
+
+    @Override
+    public List<Route> routes() {
+        return List.of(new Route(GET, "/_fess/_bulk_analyze"), //
+                new Route(POST, "/_fess/_bulk_analyze"), //
+                new Route(GET, "/{index}/_fess/_bulk_analyze"), //
+                new Route(POST, "/{index}/_fess/_bulk_analyze"));
+    }
+
+    @Override
+    protected RestChannelConsumer prepareRequest(final RestRequest request, final NodeClient client) throws IOException {
+        final BulkAnalyzeRequest analyzeRequest = new BulkAnalyzeRequest(request.param("index"));
+        try (XContentParser parser = request.contentOrSourceParamParser()) {
+            parse(parser, analyzeRequest);
+        }
+        return channel -> client.execute(BulkAnalyzeAction.INSTANCE, analyzeRequest, new RestToXContentListener<>(channel));
+    }
+
+    static void parse(final XContentParser parser, final BulkAnalyzeRequest request) throws IOException {
+        final List<String> texts = new ArrayList<>();
+        final List<String> analyzers = new ArrayList<>();
+        if (parser.nextToken() != XContentParser.Token.START_OBJECT) {
+            throw new IllegalArgumentException("Malformed content, must start with an object");
+        }
+        String currentFieldName = null;
+        XContentParser.Token token;
+        while ((token = parser.nextToken()) != XContentParser.Token.END_OBJECT) {
+            if (token == XContentParser.Token.FIELD_NAME) {
+                currentFieldName = parser.currentName();
+            } else if ("analyzer".equals(currentFieldName) && token == XContentParser.Token.VALUE_STRING) {
+                request.analyzer(parser.text());
+            } else if ("texts".equals(currentFieldName) && token == XContentParser.Token.START_ARRAY) {
+                while ((token = parser.nextToken()) != XContentParser.Token.END_ARRAY) {
+                    if (token == XContentParser.Token.VALUE_STRING) {
+                        texts.add(parser.text());
+                        analyzers.add(null);
+                    } else if (token == XContentParser.Token.START_OBJECT) {
+                        parseText(parser, texts, analyzers);
+                    } else {
+                        throw new IllegalArgumentException("[texts] must contain strings or objects, but found [" + token + "]");
+                    }
+                }
+            } else {
+                throw new IllegalArgumentException("Unknown parameter [" + currentFieldName + "] in request body or parameter is of the"
+                        + " wrong type[" + token + "] ");
+            }
+        }
+        request.texts(texts.toArray(new String[texts.size()]), analyzers.toArray(new String[analyzers.size()]));
+    }
+
+    private static void parseText(final XContentParser parser, final List<String> texts, final List<String> analyzers)
+            throws IOException {
+        String text = null;
+        String analyzer = null;
+        String currentFieldName = null;
+        XContentParser.Token token;
+        while ((token = parser.nextToken()) != XContentParser.Token.END_OBJECT) {
+            if (token == XContentParser.Token.FIELD_NAME) {
+                currentFieldName = parser.currentName();
+            } else if ("text".equals(currentFieldName) && token == XContentParser.Token.VALUE_STRING) {
+                text = parser.text();
+            } else if ("analyzer".equals(currentFieldName) && token == XContentParser.Token.VALUE_STRING) {
+                analyzer = parser.text();
+            } else {
+                throw new IllegalArgumentException("Unknown parameter [" + currentFieldName + "] in [texts] or parameter is of the"
+                        + " wrong type[" + token + "] ");
+            }
+        }
+        texts.add(text);
+        analyzers.add(analyzer);
+    }
+}
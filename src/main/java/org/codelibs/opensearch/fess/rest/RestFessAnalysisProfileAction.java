@@ -0,0 +1,50 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.rest;
+
+import static org.opensearch.rest.RestRequest.Method.GET;
+
+import java.util.List;
+
+import org.codelibs.opensearch.fess.action.FessAnalysisProfileAction;
+import org.codelibs.opensearch.fess.action.FessAnalysisProfileRequest;
+import org.opensearch.core.common.Strings;
+import org.opensearch.rest.BaseRestHandler;
+import org.opensearch.rest.RestRequest;
+import org.opensearch.rest.action.RestActions.NodesResponseRestListener;
+import org.opensearch.transport.client.node.NodeClient;
+
+public class RestFessAnalysisProfileAction extends BaseRestHandler {
+
+    @Override
+    public String getName() {
+        return "fess_analysis_profile_action";
+    }
+
+    @Override
+    public List<Route> routes() {
+        return List.of(new Route(GET, "/_nodes/_fess/analysis/profile"), //
+                new Route(GET, "/_nodes/{nodeId}/_fess/analysis/profile"));
+    }
+
+    @Override
+    protected RestChannelConsumer prepareRequest(final RestRequest request, final NodeClient client) {
+        final FessAnalysisProfileRequest profileRequest =
+                new FessAnalysisProfileRequest(Strings.splitStringByCommaToArray(request.param("nodeId")));
+        profileRequest.timeout(request.param("timeout"));
+        return channel -> client.execute(FessAnalysisProfileAction.INSTANCE, profileRequest, new NodesResponseRestListener<>(channel));
+    }
+}
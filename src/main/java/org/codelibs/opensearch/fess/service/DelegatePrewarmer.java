@@ -0,0 +1,121 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.function.BooleanSupplier;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+import org.opensearch.Version;
+import org.opensearch.cluster.metadata.IndexMetadata;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.env.Environment;
+import org.opensearch.index.IndexSettings;
+import org.opensearch.index.analysis.CharFilterFactory;
+import org.opensearch.index.analysis.TokenFilterFactory;
+import org.opensearch.index.analysis.TokenizerFactory;
+
+/**
+ * Loads a delegate factory with default settings and runs sample text through
+ * it, so that static dictionaries are loaded and the analysis code is compiled
+ * before the first index needs it.
+ *
+ * <p>The factory is built outside the {@link DelegateRegistry} and dropped
+ * afterwards: the keys of the registry include the component settings of an
+ * index, which the prewarmed factory does not have, so it could not be shared
+ * with one anyway. Only the state that the delegate plugin keeps in static
+ * fields, such as the system dictionaries, outlives prewarming.</p>
+ */
+final class DelegatePrewarmer {
+    private static final Logger logger = LogManager.getLogger(DelegatePrewarmer.class);
+
+    private final FessAnalysisService fessAnalysisService;
+
+    private final IndexSettings indexSettings;
+
+    private final Environment env;
+
+    private final String text;
+
+    private final int iterations;
+
+    DelegatePrewarmer(final FessAnalysisService fessAnalysisService, final Settings nodeSettings, final Environment env, final String text,
+            final int iterations) {
+        this.fessAnalysisService = fessAnalysisService;
+        this.env = env;
+        this.text = text;
+        this.iterations = iterations;
+        indexSettings = new IndexSettings(IndexMetadata.builder("_fess_prewarm")
+                .settings(Settings.builder()
+                        .put(IndexMetadata.SETTING_VERSION_CREATED, Version.CURRENT)
+                        .put(IndexMetadata.SETTING_NUMBER_OF_SHARDS, 1)
+                        .put(IndexMetadata.SETTING_NUMBER_OF_REPLICAS, 0))
+                .build(), nodeSettings);
+    }
+
+    int prewarm(final Class<?> factoryClass, final BooleanSupplier running) {
+        final long startTime = System.nanoTime();
+        final Object factory =
+                fessAnalysisService.newInstance(factoryClass, Object.class, indexSettings, env, "_fess_prewarm", Settings.EMPTY);
+        int count = 0;
+        try {
+            while (count < iterations && running.getAsBoolean()) {
+                if (factory instanceof TokenizerFactory) {
+                    final Tokenizer tokenizer = ((TokenizerFactory) factory).create();
+                    tokenizer.setReader(new StringReader(text));
+                    consume(tokenizer);
+                } else if (factory instanceof TokenFilterFactory) {
+                    final Tokenizer tokenizer = new StandardTokenizer();
+                    tokenizer.setReader(new StringReader(text));
+                    consume(((TokenFilterFactory) factory).create(tokenizer));
+                } else if (factory instanceof CharFilterFactory) {
+                    try (Reader reader = ((CharFilterFactory) factory).create(new StringReader(text))) {
+                        final char[] buf = new char[1024];
+                        while (reader.read(buf) != -1) {
+                            // consume all
+                        }
+                    }
+                } else {
+                    break;
+                }
+                count++;
+            }
+        } catch (final IOException e) {
+            logger.warn("Failed to prewarm {}.", factoryClass.getName(), e);
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("Prewarmed {} with {} iterations in {}ms.", factoryClass.getName(), count,
+                    (System.nanoTime() - startTime) / 1000000L);
+        }
+        return count;
+    }
+
+    private static void consume(final TokenStream stream) throws IOException {
+        try (stream) {
+            stream.reset();
+            while (stream.incrementToken()) {
+                // consume all
+            }
+            stream.end();
+        }
+    }
+}
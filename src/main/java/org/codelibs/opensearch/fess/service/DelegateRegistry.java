@@ -0,0 +1,176 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.service;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.function.Supplier;
+
+import org.opensearch.Version;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.core.index.Index;
+
+/**
+ * Node-level registry of delegate factories shared by indices with identical
+ * analysis settings. An entry lives as long as at least one index holds it.
+ *
+ * <p>A delegate, which may load a dictionary, is built outside the lock of
+ * the registry by the first thread that acquires it; other threads acquiring
+ * the same key wait for it, and threads acquiring other keys do not. A
+ * delegate that fails to build is removed, so that the next acquire retries.</p>
+ */
+final class DelegateRegistry {
+
+    private final Map<DelegateKey, Entry> entries = new HashMap<>();
+
+    private final Map<Index, Set<DelegateKey>> holders = new HashMap<>();
+
+    Object acquire(final Index index, final DelegateKey key, final Supplier<Object> factory) {
+        final Entry entry;
+        final boolean held;
+        synchronized (this) {
+            Entry current = entries.get(key);
+            if (current == null) {
+                current = new Entry(new FutureTask<>(factory::get));
+                entries.put(key, current);
+            }
+            held = holders.computeIfAbsent(index, k -> new HashSet<>()).add(key);
+            if (held) {
+                current.refCount++;
+            }
+            entry = current;
+        }
+        // builds the delegate, unless another thread has started to
+        entry.delegate.run();
+        try {
+            return entry.delegate.get();
+        } catch (final ExecutionException e) {
+            unregister(index, key, entry, held);
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException("Failed to build " + key, cause);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            unregister(index, key, entry, held);
+            throw new IllegalStateException("Interrupted while waiting for " + key, e);
+        }
+    }
+
+    /**
+     * Undoes an acquire whose delegate could not be returned, and drops a failed entry.
+     */
+    private synchronized void unregister(final Index index, final DelegateKey key, final Entry entry, final boolean held) {
+        if (held) {
+            final Set<DelegateKey> keys = holders.get(index);
+            if (keys != null && keys.remove(key) && keys.isEmpty()) {
+                holders.remove(index);
+            }
+            entry.refCount--;
+        }
+        if (entries.get(key) == entry && (entry.refCount <= 0 || entry.delegate.state() == Future.State.FAILED)) {
+            entries.remove(key);
+        }
+    }
+
+    private static boolean isBuilt(final Entry entry) {
+        return entry.delegate.state() == Future.State.SUCCESS;
+    }
+
+    /**
+     * Returns the delegate of {@code key} if it is built, without waiting for one being built.
+     */
+    synchronized Object get(final DelegateKey key) {
+        final Entry entry = entries.get(key);
+        return entry != null && isBuilt(entry) ? entry.delegate.resultNow() : null;
+    }
+
+    synchronized int release(final Index index) {
+        final Set<DelegateKey> keys = holders.remove(index);
+        if (keys == null) {
+            return 0;
+        }
+        int removed = 0;
+        for (final DelegateKey key : keys) {
+            final Entry entry = entries.get(key);
+            if (entry != null && --entry.refCount <= 0) {
+                entries.remove(key);
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    static final class DelegateKey {
+        private final String className;
+
+        private final Version version;
+
+        private final Settings settings;
+
+        DelegateKey(final String className, final Version version, final Settings settings) {
+            this.className = className;
+            this.version = version;
+            this.settings = settings;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof DelegateKey)) {
+                return false;
+            }
+            final DelegateKey other = (DelegateKey) obj;
+            return className.equals(other.className) && Objects.equals(version, other.version) && settings.equals(other.settings);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(className, version, settings);
+        }
+
+        @Override
+        public String toString() {
+            return className + settings;
+        }
+    }
+
+    private static final class Entry {
+        private final FutureTask<Object> delegate;
+
+        private int refCount;
+
+        Entry(final FutureTask<Object> delegate) {
+            this.delegate = delegate;
+        }
+    }
+}
@@ -15,34 +15,202 @@
  */
 package org.codelibs.opensearch.fess.service;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
+import java.nio.file.Path;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.codelibs.opensearch.fess.FessAnalysisPlugin;
+import org.codelibs.opensearch.fess.analysis.MappedUserDictionary;
+import org.codelibs.opensearch.fess.analysis.TokenCache;
+import org.codelibs.opensearch.fess.index.analysis.ChineseTokenizerFactory;
+import org.codelibs.opensearch.fess.index.analysis.FessAnalysisComponent;
+import org.codelibs.opensearch.fess.index.analysis.JapaneseBaseFormFilterFactory;
+import org.codelibs.opensearch.fess.index.analysis.JapaneseIterationMarkCharFilterFactory;
+import org.codelibs.opensearch.fess.index.analysis.JapaneseKatakanaStemmerFactory;
+import org.codelibs.opensearch.fess.index.analysis.JapanesePartOfSpeechFilterFactory;
+import org.codelibs.opensearch.fess.index.analysis.JapaneseReadingFormFilterFactory;
+import org.codelibs.opensearch.fess.index.analysis.JapaneseTokenizerFactory;
+import org.codelibs.opensearch.fess.index.analysis.KoreanTokenizerFactory;
+import org.codelibs.opensearch.fess.index.analysis.TokenizerFallback;
+import org.codelibs.opensearch.fess.index.analysis.TraditionalChineseConvertCharFilterFactory;
+import org.codelibs.opensearch.fess.index.analysis.VietnameseTokenizerFactory;
+import org.codelibs.opensearch.fess.service.DelegateRegistry.DelegateKey;
+import org.codelibs.opensearch.fess.stats.AnalysisCounters;
+import org.codelibs.opensearch.fess.stats.AnalysisProfiler;
+import org.codelibs.opensearch.fess.stats.AnalysisSlowLog;
+import org.codelibs.opensearch.fess.stats.FessAnalysisStats;
+import org.codelibs.opensearch.fess.stats.QueryCacheStats;
 import org.opensearch.OpenSearchException;
+import org.opensearch.cluster.metadata.IndexMetadata;
 import org.opensearch.common.collect.Tuple;
 import org.opensearch.common.inject.Inject;
 import org.opensearch.common.lifecycle.AbstractLifecycleComponent;
+import org.opensearch.common.settings.Setting;
+import org.opensearch.common.settings.Setting.Property;
 import org.opensearch.common.settings.Settings;
+import org.opensearch.core.common.unit.ByteSizeValue;
+import org.opensearch.core.index.Index;
+import org.opensearch.env.Environment;
+import org.opensearch.env.NodeEnvironment;
+import org.opensearch.index.IndexService;
+import org.opensearch.index.IndexSettings;
+import org.opensearch.index.analysis.AnalyzerComponents;
+import org.opensearch.index.analysis.AnalyzerComponentsProvider;
+import org.opensearch.index.analysis.IndexAnalyzers;
+import org.opensearch.index.analysis.NamedAnalyzer;
 import org.opensearch.plugins.Plugin;
 import org.opensearch.plugins.PluginInfo;
 import org.opensearch.plugins.PluginsService;
+import org.opensearch.threadpool.ThreadPool;
+import org.opensearch.watcher.FileWatcher;
+import org.opensearch.watcher.ResourceWatcherService;
 
 public class FessAnalysisService extends AbstractLifecycleComponent {
     private static final Logger logger = LogManager.getLogger(FessAnalysisService.class);
 
+    /** The thread pool that tokenizes the segments of tokenizers with {@code parallel_segment_size}. */
+    public static final String PARALLEL_EXECUTOR = "fess_analysis_parallel";
+
+    public static final Setting<Boolean> SHARED_DELEGATES_SETTING =
+            Setting.boolSetting("fess.analysis.delegate.shared", true, Property.NodeScope);
+
+    public static final Setting<Boolean> LAZY_DELEGATES_SETTING =
+            Setting.boolSetting("fess.analysis.delegate.lazy", false, Property.NodeScope);
+
+    public static final Setting<TokenizerFallback> FALLBACK_SETTING =
+            new Setting<>("fess.analysis.fallback", TokenizerFallback.EMPTY.toString(), TokenizerFallback::of, Property.NodeScope);
+
+    public static final Setting<Boolean> STATS_ENABLED_SETTING =
+            Setting.boolSetting("fess.analysis.stats.enabled", true, Property.NodeScope);
+
+    public static final Setting<Boolean> USER_DICTIONARY_RELOAD_SETTING =
+            Setting.boolSetting("fess.analysis.user_dictionary.reload", true, Property.NodeScope);
+
+    public static final Setting<ByteSizeValue> QUERY_CACHE_SIZE_SETTING =
+            Setting.memorySizeSetting("fess.analysis.query_cache.size", "16mb", Property.NodeScope);
+
+    public static final Setting<Integer> BULK_ANALYZE_MAX_TEXTS_SETTING =
+            Setting.intSetting("fess.analysis.bulk_analyze.max_texts", 10000, 1, Property.NodeScope);
+
+    public static final Setting<Boolean> PREWARM_ENABLED_SETTING =
+            Setting.boolSetting("fess.analysis.prewarm.enabled", true, Property.NodeScope);
+
+    public static final Setting<String> PREWARM_TEXT_SETTING = Setting.simpleString("fess.analysis.prewarm.text",
+            "東京スカイツリーの最寄り駅はとうきょうスカイツリー駅です。" //
+                    + "한국어 형태소 분석을 시작합니다. " //
+                    + "这是一个中文分词的例子。" //
+                    + "Tiếng Việt là ngôn ngữ chính thức.",
+            Property.NodeScope);
+
+    public static final Setting<Integer> PREWARM_ITERATIONS_SETTING =
+            Setting.intSetting("fess.analysis.prewarm.iterations", 200, 0, Property.NodeScope);
+
+    private static final String[] DELEGATE_CLASSES = Stream.of( //
+            JapaneseTokenizerFactory.FACTORIES, //
+            JapaneseIterationMarkCharFilterFactory.FACTORIES, //
+            JapaneseBaseFormFilterFactory.FACTORIES, //
+            JapanesePartOfSpeechFilterFactory.FACTORIES, //
+            JapaneseReadingFormFilterFactory.FACTORIES, //
+            JapaneseKatakanaStemmerFactory.FACTORIES, //
+            new String[] { KoreanTokenizerFactory.FACTORY, ChineseTokenizerFactory.FACTORY,
+                    TraditionalChineseConvertCharFilterFactory.FACTORY, VietnameseTokenizerFactory.FACTORY })
+            .flatMap(Arrays::stream).distinct().toArray(String[]::new);
+
+    private static final MethodType FACTORY_CONSTRUCTOR =
+            MethodType.methodType(void.class, IndexSettings.class, Environment.class, String.class, Settings.class);
+
+    private static final MethodType FACTORY_INVOKER =
+            MethodType.methodType(Object.class, IndexSettings.class, Environment.class, String.class, Settings.class);
+
+    private final Settings settings;
+
     private final PluginsService pluginsService;
 
-    private List<Tuple<PluginInfo, Plugin>> plugins;
+    private final FessAnalysisPlugin.PluginComponent pluginComponent;
+
+    private final ClassValue<MethodHandle> factoryConstructors = new ClassValue<>() {
+        @Override
+        protected MethodHandle computeValue(final Class<?> type) {
+            return AccessController.doPrivileged((PrivilegedAction<MethodHandle>) () -> {
+                try {
+                    return MethodHandles.publicLookup().findConstructor(type, FACTORY_CONSTRUCTOR).asType(FACTORY_INVOKER);
+                } catch (final Exception e) {
+                    throw new OpenSearchException("Failed to load " + type.getName(), e);
+                }
+            });
+        }
+    };
+
+    private final Map<String, Optional<Class<?>>> classIndex = new ConcurrentHashMap<>();
+
+    private final LongAdder classIndexHits = new LongAdder();
+
+    private final LongAdder classIndexMisses = new LongAdder();
+
+    private volatile List<ClassLoader> classLoaders = Collections.emptyList();
+
+    private final DelegateRegistry delegateRegistry = new DelegateRegistry();
+
+    private final UserDictionaryRegistry userDictionaryRegistry = new UserDictionaryRegistry(this::getUserDictionaryPath);
+
+    private final Map<Index, List<ReloadableUserDictionary>> reloadableUserDictionaries = new ConcurrentHashMap<>();
+
+    // indices whose index service the node has registered; the components of other index services, such as the temporary
+    // ones that validate a mapping, only borrow shared state, since nothing tells when those are closed
+    private final Set<Index> registeredIndices = ConcurrentHashMap.newKeySet();
+
+    private final boolean reloadUserDictionaries;
+
+    private final boolean sharedDelegates;
+
+    private final boolean lazyDelegates;
+
+    private final TokenizerFallback fallback;
+
+    private final FessAnalysisStats analysisStats;
+
+    private final QueryCache queryCache;
+
+    private final Map<Index, AnalysisSlowLog> slowLogs = new ConcurrentHashMap<>();
+
+    private final int bulkAnalyzeMaxTexts;
 
     @Inject
     public FessAnalysisService(final Settings settings, final PluginsService pluginsService,
             final FessAnalysisPlugin.PluginComponent pluginComponent) {
+        this.settings = settings;
         this.pluginsService = pluginsService;
+        this.pluginComponent = pluginComponent;
+        sharedDelegates = SHARED_DELEGATES_SETTING.get(settings);
+        lazyDelegates = LAZY_DELEGATES_SETTING.get(settings);
+        fallback = FALLBACK_SETTING.get(settings);
+        reloadUserDictionaries = USER_DICTIONARY_RELOAD_SETTING.get(settings);
+        analysisStats = STATS_ENABLED_SETTING.get(settings) ? new FessAnalysisStats() : null;
+        final long queryCacheSize = QUERY_CACHE_SIZE_SETTING.get(settings).getBytes();
+        queryCache = queryCacheSize > 0 ? new QueryCache(queryCacheSize) : null;
+        bulkAnalyzeMaxTexts = BULK_ANALYZE_MAX_TEXTS_SETTING.get(settings);
         pluginComponent.setFessAnalysisService(this);
     }
 
@@ -50,7 +218,44 @@ public class FessAnalysisService extends AbstractLifecycleComponent {
     protected void doStart() {
         logger.debug("Starting FessAnalysisService");
 
-        plugins = loadPlugins();
+        final List<Tuple<PluginInfo, Plugin>> plugins = loadPlugins();
+        initClassIndex(plugins.stream().map(p -> p.v2().getClass().getClassLoader()).distinct().toList());
+
+        if (PREWARM_ENABLED_SETTING.get(settings)) {
+            prewarm();
+        }
+    }
+
+    void initClassIndex(final List<ClassLoader> loaders) {
+        classLoaders = loaders;
+        classIndex.clear();
+        for (final String className : DELEGATE_CLASSES) {
+            classIndex.put(className, findClass(className));
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("Indexed {} classes over {} classloaders: {}", classIndex.size(), loaders.size(), classIndex);
+        }
+    }
+
+    private void prewarm() {
+        final ThreadPool threadPool = pluginComponent.getThreadPool();
+        if (threadPool == null) {
+            return;
+        }
+        final DelegatePrewarmer prewarmer = new DelegatePrewarmer(this, settings, pluginComponent.getEnvironment(),
+                PREWARM_TEXT_SETTING.get(settings), PREWARM_ITERATIONS_SETTING.get(settings));
+        for (final String className : DELEGATE_CLASSES) {
+            final Class<?> factoryClass = classIndex.get(className).orElse(null);
+            if (factoryClass != null) {
+                threadPool.generic().execute(() -> {
+                    try {
+                        prewarmer.prewarm(factoryClass, () -> !lifecycle.stoppedOrClosed());
+                    } catch (final Exception e) {
+                        logger.warn("Failed to prewarm {}.", className, e);
+                    }
+                });
+            }
+        }
     }
 
     @SuppressWarnings("unchecked")
@@ -77,17 +282,348 @@ public class FessAnalysisService extends AbstractLifecycleComponent {
     }
 
     public Class<?> loadClass(final String className) {
-        return AccessController.doPrivileged((PrivilegedAction<Class<?>>) () -> {
-            for (final Tuple<PluginInfo, Plugin> p : plugins) {
-                final Plugin plugin = p.v2();
+        final Optional<Class<?>> indexed = classIndex.get(className);
+        if (indexed != null) {
+            classIndexHits.increment();
+            return indexed.orElse(null);
+        }
+        classIndexMisses.increment();
+        return classIndex.computeIfAbsent(className, this::findClass).orElse(null);
+    }
+
+    private Optional<Class<?>> findClass(final String className) {
+        return AccessController.doPrivileged((PrivilegedAction<Optional<Class<?>>>) () -> {
+            for (final ClassLoader classLoader : classLoaders) {
                 try {
-                    return plugin.getClass().getClassLoader().loadClass(className);
+                    return Optional.of(classLoader.loadClass(className));
                 } catch (final ClassNotFoundException e) {
                     // ignore
                 }
             }
-            return null;
+            return Optional.empty();
         });
     }
 
+    public <T> T newInstance(final Class<?> factoryClass, final Class<T> type, final IndexSettings indexSettings, final Environment env,
+            final String name, final Settings settings) {
+        final MethodHandle constructor = factoryConstructors.get(factoryClass);
+        try {
+            return type.cast((Object) constructor.invokeExact(indexSettings, env, name, settings));
+        } catch (final Error e) {
+            throw e;
+        } catch (final Throwable t) {
+            throw new OpenSearchException("Failed to load " + factoryClass.getName(), t);
+        }
+    }
+
+    public <T> T acquireDelegate(final Class<?> factoryClass, final Class<T> type, final IndexSettings indexSettings,
+            final Environment env, final String name, final Settings settings) {
+        if (!sharedDelegates) {
+            return newInstance(factoryClass, type, indexSettings, env, name, settings);
+        }
+        final DelegateKey key = new DelegateKey(factoryClass.getName(), indexSettings.getIndexVersionCreated(), settings);
+        final Index index = indexSettings.getIndex();
+        if (!isRegistered(index)) {
+            // a transient or temporary index service is never released, so it only borrows
+            final Object delegate = delegateRegistry.get(key);
+            return delegate != null ? type.cast(delegate) : newInstance(factoryClass, type, indexSettings, env, name, settings);
+        }
+        return type.cast(delegateRegistry.acquire(index, key, () -> newInstance(factoryClass, type, indexSettings, env, name, settings)));
+    }
+
+    /**
+     * Makes the registered index of {@code indexSettings} hold a delegate
+     * that it borrowed before, and returns the delegate to use from then on:
+     * the shared one if another index holds it already.
+     */
+    public <T> T registerDelegate(final Class<?> factoryClass, final Class<T> type, final IndexSettings indexSettings,
+            final Settings settings, final T delegate) {
+        final Index index = indexSettings.getIndex();
+        if (!sharedDelegates || !isRegistered(index)) {
+            return delegate;
+        }
+        final DelegateKey key = new DelegateKey(factoryClass.getName(), indexSettings.getIndexVersionCreated(), settings);
+        return type.cast(delegateRegistry.acquire(index, key, () -> delegate));
+    }
+
+    /**
+     * Registers the index of an index service that the node has created, so
+     * that its analysis components hold the shared state they borrowed, and
+     * later ones acquire it. The state is released when the index is removed.
+     */
+    public void registerIndex(final IndexService indexService) {
+        registerIndex(indexService.index(), getAnalysisComponents(indexService));
+    }
+
+    void registerIndex(final Index index, final Collection<?> components) {
+        if (IndexMetadata.INDEX_UUID_NA_VALUE.equals(index.getUUID())) {
+            return;
+        }
+        registeredIndices.add(index);
+        for (final Object component : components) {
+            if (component instanceof FessAnalysisComponent) {
+                ((FessAnalysisComponent) component).onIndexRegistered();
+            }
+        }
+    }
+
+    /**
+     * Returns the analysis components of the analyzers and normalizers of an
+     * index service, each once.
+     */
+    static Collection<Object> getAnalysisComponents(final IndexService indexService) {
+        final IndexAnalyzers indexAnalyzers = indexService.getIndexAnalyzers();
+        final List<NamedAnalyzer> analyzers = new ArrayList<>(indexAnalyzers.getAnalyzers().values());
+        for (final String name : indexService.getIndexSettings().getSettings().getGroups("index.analysis.normalizer").keySet()) {
+            analyzers.add(indexAnalyzers.getNormalizer(name));
+            analyzers.add(indexAnalyzers.getWhitespaceNormalizer(name));
+        }
+        final Set<Object> components = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (final NamedAnalyzer analyzer : analyzers) {
+            if (analyzer != null && analyzer.analyzer() instanceof AnalyzerComponentsProvider) {
+                final AnalyzerComponents analyzerComponents = ((AnalyzerComponentsProvider) analyzer.analyzer()).getComponents();
+                components.add(analyzerComponents.getTokenizerFactory());
+                components.addAll(Arrays.asList(analyzerComponents.getCharFilters()));
+                components.addAll(Arrays.asList(analyzerComponents.getTokenFilters()));
+            }
+        }
+        return components;
+    }
+
+    public void unregisterIndex(final Index index) {
+        registeredIndices.remove(index);
+    }
+
+    boolean isRegistered(final Index index) {
+        return registeredIndices.contains(index);
+    }
+
+    public void releaseDelegates(final Index index) {
+        final int removed = delegateRegistry.release(index);
+        if (logger.isDebugEnabled()) {
+            logger.debug("Released delegates for {}: {} removed, {} shared", index, removed, delegateRegistry.size());
+        }
+    }
+
+    /**
+     * Returns the memory-mapped user dictionary compiled from {@code source},
+     * shared by all indices on this node with the same source.
+     */
+    public Supplier<MappedUserDictionary> acquireUserDictionary(final IndexSettings indexSettings, final String source) {
+        final Index index = indexSettings.getIndex();
+        try {
+            if (!isRegistered(index)) {
+                return new BorrowedUserDictionary(userDictionaryRegistry.acquire(null, source), source);
+            }
+            final MappedUserDictionary dictionary = userDictionaryRegistry.acquire(index, source);
+            return () -> dictionary;
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Failed to load the user dictionary for " + index, e);
+        }
+    }
+
+    /**
+     * Returns the memory-mapped user dictionary compiled from {@code file}. If
+     * {@code reload} is true and the index is registered, the file is watched,
+     * and the supplier returns the new generation once a change has been
+     * compiled.
+     */
+    public Supplier<MappedUserDictionary> acquireUserDictionary(final IndexSettings indexSettings, final Path file, final boolean reload) {
+        final Index index = indexSettings.getIndex();
+        final ResourceWatcherService resourceWatcherService = pluginComponent.getResourceWatcherService();
+        final ThreadPool threadPool = pluginComponent.getThreadPool();
+        try {
+            if (!reload || resourceWatcherService == null || threadPool == null || !isRegistered(index)) {
+                return acquireUserDictionary(indexSettings, ReloadableUserDictionary.read(file));
+            }
+            final ReloadableUserDictionary dictionary =
+                    new ReloadableUserDictionary(userDictionaryRegistry, index, file, threadPool.generic());
+            final FileWatcher watcher = new FileWatcher(file);
+            watcher.addListener(dictionary);
+            reloadableUserDictionaries.computeIfAbsent(index, k -> Collections.synchronizedList(new ArrayList<>())).add(dictionary);
+            dictionary.setWatcherHandle(resourceWatcherService.add(watcher, ResourceWatcherService.Frequency.MEDIUM));
+            return dictionary;
+        } catch (final IOException e) {
+            throw new IllegalArgumentException("Failed to load the user dictionary [" + file + "] for " + index, e);
+        }
+    }
+
+    /**
+     * Makes the registered index of {@code indexSettings} hold a user
+     * dictionary that it borrowed before, without compiling it again.
+     *
+     * @return true if the dictionary was borrowed, so that the caller
+     *         acquires it again to get the one the index holds
+     */
+    public boolean registerUserDictionary(final IndexSettings indexSettings, final Supplier<MappedUserDictionary> dictionary) {
+        final Index index = indexSettings.getIndex();
+        if (!(dictionary instanceof BorrowedUserDictionary) || !isRegistered(index)) {
+            return false;
+        }
+        final BorrowedUserDictionary borrowed = (BorrowedUserDictionary) dictionary;
+        try {
+            userDictionaryRegistry.acquire(index, borrowed.source, borrowed.dictionary);
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Failed to load the user dictionary for " + index, e);
+        }
+        return true;
+    }
+
+    public void releaseUserDictionaries(final Index index) {
+        final List<ReloadableUserDictionary> dictionaries = reloadableUserDictionaries.remove(index);
+        if (dictionaries != null) {
+            // closed first, so that a reload in progress releases its generation itself
+            dictionaries.forEach(ReloadableUserDictionary::close);
+        }
+        final int removed = userDictionaryRegistry.release(index);
+        if (logger.isDebugEnabled()) {
+            logger.debug("Released user dictionaries for {}: {} removed, {} shared", index, removed, userDictionaryRegistry.size());
+        }
+    }
+
+    private Path getUserDictionaryPath() {
+        final NodeEnvironment nodeEnvironment = pluginComponent.getNodeEnvironment();
+        if (nodeEnvironment == null || !nodeEnvironment.hasNodeFile()) {
+            throw new IllegalStateException("No node data path to store user dictionaries.");
+        }
+        return nodeEnvironment.nodeDataPaths()[0].resolve("fess").resolve("user_dictionary");
+    }
+
+    public int getUserDictionaryCount() {
+        return userDictionaryRegistry.size();
+    }
+
+    public long getUserDictionarySizeInBytes() {
+        return userDictionaryRegistry.sizeInBytes();
+    }
+
+    public boolean isReloadUserDictionaries() {
+        return reloadUserDictionaries;
+    }
+
+    public int getBulkAnalyzeMaxTexts() {
+        return bulkAnalyzeMaxTexts;
+    }
+
+    /**
+     * Returns the executor of the {@value #PARALLEL_EXECUTOR} thread pool, or
+     * null before the node has started it.
+     */
+    public Executor getParallelExecutor() {
+        final ThreadPool threadPool = pluginComponent.getThreadPool();
+        return threadPool != null ? threadPool.executor(PARALLEL_EXECUTOR) : null;
+    }
+
+    public boolean isLazyDelegates() {
+        return lazyDelegates;
+    }
+
+    public TokenizerFallback getFallback() {
+        return fallback;
+    }
+
+    public FessAnalysisStats getAnalysisStats() {
+        return analysisStats;
+    }
+
+    public AnalysisCounters getAnalysisCounters(final IndexSettings indexSettings, final String component) {
+        if (analysisStats == null) {
+            return null;
+        }
+        return analysisStats.getCounters(indexSettings.getIndex().getName(), component);
+    }
+
+    public void removeStats(final Index index) {
+        if (analysisStats != null) {
+            analysisStats.remove(index.getName());
+        }
+        final AnalysisProfiler profiler = pluginComponent.getAnalysisProfiler();
+        if (profiler != null) {
+            profiler.remove(index.getName());
+        }
+    }
+
+    /**
+     * Returns the profiler of the analysis stages, or null before the node
+     * has created the plugin components.
+     */
+    public AnalysisProfiler getAnalysisProfiler() {
+        return pluginComponent.getAnalysisProfiler();
+    }
+
+    public void addSlowLog(final AnalysisSlowLog slowLog) {
+        slowLogs.put(slowLog.getIndex(), slowLog);
+    }
+
+    public void removeSlowLog(final AnalysisSlowLog slowLog) {
+        slowLogs.remove(slowLog.getIndex(), slowLog);
+    }
+
+    /**
+     * Returns the slowlog of an index, or null for transient analysis, whose
+     * index has no settings of its own, and for index services that the node
+     * has not registered.
+     */
+    public AnalysisSlowLog getSlowLog(final IndexSettings indexSettings) {
+        return slowLogs.get(indexSettings.getIndex());
+    }
+
+    /**
+     * Returns the query cache for the components of an index, or null if the
+     * cache is disabled. Transient analysis is never cached because its
+     * components are created per request.
+     */
+    public TokenCache getQueryCache(final IndexSettings indexSettings) {
+        final Index index = indexSettings.getIndex();
+        if (queryCache == null || IndexMetadata.INDEX_UUID_NA_VALUE.equals(index.getUUID())) {
+            return null;
+        }
+        return queryCache.forIndex(index);
+    }
+
+    public void clearQueryCache(final Index index) {
+        if (queryCache != null) {
+            final int removed = queryCache.invalidate(index);
+            if (logger.isDebugEnabled()) {
+                logger.debug("Cleared the query cache for {}: {} removed", index, removed);
+            }
+        }
+    }
+
+    public QueryCacheStats getQueryCacheStats() {
+        return queryCache != null ? queryCache.stats() : null;
+    }
+
+    public int getSharedDelegateCount() {
+        return delegateRegistry.size();
+    }
+
+    public long getClassIndexHits() {
+        return classIndexHits.sum();
+    }
+
+    public long getClassIndexMisses() {
+        return classIndexMisses.sum();
+    }
+
+
+    /**
+     * A user dictionary of an index that is not registered, which keeps its
+     * source so that the index can hold it once registered.
+     */
+    private static final class BorrowedUserDictionary implements Supplier<MappedUserDictionary> {
+        private final MappedUserDictionary dictionary;
+
+        private final String source;
+
+        BorrowedUserDictionary(final MappedUserDictionary dictionary, final String source) {
+            this.dictionary = dictionary;
+            this.source = source;
+        }
+
+        @Override
+        public MappedUserDictionary get() {
+            return dictionary;
+        }
+    }
 }
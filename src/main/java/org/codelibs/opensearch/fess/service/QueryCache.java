@@ -0,0 +1,117 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.codelibs.opensearch.fess.analysis.CachedTokens;
+import org.codelibs.opensearch.fess.analysis.TokenCache;
+import org.codelibs.opensearch.fess.stats.QueryCacheStats;
+import org.opensearch.common.cache.Cache;
+import org.opensearch.common.cache.CacheBuilder;
+import org.opensearch.core.index.Index;
+
+/**
+ * A node-wide LRU cache of the tokens of short inputs, bounded by the
+ * estimated size of the entries.
+ */
+public class QueryCache {
+
+    // rough size of a key and its cache entry
+    private static final long ENTRY_RAM_BYTES = 128;
+
+    private final Cache<Key, CachedTokens> cache;
+
+    public QueryCache(final long maxSizeInBytes) {
+        cache = CacheBuilder.<Key, CachedTokens> builder()
+                .setMaximumWeight(maxSizeInBytes)
+                .weigher((key, tokens) -> ENTRY_RAM_BYTES + 2L * key.text.length() + tokens.ramBytesUsed())
+                .build();
+    }
+
+    /**
+     * Returns a view of this cache for the components of {@code index}.
+     */
+    public TokenCache forIndex(final Index index) {
+        return new TokenCache() {
+            @Override
+            public CachedTokens get(final Object owner, final Object generation, final String text) {
+                return cache.get(new Key(index, owner, generation, text));
+            }
+
+            @Override
+            public void put(final Object owner, final Object generation, final String text, final CachedTokens tokens) {
+                cache.put(new Key(index, owner, generation, text), tokens);
+            }
+        };
+    }
+
+    /**
+     * Removes the entries of {@code index}, whose components are closed.
+     */
+    public int invalidate(final Index index) {
+        final List<Key> keys = new ArrayList<>();
+        for (final Key key : cache.keys()) {
+            if (key.index.equals(index)) {
+                keys.add(key);
+            }
+        }
+        keys.forEach(cache::invalidate);
+        return keys.size();
+    }
+
+    public QueryCacheStats stats() {
+        final Cache.CacheStats stats = cache.stats();
+        return new QueryCacheStats(stats.getHits(), stats.getMisses(), stats.getEvictions(), cache.count(), cache.weight());
+    }
+
+    static final class Key {
+
+        final Index index;
+
+        final Object owner;
+
+        final Object generation;
+
+        final String text;
+
+        private final int hashCode;
+
+        Key(final Index index, final Object owner, final Object generation, final String text) {
+            this.index = index;
+            this.owner = owner;
+            this.generation = generation;
+            this.text = text;
+            hashCode = 31 * (31 * System.identityHashCode(owner) + System.identityHashCode(generation)) + text.hashCode();
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            // owners and generations are compared by identity, so a new generation never sees stale tokens
+            return obj instanceof final Key other && owner == other.owner && generation == other.generation && text.equals(other.text)
+                    && index.equals(other.index);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.codelibs.opensearch.fess.analysis.MappedUserDictionary;
+import org.opensearch.core.index.Index;
+import org.opensearch.watcher.FileChangesListener;
+import org.opensearch.watcher.FileWatcher;
+import org.opensearch.watcher.WatcherHandle;
+
+/**
+ * A user dictionary file that is compiled again when it changes. The new
+ * dictionary is built on {@code executor} and then replaces the current
+ * generation in one volatile write, so streams that already hold the previous
+ * dictionary keep using it, and the next stream gets the new one. Once
+ * closed, the file is no longer watched, and a reload still compiling
+ * releases what it has built.
+ */
+final class ReloadableUserDictionary implements Supplier<MappedUserDictionary>, FileChangesListener {
+    private static final Logger logger = LogManager.getLogger(ReloadableUserDictionary.class);
+
+    private final UserDictionaryRegistry registry;
+
+    private final Index index;
+
+    private final Path file;
+
+    private final Executor executor;
+
+    // serializes reloads, while closing only takes the lock of this object
+    private final Object reloadLock = new Object();
+
+    private volatile Generation current;
+
+    private volatile boolean closed;
+
+    private WatcherHandle<FileWatcher> watcherHandle;
+
+    ReloadableUserDictionary(final UserDictionaryRegistry registry, final Index index, final Path file, final Executor executor)
+            throws IOException {
+        this.registry = registry;
+        this.index = index;
+        this.file = file;
+        this.executor = executor;
+        final String source = read(file);
+        current = new Generation(registry.acquire(index, source), UserDictionaryRegistry.digest(source), 0);
+    }
+
+    static String read(final Path file) throws IOException {
+        return Files.readString(file, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public MappedUserDictionary get() {
+        return current.dictionary;
+    }
+
+    long getGeneration() {
+        return current.generation;
+    }
+
+    Path getFile() {
+        return file;
+    }
+
+    @Override
+    public void onFileCreated(final Path path) {
+        executor.execute(this::reload);
+    }
+
+    @Override
+    public void onFileChanged(final Path path) {
+        executor.execute(this::reload);
+    }
+
+    void reload() {
+        synchronized (reloadLock) {
+            if (closed) {
+                return;
+            }
+            try {
+                final String source = read(file);
+                final String digest = UserDictionaryRegistry.digest(source);
+                final Generation previous = current;
+                if (digest.equals(previous.digest)) {
+                    return;
+                }
+                final MappedUserDictionary dictionary = registry.acquire(index, source);
+                synchronized (this) {
+                    if (closed) {
+                        // the index was released while compiling, so nothing else releases this generation
+                        registry.release(index, digest);
+                        return;
+                    }
+                    current = new Generation(dictionary, digest, previous.generation + 1);
+                }
+                registry.release(index, previous.digest);
+                logger.info("Reloaded {} for {}: generation {}, {} entries", file, index, current.generation, dictionary.size());
+            } catch (final Exception e) {
+                // keep analyzing with the current generation
+                logger.warn("Failed to reload {} for {}", file, index, e);
+            }
+        }
+    }
+
+    /**
+     * Sets the handle of the watcher that notifies this dictionary, which is
+     * stopped when it is closed.
+     */
+    synchronized void setWatcherHandle(final WatcherHandle<FileWatcher> handle) {
+        watcherHandle = handle;
+        if (closed) {
+            handle.stop();
+        }
+    }
+
+    /**
+     * Stops watching the file and reloading it. The generations held in the
+     * registry are released with the index.
+     */
+    synchronized void close() {
+        closed = true;
+        if (watcherHandle != null) {
+            watcherHandle.stop();
+        }
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    private static final class Generation {
+        private final MappedUserDictionary dictionary;
+
+        private final String digest;
+
+        private final long generation;
+
+        Generation(final MappedUserDictionary dictionary, final String digest, final long generation) {
+            this.dictionary = dictionary;
+            this.digest = digest;
+            this.generation = generation;
+        }
+    }
+}
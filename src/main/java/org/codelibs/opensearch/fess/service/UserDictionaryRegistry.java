@@ -0,0 +1,258 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.service;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.function.Supplier;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.codelibs.opensearch.fess.analysis.MappedUserDictionary;
+import org.opensearch.core.index.Index;
+
+/**
+ * Node-level registry of compiled, memory-mapped user dictionaries. A
+ * dictionary is identified by the digest of its source, so indices (and
+ * reload generations) with the same dictionary share one file and one
+ * mapping. The file is deleted when the last index holding it is released.
+ */
+final class UserDictionaryRegistry {
+    private static final Logger logger = LogManager.getLogger(UserDictionaryRegistry.class);
+
+    private static final String SUFFIX = ".dic";
+
+    private final Supplier<Path> directory;
+
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    private final Map<Index, Set<String>> holders = new HashMap<>();
+
+    UserDictionaryRegistry(final Supplier<Path> directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Returns the dictionary of {@code source}, compiling it if no index on
+     * this node uses it yet. A {@code null} index only borrows the dictionary:
+     * if no index holds it, it is compiled to a temporary file that is deleted
+     * once mapped, so nothing is left to release.
+     *
+     * <p>A dictionary is compiled outside the lock of the registry by the first
+     * thread that acquires it; other threads acquiring the same dictionary wait
+     * for it, and threads acquiring other dictionaries do not. A dictionary
+     * that fails to compile is removed, so that the next acquire retries.</p>
+     */
+    MappedUserDictionary acquire(final Index index, final String source) throws IOException {
+        return acquire(index, source, null);
+    }
+
+    /**
+     * Returns the dictionary of {@code source} like {@link #acquire(Index, String)},
+     * but registers {@code compiled}, a dictionary of the same source that
+     * was borrowed before, instead of compiling it again if no index holds it.
+     */
+    MappedUserDictionary acquire(final Index index, final String source, final MappedUserDictionary compiled) throws IOException {
+        final String digest = digest(source);
+        final Entry entry;
+        final boolean held;
+        synchronized (this) {
+            Entry current = entries.get(digest);
+            if (current == null && index != null) {
+                current = new Entry(new FutureTask<>(() -> compiled != null ? compiled : load(digest, source)));
+                entries.put(digest, current);
+            }
+            held = current != null && index != null && holders.computeIfAbsent(index, k -> new HashSet<>()).add(digest);
+            if (held) {
+                current.refCount++;
+            }
+            entry = current;
+        }
+        if (entry == null) {
+            // no index holds the dictionary
+            return borrow(digest, source);
+        }
+        // compiles the dictionary, unless another thread has started to
+        entry.dictionary.run();
+        try {
+            return entry.dictionary.get();
+        } catch (final ExecutionException e) {
+            unregister(index, digest, entry, held);
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException("Failed to compile " + digest, cause);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            unregister(index, digest, entry, held);
+            throw new IllegalStateException("Interrupted while waiting for " + digest, e);
+        }
+    }
+
+    /**
+     * Undoes an acquire whose dictionary could not be returned, and drops a failed entry.
+     */
+    private synchronized void unregister(final Index index, final String digest, final Entry entry, final boolean held) {
+        if (held) {
+            final Set<String> digests = holders.get(index);
+            if (digests != null && digests.remove(digest) && digests.isEmpty()) {
+                holders.remove(index);
+            }
+            entry.refCount--;
+        }
+        if (entries.get(digest) == entry && (entry.refCount <= 0 || entry.dictionary.state() == Future.State.FAILED)) {
+            entries.remove(digest);
+        }
+    }
+
+    private static boolean isCompiled(final Entry entry) {
+        return entry.dictionary.state() == Future.State.SUCCESS;
+    }
+
+    private MappedUserDictionary load(final String digest, final String source) throws IOException {
+        final Path dir = directory.get();
+        Files.createDirectories(dir);
+        final Path file = dir.resolve(digest + SUFFIX);
+        if (Files.exists(file)) {
+            try {
+                return MappedUserDictionary.open(file);
+            } catch (final IllegalArgumentException | IOException e) {
+                logger.warn("Failed to open {}, compiling it again.", file, e);
+            }
+        }
+        final long startTime = System.nanoTime();
+        MappedUserDictionary.compile(new StringReader(source), file);
+        final MappedUserDictionary dictionary = MappedUserDictionary.open(file);
+        if (logger.isDebugEnabled()) {
+            logger.debug("Compiled {} entries into {} ({} bytes) in {}ms", dictionary.size(), file, dictionary.getSizeInBytes(),
+                    (System.nanoTime() - startTime) / 1_000_000);
+        }
+        return dictionary;
+    }
+
+    private MappedUserDictionary borrow(final String digest, final String source) throws IOException {
+        final Path dir = directory.get();
+        Files.createDirectories(dir);
+        final Path file = Files.createTempFile(dir, digest, SUFFIX + ".tmp");
+        try {
+            MappedUserDictionary.compile(new StringReader(source), file);
+            // an existing mapping stays readable after the file is deleted
+            return MappedUserDictionary.open(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    synchronized int release(final Index index) {
+        final Set<String> digests = holders.remove(index);
+        if (digests == null) {
+            return 0;
+        }
+        int removed = 0;
+        for (final String digest : digests) {
+            if (decRef(digest)) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Releases one dictionary of the index, e.g. the previous generation of a reloaded dictionary.
+     */
+    synchronized boolean release(final Index index, final String digest) {
+        final Set<String> digests = holders.get(index);
+        if (digests == null || !digests.remove(digest)) {
+            return false;
+        }
+        if (digests.isEmpty()) {
+            holders.remove(index);
+        }
+        return decRef(digest);
+    }
+
+    private boolean decRef(final String digest) {
+        final Entry entry = entries.get(digest);
+        if (entry == null || --entry.refCount > 0) {
+            return false;
+        }
+        entries.remove(digest);
+        if (!isCompiled(entry)) {
+            // a dictionary still being compiled keeps its file, which the next acquire opens
+            return true;
+        }
+        final Path file = entry.dictionary.resultNow().getFile();
+        try {
+            // an existing mapping stays readable after the file is deleted
+            Files.deleteIfExists(file);
+        } catch (final IOException e) {
+            logger.warn("Failed to delete {}", file, e);
+        }
+        return true;
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    synchronized long sizeInBytes() {
+        long size = 0;
+        for (final Entry entry : entries.values()) {
+            if (isCompiled(entry)) {
+                size += entry.dictionary.resultNow().getSizeInBytes();
+            }
+        }
+        return size;
+    }
+
+    static String digest(final String source) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(source.getBytes(StandardCharsets.UTF_8)));
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class Entry {
+        private final FutureTask<MappedUserDictionary> dictionary;
+
+        private int refCount;
+
+        Entry(final FutureTask<MappedUserDictionary> dictionary) {
+            this.dictionary = dictionary;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.stats;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of one analysis component in one index.
+ */
+public final class AnalysisCounters {
+
+    private final LongAdder createCount = new LongAdder();
+
+    private final LongAdder streamCount = new LongAdder();
+
+    private final LongAdder tokenCount = new LongAdder();
+
+    private final LongAdder charCount = new LongAdder();
+
+    private final LongAdder timeInNanos = new LongAdder();
+
+    private final LongAdder truncatedCount = new LongAdder();
+
+    public void onCreate() {
+        createCount.increment();
+    }
+
+    public void onStream(final long tokens, final long chars, final long nanos) {
+        streamCount.increment();
+        tokenCount.add(tokens);
+        charCount.add(chars);
+        timeInNanos.add(nanos);
+    }
+
+    /**
+     * Counts a stream that was cut short by the analysis budget.
+     */
+    public void onTruncated() {
+        truncatedCount.increment();
+    }
+
+    public ComponentStats stats() {
+        return new ComponentStats(createCount.sum(), streamCount.sum(), tokenCount.sum(), charCount.sum(), timeInNanos.sum(),
+                truncatedCount.sum());
+    }
+}
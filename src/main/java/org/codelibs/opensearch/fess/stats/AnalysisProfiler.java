@@ -0,0 +1,99 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.stats;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.opensearch.common.settings.Setting;
+import org.opensearch.common.settings.Setting.Property;
+import org.opensearch.common.settings.Settings;
+
+/**
+ * Node-level histograms of the time that each stage of the Fess analysis
+ * chains spends per stream, per index. Only one in {@code sample_interval}
+ * streams, chosen at random, is timed; {@code 0} disables profiling.
+ */
+public final class AnalysisProfiler {
+
+    public static final Setting<Integer> SAMPLE_INTERVAL_SETTING =
+            Setting.intSetting("fess.analysis.profiler.sample_interval", 0, 0, Property.NodeScope, Property.Dynamic);
+
+    public enum Stage {
+        CHAR_FILTER, TOKENIZER, TOKEN_FILTER;
+
+        @Override
+        public String toString() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private final Map<String, Map<Stage, Map<String, NanosHistogram>>> histograms = new ConcurrentHashMap<>();
+
+    private volatile int sampleInterval;
+
+    public AnalysisProfiler(final Settings settings) {
+        sampleInterval = SAMPLE_INTERVAL_SETTING.get(settings);
+    }
+
+    public void setSampleInterval(final int sampleInterval) {
+        this.sampleInterval = sampleInterval;
+    }
+
+    public int getSampleInterval() {
+        return sampleInterval;
+    }
+
+    public boolean isEnabled() {
+        return sampleInterval > 0;
+    }
+
+    /**
+     * Returns whether the stream starting now is profiled.
+     */
+    public boolean sample() {
+        final int interval = sampleInterval;
+        return interval == 1 || interval > 1 && ThreadLocalRandom.current().nextInt(interval) == 0;
+    }
+
+    public void record(final String index, final Stage stage, final String component, final long nanos) {
+        histograms.computeIfAbsent(index, k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(stage, k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(component, k -> new NanosHistogram())
+                .record(nanos);
+    }
+
+    public void remove(final String index) {
+        histograms.remove(index);
+    }
+
+    public Map<String, Map<String, Map<String, StageStats>>> snapshot() {
+        final Map<String, Map<String, Map<String, StageStats>>> snapshot = new TreeMap<>();
+        histograms.forEach((index, stages) -> {
+            final Map<String, Map<String, StageStats>> stageStats = new TreeMap<>();
+            stages.forEach((stage, components) -> {
+                final Map<String, StageStats> componentStats = new TreeMap<>();
+                components.forEach((component, histogram) -> componentStats.put(component, histogram.stats()));
+                stageStats.put(stage.toString(), componentStats);
+            });
+            snapshot.put(index, stageStats);
+        });
+        return snapshot;
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.stats;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.opensearch.common.settings.Setting;
+import org.opensearch.common.settings.Setting.Property;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.common.unit.TimeValue;
+import org.opensearch.core.index.Index;
+
+/**
+ * Logs the analysis streams of the Fess components of one index that take
+ * longer than the thresholds, like the indexing slowlog of OpenSearch. Only
+ * one in {@code sample_interval} streams, chosen at random, is timed.
+ */
+public final class AnalysisSlowLog {
+
+    private static final Logger logger = LogManager.getLogger("index.fess.analysis.slowlog");
+
+    public static final String PREFIX = "index.fess.analysis.slowlog";
+
+    public static final Setting<TimeValue> WARN_THRESHOLD_SETTING = thresholdSetting("warn");
+
+    public static final Setting<TimeValue> INFO_THRESHOLD_SETTING = thresholdSetting("info");
+
+    public static final Setting<TimeValue> DEBUG_THRESHOLD_SETTING = thresholdSetting("debug");
+
+    public static final Setting<TimeValue> TRACE_THRESHOLD_SETTING = thresholdSetting("trace");
+
+    public static final Setting<Integer> SAMPLE_INTERVAL_SETTING =
+            Setting.intSetting(PREFIX + ".sample_interval", 1, 1, Property.Dynamic, Property.IndexScope);
+
+    private final Index index;
+
+    private volatile long warnThreshold;
+
+    private volatile long infoThreshold;
+
+    private volatile long debugThreshold;
+
+    private volatile long traceThreshold;
+
+    // the lowest enabled threshold, or Long.MAX_VALUE when all are disabled
+    private volatile long minThreshold;
+
+    private volatile int sampleInterval;
+
+    public AnalysisSlowLog(final Index index, final Settings settings) {
+        this.index = index;
+        warnThreshold = WARN_THRESHOLD_SETTING.get(settings).nanos();
+        infoThreshold = INFO_THRESHOLD_SETTING.get(settings).nanos();
+        debugThreshold = DEBUG_THRESHOLD_SETTING.get(settings).nanos();
+        traceThreshold = TRACE_THRESHOLD_SETTING.get(settings).nanos();
+        sampleInterval = SAMPLE_INTERVAL_SETTING.get(settings);
+        updateMinThreshold();
+    }
+
+    private static Setting<TimeValue> thresholdSetting(final String level) {
+        return Setting.timeSetting(PREFIX + ".threshold." + level, TimeValue.timeValueNanos(-1), TimeValue.timeValueMillis(-1),
+                Property.Dynamic, Property.IndexScope);
+    }
+
+    private void updateMinThreshold() {
+        long min = Long.MAX_VALUE;
+        for (final long threshold : new long[] { warnThreshold, infoThreshold, debugThreshold, traceThreshold }) {
+            if (threshold >= 0) {
+                min = Math.min(min, threshold);
+            }
+        }
+        minThreshold = min;
+    }
+
+    public void setWarnThreshold(final TimeValue threshold) {
+        warnThreshold = threshold.nanos();
+        updateMinThreshold();
+    }
+
+    public void setInfoThreshold(final TimeValue threshold) {
+        infoThreshold = threshold.nanos();
+        updateMinThreshold();
+    }
+
+    public void setDebugThreshold(final TimeValue threshold) {
+        debugThreshold = threshold.nanos();
+        updateMinThreshold();
+    }
+
+    public void setTraceThreshold(final TimeValue threshold) {
+        traceThreshold = threshold.nanos();
+        updateMinThreshold();
+    }
+
+    public void setSampleInterval(final int sampleInterval) {
+        this.sampleInterval = sampleInterval;
+    }
+
+    public Index getIndex() {
+        return index;
+    }
+
+    public boolean isEnabled() {
+        return minThreshold != Long.MAX_VALUE;
+    }
+
+    /**
+     * Returns whether the stream starting now is timed: never when all
+     * thresholds are disabled, otherwise one in {@code sample_interval}.
+     */
+    public boolean sample() {
+        if (minThreshold == Long.MAX_VALUE) {
+            return false;
+        }
+        final int interval = sampleInterval;
+        return interval == 1 || ThreadLocalRandom.current().nextInt(interval) == 0;
+    }
+
+    /**
+     * Logs a timed stream if it exceeds a threshold.
+     *
+     * @param tokens the tokens of the stream, or -1 for a char filter
+     */
+    public void onStream(final String component, final String type, final long chars, final long tokens, final long nanos) {
+        if (nanos <= minThreshold) {
+            return;
+        }
+        final Level level;
+        if (warnThreshold >= 0 && nanos > warnThreshold) {
+            level = Level.WARN;
+        } else if (infoThreshold >= 0 && nanos > infoThreshold) {
+            level = Level.INFO;
+        } else if (debugThreshold >= 0 && nanos > debugThreshold) {
+            level = Level.DEBUG;
+        } else if (traceThreshold >= 0 && nanos > traceThreshold) {
+            level = Level.TRACE;
+        } else {
+            return;
+        }
+        if (logger.isEnabled(level)) {
+            logger.log(level, message(component, type, chars, tokens, nanos));
+        }
+    }
+
+    String message(final String component, final String type, final long chars, final long tokens, final long nanos) {
+        final StringBuilder buf = new StringBuilder(128);
+        buf.append(index).append(' ');
+        buf.append("took[").append(TimeValue.timeValueNanos(nanos)).append("], ");
+        buf.append("took_millis[").append(TimeUnit.NANOSECONDS.toMillis(nanos)).append("], ");
+        buf.append("component[").append(component).append("], ");
+        buf.append("type[").append(type).append("], ");
+        buf.append("chars[").append(chars).append(']');
+        if (tokens >= 0) {
+            buf.append(", tokens[").append(tokens).append(']');
+        }
+        return buf.toString();
+    }
+}
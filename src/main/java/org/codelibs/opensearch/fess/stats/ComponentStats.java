@@ -0,0 +1,106 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.stats;
+
+import java.io.IOException;
+
+import org.opensearch.core.common.io.stream.StreamInput;
+import org.opensearch.core.common.io.stream.StreamOutput;
+import org.opensearch.core.common.io.stream.Writeable;
+import org.opensearch.core.xcontent.ToXContentFragment;
+import org.opensearch.core.xcontent.XContentBuilder;
+
+/**
+ * A point-in-time copy of {@link AnalysisCounters}.
+ */
+public class ComponentStats implements Writeable, ToXContentFragment {
+
+    private final long createCount;
+
+    private final long streamCount;
+
+    private final long tokenCount;
+
+    private final long charCount;
+
+    private final long timeInNanos;
+
+    private final long truncatedCount;
+
+    public ComponentStats(final long createCount, final long streamCount, final long tokenCount, final long charCount,
+            final long timeInNanos, final long truncatedCount) {
+        this.createCount = createCount;
+        this.streamCount = streamCount;
+        this.tokenCount = tokenCount;
+        this.charCount = charCount;
+        this.timeInNanos = timeInNanos;
+        this.truncatedCount = truncatedCount;
+    }
+
+    public ComponentStats(final StreamInput in) throws IOException {
+        createCount = in.readVLong();
+        streamCount = in.readVLong();
+        tokenCount = in.readVLong();
+        charCount = in.readVLong();
+        timeInNanos = in.readVLong();
+        truncatedCount = in.readVLong();
+    }
+
+    @Override
+    public void writeTo(final StreamOutput out) throws IOException {
+        out.writeVLong(createCount);
+        out.writeVLong(streamCount);
+        out.writeVLong(tokenCount);
+        out.writeVLong(charCount);
+        out.writeVLong(timeInNanos);
+        out.writeVLong(truncatedCount);
+    }
+
+    @Override
+    public XContentBuilder toXContent(final XContentBuilder builder, final Params params) throws IOException {
+        builder.field("create_count", createCount);
+        builder.field("stream_count", streamCount);
+        builder.field("token_count", tokenCount);
+        builder.field("char_count", charCount);
+        builder.field("time_in_nanos", timeInNanos);
+        builder.field("truncated_count", truncatedCount);
+        return builder;
+    }
+
+    public long getCreateCount() {
+        return createCount;
+    }
+
+    public long getStreamCount() {
+        return streamCount;
+    }
+
+    public long getTokenCount() {
+        return tokenCount;
+    }
+
+    public long getCharCount() {
+        return charCount;
+    }
+
+    public long getTimeInNanos() {
+        return timeInNanos;
+    }
+
+    public long getTruncatedCount() {
+        return truncatedCount;
+    }
+}
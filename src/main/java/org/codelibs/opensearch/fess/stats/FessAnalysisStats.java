@@ -0,0 +1,46 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.stats;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Node-level analysis counters, per index and per Fess component.
+ */
+public class FessAnalysisStats {
+
+    private final Map<String, Map<String, AnalysisCounters>> counters = new ConcurrentHashMap<>();
+
+    public AnalysisCounters getCounters(final String index, final String component) {
+        return counters.computeIfAbsent(index, k -> new ConcurrentHashMap<>()).computeIfAbsent(component, k -> new AnalysisCounters());
+    }
+
+    public void remove(final String index) {
+        counters.remove(index);
+    }
+
+    public Map<String, Map<String, ComponentStats>> snapshot() {
+        final Map<String, Map<String, ComponentStats>> snapshot = new TreeMap<>();
+        counters.forEach((index, components) -> {
+            final Map<String, ComponentStats> componentStats = new TreeMap<>();
+            components.forEach((component, c) -> componentStats.put(component, c.stats()));
+            snapshot.put(index, componentStats);
+        });
+        return snapshot;
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.stats;
+
+import java.io.IOException;
+
+import org.opensearch.core.common.io.stream.StreamInput;
+import org.opensearch.core.common.io.stream.StreamOutput;
+import org.opensearch.core.common.io.stream.Writeable;
+import org.opensearch.core.xcontent.ToXContentFragment;
+import org.opensearch.core.xcontent.XContentBuilder;
+
+/**
+ * A point-in-time copy of the query cache statistics.
+ */
+public class QueryCacheStats implements Writeable, ToXContentFragment {
+
+    private final long hitCount;
+
+    private final long missCount;
+
+    private final long evictionCount;
+
+    private final long entryCount;
+
+    private final long sizeInBytes;
+
+    public QueryCacheStats(final long hitCount, final long missCount, final long evictionCount, final long entryCount,
+            final long sizeInBytes) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.entryCount = entryCount;
+        this.sizeInBytes = sizeInBytes;
+    }
+
+    public QueryCacheStats(final StreamInput in) throws IOException {
+        hitCount = in.readVLong();
+        missCount = in.readVLong();
+        evictionCount = in.readVLong();
+        entryCount = in.readVLong();
+        sizeInBytes = in.readVLong();
+    }
+
+    @Override
+    public void writeTo(final StreamOutput out) throws IOException {
+        out.writeVLong(hitCount);
+        out.writeVLong(missCount);
+        out.writeVLong(evictionCount);
+        out.writeVLong(entryCount);
+        out.writeVLong(sizeInBytes);
+    }
+
+    @Override
+    public XContentBuilder toXContent(final XContentBuilder builder, final Params params) throws IOException {
+        builder.field("hit_count", hitCount);
+        builder.field("miss_count", missCount);
+        builder.field("hit_rate", getHitRate());
+        builder.field("eviction_count", evictionCount);
+        builder.field("entry_count", entryCount);
+        builder.field("size_in_bytes", sizeInBytes);
+        return builder;
+    }
+
+    public double getHitRate() {
+        final long total = hitCount + missCount;
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    public long getEntryCount() {
+        return entryCount;
+    }
+
+    public long getSizeInBytes() {
+        return sizeInBytes;
+    }
+}
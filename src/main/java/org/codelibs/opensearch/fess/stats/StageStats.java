@@ -0,0 +1,128 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.stats;
+
+import java.io.IOException;
+
+import org.opensearch.core.common.io.stream.StreamInput;
+import org.opensearch.core.common.io.stream.StreamOutput;
+import org.opensearch.core.common.io.stream.Writeable;
+import org.opensearch.core.xcontent.ToXContentFragment;
+import org.opensearch.core.xcontent.XContentBuilder;
+
+/**
+ * A point-in-time copy of the {@link NanosHistogram} of one analysis stage.
+ */
+public class StageStats implements Writeable, ToXContentFragment {
+
+    private final long count;
+
+    private final long sumInNanos;
+
+    private final long minInNanos;
+
+    private final long maxInNanos;
+
+    private final long p50InNanos;
+
+    private final long p90InNanos;
+
+    private final long p99InNanos;
+
+    private final long p999InNanos;
+
+    public StageStats(final long count, final long sumInNanos, final long minInNanos, final long maxInNanos, final long p50InNanos,
+            final long p90InNanos, final long p99InNanos, final long p999InNanos) {
+        this.count = count;
+        this.sumInNanos = sumInNanos;
+        this.minInNanos = minInNanos;
+        this.maxInNanos = maxInNanos;
+        this.p50InNanos = p50InNanos;
+        this.p90InNanos = p90InNanos;
+        this.p99InNanos = p99InNanos;
+        this.p999InNanos = p999InNanos;
+    }
+
+    public StageStats(final StreamInput in) throws IOException {
+        count = in.readVLong();
+        sumInNanos = in.readVLong();
+        minInNanos = in.readVLong();
+        maxInNanos = in.readVLong();
+        p50InNanos = in.readVLong();
+        p90InNanos = in.readVLong();
+        p99InNanos = in.readVLong();
+        p999InNanos = in.readVLong();
+    }
+
+    @Override
+    public void writeTo(final StreamOutput out) throws IOException {
+        out.writeVLong(count);
+        out.writeVLong(sumInNanos);
+        out.writeVLong(minInNanos);
+        out.writeVLong(maxInNanos);
+        out.writeVLong(p50InNanos);
+        out.writeVLong(p90InNanos);
+        out.writeVLong(p99InNanos);
+        out.writeVLong(p999InNanos);
+    }
+
+    @Override
+    public XContentBuilder toXContent(final XContentBuilder builder, final Params params) throws IOException {
+        builder.field("count", count);
+        builder.field("sum_in_nanos", sumInNanos);
+        builder.field("min_in_nanos", minInNanos);
+        builder.field("max_in_nanos", maxInNanos);
+        builder.startObject("percentiles_in_nanos");
+        builder.field("50.0", p50InNanos);
+        builder.field("90.0", p90InNanos);
+        builder.field("99.0", p99InNanos);
+        builder.field("99.9", p999InNanos);
+        builder.endObject();
+        return builder;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getSumInNanos() {
+        return sumInNanos;
+    }
+
+    public long getMinInNanos() {
+        return minInNanos;
+    }
+
+    public long getMaxInNanos() {
+        return maxInNanos;
+    }
+
+    public long getP50InNanos() {
+        return p50InNanos;
+    }
+
+    public long getP90InNanos() {
+        return p90InNanos;
+    }
+
+    public long getP99InNanos() {
+        return p99InNanos;
+    }
+
+    public long getP999InNanos() {
+        return p999InNanos;
+    }
+}
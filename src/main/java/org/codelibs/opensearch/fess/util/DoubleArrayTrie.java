@@ -0,0 +1,355 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.util;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An immutable double-array trie over char keys.
+ *
+ * <p>Each key is mapped to its index in the sorted key list given to
+ * {@link #build(List)}. Transitions use dense codes instead of raw chars, so
+ * the arrays stay close to the number of trie nodes. Lookups do not
+ * allocate.</p>
+ *
+ * <p>A trie can be written with {@link #writeTo(DataOutput)} and read back
+ * from a (memory-mapped) buffer with {@link #readFrom(ByteBuffer)}, in which
+ * case the arrays are not copied to the heap.</p>
+ */
+public final class DoubleArrayTrie {
+
+    private static final int FREE = -1;
+
+    private static final int TERMINAL = 0;
+
+    private static final int CODES_LENGTH = Character.MAX_VALUE + 1;
+
+    // char -> dense code, 0 for chars that are not used in any key
+    private final CharBuffer codes;
+
+    // base[s] + code is the child of s; a leaf stores -(id + 1)
+    private final IntBuffer base;
+
+    // check[t] is the parent of t
+    private final IntBuffer check;
+
+    private final int length;
+
+    private final int size;
+
+    private final int maxKeyLength;
+
+    private DoubleArrayTrie(final CharBuffer codes, final IntBuffer base, final IntBuffer check, final int size,
+            final int maxKeyLength) {
+        this.codes = codes;
+        this.base = base;
+        this.check = check;
+        this.length = base.limit();
+        this.size = size;
+        this.maxKeyLength = maxKeyLength;
+    }
+
+    /**
+     * Builds a trie from keys sorted in natural order without duplicates.
+     */
+    public static DoubleArrayTrie build(final List<String> keys) {
+        for (int i = 1; i < keys.size(); i++) {
+            if (keys.get(i - 1).compareTo(keys.get(i)) >= 0) {
+                throw new IllegalArgumentException("Keys are not sorted or not unique at " + i + ": " + keys.get(i));
+            }
+        }
+        return new Builder(keys).build();
+    }
+
+    /**
+     * Reads a trie written by {@link #writeTo(DataOutput)} from the current
+     * position of {@code buffer}, and advances the position past it. The trie
+     * is a view of the buffer.
+     */
+    public static DoubleArrayTrie readFrom(final ByteBuffer buffer) {
+        final int size = buffer.getInt();
+        final int maxKeyLength = buffer.getInt();
+        final int length = buffer.getInt();
+        final CharBuffer codes = buffer.slice(buffer.position(), CODES_LENGTH * Character.BYTES).order(buffer.order()).asCharBuffer();
+        buffer.position(buffer.position() + CODES_LENGTH * Character.BYTES);
+        final IntBuffer base = buffer.slice(buffer.position(), length * Integer.BYTES).order(buffer.order()).asIntBuffer();
+        buffer.position(buffer.position() + length * Integer.BYTES);
+        final IntBuffer check = buffer.slice(buffer.position(), length * Integer.BYTES).order(buffer.order()).asIntBuffer();
+        buffer.position(buffer.position() + length * Integer.BYTES);
+        return new DoubleArrayTrie(codes, base, check, size, maxKeyLength);
+    }
+
+    /**
+     * Writes this trie in the format read by {@link #readFrom(ByteBuffer)}.
+     */
+    public void writeTo(final DataOutput out) throws IOException {
+        out.writeInt(size);
+        out.writeInt(maxKeyLength);
+        out.writeInt(length);
+        for (int i = 0; i < CODES_LENGTH; i++) {
+            out.writeChar(codes.get(i));
+        }
+        for (int i = 0; i < length; i++) {
+            out.writeInt(base.get(i));
+        }
+        for (int i = 0; i < length; i++) {
+            out.writeInt(check.get(i));
+        }
+    }
+
+    /**
+     * Returns the id of the key equal to {@code chars[offset, offset + length)}, or -1.
+     */
+    public int get(final char[] chars, final int offset, final int length) {
+        int s = 0;
+        for (int i = offset; i < offset + length; i++) {
+            s = next(s, chars[i]);
+            if (s < 0) {
+                return -1;
+            }
+        }
+        return value(s);
+    }
+
+    public int get(final CharSequence key) {
+        int s = 0;
+        for (int i = 0; i < key.length(); i++) {
+            s = next(s, key.charAt(i));
+            if (s < 0) {
+                return -1;
+            }
+        }
+        return value(s);
+    }
+
+    /**
+     * Finds the longest key that is a prefix of {@code chars[offset, offset + length)}.
+     *
+     * @return -1 if no key matches, otherwise the key id in the upper 32 bits and the key length in the lower 32 bits
+     */
+    public long longestMatch(final char[] chars, final int offset, final int length) {
+        long result = -1;
+        int s = 0;
+        final int end = offset + Math.min(length, maxKeyLength);
+        for (int i = offset; i < end; i++) {
+            s = next(s, chars[i]);
+            if (s < 0) {
+                break;
+            }
+            final int id = value(s);
+            if (id >= 0) {
+                result = ((long) id << 32) | (i - offset + 1);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Moves from state {@code s} by {@code c}.
+     *
+     * @return the next state, or -1 if there is no transition
+     */
+    public int next(final int s, final char c) {
+        final int code = codes.get(c);
+        if (code == 0) {
+            return -1;
+        }
+        final int t = base.get(s) + code;
+        if (t >= 0 && t < length && check.get(t) == s) {
+            return t;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the id of the key ending at state {@code s}, or -1.
+     */
+    public int value(final int s) {
+        final int t = base.get(s) + TERMINAL;
+        if (t >= 0 && t < length && check.get(t) == s && base.get(t) < 0) {
+            return -base.get(t) - 1;
+        }
+        return -1;
+    }
+
+    /** The number of keys. */
+    public int size() {
+        return size;
+    }
+
+    public int getMaxKeyLength() {
+        return maxKeyLength;
+    }
+
+    /** The length of the base and check arrays. */
+    public int getArrayLength() {
+        return length;
+    }
+
+    private static final class Builder {
+
+        private final List<String> keys;
+
+        private final char[] codes = new char[CODES_LENGTH];
+
+        private int[] base;
+
+        private int[] check;
+
+        private int nextCheckPos;
+
+        private int maxIndex;
+
+        Builder(final List<String> keys) {
+            this.keys = keys;
+        }
+
+        DoubleArrayTrie build() {
+            int maxKeyLength = 0;
+            // codes start at 1; 0 is the terminal transition
+            int nextCode = 1;
+            for (final String key : keys) {
+                maxKeyLength = Math.max(maxKeyLength, key.length());
+                for (int i = 0; i < key.length(); i++) {
+                    final char c = key.charAt(i);
+                    if (codes[c] == 0) {
+                        if (nextCode > Character.MAX_VALUE) {
+                            throw new IllegalStateException("Too many distinct chars.");
+                        }
+                        codes[c] = (char) nextCode++;
+                    }
+                }
+            }
+            final int initialSize = Math.max(1024, keys.size() * 2 + nextCode);
+            base = new int[initialSize];
+            check = new int[initialSize];
+            Arrays.fill(check, FREE);
+            check[0] = Integer.MIN_VALUE;
+            nextCheckPos = 1;
+            if (!keys.isEmpty()) {
+                insert(0, fetch(0, 0, keys.size()));
+            }
+            final int length = maxIndex + 1;
+            return new DoubleArrayTrie(CharBuffer.wrap(codes), IntBuffer.wrap(Arrays.copyOf(base, length)),
+                    IntBuffer.wrap(Arrays.copyOf(check, length)), keys.size(), maxKeyLength);
+        }
+
+        /**
+         * Returns the children of the keys in {@code [left, right)} at {@code depth} as {code, left, right} triples.
+         */
+        private List<int[]> fetch(final int depth, final int left, final int right) {
+            final List<int[]> siblings = new ArrayList<>();
+            int prev = -1;
+            for (int i = left; i < right; i++) {
+                final String key = keys.get(i);
+                final int code = key.length() == depth ? TERMINAL : codes[key.charAt(depth)];
+                if (code != prev) {
+                    if (!siblings.isEmpty()) {
+                        siblings.get(siblings.size() - 1)[2] = i;
+                    }
+                    siblings.add(new int[] { code, i, right });
+                    prev = code;
+                }
+            }
+            return siblings;
+        }
+
+        private void insert(final int parent, final List<int[]> siblings) {
+            final int begin = findBegin(siblings);
+            base[parent] = begin;
+            for (final int[] sibling : siblings) {
+                final int t = begin + sibling[0];
+                check[t] = parent;
+                maxIndex = Math.max(maxIndex, t);
+            }
+            for (final int[] sibling : siblings) {
+                final int t = begin + sibling[0];
+                if (sibling[0] == TERMINAL) {
+                    // the key at sibling[1] ends here
+                    base[t] = -sibling[1] - 1;
+                } else {
+                    final String key = keys.get(sibling[1]);
+                    int depth = 0;
+                    // depth of the child is the number of chars consumed so far
+                    for (int s = t; s != 0; s = check[s]) {
+                        depth++;
+                    }
+                    if (depth > key.length()) {
+                        throw new IllegalStateException("Broken trie at " + key);
+                    }
+                    insert(t, fetch(depth, sibling[1], sibling[2]));
+                }
+            }
+        }
+
+        private int findBegin(final List<int[]> siblings) {
+            final int first = siblings.get(0)[0];
+            // codes follow the first appearance of chars, so siblings are not ordered by code
+            int last = first;
+            for (final int[] sibling : siblings) {
+                last = Math.max(last, sibling[0]);
+            }
+            int pos = Math.max(first + 1, nextCheckPos) - 1;
+            int nonFree = 0;
+            boolean firstFree = true;
+            while (true) {
+                pos++;
+                ensure(pos);
+                if (check[pos] != FREE) {
+                    nonFree++;
+                    continue;
+                }
+                if (firstFree) {
+                    nextCheckPos = pos;
+                    firstFree = false;
+                }
+                final int begin = pos - first;
+                ensure(begin + last);
+                boolean fits = true;
+                for (int i = 1; i < siblings.size(); i++) {
+                    if (check[begin + siblings.get(i)[0]] != FREE) {
+                        fits = false;
+                        break;
+                    }
+                }
+                if (fits) {
+                    // skip densely used regions on the next search
+                    if ((double) nonFree / (pos - nextCheckPos + 1) >= 0.95) {
+                        nextCheckPos = pos;
+                    }
+                    return begin;
+                }
+            }
+        }
+
+        private void ensure(final int index) {
+            if (index >= check.length) {
+                final int newLength = Math.max(index + 1, check.length + (check.length >> 1));
+                base = Arrays.copyOf(base, newLength);
+                final int oldLength = check.length;
+                check = Arrays.copyOf(check, newLength);
+                Arrays.fill(check, oldLength, newLength, FREE);
+            }
+        }
+    }
+}
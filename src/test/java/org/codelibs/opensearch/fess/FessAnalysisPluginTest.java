@@ -17,7 +17,13 @@ package org.codelibs.opensearch.fess;
 
 import static org.codelibs.opensearch.runner.OpenSearchRunner.newConfigs;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.List;
 import java.util.Map;
 
@@ -37,6 +43,7 @@ import org.opensearch.common.xcontent.XContentType;
 import org.opensearch.core.xcontent.XContentBuilder;
 import org.opensearch.index.query.QueryBuilders;
 import org.opensearch.node.Node;
+import org.opensearch.watcher.ResourceWatcherService;
 
 public class FessAnalysisPluginTest {
 
@@ -122,6 +129,193 @@ public class FessAnalysisPluginTest {
 
     }
 
+    @Test
+    public void test_mapped_user_dictionary() throws Exception {
+
+        runner.ensureYellow();
+        Node node = runner.node();
+
+        final String index = "mapped";
+
+        final String indexSettings = "{\"index\":{\"analysis\":{" + "\"tokenizer\":{"//
+                + "\"ja_user_dict\":{\"type\":\"fess_japanese_tokenizer\",\"user_dictionary_mode\":\"mapped\",\"fallback\":\"bigram\","
+                + "\"user_dictionary_rules\":[\"関西国際空港,関西 国際 空港,カンサイ コクサイ クウコウ,カスタム名詞\"]}"//
+                + "},"//
+                + "\"analyzer\":{"
+                + "\"ja_analyzer\":{\"type\":\"custom\",\"tokenizer\":\"ja_user_dict\"}" + "}"//
+                + "}}}";
+        runner.createIndex(index, Settings.builder().loadFromSource(indexSettings, XContentType.JSON).build());
+        runner.ensureYellow(index);
+
+        try (CurlResponse response = OpenSearchCurl.post(node, "/" + index + "/_analyze").header("Content-Type", "application/json")
+                .body("{\"text\":\"関西国際空港に行く\",\"analyzer\":\"ja_analyzer\"}").execute()) {
+            @SuppressWarnings("unchecked")
+            List<Map<String, Object>> tokens = (List<Map<String, Object>>) response.getContent(OpenSearchCurl.jsonParser()).get("tokens");
+            assertEquals(List.of("関西", "国際", "空港", "に行", "行く"), tokens.stream().map(t -> t.get("token")).toList());
+        }
+    }
+
+    @Test
+    public void test_reload_user_dictionary() throws Exception {
+
+        runner.ensureYellow();
+        Node node = runner.node();
+
+        final Path dictionary = node.getEnvironment().configDir().resolve("userdict_reload.txt");
+        Files.writeString(dictionary, "関西国際空港,関西 国際 空港,カンサイ コクサイ クウコウ,カスタム名詞\n", StandardCharsets.UTF_8);
+
+        final String index = "reload";
+
+        final String indexSettings = "{\"index\":{\"analysis\":{" + "\"tokenizer\":{"//
+                + "\"ja_user_dict\":{\"type\":\"fess_japanese_tokenizer\",\"user_dictionary_mode\":\"mapped\",\"fallback\":\"bigram\","
+                + "\"user_dictionary\":\"userdict_reload.txt\"}"//
+                + "},"//
+                + "\"analyzer\":{"
+                + "\"ja_analyzer\":{\"type\":\"custom\",\"tokenizer\":\"ja_user_dict\"}" + "}"//
+                + "}}}";
+        runner.createIndex(index, Settings.builder().loadFromSource(indexSettings, XContentType.JSON).build());
+        runner.ensureYellow(index);
+
+        assertEquals(List.of("東京", "京ス", "スカ", "カイ", "イツ", "ツリ", "リー"), analyze(node, index, "東京スカイツリー"));
+
+        Files.writeString(dictionary, "東京スカイツリー,東京 スカイツリー,トウキョウ スカイツリー,カスタム名詞\n", StandardCharsets.UTF_8,
+                StandardOpenOption.APPEND);
+        runner.getInstance(ResourceWatcherService.class).notifyNow(ResourceWatcherService.Frequency.MEDIUM);
+
+        // the new generation is compiled on the generic thread pool
+        List<Object> tokens = null;
+        for (int i = 0; i < 100; i++) {
+            tokens = analyze(node, index, "東京スカイツリー");
+            if (tokens.size() == 2) {
+                break;
+            }
+            Thread.sleep(100L);
+        }
+        assertEquals(List.of("東京", "スカイツリー"), tokens);
+        assertEquals(List.of("関西", "国際", "空港"), analyze(node, index, "関西国際空港"));
+    }
+
+    @Test
+    public void test_query_cache() throws Exception {
+
+        runner.ensureYellow();
+        Node node = runner.node();
+
+        final String index = "query_cache";
+
+        final String indexSettings = "{\"index\":{\"analysis\":{" + "\"tokenizer\":{"//
+                + "\"ja_cached\":{\"type\":\"fess_japanese_tokenizer\",\"fallback\":\"bigram\",\"query_cache\":true}"//
+                + "},"//
+                + "\"analyzer\":{"
+                + "\"ja_analyzer\":{\"type\":\"custom\",\"tokenizer\":\"ja_cached\"}" + "}"//
+                + "}}}";
+        runner.createIndex(index, Settings.builder().loadFromSource(indexSettings, XContentType.JSON).build());
+        runner.ensureYellow(index);
+
+        assertEquals(List.of("東京", "京タ", "タワ", "ワー"), analyze(node, index, "東京タワー"));
+        assertEquals(List.of("東京", "京タ", "タワ", "ワー"), analyze(node, index, "東京タワー"));
+
+        try (CurlResponse response = OpenSearchCurl.get(node, "/_nodes/_fess/analysis/stats").execute()) {
+            assertEquals(200, response.getHttpStatusCode());
+            @SuppressWarnings("unchecked")
+            final Map<String, Map<String, Object>> nodes =
+                    (Map<String, Map<String, Object>>) response.getContent(OpenSearchCurl.jsonParser()).get("nodes");
+            @SuppressWarnings("unchecked")
+            final Map<String, Object> stats = (Map<String, Object>) nodes.values().iterator().next().get("query_cache");
+            assertTrue(((Number) stats.get("hit_count")).intValue() > 0);
+            assertTrue(((Number) stats.get("entry_count")).intValue() > 0);
+        }
+    }
+
+    @Test
+    public void test_bulk_analyze() throws Exception {
+
+        runner.ensureYellow();
+        Node node = runner.node();
+
+        final String index = "bulk";
+
+        final String indexSettings = "{\"index\":{\"analysis\":{" + "\"tokenizer\":{"//
+                + "\"ja_bigram\":{\"type\":\"fess_japanese_tokenizer\",\"fallback\":\"bigram\"}"//
+                + "},"//
+                + "\"analyzer\":{"
+                + "\"ja_analyzer\":{\"type\":\"custom\",\"tokenizer\":\"ja_bigram\"}" + "}"//
+                + "}}}";
+        runner.createIndex(index, Settings.builder().loadFromSource(indexSettings, XContentType.JSON).build());
+        runner.ensureYellow(index);
+
+        final StringBuilder body = new StringBuilder("{\"analyzer\":\"ja_analyzer\",\"texts\":[");
+        for (int i = 0; i < 500; i++) {
+            body.append("\"東京タワー").append(i).append("\",");
+        }
+        body.append("{\"text\":\"Hello World\",\"analyzer\":\"standard\"}]}");
+        try (CurlResponse response = OpenSearchCurl.post(node, "/" + index + "/_fess/_bulk_analyze")
+                .header("Content-Type", "application/json")
+                .body(body.toString()).execute()) {
+            assertEquals(200, response.getHttpStatusCode());
+            @SuppressWarnings("unchecked")
+            final List<List<String>> tokens = (List<List<String>>) response.getContent(OpenSearchCurl.jsonParser()).get("tokens");
+            assertEquals(501, tokens.size());
+            assertEquals(List.of("東京", "京タ", "タワ", "ワー", "0"), tokens.get(0));
+            assertEquals(List.of("東京", "京タ", "タワ", "ワー", "499"), tokens.get(499));
+            assertEquals(List.of("hello", "world"), tokens.get(500));
+        }
+
+        try (CurlResponse response = OpenSearchCurl.post(node, "/_fess/_bulk_analyze").header("Content-Type", "application/json")
+                .body("{\"analyzer\":\"standard\",\"texts\":[\"Quick Fox\"]}").execute()) {
+            assertEquals(200, response.getHttpStatusCode());
+            assertEquals(List.of(List.of("quick", "fox")), response.getContent(OpenSearchCurl.jsonParser()).get("tokens"));
+        }
+
+        try (CurlResponse response = OpenSearchCurl.post(node, "/" + index + "/_fess/_bulk_analyze")
+                .header("Content-Type", "application/json")
+                .body("{\"analyzer\":\"unknown\",\"texts\":[\"text\"]}").execute()) {
+            assertEquals(400, response.getHttpStatusCode());
+        }
+    }
+
+    private List<Object> analyze(final Node node, final String index, final String text) throws IOException {
+        try (CurlResponse response = OpenSearchCurl.post(node, "/" + index + "/_analyze").header("Content-Type", "application/json")
+                .body("{\"text\":\"" + text + "\",\"analyzer\":\"ja_analyzer\"}").execute()) {
+            @SuppressWarnings("unchecked")
+            List<Map<String, Object>> tokens = (List<Map<String, Object>>) response.getContent(OpenSearchCurl.jsonParser()).get("tokens");
+            return tokens.stream().map(t -> t.get("token")).toList();
+        }
+    }
+
+    @Test
+    public void test_stats() throws Exception {
+
+        runner.ensureYellow();
+        Node node = runner.node();
+
+        final String index = "stats";
+
+        final String indexSettings = "{\"index\":{\"analysis\":{" + "\"analyzer\":{"
+                + "\"ko_analyzer\":{\"type\":\"custom\",\"tokenizer\":\"fess_korean_tokenizer\"}" + "}"//
+                + "}}}";
+        runner.createIndex(index, Settings.builder().loadFromSource(indexSettings, XContentType.JSON).build());
+        runner.ensureYellow(index);
+
+        try (CurlResponse response = OpenSearchCurl.post(node, "/" + index + "/_analyze").header("Content-Type", "application/json")
+                .body("{\"text\":\"안녕하세요\",\"analyzer\":\"ko_analyzer\"}").execute()) {
+            assertEquals(200, response.getHttpStatusCode());
+        }
+
+        try (CurlResponse response = OpenSearchCurl.get(node, "/_nodes/_fess/analysis/stats").execute()) {
+            assertEquals(200, response.getHttpStatusCode());
+            @SuppressWarnings("unchecked")
+            final Map<String, Map<String, Object>> nodes =
+                    (Map<String, Map<String, Object>>) response.getContent(OpenSearchCurl.jsonParser()).get("nodes");
+            assertEquals(1, nodes.size());
+            @SuppressWarnings("unchecked")
+            final Map<String, Map<String, Map<String, Object>>> indices =
+                    (Map<String, Map<String, Map<String, Object>>>) nodes.values().iterator().next().get("indices");
+            final Map<String, Object> stats = indices.get(index).get("fess_korean_tokenizer");
+            assertTrue(((Number) stats.get("stream_count")).intValue() > 0);
+        }
+    }
+
     private void assertDocCount(int expected, final String index, final String field, final String value) {
         final SearchResponse searchResponse =
                 runner.search(index, QueryBuilders.matchPhraseQuery(field, value), null, 0, numOfDocs);
@@ -19,16 +19,26 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
+import org.codelibs.opensearch.fess.action.BulkAnalyzeAction;
+import org.codelibs.opensearch.fess.action.FessAnalysisProfileAction;
+import org.codelibs.opensearch.fess.action.FessAnalysisStatsAction;
 import org.codelibs.opensearch.fess.service.FessAnalysisService;
+import org.codelibs.opensearch.fess.stats.AnalysisProfiler;
+import org.codelibs.opensearch.fess.stats.AnalysisSlowLog;
 import org.junit.Before;
 import org.junit.Test;
 import org.opensearch.cluster.metadata.IndexNameExpressionResolver;
 import org.opensearch.cluster.service.ClusterService;
 import org.opensearch.common.lifecycle.LifecycleComponent;
+import org.opensearch.common.settings.ClusterSettings;
+import org.opensearch.common.settings.Setting;
 import org.opensearch.common.settings.Settings;
 import org.opensearch.core.common.io.stream.NamedWriteableRegistry;
 import org.opensearch.core.xcontent.NamedXContentRegistry;
@@ -67,6 +77,10 @@ public class FessAnalysisPluginUnitTest {
     public void testCreateComponents() {
         final Client client = mock(Client.class);
         final ClusterService clusterService = mock(ClusterService.class);
+        final Settings nodeSettings = Settings.builder().put("fess.analysis.profiler.sample_interval", 100).build();
+        final ClusterSettings clusterSettings = new ClusterSettings(nodeSettings, Set.of(AnalysisProfiler.SAMPLE_INTERVAL_SETTING));
+        when(clusterService.getSettings()).thenReturn(nodeSettings);
+        when(clusterService.getClusterSettings()).thenReturn(clusterSettings);
         final ThreadPool threadPool = mock(ThreadPool.class);
         final ResourceWatcherService resourceWatcherService = mock(ResourceWatcherService.class);
         final ScriptService scriptService = mock(ScriptService.class);
@@ -83,6 +97,40 @@ public class FessAnalysisPluginUnitTest {
         assertNotNull(components);
         assertEquals(1, components.size());
         assertTrue(components.iterator().next() instanceof FessAnalysisPlugin.PluginComponent);
+        final FessAnalysisPlugin.PluginComponent component = (FessAnalysisPlugin.PluginComponent) components.iterator().next();
+        assertEquals(threadPool, component.getThreadPool());
+        assertEquals(environment, component.getEnvironment());
+        assertEquals(100, component.getAnalysisProfiler().getSampleInterval());
+        clusterSettings.applySettings(Settings.builder().put("fess.analysis.profiler.sample_interval", 10).build());
+        assertEquals(10, component.getAnalysisProfiler().getSampleInterval());
+    }
+
+    @Test
+    public void testGetSettings() {
+        final List<Setting<?>> settings = plugin.getSettings();
+
+        assertNotNull(settings);
+        assertTrue(settings.contains(FessAnalysisService.SHARED_DELEGATES_SETTING));
+        assertTrue(settings.contains(FessAnalysisService.LAZY_DELEGATES_SETTING));
+        assertTrue(settings.contains(FessAnalysisService.FALLBACK_SETTING));
+        assertTrue(settings.contains(FessAnalysisService.STATS_ENABLED_SETTING));
+        assertTrue(settings.contains(FessAnalysisService.USER_DICTIONARY_RELOAD_SETTING));
+        assertTrue(settings.contains(FessAnalysisService.QUERY_CACHE_SIZE_SETTING));
+        assertTrue(settings.contains(FessAnalysisService.BULK_ANALYZE_MAX_TEXTS_SETTING));
+        assertTrue(settings.contains(FessAnalysisService.PREWARM_ENABLED_SETTING));
+        assertTrue(settings.contains(FessAnalysisService.PREWARM_TEXT_SETTING));
+        assertTrue(settings.contains(FessAnalysisService.PREWARM_ITERATIONS_SETTING));
+        assertTrue(settings.contains(AnalysisSlowLog.WARN_THRESHOLD_SETTING));
+        assertTrue(settings.contains(AnalysisSlowLog.SAMPLE_INTERVAL_SETTING));
+        assertTrue(settings.contains(AnalysisProfiler.SAMPLE_INTERVAL_SETTING));
+    }
+
+    @Test
+    public void testGetActions() {
+        assertEquals(3, plugin.getActions().size());
+        assertEquals(FessAnalysisStatsAction.NAME, plugin.getActions().get(0).getAction().name());
+        assertEquals(BulkAnalyzeAction.NAME, plugin.getActions().get(1).getAction().name());
+        assertEquals(FessAnalysisProfileAction.NAME, plugin.getActions().get(2).getAction().name());
     }
 
     @Test
@@ -100,11 +148,12 @@ public class FessAnalysisPluginUnitTest {
         final Map<String, AnalysisProvider<TokenFilterFactory>> tokenFilters = plugin.getTokenFilters();
 
         assertNotNull(tokenFilters);
-        assertEquals(4, tokenFilters.size());
+        assertEquals(5, tokenFilters.size());
         assertTrue(tokenFilters.containsKey("fess_japanese_baseform"));
         assertTrue(tokenFilters.containsKey("fess_japanese_part_of_speech"));
         assertTrue(tokenFilters.containsKey("fess_japanese_readingform"));
         assertTrue(tokenFilters.containsKey("fess_japanese_stemmer"));
+        assertTrue(tokenFilters.containsKey("fess_japanese_fused"));
     }
 
     @Test
@@ -112,12 +161,13 @@ public class FessAnalysisPluginUnitTest {
         final Map<String, AnalysisProvider<TokenizerFactory>> tokenizers = plugin.getTokenizers();
 
         assertNotNull(tokenizers);
-        assertEquals(5, tokenizers.size());
+        assertEquals(6, tokenizers.size());
         assertTrue(tokenizers.containsKey("fess_japanese_tokenizer"));
         assertTrue(tokenizers.containsKey("fess_japanese_reloadable_tokenizer"));
         assertTrue(tokenizers.containsKey("fess_korean_tokenizer"));
         assertTrue(tokenizers.containsKey("fess_vietnamese_tokenizer"));
         assertTrue(tokenizers.containsKey("fess_simplified_chinese_tokenizer"));
+        assertTrue(tokenizers.containsKey("fess_multilingual_tokenizer"));
     }
 
     @Test
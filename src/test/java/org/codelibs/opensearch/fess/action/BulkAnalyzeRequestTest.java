@@ -0,0 +1,49 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.action;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.IOException;
+
+import org.junit.Test;
+import org.opensearch.common.io.stream.BytesStreamOutput;
+import org.opensearch.core.common.io.stream.StreamInput;
+
+public class BulkAnalyzeRequestTest {
+
+    @Test
+    public void testSerialization() throws IOException {
+        final BulkAnalyzeRequest request = new BulkAnalyzeRequest("my_index").analyzer("ja_analyzer")
+                .texts(new String[] { "東京タワー", "Hello World" }, new String[] { null, "standard" });
+        final BulkAnalyzeRequest copy;
+        try (BytesStreamOutput out = new BytesStreamOutput()) {
+            request.writeTo(out);
+            try (StreamInput in = out.bytes().streamInput()) {
+                copy = new BulkAnalyzeRequest(in);
+            }
+        }
+        assertEquals("my_index", copy.index());
+        assertEquals("ja_analyzer", copy.analyzer());
+        assertArrayEquals(new String[] { "東京タワー", "Hello World" }, copy.texts());
+        assertArrayEquals(new String[] { null, "standard" }, copy.analyzers());
+        assertEquals("ja_analyzer", copy.analyzer(0));
+        assertEquals("standard", copy.analyzer(1));
+        assertNull(copy.validate());
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.action;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.codelibs.opensearch.fess.analysis.CJKBigramTokenizer;
+import org.junit.Test;
+
+public class BulkAnalyzerTest {
+
+    private final Analyzer analyzer = new Analyzer() {
+        @Override
+        protected TokenStreamComponents createComponents(final String fieldName) {
+            return new TokenStreamComponents(new CJKBigramTokenizer());
+        }
+    };
+
+    @Test
+    public void testParallel() throws Exception {
+        final String[] texts = new String[1000];
+        for (int i = 0; i < texts.length; i++) {
+            texts[i] = "東京 " + i;
+        }
+        final Analyzer[] analyzers = new Analyzer[texts.length];
+        Arrays.fill(analyzers, analyzer);
+        final ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            final String[][] terms = new BulkAnalyzer(analyzers, texts, 100).analyze(executor, 4);
+            assertEquals(texts.length, terms.length);
+            for (int i = 0; i < texts.length; i++) {
+                assertArrayEquals(new String[] { "東京", Integer.toString(i) }, terms[i]);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testRejected() {
+        final String[] texts = new String[200];
+        Arrays.fill(texts, "大阪");
+        final Analyzer[] analyzers = new Analyzer[texts.length];
+        Arrays.fill(analyzers, analyzer);
+        final String[][] terms = new BulkAnalyzer(analyzers, texts, 100).analyze(command -> {
+            throw new RejectedExecutionException();
+        }, 4);
+        for (final String[] t : terms) {
+            assertArrayEquals(new String[] { "大阪" }, t);
+        }
+    }
+
+    @Test
+    public void testMaxTokenCount() {
+        final String[] texts = { "東京", "東京タワー" };
+        final Analyzer[] analyzers = { analyzer, analyzer };
+        try {
+            new BulkAnalyzer(analyzers, texts, 2).analyze(Runnable::run, 1);
+            fail();
+        } catch (final IllegalStateException e) {
+            assertTrue(e.getMessage().contains("[2]"));
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.analysis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.core.WhitespaceTokenizer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.analysis.tokenattributes.OffsetAttribute;
+import org.codelibs.opensearch.fess.stats.AnalysisCounters;
+import org.junit.Test;
+
+public class BudgetTokenizerTest {
+
+    @Test
+    public void testMaxChars() throws IOException {
+        final AnalysisCounters counters = new AnalysisCounters();
+        final BudgetTokenizer tokenizer = new BudgetTokenizer(new WhitespaceTokenizer(), 9, 0, 0, counters);
+        assertEquals(List.of("one:0-3", "two:4-7", "t:8-9"), tokens(tokenizer, new StringReader("one two three")));
+        assertTrue(tokenizer.isTruncated());
+        assertEquals(1, counters.stats().getTruncatedCount());
+
+        // exactly the limit is not a truncation
+        assertEquals(List.of("one:0-3", "two:4-7"), tokens(tokenizer, new StringReader("one two")));
+        assertFalse(tokenizer.isTruncated());
+        assertEquals(1, counters.stats().getTruncatedCount());
+    }
+
+    @Test
+    public void testMaxTokens() throws IOException {
+        final AnalysisCounters counters = new AnalysisCounters();
+        final BudgetTokenizer tokenizer = new BudgetTokenizer(new WhitespaceTokenizer(), 0, 2, 0, counters);
+        assertEquals(List.of("a:0-1", "b:2-3"), tokens(tokenizer, new StringReader("a b c d")));
+        assertTrue(tokenizer.isTruncated());
+        assertEquals(List.of("a:0-1", "b:2-3"), tokens(tokenizer, new StringReader("a b")));
+        assertFalse(tokenizer.isTruncated());
+        assertEquals(1, counters.stats().getTruncatedCount());
+    }
+
+    @Test
+    public void testMaxTime() throws IOException {
+        final AnalysisCounters counters = new AnalysisCounters();
+        final BudgetTokenizer tokenizer = new BudgetTokenizer(new WhitespaceTokenizer(), 0, 0, 1_000_000L, counters);
+        final List<String> tokens = tokens(tokenizer, new SlowReader("a b c d e f g h"));
+        assertTrue(tokens.toString(), tokens.size() < 8);
+        assertTrue(tokenizer.isTruncated());
+        assertEquals(1, counters.stats().getTruncatedCount());
+
+        final BudgetTokenizer unlimited = new BudgetTokenizer(new WhitespaceTokenizer(), 0, 0, 0, counters);
+        assertEquals(8, tokens(unlimited, new SlowReader("a b c d e f g h")).size());
+        assertFalse(unlimited.isTruncated());
+    }
+
+    @Test
+    public void testBudgetCharFilter() throws IOException {
+        final AnalysisCounters counters = new AnalysisCounters();
+        final Tokenizer tokenizer = new WhitespaceTokenizer();
+        assertEquals(List.of("one:0-3", "tw:4-6"), tokens(tokenizer, new BudgetCharFilter(new StringReader("one two"), 6, 0, counters)));
+        assertEquals(1, counters.stats().getTruncatedCount());
+        assertEquals(List.of("one:0-3"), tokens(tokenizer, new BudgetCharFilter(new StringReader("one"), 3, 0, counters)));
+        assertEquals(1, counters.stats().getTruncatedCount());
+        final List<String> tokens = tokens(tokenizer, new BudgetCharFilter(new SlowReader("a b c d e f g h"), 0, 1_000_000L, counters));
+        assertTrue(tokens.toString(), tokens.size() < 8);
+        assertEquals(2, counters.stats().getTruncatedCount());
+    }
+
+    private static List<String> tokens(final Tokenizer tokenizer, final Reader reader) throws IOException {
+        final CharTermAttribute termAtt = tokenizer.addAttribute(CharTermAttribute.class);
+        final OffsetAttribute offsetAtt = tokenizer.addAttribute(OffsetAttribute.class);
+        final List<String> tokens = new ArrayList<>();
+        tokenizer.setReader(reader);
+        tokenizer.reset();
+        while (tokenizer.incrementToken()) {
+            tokens.add(termAtt.toString() + ":" + offsetAtt.startOffset() + "-" + offsetAtt.endOffset());
+        }
+        tokenizer.end();
+        tokenizer.close();
+        return tokens;
+    }
+
+    /**
+     * Returns one char per read and takes 2ms for it.
+     */
+    private static class SlowReader extends StringReader {
+
+        SlowReader(final String s) {
+            super(s);
+        }
+
+        @Override
+        public int read(final char[] cbuf, final int off, final int len) throws IOException {
+            try {
+                Thread.sleep(2);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return super.read(cbuf, off, Math.min(1, len));
+        }
+    }
+}
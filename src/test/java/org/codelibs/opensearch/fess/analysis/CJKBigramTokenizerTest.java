@@ -0,0 +1,153 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.analysis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.analysis.tokenattributes.OffsetAttribute;
+import org.apache.lucene.analysis.tokenattributes.TypeAttribute;
+import org.junit.Test;
+
+public class CJKBigramTokenizerTest {
+
+    @Test
+    public void testJapanese() throws IOException {
+        assertEquals(List.of("東京:0-2", "京タ:1-3", "タワ:2-4", "ワー:3-5"), tokens(new CJKBigramTokenizer(), "東京タワー"));
+        assertEquals(List.of("私:0-1", "今日:2-4", "日は:3-5"), tokens(new CJKBigramTokenizer(), "私、今日は"));
+    }
+
+    @Test
+    public void testKoreanAndChinese() throws IOException {
+        assertEquals(List.of("안녕:0-2", "녕하:1-3", "세계:4-6"), tokens(new CJKBigramTokenizer(), "안녕하 세계"));
+        assertEquals(List.of("中文:0-2", "文检:1-3", "检索:2-4"), tokens(new CJKBigramTokenizer(), "中文检索"));
+    }
+
+    @Test
+    public void testMixedScripts() throws IOException {
+        assertEquals(List.of("Fess:0-4", "全文:4-6", "文検:5-7", "検索:6-8", "v15:9-12"), tokens(new CJKBigramTokenizer(), "Fess全文検索 v15"));
+    }
+
+    @Test
+    public void testVietnamese() throws IOException {
+        assertEquals(List.of("Thành:0-5", "phố:6-9", "Hồ:10-12"), tokens(new CJKBigramTokenizer(), "Thành phố Hồ"));
+        // decomposed diacritics stay in the word
+        final String decomposed = "Tie\u0302\u0301ng Vie\u0323\u0302t";
+        assertEquals(List.of(decomposed.substring(0, 7) + ":0-7", decomposed.substring(8) + ":8-14"),
+                tokens(new CJKBigramTokenizer(), decomposed));
+    }
+
+    @Test
+    public void testTypes() throws IOException {
+        final CJKBigramTokenizer tokenizer = new CJKBigramTokenizer();
+        final TypeAttribute typeAtt = tokenizer.addAttribute(TypeAttribute.class);
+        final List<String> types = new ArrayList<>();
+        tokenizer.setReader(new StringReader("abc 日本 字"));
+        tokenizer.reset();
+        while (tokenizer.incrementToken()) {
+            types.add(typeAtt.type());
+        }
+        tokenizer.end();
+        tokenizer.close();
+        assertEquals(List.of(CJKBigramTokenizer.WORD_TYPE, CJKBigramTokenizer.DOUBLE_TYPE, CJKBigramTokenizer.SINGLE_TYPE), types);
+    }
+
+    @Test
+    public void testSupplementaryCharacters() throws IOException {
+        assertEquals(List.of("𠮷野:0-3", "野家:2-4"), tokens(new CJKBigramTokenizer(), "𠮷野家"));
+    }
+
+    @Test
+    public void testMaxTokenLength() throws IOException {
+        assertEquals(List.of("abc:0-3", "def:3-6", "g:6-7"), tokens(new CJKBigramTokenizer(3), "abcdefg"));
+        assertThrows(IllegalArgumentException.class, () -> new CJKBigramTokenizer(0));
+    }
+
+    @Test
+    public void testBufferBoundary() throws IOException {
+        final StringBuilder buf = new StringBuilder();
+        for (int i = 0; i < 4095; i++) {
+            buf.append(' ');
+        }
+        // the surrogate pair is split by the first read
+        buf.append("𠮷野");
+        final List<String> tokens = tokens(new CJKBigramTokenizer(), buf.toString());
+        assertEquals(List.of("𠮷野:4095-4098"), tokens);
+
+        // a reader returning one char at a time
+        assertEquals(List.of("東京:0-2", "京タ:1-3", "タワ:2-4", "ワー:3-5", "abc:6-9", "𠮷:10-12"),
+                tokens(new CJKBigramTokenizer(), new OneCharReader("東京タワー abc 𠮷")));
+    }
+
+    @Test
+    public void testReuse() throws IOException {
+        final CJKBigramTokenizer tokenizer = new CJKBigramTokenizer();
+        assertEquals(List.of("日本:0-2"), tokens(tokenizer, "日本"));
+        assertEquals(List.of("x:0-1"), tokens(tokenizer, "x"));
+        assertEquals(List.of(), tokens(tokenizer, "  "));
+    }
+
+    @Test
+    public void testEndOffset() throws IOException {
+        final CJKBigramTokenizer tokenizer = new CJKBigramTokenizer();
+        final OffsetAttribute offsetAtt = tokenizer.addAttribute(OffsetAttribute.class);
+        tokenizer.setReader(new StringReader("日本 "));
+        tokenizer.reset();
+        while (tokenizer.incrementToken()) {
+            // consume
+        }
+        tokenizer.end();
+        assertEquals(3, offsetAtt.endOffset());
+        tokenizer.close();
+    }
+
+    private static List<String> tokens(final CJKBigramTokenizer tokenizer, final String text) throws IOException {
+        return tokens(tokenizer, new StringReader(text));
+    }
+
+    private static List<String> tokens(final CJKBigramTokenizer tokenizer, final Reader reader) throws IOException {
+        final CharTermAttribute termAtt = tokenizer.addAttribute(CharTermAttribute.class);
+        final OffsetAttribute offsetAtt = tokenizer.addAttribute(OffsetAttribute.class);
+        final List<String> tokens = new ArrayList<>();
+        tokenizer.setReader(reader);
+        tokenizer.reset();
+        while (tokenizer.incrementToken()) {
+            tokens.add(termAtt.toString() + ":" + offsetAtt.startOffset() + "-" + offsetAtt.endOffset());
+        }
+        tokenizer.end();
+        tokenizer.close();
+        return tokens;
+    }
+
+    private static class OneCharReader extends StringReader {
+
+        OneCharReader(final String s) {
+            super(s);
+        }
+
+        @Override
+        public int read(final char[] cbuf, final int off, final int len) throws IOException {
+            return super.read(cbuf, off, Math.min(1, len));
+        }
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.analysis;
+
+import static org.codelibs.opensearch.fess.analysis.TokenizerTestHelper.tokens;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.charfilter.MappingCharFilter;
+import org.apache.lucene.analysis.charfilter.NormalizeCharMap;
+import org.apache.lucene.analysis.tokenattributes.FlagsAttribute;
+import org.apache.lucene.analysis.tokenattributes.OffsetAttribute;
+import org.apache.lucene.analysis.tokenattributes.PositionIncrementAttribute;
+import org.apache.lucene.analysis.tokenattributes.TypeAttribute;
+import org.codelibs.opensearch.fess.analysis.TokenizerTestHelper.TokenFormat;
+import org.junit.Test;
+
+public class CachingTokenizerTest {
+
+    private static final TokenFormat FORMAT = source -> {
+        final Supplier<String> token = TokenizerTestHelper.TERM_OFFSETS.bind(source);
+        final PositionIncrementAttribute posIncAtt = source.addAttribute(PositionIncrementAttribute.class);
+        final TypeAttribute typeAtt = source.addAttribute(TypeAttribute.class);
+        final FlagsAttribute flagsAtt = source.addAttribute(FlagsAttribute.class);
+        return () -> token.get() + "/" + posIncAtt.getPositionIncrement() + "/" + typeAtt.type() + "/" + flagsAtt.getFlags();
+    };
+
+    @Test
+    public void testReplay() throws IOException {
+        final MapTokenCache cache = new MapTokenCache();
+        final CountingBigramTokenizer delegate = new CountingBigramTokenizer();
+        final Tokenizer tokenizer = new CachingTokenizer(delegate, cache, this, null, 16);
+        final List<String> expected = List.of("東京:0-2/1/<DOUBLE>/1", "京タ:1-3/1/<DOUBLE>/2", "タワ:2-4/1/<DOUBLE>/3", "ワー:3-5/1/<DOUBLE>/4");
+        assertEquals(expected, tokens(tokenizer, "東京タワー", FORMAT));
+        assertEquals(1, delegate.resets);
+        assertEquals(1, cache.map.size());
+
+        assertEquals(expected, tokens(tokenizer, "東京タワー", FORMAT));
+        assertEquals(1, delegate.resets);
+
+        assertEquals(List.of("大阪:0-2/1/<DOUBLE>/1"), tokens(tokenizer, "大阪", FORMAT));
+        assertEquals(2, delegate.resets);
+        assertEquals(List.of(), tokens(tokenizer, "", FORMAT));
+        assertEquals(List.of(), tokens(tokenizer, "", FORMAT));
+        assertEquals(3, delegate.resets);
+    }
+
+    @Test
+    public void testLongInputIsNotCached() throws IOException {
+        final MapTokenCache cache = new MapTokenCache();
+        final CountingBigramTokenizer delegate = new CountingBigramTokenizer();
+        final Tokenizer tokenizer = new CachingTokenizer(delegate, cache, this, null, 3);
+        final List<String> expected = List.of("東京:0-2/1/<DOUBLE>/1", "京タ:1-3/1/<DOUBLE>/2", "タワ:2-4/1/<DOUBLE>/3", "ワー:3-5/1/<DOUBLE>/4");
+        assertEquals(expected, tokens(tokenizer, "東京タワー", FORMAT));
+        assertEquals(expected, tokens(tokenizer, "東京タワー", FORMAT));
+        assertEquals(2, delegate.resets);
+        assertEquals(0, cache.map.size());
+
+        final StringBuilder buf = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            buf.append("東京 ");
+        }
+        final List<String> tokens = tokens(tokenizer, buf.toString(), FORMAT);
+        assertEquals(1000, tokens.size());
+        assertEquals("東京:2997-2999/1/<DOUBLE>/1000", tokens.get(999));
+    }
+
+    @Test
+    public void testGeneration() throws IOException {
+        final MapTokenCache cache = new MapTokenCache();
+        final CountingBigramTokenizer delegate = new CountingBigramTokenizer();
+        final Object[] generation = { new Object() };
+        final Tokenizer tokenizer = new CachingTokenizer(delegate, cache, this, () -> generation[0], 16);
+        tokens(tokenizer, "東京", FORMAT);
+        tokens(tokenizer, "東京", FORMAT);
+        assertEquals(1, delegate.resets);
+
+        generation[0] = new Object();
+        tokens(tokenizer, "東京", FORMAT);
+        assertEquals(2, delegate.resets);
+        tokens(tokenizer, "東京", FORMAT);
+        assertEquals(2, delegate.resets);
+    }
+
+    @Test
+    public void testCorrectOffsets() throws IOException {
+        final NormalizeCharMap.Builder builder = new NormalizeCharMap.Builder();
+        builder.add("(株)", "株");
+        final NormalizeCharMap charMap = builder.build();
+        final MapTokenCache cache = new MapTokenCache();
+        final Tokenizer tokenizer = new CachingTokenizer(new CountingBigramTokenizer(), cache, this, null, 16);
+        final List<String> expected = List.of("株東:0-4/1/<DOUBLE>/1", "東京:3-5/1/<DOUBLE>/2");
+        final String text = "(株)東京";
+        assertEquals(expected, tokens(tokenizer, new MappingCharFilter(charMap, new StringReader(text)), text.length(), FORMAT));
+        assertEquals(expected, tokens(tokenizer, new MappingCharFilter(charMap, new StringReader(text)), text.length(), FORMAT));
+        assertNotNull(cache.map.get("株東京"));
+        assertNull(cache.map.get("(株)東京"));
+    }
+
+    @Test
+    public void testEndState() throws IOException {
+        final MapTokenCache cache = new MapTokenCache();
+        final Tokenizer tokenizer = new CachingTokenizer(new TrailingGapTokenizer(), cache, this, null, 16);
+        final String live = endState(new TrailingGapTokenizer(), "東京タワー");
+        assertEquals("5/3", live);
+        assertEquals(live, endState(tokenizer, "東京タワー"));
+        assertEquals(1, cache.map.size());
+        assertEquals(live, endState(tokenizer, "東京タワー"));
+    }
+
+    /**
+     * Returns the final offset and position increment after {@code end()}.
+     */
+    private static String endState(final Tokenizer tokenizer, final String text) throws IOException {
+        final OffsetAttribute offsetAtt = tokenizer.addAttribute(OffsetAttribute.class);
+        final PositionIncrementAttribute posIncAtt = tokenizer.addAttribute(PositionIncrementAttribute.class);
+        tokenizer.setReader(new StringReader(text));
+        tokenizer.reset();
+        while (tokenizer.incrementToken()) {
+            // consume all
+        }
+        tokenizer.end();
+        tokenizer.close();
+        return offsetAtt.endOffset() + "/" + posIncAtt.getPositionIncrement();
+    }
+
+    private static final class MapTokenCache implements TokenCache {
+
+        private final Map<String, CachedTokens> map = new HashMap<>();
+
+        private Object owner;
+
+        private Object generation;
+
+        @Override
+        public CachedTokens get(final Object owner, final Object generation, final String text) {
+            return owner == this.owner && generation == this.generation ? map.get(text) : null;
+        }
+
+        @Override
+        public void put(final Object owner, final Object generation, final String text, final CachedTokens tokens) {
+            if (owner != this.owner || generation != this.generation) {
+                map.clear();
+                this.owner = owner;
+                this.generation = generation;
+            }
+            map.put(text, tokens);
+        }
+    }
+
+    /**
+     * Ends with a position increment, as a tokenizer that skipped trailing tokens does.
+     */
+    private static final class TrailingGapTokenizer extends DelegatingTokenizer {
+
+        private final PositionIncrementAttribute posIncAtt = addAttribute(PositionIncrementAttribute.class);
+
+        TrailingGapTokenizer() {
+            super(new CJKBigramTokenizer());
+        }
+
+        @Override
+        public void end() throws IOException {
+            super.end();
+            posIncAtt.setPositionIncrement(3);
+        }
+    }
+
+    /**
+     * Counts its resets, and numbers its tokens with a flag.
+     */
+    private static final class CountingBigramTokenizer extends DelegatingTokenizer {
+
+        private final FlagsAttribute flagsAtt = addAttribute(FlagsAttribute.class);
+
+        private int resets;
+
+        private int count;
+
+        CountingBigramTokenizer() {
+            super(new CJKBigramTokenizer());
+        }
+
+        @Override
+        public boolean incrementToken() throws IOException {
+            if (!delegate.incrementToken()) {
+                return false;
+            }
+            flagsAtt.setFlags(++count);
+            return true;
+        }
+
+        @Override
+        public void reset() throws IOException {
+            super.reset();
+            resets++;
+            count = 0;
+        }
+    }
+}
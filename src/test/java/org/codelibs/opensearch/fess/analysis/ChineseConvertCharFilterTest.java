@@ -0,0 +1,155 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.analysis;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.core.WhitespaceTokenizer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.analysis.tokenattributes.OffsetAttribute;
+import org.junit.Test;
+
+public class ChineseConvertCharFilterTest {
+
+    @Test
+    public void testS2T() throws IOException {
+        final ChineseConvertDictionary dictionary = ChineseConvertDictionary.get(ChineseConvertDictionary.Type.S2T);
+        assertEquals("簡體中文", read(new ChineseConvertCharFilter(new StringReader("简体中文"), dictionary)));
+        // phrases win over single characters
+        assertEquals("頭髮", read(new ChineseConvertCharFilter(new StringReader("头发"), dictionary)));
+        assertEquals("發展", read(new ChineseConvertCharFilter(new StringReader("发展"), dictionary)));
+        assertEquals("Fess 搜索引擎", read(new ChineseConvertCharFilter(new StringReader("Fess 搜索引擎"), dictionary)));
+    }
+
+    @Test
+    public void testT2S() throws IOException {
+        final ChineseConvertDictionary dictionary = ChineseConvertDictionary.get(ChineseConvertDictionary.Type.T2S);
+        assertEquals("简体中文", read(new ChineseConvertCharFilter(new StringReader("簡體中文"), dictionary)));
+        assertEquals("头发", read(new ChineseConvertCharFilter(new StringReader("頭髮"), dictionary)));
+    }
+
+    @Test
+    public void testConvert() {
+        final ChineseConvertDictionary dictionary = ChineseConvertDictionary.get(ChineseConvertDictionary.Type.S2T);
+        final String text = "简体中文和繁体中文的转换";
+        assertEquals(dictionary.convert(text), read(text, dictionary, 1));
+    }
+
+    @Test
+    public void testStreaming() throws IOException {
+        final ChineseConvertDictionary dictionary = ChineseConvertDictionary.get(ChineseConvertDictionary.Type.S2T);
+        final StringBuilder buf = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            buf.append("头发").append(i).append("简体中文，");
+        }
+        final String text = buf.toString();
+        final String expected = dictionary.convert(text);
+        // reads of any size and an input that returns one char at a time
+        assertEquals(expected, read(text, dictionary, 1));
+        assertEquals(expected, read(text, dictionary, 7));
+        assertEquals(expected, read(text, dictionary, 4096));
+        final StringBuilder single = new StringBuilder();
+        try (Reader reader = new ChineseConvertCharFilter(new StringReader(text), dictionary)) {
+            int c;
+            while ((c = reader.read()) != -1) {
+                single.append((char) c);
+            }
+        }
+        assertEquals(expected, single.toString());
+        assertEquals(expected, read(new ChineseConvertCharFilter(new OneCharReader(text), dictionary)));
+    }
+
+    @Test
+    public void testOffsets() throws IOException {
+        final Map<String, String> mappings = new TreeMap<>();
+        mappings.put("abc", "x");
+        mappings.put("d", "yyy");
+        final ChineseConvertDictionary dictionary = new ChineseConvertDictionary(mappings);
+        final Tokenizer tokenizer = new WhitespaceTokenizer();
+        tokenizer.setReader(new ChineseConvertCharFilter(new StringReader("abc d abcd e"), dictionary));
+        final CharTermAttribute termAtt = tokenizer.addAttribute(CharTermAttribute.class);
+        final OffsetAttribute offsetAtt = tokenizer.addAttribute(OffsetAttribute.class);
+        final List<String> tokens = new ArrayList<>();
+        tokenizer.reset();
+        while (tokenizer.incrementToken()) {
+            tokens.add(termAtt + ":" + offsetAtt.startOffset() + "-" + offsetAtt.endOffset());
+        }
+        tokenizer.end();
+        tokenizer.close();
+        assertEquals(List.of("x:0-3", "yyy:4-5", "xyyy:6-10", "e:11-12"), tokens);
+    }
+
+    private static String read(final String text, final ChineseConvertDictionary dictionary, final int size) {
+        try (Reader reader = new ChineseConvertCharFilter(new StringReader(text), dictionary)) {
+            final StringBuilder buf = new StringBuilder();
+            final char[] chars = new char[size];
+            int n;
+            while ((n = reader.read(chars, 0, size)) != -1) {
+                buf.append(chars, 0, n);
+            }
+            return buf.toString();
+        } catch (final IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static String read(final Reader reader) throws IOException {
+        final StringBuilder buf = new StringBuilder();
+        final char[] chars = new char[16];
+        int n;
+        while ((n = reader.read(chars)) != -1) {
+            buf.append(chars, 0, n);
+        }
+        reader.close();
+        return buf.toString();
+    }
+
+    private static final class OneCharReader extends Reader {
+
+        private final String text;
+
+        private int pos;
+
+        OneCharReader(final String text) {
+            this.text = text;
+        }
+
+        @Override
+        public int read(final char[] cbuf, final int off, final int len) {
+            if (pos == text.length()) {
+                return -1;
+            }
+            if (len == 0) {
+                return 0;
+            }
+            cbuf[off] = text.charAt(pos++);
+            return 1;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
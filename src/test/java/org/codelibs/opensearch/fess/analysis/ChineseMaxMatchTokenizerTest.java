@@ -0,0 +1,186 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.analysis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.analysis.tokenattributes.OffsetAttribute;
+import org.apache.lucene.analysis.tokenattributes.TypeAttribute;
+import org.codelibs.opensearch.fess.analysis.ChineseMaxMatchTokenizer.Mode;
+import org.junit.Test;
+
+public class ChineseMaxMatchTokenizerTest {
+
+    private static final ChineseLexicon LEXICON = new ChineseLexicon(Map.ofEntries(Map.entry("研究", 100), Map.entry("研究生", 100),
+            Map.entry("生命", 100), Map.entry("起源", 100), Map.entry("结合", 100), Map.entry("成分", 50), Map.entry("合成", 10),
+            Map.entry("分子", 10), Map.entry("中华", 10), Map.entry("人民", 10), Map.entry("共和国", 10), Map.entry("中华人民共和国", 10),
+            Map.entry("𠀋一", 1)));
+
+    @Test
+    public void testModes() throws IOException {
+        assertEquals(List.of("研究生:0-3", "命:3-4", "起源:4-6"), tokens(Mode.FORWARD, "研究生命起源"));
+        assertEquals(List.of("研究:0-2", "生命:2-4", "起源:4-6"), tokens(Mode.BACKWARD, "研究生命起源"));
+        // fewer single characters
+        assertEquals(List.of("研究:0-2", "生命:2-4", "起源:4-6"), tokens(Mode.BIDIRECTIONAL, "研究生命起源"));
+        assertEquals(List.of("结合:0-2", "成分:2-4", "子:4-5"), tokens(Mode.FORWARD, "结合成分子"));
+        assertEquals(List.of("结:0-1", "合成:1-3", "分子:3-5"), tokens(Mode.BACKWARD, "结合成分子"));
+        // the same number of tokens and singles, so the weights decide
+        assertEquals(List.of("结合:0-2", "成分:2-4", "子:4-5"), tokens(Mode.BIDIRECTIONAL, "结合成分子"));
+        assertEquals(List.of("中华人民共和国:0-7"), tokens(Mode.BIDIRECTIONAL, "中华人民共和国"));
+        assertEquals(List.of("中华:0-2", "人民:2-4"), tokens(Mode.BIDIRECTIONAL, "中华人民"));
+    }
+
+    @Test
+    public void testMixedText() throws IOException {
+        final ChineseMaxMatchTokenizer tokenizer = new ChineseMaxMatchTokenizer(LEXICON);
+        final TypeAttribute typeAtt = tokenizer.addAttribute(TypeAttribute.class);
+        final List<String> types = new ArrayList<>();
+        final CharTermAttribute termAtt = tokenizer.addAttribute(CharTermAttribute.class);
+        final List<String> terms = new ArrayList<>();
+        tokenizer.setReader(new StringReader("Fess 15.0，研究生命！起源abc"));
+        tokenizer.reset();
+        while (tokenizer.incrementToken()) {
+            terms.add(termAtt.toString());
+            types.add(typeAtt.type());
+        }
+        tokenizer.end();
+        tokenizer.close();
+        assertEquals(List.of("Fess", "15", "0", "研究", "生命", "起源", "abc"), terms);
+        assertEquals(List.of(ChineseMaxMatchTokenizer.WORD_TYPE, ChineseMaxMatchTokenizer.WORD_TYPE, ChineseMaxMatchTokenizer.WORD_TYPE,
+                ChineseMaxMatchTokenizer.IDEOGRAPHIC_TYPE, ChineseMaxMatchTokenizer.IDEOGRAPHIC_TYPE,
+                ChineseMaxMatchTokenizer.IDEOGRAPHIC_TYPE, ChineseMaxMatchTokenizer.WORD_TYPE), types);
+    }
+
+    @Test
+    public void testSupplementaryCharacters() throws IOException {
+        for (final Mode mode : Mode.values()) {
+            assertEquals(List.of("𠀋一:0-3", "𠀋:3-5", "起源:5-7"), tokens(mode, "𠀋一𠀋起源"));
+        }
+    }
+
+    @Test
+    public void testMaxTokenLength() throws IOException {
+        assertEquals(List.of("abc:0-3", "de:3-5", "研究:5-7"),
+                tokens(new ChineseMaxMatchTokenizer(LEXICON, Mode.FORWARD, 3), new StringReader("abcde研究")));
+        assertThrows(IllegalArgumentException.class, () -> new ChineseMaxMatchTokenizer(LEXICON, Mode.FORWARD, 0));
+        assertThrows(IllegalArgumentException.class, () -> Mode.of("both"));
+        assertEquals(Mode.BACKWARD, Mode.of("Backward"));
+    }
+
+    @Test
+    public void testLongRun() throws IOException {
+        final StringBuilder text = new StringBuilder();
+        final List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 1500; i++) {
+            final int offset = text.length();
+            text.append("研究");
+            expected.add("研究:" + offset + "-" + (offset + 2));
+        }
+        for (final Mode mode : Mode.values()) {
+            assertEquals(expected, tokens(mode, text.toString()));
+            assertEquals(expected, tokens(new ChineseMaxMatchTokenizer(LEXICON, mode, 255), new OneCharReader(text.toString())));
+        }
+    }
+
+    @Test
+    public void testStreaming() throws IOException {
+        final StringBuilder text = new StringBuilder();
+        final List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            final int offset = text.length();
+            text.append("研究生命起源。Lucene ");
+            expected.add("研究:" + offset + "-" + (offset + 2));
+            expected.add("生命:" + (offset + 2) + "-" + (offset + 4));
+            expected.add("起源:" + (offset + 4) + "-" + (offset + 6));
+            expected.add("Lucene:" + (offset + 7) + "-" + (offset + 13));
+        }
+        assertEquals(expected, tokens(Mode.BIDIRECTIONAL, text.toString()));
+        assertEquals(expected, tokens(new ChineseMaxMatchTokenizer(LEXICON), new OneCharReader(text.toString())));
+    }
+
+    @Test
+    public void testReuseAndEndOffset() throws IOException {
+        final ChineseMaxMatchTokenizer tokenizer = new ChineseMaxMatchTokenizer(LEXICON);
+        assertEquals(List.of("研究:0-2", "生命:2-4", "起源:4-6"), tokens(tokenizer, new StringReader("研究生命起源")));
+        assertEquals(List.of("起源:0-2"), tokens(tokenizer, new StringReader("起源")));
+        assertEquals(List.of(), tokens(tokenizer, new StringReader("。 ！")));
+
+        final OffsetAttribute offsetAtt = tokenizer.addAttribute(OffsetAttribute.class);
+        tokenizer.setReader(new StringReader("起源。 "));
+        tokenizer.reset();
+        while (tokenizer.incrementToken()) {
+            // consume
+        }
+        tokenizer.end();
+        assertEquals(4, offsetAtt.endOffset());
+        tokenizer.close();
+    }
+
+    @Test
+    public void testDefaultLexicon() throws IOException {
+        final ChineseLexicon lexicon = ChineseLexicon.getDefault();
+        assertTrue(lexicon.size() > 50000);
+        assertEquals(List.of("我们:0-2", "在:2-3", "北京大学:3-7", "研究:7-9", "生命:9-11", "起源:11-13"),
+                tokens(new ChineseMaxMatchTokenizer(lexicon), new StringReader("我们在北京大学研究生命起源")));
+        final ChineseLexicon withWords = ChineseLexicon.withWords(List.of("全文检索", "开源软件 100"));
+        assertEquals(List.of("开源软件:0-4", "全文检索:4-8"),
+                tokens(new ChineseMaxMatchTokenizer(withWords), new StringReader("开源软件全文检索")));
+        assertThrows(IllegalArgumentException.class, () -> ChineseLexicon.withWords(List.of("开源 x")));
+        assertEquals(0, ChineseLexicon.weight(0));
+        assertEquals(ChineseLexicon.MAX_WEIGHT, ChineseLexicon.weight(Integer.MAX_VALUE));
+    }
+
+    private static List<String> tokens(final Mode mode, final String text) throws IOException {
+        return tokens(new ChineseMaxMatchTokenizer(LEXICON, mode, ChineseMaxMatchTokenizer.DEFAULT_MAX_TOKEN_LENGTH),
+                new StringReader(text));
+    }
+
+    private static List<String> tokens(final ChineseMaxMatchTokenizer tokenizer, final Reader reader) throws IOException {
+        final CharTermAttribute termAtt = tokenizer.addAttribute(CharTermAttribute.class);
+        final OffsetAttribute offsetAtt = tokenizer.addAttribute(OffsetAttribute.class);
+        final List<String> tokens = new ArrayList<>();
+        tokenizer.setReader(reader);
+        tokenizer.reset();
+        while (tokenizer.incrementToken()) {
+            tokens.add(termAtt.toString() + ":" + offsetAtt.startOffset() + "-" + offsetAtt.endOffset());
+        }
+        tokenizer.end();
+        tokenizer.close();
+        return tokens;
+    }
+
+    private static class OneCharReader extends StringReader {
+
+        OneCharReader(final String s) {
+            super(s);
+        }
+
+        @Override
+        public int read(final char[] cbuf, final int off, final int len) throws IOException {
+            return super.read(cbuf, off, Math.min(1, len));
+        }
+    }
+}
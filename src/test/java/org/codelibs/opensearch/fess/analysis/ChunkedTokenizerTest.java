@@ -0,0 +1,147 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.analysis;
+
+import static org.codelibs.opensearch.fess.analysis.TokenizerTestHelper.tokens;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.core.WhitespaceTokenizer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.analysis.tokenattributes.OffsetAttribute;
+import org.apache.lucene.analysis.tokenattributes.PositionIncrementAttribute;
+import org.junit.Test;
+
+public class ChunkedTokenizerTest {
+
+    @Test
+    public void testSameTokensAsUnchunked() throws IOException {
+        final StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            text.append("全文检索系统。Fess version ").append(i).append(" finds 3.14 documents! ");
+            if (i % 7 == 0) {
+                text.append('\n');
+            }
+        }
+        final List<String> expected = tokens(new CJKBigramTokenizer(), text.toString());
+        for (final int chunkSize : new int[] { 64, 100, 1000, 100000 }) {
+            assertEquals(expected, tokens(new ChunkedTokenizer(new CJKBigramTokenizer(), chunkSize), text.toString()));
+        }
+    }
+
+    @Test
+    public void testChunkBoundaries() throws IOException {
+        // the point of a number is no sentence end, so the chunk ends at the whitespace
+        assertEquals(List.of("a:0-1", "b.:2-4", "3.14:5-9", "c:10-11"),
+                tokens(new ChunkedTokenizer(new WhitespaceTokenizer(), 10), "a b. 3.14 c"));
+        // without a boundary, a chunk is cut at its size
+        assertEquals(List.of("abcd:0-4", "efgh:4-8", "ij:8-10"), tokens(new ChunkedTokenizer(new WhitespaceTokenizer(), 4), "abcdefghij"));
+        assertEquals(List.of(), tokens(new ChunkedTokenizer(new WhitespaceTokenizer(), 4), ""));
+        assertThrows(IllegalArgumentException.class, () -> new ChunkedTokenizer(new WhitespaceTokenizer(), 0));
+    }
+
+    @Test
+    public void testPositionGap() throws IOException {
+        // drops the tokens "x" and reports them as a position gap, also at the end
+        final Tokenizer tokenizer = new ChunkedTokenizer(new Tokenizer() {
+            private final Tokenizer whitespace = new WhitespaceTokenizer();
+
+            private final CharTermAttribute termAtt = addAttribute(CharTermAttribute.class);
+
+            private final PositionIncrementAttribute posIncAtt = addAttribute(PositionIncrementAttribute.class);
+
+            private final StringBuilder text = new StringBuilder();
+
+            private String[] words;
+
+            private int index;
+
+            private int gap;
+
+            @Override
+            public boolean incrementToken() throws IOException {
+                clearAttributes();
+                while (index < words.length) {
+                    final String word = words[index++];
+                    if ("x".equals(word)) {
+                        gap++;
+                    } else if (!word.isEmpty()) {
+                        termAtt.setEmpty().append(word);
+                        posIncAtt.setPositionIncrement(1 + gap);
+                        gap = 0;
+                        return true;
+                    }
+                }
+                return false;
+            }
+
+            @Override
+            public void end() throws IOException {
+                super.end();
+                posIncAtt.setPositionIncrement(gap);
+            }
+
+            @Override
+            public void reset() throws IOException {
+                super.reset();
+                text.setLength(0);
+                final char[] buffer = new char[16];
+                int read;
+                while ((read = input.read(buffer)) != -1) {
+                    text.append(buffer, 0, read);
+                }
+                words = text.toString().split(" ");
+                index = 0;
+                gap = 0;
+            }
+        }, 6);
+        final CharTermAttribute termAtt = tokenizer.addAttribute(CharTermAttribute.class);
+        final PositionIncrementAttribute posIncAtt = tokenizer.addAttribute(PositionIncrementAttribute.class);
+        final List<String> tokens = new ArrayList<>();
+        tokenizer.setReader(new StringReader("a x x b c x x d x"));
+        tokenizer.reset();
+        while (tokenizer.incrementToken()) {
+            tokens.add(termAtt.toString() + "+" + posIncAtt.getPositionIncrement());
+        }
+        tokenizer.end();
+        assertEquals(List.of("a+1", "b+3", "c+1", "d+3"), tokens);
+        assertEquals(1, posIncAtt.getPositionIncrement());
+        tokenizer.close();
+    }
+
+    @Test
+    public void testReuseAndEndOffset() throws IOException {
+        final ChunkedTokenizer tokenizer = new ChunkedTokenizer(new WhitespaceTokenizer(), 8);
+        assertEquals(List.of("one:0-3", "two:4-7", "three:8-13"), tokens(tokenizer, "one two three"));
+        assertEquals(List.of("four:0-4"), tokens(tokenizer, "four"));
+
+        final OffsetAttribute offsetAtt = tokenizer.addAttribute(OffsetAttribute.class);
+        tokenizer.setReader(new StringReader("five six seven  "));
+        tokenizer.reset();
+        while (tokenizer.incrementToken()) {
+            // consume
+        }
+        tokenizer.end();
+        assertEquals(16, offsetAtt.endOffset());
+        tokenizer.close();
+    }
+}
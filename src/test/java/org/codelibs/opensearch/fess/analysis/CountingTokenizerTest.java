@@ -0,0 +1,209 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.analysis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.lucene.analysis.TokenFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.analysis.tokenattributes.OffsetAttribute;
+import org.codelibs.opensearch.fess.stats.AnalysisCounters;
+import org.codelibs.opensearch.fess.stats.ComponentStats;
+import org.junit.Test;
+
+public class CountingTokenizerTest {
+
+    private static final long SLEEP_MILLIS = 50;
+
+    @Test
+    public void testSameTokensAsDelegate() throws IOException {
+        final String text = "Fess is an enterprise search server";
+        final AnalysisCounters counters = new AnalysisCounters();
+        final List<String> expected = terms(new StandardTokenizer(), text);
+        final List<String> actual = terms(new CountingTokenizer(new StandardTokenizer(), counters), text);
+        assertEquals(expected, actual);
+
+        final ComponentStats stats = counters.stats();
+        assertEquals(1, stats.getStreamCount());
+        assertEquals(6, stats.getTokenCount());
+        assertEquals(text.length(), stats.getCharCount());
+    }
+
+    @Test
+    public void testSharedAttributes() throws IOException {
+        final Tokenizer delegate = new StandardTokenizer();
+        final CountingTokenizer tokenizer = new CountingTokenizer(delegate, new AnalysisCounters());
+        assertSame(delegate.getAttribute(CharTermAttribute.class), tokenizer.getAttribute(CharTermAttribute.class));
+        assertSame(delegate.getAttribute(OffsetAttribute.class), tokenizer.getAttribute(OffsetAttribute.class));
+        tokenizer.close();
+    }
+
+    @Test
+    public void testReuse() throws IOException {
+        final AnalysisCounters counters = new AnalysisCounters();
+        final CountingTokenizer tokenizer = new CountingTokenizer(new StandardTokenizer(), counters);
+        assertEquals(List.of("a", "b"), terms(tokenizer, "a b"));
+        assertEquals(List.of("c"), terms(tokenizer, "c"));
+
+        final ComponentStats stats = counters.stats();
+        assertEquals(2, stats.getStreamCount());
+        assertEquals(3, stats.getTokenCount());
+        assertEquals(4, stats.getCharCount());
+    }
+
+    @Test
+    public void testCountingTokenFilter() throws IOException {
+        final AnalysisCounters counters = new AnalysisCounters();
+        final Tokenizer tokenizer = new StandardTokenizer();
+        tokenizer.setReader(new StringReader("one two three"));
+        try (TokenStream stream = new CountingTokenFilter(tokenizer, counters)) {
+            final CharTermAttribute termAtt = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            assertTrue(stream.incrementToken());
+            assertEquals("one", termAtt.toString());
+            assertTrue(stream.incrementToken());
+            assertTrue(stream.incrementToken());
+            assertFalse(stream.incrementToken());
+            stream.end();
+        }
+        assertEquals(1, counters.stats().getStreamCount());
+        assertEquals(3, counters.stats().getTokenCount());
+    }
+
+    @Test
+    public void testCountingCharFilter() throws IOException {
+        final AnalysisCounters counters = new AnalysisCounters();
+        final StringBuilder buf = new StringBuilder();
+        try (Reader reader = new CountingCharFilter(new StringReader("abcdef"), counters)) {
+            final char[] chars = new char[4];
+            int len;
+            while ((len = reader.read(chars, 0, chars.length)) != -1) {
+                buf.append(chars, 0, len);
+            }
+        }
+        assertEquals("abcdef", buf.toString());
+        assertEquals(1, counters.stats().getStreamCount());
+        assertEquals(6, counters.stats().getCharCount());
+    }
+
+    @Test
+    public void testSelfTime() throws IOException {
+        final AnalysisCounters charFilterCounters = new AnalysisCounters();
+        final AnalysisCounters tokenizerCounters = new AnalysisCounters();
+        final AnalysisCounters filterCounters = new AnalysisCounters();
+        final AnalysisCounters nextFilterCounters = new AnalysisCounters();
+        final Tokenizer tokenizer = new CountingTokenizer(new StandardTokenizer(), tokenizerCounters);
+        tokenizer.setReader(new CountingCharFilter(new SlowReader("one two"), charFilterCounters));
+        try (TokenStream stream = new CountingTokenFilter(new SlowTokenFilter(new CountingTokenFilter(tokenizer, filterCounters)),
+                nextFilterCounters)) {
+            stream.reset();
+            while (stream.incrementToken()) {
+                // consume
+            }
+            stream.end();
+        }
+        final long sleepNanos = TimeUnit.MILLISECONDS.toNanos(SLEEP_MILLIS);
+        // the sleep of the reader counts toward the char filter only, and that of the filter toward the next counted filter only
+        assertTrue(charFilterCounters.stats().getTimeInNanos() >= sleepNanos);
+        assertTrue(tokenizerCounters.stats().getTimeInNanos() < sleepNanos);
+        assertTrue(filterCounters.stats().getTimeInNanos() < sleepNanos);
+        assertTrue(nextFilterCounters.stats().getTimeInNanos() >= sleepNanos);
+        assertEquals(2, nextFilterCounters.stats().getTokenCount());
+    }
+
+    @Test
+    public void testCharFilterSelfTime() throws IOException {
+        final AnalysisCounters upstreamCounters = new AnalysisCounters();
+        final AnalysisCounters counters = new AnalysisCounters();
+        try (Reader reader = new CountingCharFilter(new CountingCharFilter(new SlowReader("abc"), upstreamCounters), counters)) {
+            while (reader.read(new char[4], 0, 4) != -1) {
+                // consume
+            }
+        }
+        final long sleepNanos = TimeUnit.MILLISECONDS.toNanos(SLEEP_MILLIS);
+        assertTrue(upstreamCounters.stats().getTimeInNanos() >= sleepNanos);
+        assertTrue(counters.stats().getTimeInNanos() < sleepNanos);
+        assertEquals(3, counters.stats().getCharCount());
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(SLEEP_MILLIS);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class SlowReader extends StringReader {
+        private boolean slept;
+
+        SlowReader(final String text) {
+            super(text);
+        }
+
+        @Override
+        public int read(final char[] cbuf, final int off, final int len) throws IOException {
+            if (!slept) {
+                slept = true;
+                sleep();
+            }
+            return super.read(cbuf, off, len);
+        }
+    }
+
+    private static final class SlowTokenFilter extends TokenFilter {
+        SlowTokenFilter(final TokenStream input) {
+            super(input);
+        }
+
+        @Override
+        public boolean incrementToken() throws IOException {
+            return input.incrementToken();
+        }
+
+        @Override
+        public void end() throws IOException {
+            super.end();
+            sleep();
+        }
+    }
+
+    private static List<String> terms(final Tokenizer tokenizer, final String text) throws IOException {
+        final List<String> terms = new ArrayList<>();
+        final CharTermAttribute termAtt = tokenizer.addAttribute(CharTermAttribute.class);
+        tokenizer.setReader(new StringReader(text));
+        tokenizer.reset();
+        while (tokenizer.incrementToken()) {
+            terms.add(termAtt.toString());
+        }
+        tokenizer.end();
+        tokenizer.close();
+        return terms;
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.analysis;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.analysis.tokenattributes.KeywordAttribute;
+import org.apache.lucene.analysis.tokenattributes.OffsetAttribute;
+import org.apache.lucene.util.Attribute;
+import org.apache.lucene.util.AttributeImpl;
+import org.apache.lucene.util.AttributeReflector;
+
+/**
+ * Stand-ins for the Kuromoji classes that {@link KuromojiAttributes} looks up
+ * by name, with the same method signatures.
+ */
+public final class FakeKuromoji {
+
+    public static final Set<String> DEFAULT_STOP_TAGS = Set.of("助詞-格助詞-一般", "助動詞");
+
+    private static final Map<String, Class<?>> CLASSES = Map.of( //
+            KuromojiAttributes.BASE_FORM_ATTRIBUTE, BaseFormAttribute.class, //
+            KuromojiAttributes.PART_OF_SPEECH_ATTRIBUTE, PartOfSpeechAttribute.class, //
+            KuromojiAttributes.READING_ATTRIBUTE, ReadingAttribute.class, //
+            KuromojiAttributes.TO_STRING_UTIL, ToStringUtil.class, //
+            KuromojiAttributes.JAPANESE_ANALYZER, JapaneseAnalyzer.class);
+
+    private FakeKuromoji() {
+    }
+
+    public static Class<?> loadClass(final String name) {
+        return CLASSES.get(name);
+    }
+
+    public static KuromojiAttributes attributes() {
+        return KuromojiAttributes.load(FakeKuromoji::loadClass);
+    }
+
+    public interface BaseFormAttribute extends Attribute {
+        String getBaseForm();
+    }
+
+    public interface PartOfSpeechAttribute extends Attribute {
+        String getPartOfSpeech();
+    }
+
+    public interface ReadingAttribute extends Attribute {
+        String getReading();
+    }
+
+    public static final class BaseFormAttributeImpl extends StringAttributeImpl implements BaseFormAttribute {
+        @Override
+        public String getBaseForm() {
+            return value;
+        }
+    }
+
+    public static final class PartOfSpeechAttributeImpl extends StringAttributeImpl implements PartOfSpeechAttribute {
+        @Override
+        public String getPartOfSpeech() {
+            return value;
+        }
+    }
+
+    public static final class ReadingAttributeImpl extends StringAttributeImpl implements ReadingAttribute {
+        @Override
+        public String getReading() {
+            return value;
+        }
+    }
+
+    public abstract static class StringAttributeImpl extends AttributeImpl {
+
+        String value;
+
+        @Override
+        public void clear() {
+            value = null;
+        }
+
+        @Override
+        public void copyTo(final AttributeImpl target) {
+            ((StringAttributeImpl) target).value = value;
+        }
+
+        @Override
+        public void reflectWith(final AttributeReflector reflector) {
+            reflector.reflect(Attribute.class, "value", value);
+        }
+    }
+
+    public static final class ToStringUtil {
+
+        private ToStringUtil() {
+        }
+
+        public static void getRomanization(final Appendable builder, final CharSequence s) throws IOException {
+            builder.append("romaji(").append(s).append(')');
+        }
+    }
+
+    public static final class JapaneseAnalyzer {
+
+        private JapaneseAnalyzer() {
+        }
+
+        public static Set<String> getDefaultStopTags() {
+            return DEFAULT_STOP_TAGS;
+        }
+    }
+
+    /**
+     * Emits the given tokens, each {@code term/baseForm/partOfSpeech/reading}
+     * with empty fields as null, separated by one char. A term starting with
+     * {@code !} is a keyword.
+     */
+    public static final class Tokenizer extends org.apache.lucene.analysis.Tokenizer {
+
+        private final CharTermAttribute termAtt = addAttribute(CharTermAttribute.class);
+
+        private final OffsetAttribute offsetAtt = addAttribute(OffsetAttribute.class);
+
+        private final KeywordAttribute keywordAtt = addAttribute(KeywordAttribute.class);
+
+        private final BaseFormAttributeImpl baseFormAtt = (BaseFormAttributeImpl) addAttribute(BaseFormAttribute.class);
+
+        private final PartOfSpeechAttributeImpl partOfSpeechAtt = (PartOfSpeechAttributeImpl) addAttribute(PartOfSpeechAttribute.class);
+
+        private final ReadingAttributeImpl readingAtt = (ReadingAttributeImpl) addAttribute(ReadingAttribute.class);
+
+        private final List<String> tokens;
+
+        private int index;
+
+        private int offset;
+
+        public Tokenizer(final List<String> tokens) {
+            this.tokens = tokens;
+        }
+
+        @Override
+        public boolean incrementToken() throws IOException {
+            if (index >= tokens.size()) {
+                return false;
+            }
+            clearAttributes();
+            final String[] fields = tokens.get(index++).split("/", -1);
+            String term = fields[0];
+            if (term.startsWith("!")) {
+                term = term.substring(1);
+                keywordAtt.setKeyword(true);
+            }
+            termAtt.append(term);
+            offsetAtt.setOffset(correctOffset(offset), correctOffset(offset + term.length()));
+            offset += term.length() + 1;
+            baseFormAtt.value = value(fields, 1);
+            partOfSpeechAtt.value = value(fields, 2);
+            readingAtt.value = value(fields, 3);
+            return true;
+        }
+
+        private static String value(final String[] fields, final int i) {
+            return fields.length > i && !fields[i].isEmpty() ? fields[i] : null;
+        }
+
+        @Override
+        public void end() throws IOException {
+            super.end();
+            final int finalOffset = correctOffset(Math.max(0, offset - 1));
+            offsetAtt.setOffset(finalOffset, finalOffset);
+        }
+
+        @Override
+        public void reset() throws IOException {
+            super.reset();
+            index = 0;
+            offset = 0;
+        }
+    }
+}
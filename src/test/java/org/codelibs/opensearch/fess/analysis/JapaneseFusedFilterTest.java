@@ -0,0 +1,106 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.analysis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.core.WhitespaceTokenizer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.analysis.tokenattributes.PositionIncrementAttribute;
+import org.junit.Test;
+
+public class JapaneseFusedFilterTest {
+
+    // 東京/スカイツリー/の/最寄り/駅/は/コンピューター/です/。
+    private static final List<String> TOKENS = List.of( //
+            "東京/東京/名詞-固有名詞-地域-一般/トウキョウ", //
+            "スカイツリー/スカイツリー/名詞-固有名詞-一般/スカイツリー", //
+            "の/の/助詞-格助詞-一般/ノ", //
+            "最寄り/最寄り/名詞-一般/モヨリ", //
+            "行っ/行く/動詞-自立/イッ", //
+            "!コンピューター//名詞-一般/コンピューター", //
+            "サーバー//名詞-一般/", //
+            "です/です/助動詞/デス", //
+            "ます/ます/助動詞/マス");
+
+    @Test
+    public void testBaseFormStopTagsAndStemming() throws IOException {
+        final KuromojiAttributes kuromoji = FakeKuromoji.attributes();
+        assertNotNull(kuromoji);
+        assertEquals(FakeKuromoji.DEFAULT_STOP_TAGS, kuromoji.getDefaultStopTags());
+        assertEquals(List.of("東京/1", "スカイツリ/1", "最寄り/2", "行く/1", "コンピューター/1", "サーバ/1", "end/2"),
+                tokens(kuromoji, FakeKuromoji.DEFAULT_STOP_TAGS, 4, false, false));
+    }
+
+    @Test
+    public void testMinimumLength() throws IOException {
+        assertEquals(List.of("東京/1", "スカイツリー/1", "最寄り/2", "行く/1", "コンピューター/1", "サーバー/1", "end/2"),
+                tokens(FakeKuromoji.attributes(), FakeKuromoji.DEFAULT_STOP_TAGS, 10, false, false));
+    }
+
+    @Test
+    public void testReadingForm() throws IOException {
+        assertEquals(List.of("トウキョウ/1", "スカイツリー/1", "ノ/1", "モヨリ/1", "イッ/1", "コンピューター/1", "サーバ/1", "end/2"),
+                tokens(FakeKuromoji.attributes(), Set.of("助動詞"), 4, true, false));
+        assertEquals(List.of("romaji(トウキョウ)/1", "romaji(スカイツリー)/1", "romaji(ノ)/1", "romaji(モヨリ)/1", "romaji(イッ)/1",
+                "romaji(コンピューター)/1", "romaji(サーバ)/1", "end/2"), tokens(FakeKuromoji.attributes(), Set.of("助動詞"), 4, true, true));
+    }
+
+    @Test
+    public void testNoStopTags() throws IOException {
+        assertEquals(List.of("東京/1", "スカイツリ/1", "の/1", "最寄り/1", "行く/1", "コンピューター/1", "サーバ/1", "です/1", "ます/1", "end/0"),
+                tokens(FakeKuromoji.attributes(), Set.of(), 4, false, false));
+    }
+
+    @Test
+    public void testWithoutKuromoji() throws IOException {
+        final Tokenizer tokenizer = new WhitespaceTokenizer();
+        final TokenStream fused = new JapaneseFusedFilter(tokenizer, null, new PartOfSpeechTags(Set.of("名詞"), false), 4, true, true);
+        assertEquals(List.of("サーバ/1", "コピー/1", "セータ/1", "end/0"), tokens(tokenizer, fused, "サーバー コピー セーター"));
+    }
+
+    private static List<String> tokens(final KuromojiAttributes kuromoji, final Set<String> stopTags, final int minimumLength,
+            final boolean readingForm, final boolean useRomaji) throws IOException {
+        final Tokenizer tokenizer = new FakeKuromoji.Tokenizer(TOKENS);
+        final PartOfSpeechTags tags = new PartOfSpeechTags(stopTags, false);
+        final TokenStream fused = new JapaneseFusedFilter(tokenizer, kuromoji, tags, minimumLength, readingForm, useRomaji);
+        return tokens(tokenizer, fused, "");
+    }
+
+    private static List<String> tokens(final Tokenizer tokenizer, final TokenStream stream, final String text) throws IOException {
+        final CharTermAttribute termAtt = stream.addAttribute(CharTermAttribute.class);
+        final PositionIncrementAttribute posIncAtt = stream.addAttribute(PositionIncrementAttribute.class);
+        final List<String> tokens = new ArrayList<>();
+        tokenizer.setReader(new StringReader(text));
+        stream.reset();
+        while (stream.incrementToken()) {
+            tokens.add(termAtt + "/" + posIncAtt.getPositionIncrement());
+        }
+        stream.end();
+        tokens.add("end/" + posIncAtt.getPositionIncrement());
+        stream.close();
+        return tokens;
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.analysis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.lucene.analysis.CharArraySet;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.core.WhitespaceTokenizer;
+import org.apache.lucene.analysis.miscellaneous.SetKeywordMarkerFilter;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.junit.Test;
+
+public class JapaneseKatakanaStemFilterTest {
+
+    @Test
+    public void testStem() throws IOException {
+        // the expectations of Lucene's TestJapaneseKatakanaStemFilter
+        assertEquals(List.of("コピー", "コーヒ", "タクシ", "パーティ", "パーティ", "センタ"),
+                stem("コピー コーヒー タクシー パーティ パーティー センター", 4));
+    }
+
+    @Test
+    public void testNonKatakana() throws IOException {
+        // hiragana, half-width katakana, mixed scripts and latin are not katakana
+        assertEquals(List.of("あーーー", "ｺﾋﾟｰｰｰ", "ゲームー中", "abcー"), stem("あーーー ｺﾋﾟｰｰｰ ゲームー中 abcー", 1));
+    }
+
+    @Test
+    public void testMinimumLength() throws IOException {
+        assertEquals(List.of("コピ", "コーヒ", ""), stem("コピー コーヒー ー", 1));
+        assertEquals(List.of("コピー", "コーヒー"), stem("コピー コーヒー", 5));
+        assertThrows(IllegalArgumentException.class, () -> new JapaneseKatakanaStemFilter(new WhitespaceTokenizer(), 0));
+    }
+
+    @Test
+    public void testKeyword() throws IOException {
+        final Tokenizer tokenizer = new WhitespaceTokenizer();
+        final CharArraySet keywords = new CharArraySet(List.of("コーヒー"), false);
+        final TokenStream stream = new JapaneseKatakanaStemFilter(new SetKeywordMarkerFilter(tokenizer, keywords), 4);
+        assertEquals(List.of("コーヒー", "センタ"), terms(tokenizer, stream, "コーヒー センター"));
+    }
+
+    private static List<String> stem(final String text, final int minimumLength) throws IOException {
+        final Tokenizer tokenizer = new WhitespaceTokenizer();
+        return terms(tokenizer, new JapaneseKatakanaStemFilter(tokenizer, minimumLength), text);
+    }
+
+    private static List<String> terms(final Tokenizer tokenizer, final TokenStream stream, final String text) throws IOException {
+        final CharTermAttribute termAtt = stream.addAttribute(CharTermAttribute.class);
+        final List<String> terms = new ArrayList<>();
+        tokenizer.setReader(new StringReader(text));
+        stream.reset();
+        while (stream.incrementToken()) {
+            terms.add(termAtt.toString());
+        }
+        stream.end();
+        stream.close();
+        return terms;
+    }
+}
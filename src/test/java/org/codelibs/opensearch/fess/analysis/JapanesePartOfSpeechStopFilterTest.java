@@ -0,0 +1,90 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.analysis;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.core.WhitespaceTokenizer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.analysis.tokenattributes.PositionIncrementAttribute;
+import org.junit.Test;
+
+public class JapanesePartOfSpeechStopFilterTest {
+
+    // 私/は/東京/に/行き/ます/。
+    private static final List<String> TOKENS = List.of( //
+            "私/私/名詞-代名詞-一般/ワタシ", //
+            "は/は/助詞-係助詞/ハ", //
+            "東京/東京/名詞-固有名詞-地域-一般/トウキョウ", //
+            "に/に/助詞-格助詞-一般/ニ", //
+            "行き/行く/動詞-自立/イキ", //
+            "ます/ます/助動詞/マス", //
+            "。/。/記号-句点/。");
+
+    @Test
+    public void testDefaultStopTags() throws IOException {
+        final KuromojiAttributes kuromoji = FakeKuromoji.attributes();
+        assertEquals(List.of("私/1", "は/1", "東京/1", "行き/2", "。/2", "end/0"),
+                tokens(kuromoji, new PartOfSpeechTags(kuromoji.getDefaultStopTags(), false)));
+    }
+
+    @Test
+    public void testExactMatch() throws IOException {
+        assertEquals(List.of("私/1", "は/1", "東京/1", "に/1", "行き/1", "ます/1", "。/1", "end/0"),
+                tokens(FakeKuromoji.attributes(), new PartOfSpeechTags(Set.of("助詞", "記号"), false)));
+    }
+
+    @Test
+    public void testPrefixMatch() throws IOException {
+        assertEquals(List.of("私/1", "東京/2", "行き/2", "ます/1", "end/1"),
+                tokens(FakeKuromoji.attributes(), new PartOfSpeechTags(Set.of("助詞", "記号"), true)));
+    }
+
+    @Test
+    public void testWithoutKuromoji() throws IOException {
+        final Tokenizer tokenizer = new WhitespaceTokenizer();
+        final TokenStream filter = new JapanesePartOfSpeechStopFilter(tokenizer, null, new PartOfSpeechTags(Set.of("名詞"), true));
+        assertEquals(List.of("東京/1", "駅/1", "end/0"), tokens(tokenizer, filter, "東京 駅"));
+    }
+
+    private static List<String> tokens(final KuromojiAttributes kuromoji, final PartOfSpeechTags stopTags) throws IOException {
+        final Tokenizer tokenizer = new FakeKuromoji.Tokenizer(TOKENS);
+        return tokens(tokenizer, new JapanesePartOfSpeechStopFilter(tokenizer, kuromoji, stopTags), "");
+    }
+
+    private static List<String> tokens(final Tokenizer tokenizer, final TokenStream stream, final String text) throws IOException {
+        final CharTermAttribute termAtt = stream.addAttribute(CharTermAttribute.class);
+        final PositionIncrementAttribute posIncAtt = stream.addAttribute(PositionIncrementAttribute.class);
+        final List<String> tokens = new ArrayList<>();
+        tokenizer.setReader(new StringReader(text));
+        stream.reset();
+        while (stream.incrementToken()) {
+            tokens.add(termAtt + "/" + posIncAtt.getPositionIncrement());
+        }
+        stream.end();
+        tokens.add("end/" + posIncAtt.getPositionIncrement());
+        stream.close();
+        return tokens;
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.analysis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.core.WhitespaceTokenizer;
+import org.apache.lucene.analysis.ja.JapaneseTokenizer;
+import org.apache.lucene.analysis.ja.dict.ToStringUtil;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.junit.Test;
+
+public class JapaneseReadingFormFilterTest {
+
+    private static final List<String> TOKENS = List.of( //
+            "東京/東京/名詞-固有名詞-地域-一般/トウキョウ", //
+            "の/の/助詞-連体化/ノ", //
+            "喫茶/喫茶/名詞-サ変接続/キッサ", //
+            "東京/東京/名詞-固有名詞-地域-一般/トウキョウ", //
+            "サーバー//名詞-一般/", //
+            "ABC//名詞-一般/");
+
+    private static final RomajiConverter HEPBURN = RomajiConverter.get(RomajiConverter.Type.HEPBURN);
+
+    @Test
+    public void testKatakanaReading() throws IOException {
+        assertEquals(List.of("トウキョウ", "ノ", "キッサ", "トウキョウ", "サーバー", "ABC"), terms(FakeKuromoji.attributes(), null, 0));
+    }
+
+    @Test
+    public void testRomaji() throws IOException {
+        final List<String> expected = romanize("トウキョウ", "ノ", "キッサ", "トウキョウ", "サーバー", "ABC");
+        assertEquals(expected, terms(FakeKuromoji.attributes(), HEPBURN, 0));
+        assertEquals(expected, terms(FakeKuromoji.attributes(), HEPBURN, 256));
+        // every word evicts the previous one
+        assertEquals(expected, terms(FakeKuromoji.attributes(), HEPBURN, 1));
+        assertEquals(List.of("tôkyô", "no", "kissa", "tôkyô", "saba", "ABC"),
+                terms(FakeKuromoji.attributes(), RomajiConverter.get(RomajiConverter.Type.KUNREI), 16));
+    }
+
+    @Test
+    public void testLongWords() throws IOException {
+        final String word = "シ".repeat(JapaneseReadingFormFilter.MAX_CACHED_LENGTH * 2);
+        final Tokenizer tokenizer = new WhitespaceTokenizer();
+        final TokenStream stream = new JapaneseReadingFormFilter(tokenizer, null, HEPBURN, 16);
+        assertEquals(romanize(word, "ア", word), terms(tokenizer, stream, word + " ア " + word));
+    }
+
+    @Test
+    public void testWithoutKuromoji() throws IOException {
+        final Tokenizer tokenizer = new WhitespaceTokenizer();
+        final TokenStream stream = new JapaneseReadingFormFilter(tokenizer, null, HEPBURN, 16);
+        assertEquals(romanize("コンピューター", "ja", "東京"), terms(tokenizer, stream, "コンピューター ja 東京"));
+    }
+
+    /**
+     * Compares the native filter with the reading form filter of Kuromoji,
+     * over the tokens of the Kuromoji tokenizer.
+     */
+    @Test
+    public void testParityWithKuromoji() throws IOException {
+        final KuromojiAttributes kuromoji = KuromojiAttributes.load(RomajiConverterTest::loadClass);
+        assertNotNull("Kuromoji is not on the test class path", kuromoji);
+        final String text = "東京スカイツリーの近くでラーメンを食べた。コンピューターとABCのパーティーは北海道で、牛乳と抹茶を飲んだ。"
+                + "新聞社の前で禁煙の看板を見た。ニューヨークのスーパーマーケットでケーキを買う。";
+        for (final boolean useRomaji : new boolean[] { false, true }) {
+            final Tokenizer expectedTokenizer = new JapaneseTokenizer(null, true, JapaneseTokenizer.Mode.SEARCH);
+            final TokenStream expected = new org.apache.lucene.analysis.ja.JapaneseReadingFormFilter(expectedTokenizer, useRomaji);
+            final Tokenizer actualTokenizer = new JapaneseTokenizer(null, true, JapaneseTokenizer.Mode.SEARCH);
+            final TokenStream actual = new JapaneseReadingFormFilter(actualTokenizer, kuromoji, useRomaji ? HEPBURN : null, 16);
+            assertEquals(terms(expectedTokenizer, expected, text), terms(actualTokenizer, actual, text));
+        }
+    }
+
+    /**
+     * Returns the romanization of Kuromoji of each of {@code words}.
+     */
+    private static List<String> romanize(final String... words) throws IOException {
+        final List<String> romaji = new ArrayList<>();
+        for (final String word : words) {
+            final StringBuilder builder = new StringBuilder();
+            ToStringUtil.getRomanization(builder, word);
+            romaji.add(builder.toString());
+        }
+        return romaji;
+    }
+
+    private static List<String> terms(final KuromojiAttributes kuromoji, final RomajiConverter romaji, final int cacheSize)
+            throws IOException {
+        final Tokenizer tokenizer = new FakeKuromoji.Tokenizer(TOKENS);
+        return terms(tokenizer, new JapaneseReadingFormFilter(tokenizer, kuromoji, romaji, cacheSize), "");
+    }
+
+    private static List<String> terms(final Tokenizer tokenizer, final TokenStream stream, final String text) throws IOException {
+        final CharTermAttribute termAtt = stream.addAttribute(CharTermAttribute.class);
+        final List<String> terms = new ArrayList<>();
+        tokenizer.setReader(new StringReader(text));
+        stream.reset();
+        while (stream.incrementToken()) {
+            terms.add(termAtt.toString());
+        }
+        stream.end();
+        stream.close();
+        return terms;
+    }
+}
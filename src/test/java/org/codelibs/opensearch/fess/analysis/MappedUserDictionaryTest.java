@@ -0,0 +1,95 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.analysis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MappedUserDictionaryTest {
+
+    static final String RULES = String.join("\n", //
+            "# custom entries", //
+            "関西国際空港,関西 国際 空港,カンサイ コクサイ クウコウ,カスタム名詞", //
+            "関西,関西,カンサイ,カスタム名詞", //
+            "\"Fess,検索\",\"Fess,検索\",フェスケンサク,カスタム名詞", //
+            "", //
+            "関西,関 西,カン サイ,カスタム名詞");
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void testLookup() throws IOException {
+        final MappedUserDictionary dictionary = compile(RULES);
+        assertEquals(3, dictionary.size());
+
+        final char[] chars = "関西国際空港へ".toCharArray();
+        final long match = dictionary.longestMatch(chars, 0, chars.length);
+        assertEquals(6, (int) match);
+        final int id = (int) (match >>> 32);
+        assertEquals(3, dictionary.getSegmentCount(id));
+        assertEquals(2, dictionary.getSegmentLength(id, 0));
+        assertEquals(2, dictionary.getSegmentLength(id, 2));
+
+        // the first entry of a surface form wins
+        final long shorter = dictionary.longestMatch(chars, 0, 4);
+        assertEquals(2, (int) shorter);
+        assertEquals(1, dictionary.getSegmentCount((int) (shorter >>> 32)));
+
+        final char[] quoted = "Fess,検索".toCharArray();
+        assertEquals(quoted.length, (int) dictionary.longestMatch(quoted, 0, quoted.length));
+        assertEquals(-1, dictionary.longestMatch(chars, 1, chars.length - 1));
+    }
+
+    @Test
+    public void testReopen() throws IOException {
+        final Path file = tmp.getRoot().toPath().resolve("test.dic");
+        MappedUserDictionary.compile(new StringReader(RULES), file);
+        final MappedUserDictionary dictionary = MappedUserDictionary.open(file);
+        assertEquals(Files.size(file), dictionary.getSizeInBytes());
+        assertEquals(3, MappedUserDictionary.open(file).size());
+        // no temporary file is left
+        try (var files = Files.list(tmp.getRoot().toPath())) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    public void testIllegalEntries() throws IOException {
+        assertThrows(IllegalArgumentException.class, () -> compile("関西国際空港,関西 国際,カンサイ コクサイ クウコウ,カスタム名詞"));
+        assertThrows(IllegalArgumentException.class, () -> compile("関西国際空港,関西 国際,カンサイ コクサイ,カスタム名詞"));
+        assertThrows(IllegalArgumentException.class, () -> compile("関西国際空港,関西国際空港"));
+
+        final Path file = tmp.newFile("broken.dic").toPath();
+        Files.write(file, new byte[] { 0, 1, 2, 3 });
+        assertThrows(IllegalArgumentException.class, () -> MappedUserDictionary.open(file));
+    }
+
+    private MappedUserDictionary compile(final String rules) throws IOException {
+        final Path file = tmp.newFolder().toPath().resolve("user.dic");
+        MappedUserDictionary.compile(new StringReader(rules), file);
+        return MappedUserDictionary.open(file);
+    }
+}
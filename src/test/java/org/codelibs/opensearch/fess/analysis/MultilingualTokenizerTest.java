@@ -0,0 +1,212 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.analysis;
+
+import static org.codelibs.opensearch.fess.analysis.TokenizerTestHelper.tokens;
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.analysis.tokenattributes.OffsetAttribute;
+import org.apache.lucene.analysis.tokenattributes.PositionIncrementAttribute;
+import org.apache.lucene.analysis.tokenattributes.TypeAttribute;
+import org.codelibs.opensearch.fess.analysis.MultilingualTokenizer.Language;
+import org.codelibs.opensearch.fess.analysis.TokenizerTestHelper.TokenFormat;
+import org.junit.Test;
+
+public class MultilingualTokenizerTest {
+
+    private static final TokenFormat FORMAT = source -> {
+        final TypeAttribute typeAtt = source.addAttribute(TypeAttribute.class);
+        final Supplier<String> token = TokenizerTestHelper.TERM_OFFSETS.bind(source);
+        return () -> typeAtt.type() + ":" + token.get();
+    };
+
+    @Test
+    public void testRouting() throws IOException {
+        final MultilingualTokenizer tokenizer = newTokenizer(Language.ZH);
+        assertEquals(List.of("ja:東京タワーに行った。:0-10", "ko:서울에 갔다.:10-17", "vi:Hà Nội là thủ đô:18-34"),
+                tokens(tokenizer, "東京タワーに行った。서울에 갔다. Hà Nội là thủ đô", FORMAT));
+        // a Latin run without Vietnamese letters
+        assertEquals(List.of("other:Tokyo Tower:0-11", "ja:に行った:11-15"), tokens(tokenizer, "Tokyo Towerに行った", FORMAT));
+    }
+
+    @Test
+    public void testLatinWords() throws IOException {
+        final MultilingualTokenizer tokenizer = newTokenizer(Language.ZH);
+        // words that may be Vietnamese syllables go with the words around them
+        assertEquals(List.of("other:Hello:0-5", "vi:Hà Nội:6-12"), tokens(tokenizer, "Hello Hà Nội", FORMAT));
+        assertEquals(List.of("vi:Tôi yêu Hà Nội:0-14", "other:and Paris:15-24"), tokens(tokenizer, "Tôi yêu Hà Nội and Paris", FORMAT));
+        assertEquals(List.of("other:Search with Fess:0-16", "vi:Tìm kiếm:17-25", "other:full text:26-35"),
+                tokens(tokenizer, "Search with Fess Tìm kiếm full text", FORMAT));
+        // decomposed marks stay in their word
+        assertEquals(List.of("other:OpenSearch:0-10", "vi:Vie\u0323\u0302t Nam:11-21".translateEscapes()),
+                tokens(tokenizer, "OpenSearch Vie\u0323\u0302t Nam".translateEscapes(), FORMAT));
+        // without Vietnamese-specific letters, a run is not Vietnamese
+        assertEquals(List.of("other:ban an com:0-10"), tokens(tokenizer, "ban an com", FORMAT));
+    }
+
+    @Test
+    public void testHanOnlyRuns() throws IOException {
+        // no Kana seen yet, so Han goes to hanLanguage
+        assertEquals(List.of("zh:北京大学:0-4"), tokens(newTokenizer(Language.ZH), "北京大学", FORMAT));
+        assertEquals(List.of("ja:北京大学:0-4"), tokens(newTokenizer(Language.JA), "北京大学", FORMAT));
+        // after Kana, Han-only runs are Japanese
+        assertEquals(List.of("ja:これは:0-3", "other:Fess:4-8", "ja:全文検索:9-13"),
+                tokens(newTokenizer(Language.ZH), "これは Fess 全文検索", FORMAT));
+    }
+
+    @Test
+    public void testVariationSelector() throws IOException {
+        // an ideographic variation selector stays in the Han run
+        assertEquals(List.of("ja:葛󠄀城市:0-5"), tokens(newTokenizer(Language.JA), "葛󠄀城市", FORMAT));
+    }
+
+    @Test
+    public void testDefaultTokenizer() throws IOException {
+        final Map<Language, Tokenizer> tokenizers = new EnumMap<>(Language.class);
+        tokenizers.put(Language.KO, new RunTokenizer("ko"));
+        final MultilingualTokenizer tokenizer = new MultilingualTokenizer(tokenizers, new CJKBigramTokenizer(), Language.ZH);
+        assertEquals(List.of("<DOUBLE>:日本:0-2", "ko:한국:2-4", "<ALPHANUM>:abc:5-8"), tokens(tokenizer, "日本한국 abc", FORMAT));
+    }
+
+    @Test
+    public void testPositions() throws IOException {
+        final Map<Language, Tokenizer> tokenizers = new EnumMap<>(Language.class);
+        final MultilingualTokenizer tokenizer = new MultilingualTokenizer(tokenizers, new CJKBigramTokenizer(), Language.ZH);
+        final PositionIncrementAttribute posIncAtt = tokenizer.addAttribute(PositionIncrementAttribute.class);
+        tokenizer.setReader(new StringReader("日本 abc 한국"));
+        tokenizer.reset();
+        int position = -1;
+        int count = 0;
+        while (tokenizer.incrementToken()) {
+            position += posIncAtt.getPositionIncrement();
+            assertEquals(count++, position);
+        }
+        tokenizer.end();
+        tokenizer.close();
+        assertEquals(3, count);
+    }
+
+    @Test
+    public void testReuse() throws IOException {
+        final MultilingualTokenizer tokenizer = newTokenizer(Language.ZH);
+        assertEquals(List.of("ko:한국:0-2"), tokens(tokenizer, "한국", FORMAT));
+        assertEquals(List.of("zh:中国:0-2"), tokens(tokenizer, "中国", FORMAT));
+        assertEquals(List.of(), tokens(tokenizer, "", FORMAT));
+
+        final StringBuilder buf = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            buf.append("テスト ");
+        }
+        final List<String> tokens = tokens(tokenizer, buf.toString(), FORMAT);
+        assertEquals(1, tokens.size());
+        assertEquals("ja:" + buf.toString().trim() + ":0-" + (buf.length() - 1), tokens.get(0));
+    }
+
+    @Test
+    public void testLongRuns() throws IOException {
+        final MultilingualTokenizer tokenizer = newTokenizer(Language.ZH);
+        // split after the last space within the limit
+        final String sentence = "東京タワーに行った ";
+        final String text = sentence.repeat(MultilingualTokenizer.MAX_RUN_LENGTH / sentence.length() + 1);
+        final int split = MultilingualTokenizer.MAX_RUN_LENGTH / sentence.length() * sentence.length();
+        assertEquals(List.of("ja:" + text.substring(0, split).trim() + ":0-" + (split - 1),
+                "ja:" + text.substring(split).trim() + ":" + split + "-" + (text.length() - 1)), tokens(tokenizer, text, FORMAT));
+
+        // split at the limit without a space, and the next piece is routed on its own
+        final int max = MultilingualTokenizer.MAX_RUN_LENGTH;
+        final String han = "北京大学".repeat(max / 4) + "北京";
+        assertEquals(List.of("zh:" + han.substring(0, max) + ":0-" + max, "zh:北京:" + max + "-" + han.length(),
+                "ko:서울:" + han.length() + "-" + (han.length() + 2)), tokens(tokenizer, han + "서울", FORMAT));
+
+        // split after the last space before the buffer was refilled within the run
+        final String hangul = "서".repeat(max + 1000);
+        final String words = "abc ".repeat(500);
+        final String letters = "x".repeat(3000);
+        final int start = hangul.length();
+        assertEquals(List.of("ko:" + hangul.substring(0, max) + ":0-" + max, "ko:" + hangul.substring(max) + ":" + max + "-" + start,
+                "other:" + words.trim() + ":" + start + "-" + (start + words.length() - 1),
+                "other:" + letters + ":" + (start + words.length()) + "-" + (start + words.length() + letters.length())),
+                tokens(tokenizer, hangul + words + letters, FORMAT));
+    }
+
+    private static MultilingualTokenizer newTokenizer(final Language hanLanguage) {
+        final Map<Language, Tokenizer> tokenizers = new EnumMap<>(Language.class);
+        for (final Language language : Language.values()) {
+            tokenizers.put(language, new RunTokenizer(language.name().toLowerCase()));
+        }
+        return new MultilingualTokenizer(tokenizers, null, hanLanguage);
+    }
+
+    /**
+     * Emits the whole run, without surrounding spaces, as one token typed with its language.
+     */
+    private static final class RunTokenizer extends Tokenizer {
+
+        private final CharTermAttribute termAtt = addAttribute(CharTermAttribute.class);
+
+        private final OffsetAttribute offsetAtt = addAttribute(OffsetAttribute.class);
+
+        private final TypeAttribute typeAtt = addAttribute(TypeAttribute.class);
+
+        private final String language;
+
+        private boolean done;
+
+        RunTokenizer(final String language) {
+            this.language = language;
+        }
+
+        @Override
+        public boolean incrementToken() throws IOException {
+            if (done) {
+                return false;
+            }
+            done = true;
+            clearAttributes();
+            final StringBuilder buf = new StringBuilder();
+            final char[] chars = new char[64];
+            int len;
+            while ((len = input.read(chars)) != -1) {
+                buf.append(chars, 0, len);
+            }
+            final String text = buf.toString();
+            final String trimmed = text.trim();
+            if (trimmed.isEmpty()) {
+                return false;
+            }
+            final int start = text.indexOf(trimmed);
+            termAtt.append(trimmed);
+            offsetAtt.setOffset(correctOffset(start), correctOffset(start + trimmed.length()));
+            typeAtt.setType(language);
+            return true;
+        }
+
+        @Override
+        public void reset() throws IOException {
+            super.reset();
+            done = false;
+        }
+    }
+}
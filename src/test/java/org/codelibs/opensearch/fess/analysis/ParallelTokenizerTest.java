@@ -0,0 +1,153 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.analysis;
+
+import static org.codelibs.opensearch.fess.analysis.TokenizerTestHelper.tokens;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.core.WhitespaceTokenizer;
+import org.apache.lucene.analysis.tokenattributes.OffsetAttribute;
+import org.apache.lucene.analysis.tokenattributes.PositionIncrementAttribute;
+import org.apache.lucene.analysis.tokenattributes.TypeAttribute;
+import org.codelibs.opensearch.fess.analysis.TokenizerTestHelper.TokenFormat;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class ParallelTokenizerTest {
+
+    private static final TokenFormat FORMAT = source -> {
+        final Supplier<String> token = TokenizerTestHelper.TERM_OFFSETS.bind(source);
+        final PositionIncrementAttribute posIncAtt = source.addAttribute(PositionIncrementAttribute.class);
+        return () -> token.get() + "+" + posIncAtt.getPositionIncrement();
+    };
+
+    private static ExecutorService executor;
+
+    @BeforeClass
+    public static void setUp() {
+        executor = Executors.newFixedThreadPool(3);
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    public void testSameTokensAsChunked() throws IOException {
+        final StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            text.append("全文检索系统。Fess version ").append(i).append(" finds 3.14 documents! ");
+            if (i % 7 == 0) {
+                text.append('\n');
+            }
+        }
+        for (final int segmentSize : new int[] { 64, 100, 1000, 100000 }) {
+            final List<String> expected =
+                    tokens(new ChunkedTokenizer(new CJKBigramTokenizer(), segmentSize), text.toString(), FORMAT);
+            for (final int maxSegments : new int[] { 1, 2, 5 }) {
+                assertEquals(expected, tokens(new ParallelTokenizer(CJKBigramTokenizer::new, executor, segmentSize, maxSegments),
+                        text.toString(), FORMAT));
+                assertEquals(expected, tokens(new ParallelTokenizer(CJKBigramTokenizer::new, null, segmentSize, maxSegments),
+                        text.toString(), FORMAT));
+            }
+        }
+    }
+
+    @Test
+    public void testSegmentBoundaries() throws IOException {
+        assertEquals(List.of("a:0-1+1", "b.:2-4+1", "3.14:5-9+1", "c:10-11+1"),
+                tokens(new ParallelTokenizer(WhitespaceTokenizer::new, executor, 10, 2), "a b. 3.14 c", FORMAT));
+        assertEquals(List.of("abcd:0-4+1", "efgh:4-8+1", "ij:8-10+1"),
+                tokens(new ParallelTokenizer(WhitespaceTokenizer::new, executor, 4, 2), "abcdefghij", FORMAT));
+        assertEquals(List.of(), tokens(new ParallelTokenizer(WhitespaceTokenizer::new, executor, 4, 2), "", FORMAT));
+        assertThrows(IllegalArgumentException.class, () -> new ParallelTokenizer(WhitespaceTokenizer::new, executor, 0, 2));
+        assertThrows(IllegalArgumentException.class, () -> new ParallelTokenizer(WhitespaceTokenizer::new, executor, 4, 0));
+    }
+
+    @Test
+    public void testDelegatesPerSegment() throws IOException {
+        final AtomicInteger created = new AtomicInteger();
+        final ParallelTokenizer tokenizer = new ParallelTokenizer(() -> {
+            created.incrementAndGet();
+            return new WhitespaceTokenizer();
+        }, executor, 4, 3);
+        assertEquals(1, created.get());
+        // a single segment needs no more delegates
+        assertEquals(List.of("ab:0-2+1"), tokens(tokenizer, "ab", FORMAT));
+        assertEquals(1, created.get());
+        assertEquals(List.of("aaa:0-3+1", "bbb:4-7+1", "ccc:8-11+1", "ddd:12-15+1", "eee:16-19+1"),
+                tokens(tokenizer, "aaa bbb ccc ddd eee", FORMAT));
+        assertEquals(3, created.get());
+    }
+
+    @Test
+    public void testRejectedSegmentsRunOnCaller() throws IOException {
+        final List<String> expected =
+                tokens(new ChunkedTokenizer(new WhitespaceTokenizer(), 8), "one two three four five six seven", FORMAT);
+        assertEquals(expected, tokens(new ParallelTokenizer(WhitespaceTokenizer::new, command -> {
+            throw new RejectedExecutionException();
+        }, 8, 4), "one two three four five six seven", FORMAT));
+    }
+
+    @Test
+    public void testFailure() {
+        final AtomicInteger created = new AtomicInteger();
+        final ParallelTokenizer tokenizer = new ParallelTokenizer(() -> {
+            if (created.incrementAndGet() == 1) {
+                return new WhitespaceTokenizer();
+            }
+            return new Tokenizer() {
+                @Override
+                public boolean incrementToken() throws IOException {
+                    throw new IOException("broken");
+                }
+            };
+        }, executor, 4, 2);
+        final IOException e = assertThrows(IOException.class, () -> tokens(tokenizer, "aaa bbb ccc", FORMAT));
+        assertEquals("broken", e.getMessage());
+    }
+
+    @Test
+    public void testReuseAndEnd() throws IOException {
+        final ParallelTokenizer tokenizer = new ParallelTokenizer(WhitespaceTokenizer::new, executor, 8, 2);
+        assertEquals(List.of("one:0-3+1", "two:4-7+1", "three:8-13+1"), tokens(tokenizer, "one two three", FORMAT));
+        assertEquals(List.of("four:0-4+1"), tokens(tokenizer, "four", FORMAT));
+
+        final OffsetAttribute offsetAtt = tokenizer.addAttribute(OffsetAttribute.class);
+        final TypeAttribute typeAtt = tokenizer.addAttribute(TypeAttribute.class);
+        tokenizer.setReader(new StringReader("five six seven eight nine  "));
+        tokenizer.reset();
+        while (tokenizer.incrementToken()) {
+            assertEquals("word", typeAtt.type());
+        }
+        tokenizer.end();
+        assertEquals(27, offsetAtt.endOffset());
+        tokenizer.close();
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.analysis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class PartOfSpeechTagsTest {
+
+    @Test
+    public void testExactMatch() {
+        final PartOfSpeechTags.Matcher matcher = new PartOfSpeechTags(Set.of("助詞-格助詞", "助動詞"), false).matcher();
+        assertTrue(matcher.isStop("助詞-格助詞"));
+        assertTrue(matcher.isStop("助動詞"));
+        // like Kuromoji, a tag does not match its descendants or ancestors
+        assertFalse(matcher.isStop("助詞-格助詞-一般"));
+        assertFalse(matcher.isStop("助詞"));
+        assertFalse(matcher.isStop("名詞-一般"));
+        assertFalse(matcher.isStop(null));
+    }
+
+    @Test
+    public void testPrefixMatch() {
+        final PartOfSpeechTags tags = new PartOfSpeechTags(Set.of("助詞-格助詞", "記号"), true);
+        assertTrue(tags.isPrefixMatch());
+        final PartOfSpeechTags.Matcher matcher = tags.matcher();
+        assertTrue(matcher.isStop("助詞-格助詞"));
+        assertTrue(matcher.isStop("助詞-格助詞-一般"));
+        assertTrue(matcher.isStop("助詞-格助詞-連語"));
+        assertTrue(matcher.isStop("記号-句点"));
+        assertFalse(matcher.isStop("助詞"));
+        assertFalse(matcher.isStop("助詞-係助詞"));
+        assertFalse(matcher.isStop("助詞-格助詞以外"));
+        assertFalse(matcher.isStop("名詞"));
+    }
+
+    @Test
+    public void testEqualStringsOfDifferentInstances() {
+        final PartOfSpeechTags.Matcher matcher = new PartOfSpeechTags(Set.of("助動詞"), false).matcher();
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(matcher.isStop(new String("助動詞")));
+            assertFalse(matcher.isStop(new String("名詞-" + i)));
+        }
+    }
+
+    @Test
+    public void testManyTags() {
+        final List<String> stopTags = new ArrayList<>();
+        for (int i = 0; i < 200; i += 2) {
+            stopTags.add("名詞-" + i);
+        }
+        final PartOfSpeechTags.Matcher matcher = new PartOfSpeechTags(stopTags, false).matcher();
+        for (int i = 0; i < 200; i++) {
+            assertEquals(i % 2 == 0, matcher.isStop("名詞-" + i));
+        }
+        assertFalse(matcher.isStop("名詞"));
+    }
+
+    @Test
+    public void testEmpty() {
+        assertTrue(PartOfSpeechTags.EMPTY.isEmpty());
+        assertFalse(PartOfSpeechTags.EMPTY.matcher().isStop("助詞"));
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.analysis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertThrows;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.lucene.analysis.ja.dict.ToStringUtil;
+import org.junit.Test;
+
+public class RomajiConverterTest {
+
+    // words whose romaji the delegate engine has to agree with
+    private static final List<String> WORDS = List.of("トウキョウ", "スカイツリー", "コンピューター", "ガッコウ", "マッチャ", "キンエン", "シンヨウ",
+            "ジュウドウ", "ティッシュ", "フィルム", "ヴァイオリン", "シンブンシャ", "チズ", "フジサン", "ホッカイドウ", "ニッポン", "オオサカ", "ギュウニュウ",
+            "ジェット", "ウォーター", "ファイル", "デュエット", "ツァー", "クァルテット", "ヂャ", "ヅツ", "ヲ", "ン", "ッ", "ー", "アッ", "ABC", "東京",
+            "ラーメン", "ニューヨーク", "パーティー", "センイン", "ハンノウ", "ホンヤ", "タンイ", "オオキイ", "エイガ", "ケーキ", "スーパーマーケット", "",
+            "ABCー", "東京エ", "アッア", "ンン", "オウ・オー", "ヵヶ", "クウコウ", "キョウト", "フィェ", "ヴィェ");
+
+    // the first and last chars of the katakana block
+    private static final char KATAKANA_FIRST = '゠';
+
+    private static final char KATAKANA_LAST = 'ヿ';
+
+    @Test
+    public void testKunrei() {
+        final RomajiConverter converter = RomajiConverter.get(RomajiConverter.Type.KUNREI);
+        assertEquals("tôkyô", convert(converter, "トウキョウ"));
+        assertEquals("sukaituri", convert(converter, "スカイツリー"));
+        assertEquals("mattya", convert(converter, "マッチャ"));
+        assertEquals("kin'en", convert(converter, "キンエン"));
+        assertEquals("sinbunsya", convert(converter, "シンブンシャ"));
+        assertEquals("tizu", convert(converter, "チズ"));
+        assertEquals("huzisan", convert(converter, "フジサン"));
+        assertEquals("zyûdô", convert(converter, "ジュウドウ"));
+        assertEquals("kyôto", convert(converter, "キョウト"));
+        assertEquals("sinbun", convert(converter, "シンブン"));
+        assertEquals("sin'yô", convert(converter, "シンヨウ"));
+    }
+
+    @Test
+    public void testMaxLength() {
+        for (final RomajiConverter.Type type : RomajiConverter.Type.values()) {
+            final RomajiConverter converter = RomajiConverter.get(type);
+            for (final String word : WORDS) {
+                final char[] dst = new char[RomajiConverter.maxLength(word.length())];
+                converter.convert(word.toCharArray(), word.length(), dst);
+            }
+        }
+    }
+
+    @Test
+    public void testType() {
+        assertEquals(RomajiConverter.Type.HEPBURN, RomajiConverter.Type.of("hepburn"));
+        assertEquals(RomajiConverter.Type.KUNREI, RomajiConverter.Type.of("KUNREI"));
+        assertEquals("kunrei", RomajiConverter.Type.KUNREI.toString());
+        assertThrows(IllegalArgumentException.class, () -> RomajiConverter.Type.of("nihon"));
+    }
+
+    /**
+     * Compares the native engine with the romanization of Kuromoji, looked up
+     * by name as the filter factories do.
+     */
+    @Test
+    public void testParityWithKuromoji() throws Exception {
+        final KuromojiAttributes kuromoji = KuromojiAttributes.load(RomajiConverterTest::loadClass);
+        assertNotNull("Kuromoji is not on the test class path", kuromoji);
+        final RomajiConverter converter = RomajiConverter.get(RomajiConverter.Type.HEPBURN);
+        for (final String word : WORDS) {
+            final StringBuilder expected = new StringBuilder();
+            kuromoji.getRomanization(expected, word);
+            assertEquals(word, expected.toString(), convert(converter, word));
+        }
+    }
+
+    /**
+     * Compares the native engine with {@link ToStringUtil} over every string
+     * of up to three chars of the katakana block, which covers all the
+     * lookahead of both.
+     */
+    @Test
+    public void testParityWithKuromojiOverAllKana() throws Exception {
+        final RomajiConverter converter = RomajiConverter.get(RomajiConverter.Type.HEPBURN);
+        final char[] text = new char[3];
+        final StringBuilder expected = new StringBuilder();
+        final char[] dst = new char[RomajiConverter.maxLength(text.length)];
+        for (int length = 1; length <= text.length; length++) {
+            Arrays.fill(text, KATAKANA_FIRST);
+            while (true) {
+                final String word = new String(text, 0, length);
+                expected.setLength(0);
+                ToStringUtil.getRomanization(expected, word);
+                final String actual = new String(dst, 0, converter.convert(text, length, dst));
+                if (!expected.toString().equals(actual)) {
+                    assertEquals(word, expected.toString(), actual);
+                }
+                int i = length - 1;
+                while (i >= 0 && text[i] == KATAKANA_LAST) {
+                    text[i--] = KATAKANA_FIRST;
+                }
+                if (i < 0) {
+                    break;
+                }
+                text[i]++;
+            }
+        }
+    }
+
+    static Class<?> loadClass(final String name) {
+        try {
+            return Class.forName(name);
+        } catch (final ClassNotFoundException e) {
+            return null;
+        }
+    }
+
+    private static String convert(final RomajiConverter converter, final String text) {
+        final char[] dst = new char[RomajiConverter.maxLength(text.length())];
+        return new String(dst, 0, converter.convert(text.toCharArray(), text.length(), dst));
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.analysis;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.analysis.tokenattributes.OffsetAttribute;
+import org.apache.lucene.util.AttributeSource;
+
+/**
+ * Runs text through a tokenizer and returns its tokens as strings, checking
+ * the final offset that {@code end()} sets.
+ */
+public final class TokenizerTestHelper {
+
+    /**
+     * Formats the tokens of a tokenizer. It adds the attributes it reads
+     * before the stream starts, and returns the formatter of the current token.
+     */
+    @FunctionalInterface
+    public interface TokenFormat {
+        Supplier<String> bind(AttributeSource source);
+    }
+
+    public static final TokenFormat TERM = source -> {
+        final CharTermAttribute termAtt = source.addAttribute(CharTermAttribute.class);
+        return termAtt::toString;
+    };
+
+    public static final TokenFormat TERM_OFFSETS = source -> {
+        final CharTermAttribute termAtt = source.addAttribute(CharTermAttribute.class);
+        final OffsetAttribute offsetAtt = source.addAttribute(OffsetAttribute.class);
+        return () -> termAtt + ":" + offsetAtt.startOffset() + "-" + offsetAtt.endOffset();
+    };
+
+    private TokenizerTestHelper() {
+    }
+
+    /**
+     * Returns the tokens of {@code text} as {@code term:start-end}.
+     */
+    public static List<String> tokens(final Tokenizer tokenizer, final String text) throws IOException {
+        return tokens(tokenizer, text, TERM_OFFSETS);
+    }
+
+    public static List<String> tokens(final Tokenizer tokenizer, final String text, final TokenFormat format) throws IOException {
+        return tokens(tokenizer, new StringReader(text), text.length(), format);
+    }
+
+    /**
+     * Returns the tokens of {@code input}, which is {@code length} chars long
+     * after char filtering is undone, formatted by {@code format}.
+     */
+    public static List<String> tokens(final Tokenizer tokenizer, final Reader input, final int length, final TokenFormat format)
+            throws IOException {
+        final Supplier<String> token = format.bind(tokenizer);
+        final OffsetAttribute offsetAtt = tokenizer.addAttribute(OffsetAttribute.class);
+        final List<String> tokens = new ArrayList<>();
+        tokenizer.setReader(input);
+        try {
+            tokenizer.reset();
+            while (tokenizer.incrementToken()) {
+                tokens.add(token.get());
+            }
+            tokenizer.end();
+            assertEquals(length, offsetAtt.endOffset());
+        } finally {
+            tokenizer.close();
+        }
+        return tokens;
+    }
+}
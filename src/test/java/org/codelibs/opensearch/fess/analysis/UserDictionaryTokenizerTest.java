@@ -0,0 +1,102 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.analysis;
+
+import static org.codelibs.opensearch.fess.analysis.TokenizerTestHelper.TERM_OFFSETS;
+import static org.codelibs.opensearch.fess.analysis.TokenizerTestHelper.tokens;
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.apache.lucene.analysis.Tokenizer;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class UserDictionaryTokenizerTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    private MappedUserDictionary dictionary;
+
+    @Before
+    public void setUp() throws IOException {
+        final Path file = tmp.getRoot().toPath().resolve("user.dic");
+        MappedUserDictionary.compile(new StringReader(MappedUserDictionaryTest.RULES), file);
+        dictionary = MappedUserDictionary.open(file);
+    }
+
+    @Test
+    public void testSegmentation() throws IOException {
+        final Tokenizer tokenizer = new UserDictionaryTokenizer(new CJKBigramTokenizer(), dictionary);
+        assertEquals(List.of("関西:0-2", "国際:2-4", "空港:4-6", "に行:6-8", "行く:7-9"), tokens(tokenizer, "関西国際空港に行く"));
+        assertEquals(List.of("大阪:0-2", "阪か:1-3", "から:2-4", "関西:4-6", "国際:6-8", "空港:8-10"), tokens(tokenizer, "大阪から関西国際空港"));
+        assertEquals(List.of("関西:0-2", "関西:2-4", "国際:4-6", "空港:6-8"), tokens(tokenizer, "関西関西国際空港"));
+        assertEquals(List.of("東京:0-2"), tokens(tokenizer, "東京"));
+        assertEquals(List.of(), tokens(tokenizer, ""));
+    }
+
+    @Test
+    public void testLongInput() throws IOException {
+        final Tokenizer tokenizer = new UserDictionaryTokenizer(new CJKBigramTokenizer(), dictionary);
+        final StringBuilder buf = new StringBuilder();
+        for (int i = 0; i < 300; i++) {
+            buf.append("関西国際空港 a");
+        }
+        final List<String> tokens = tokens(tokenizer, buf.toString());
+        assertEquals(1200, tokens.size());
+        assertEquals("a:2399-2400", tokens.get(1199));
+    }
+
+    @Test
+    public void testStreamedInput() throws IOException {
+        final Tokenizer tokenizer = new UserDictionaryTokenizer(new CJKBigramTokenizer(), dictionary);
+        final StringBuilder buf = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            buf.append(i % 3 == 0 ? "関西国際空港" : "大阪から").append(i % 7 == 0 ? " " : "");
+        }
+        final String text = buf.toString();
+        final List<String> expected = tokens(tokenizer, text);
+        // the input arrives in small reads that split entries at every position of the window
+        for (final int readSize : new int[] { 1, 5, 7, 1000 }) {
+            assertEquals(expected, tokens(tokenizer, new Reader() {
+                private int offset;
+
+                @Override
+                public int read(final char[] cbuf, final int off, final int len) {
+                    if (offset >= text.length()) {
+                        return -1;
+                    }
+                    final int n = Math.min(Math.min(len, readSize), text.length() - offset);
+                    text.getChars(offset, offset + n, cbuf, off);
+                    offset += n;
+                    return n;
+                }
+
+                @Override
+                public void close() {
+                }
+            }, text.length(), TERM_OFFSETS));
+        }
+        assertEquals("空港:" + (text.length() - 2) + "-" + text.length(), expected.get(expected.size() - 1));
+    }
+}
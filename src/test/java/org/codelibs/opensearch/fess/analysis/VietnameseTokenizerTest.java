@@ -0,0 +1,156 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.analysis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.analysis.tokenattributes.OffsetAttribute;
+import org.junit.Test;
+
+public class VietnameseTokenizerTest {
+
+    private static final VietnameseLexicon LEXICON = new VietnameseLexicon(
+            List.of("thành phố", "hồ chí minh", "thành phố hồ chí minh", "kinh tế", "trung tâm", "việt nam", "học sinh", "máy tính"));
+
+    @Test
+    public void testLongestMatch() throws IOException {
+        assertEquals(List.of("Thành phố Hồ Chí Minh:0-21", "là:22-24", "trung tâm:25-34", "kinh tế:35-42", "lớn:43-46", "nhất:47-51",
+                "Việt Nam:52-60"), tokens("Thành phố Hồ Chí Minh là trung tâm kinh tế lớn nhất Việt Nam"));
+        // the longer word is not complete, so the shorter one wins
+        assertEquals(List.of("thành phố:0-9", "Hồ:10-12", "Chí:13-16"), tokens("thành phố Hồ Chí"));
+        assertEquals(List.of("học:0-3", "máy tính:4-12"), tokens("học máy tính"));
+    }
+
+    @Test
+    public void testSeparators() throws IOException {
+        // punctuation and long whitespace runs do not join syllables
+        assertEquals(List.of("học:0-3", "sinh:4-8"), tokens("học,sinh"));
+        assertEquals(List.of("học:0-3", "sinh:13-17"), tokens("học          sinh"));
+        assertEquals(List.of("học sinh:0-10", "máy tính:12-20"), tokens("học \n sinh, máy tính."));
+        assertEquals(List.of(), tokens(" \t.,! "));
+    }
+
+    @Test
+    public void testNonVietnamese() throws IOException {
+        assertEquals(List.of("Fess:0-4", "v15:5-8", "東京:9-11"), tokens("Fess v15 東京"));
+        // decomposed diacritics stay in the syllable
+        final String decomposed = "Tie\u0302\u0301ng Vie\u0323\u0302t";
+        assertEquals(List.of(decomposed.substring(0, 7) + ":0-7", decomposed.substring(8) + ":8-14"), tokens(decomposed));
+    }
+
+    @Test
+    public void testMaxTokenLength() throws IOException {
+        assertEquals(List.of("abc:0-3", "de:3-5", "thà:6-9", "nh:9-11", "phố:12-15"),
+                tokens(new VietnameseTokenizer(LEXICON, 3), new StringReader("abcde thành phố")));
+        assertThrows(IllegalArgumentException.class, () -> new VietnameseTokenizer(LEXICON, 0));
+    }
+
+    @Test
+    public void testStreaming() throws IOException {
+        final StringBuilder text = new StringBuilder();
+        final List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            final int offset = text.length();
+            text.append("Việt Nam ").append("học ... ");
+            expected.add("Việt Nam:" + offset + "-" + (offset + 8));
+            expected.add("học:" + (offset + 9) + "-" + (offset + 12));
+        }
+        assertEquals(expected, tokens(text.toString()));
+        assertEquals(expected, tokens(new VietnameseTokenizer(LEXICON), new OneCharReader(text.toString())));
+    }
+
+    @Test
+    public void testReuse() throws IOException {
+        final VietnameseTokenizer tokenizer = new VietnameseTokenizer(LEXICON);
+        assertEquals(List.of("kinh tế:0-7"), tokens(tokenizer, new StringReader("kinh tế")));
+        assertEquals(List.of("kinh:0-4"), tokens(tokenizer, new StringReader("kinh")));
+        assertEquals(List.of(), tokens(tokenizer, new StringReader("  ")));
+    }
+
+    @Test
+    public void testEndOffset() throws IOException {
+        final VietnameseTokenizer tokenizer = new VietnameseTokenizer(LEXICON);
+        final OffsetAttribute offsetAtt = tokenizer.addAttribute(OffsetAttribute.class);
+        tokenizer.setReader(new StringReader("kinh tế. "));
+        tokenizer.reset();
+        while (tokenizer.incrementToken()) {
+            // consume
+        }
+        tokenizer.end();
+        assertEquals(9, offsetAtt.endOffset());
+        tokenizer.close();
+    }
+
+    @Test
+    public void testDefaultLexicon() throws IOException {
+        final VietnameseLexicon lexicon = VietnameseLexicon.getDefault();
+        assertTrue(lexicon.size() > 3000);
+        assertTrue(lexicon.getMaxSyllables() >= 5);
+        final String city = "Thành phố Hồ Chí Minh là trung tâm kinh tế lớn nhất Việt Nam";
+        assertEquals(List.of("Thành phố Hồ Chí Minh:0-21", "là:22-24", "trung tâm:25-34", "kinh tế:35-42", "lớn:43-46", "nhất:47-51",
+                "Việt Nam:52-60"), tokens(new VietnameseTokenizer(lexicon), new StringReader(city)));
+        final String search = "Hệ thống tìm kiếm toàn văn giúp người dùng tra cứu tài liệu nhanh chóng";
+        assertEquals(List.of("Hệ thống:0-8", "tìm kiếm toàn văn:9-26", "giúp:27-31", "người dùng:32-42", "tra cứu:43-50", "tài liệu:51-59",
+                "nhanh chóng:60-71"), tokens(new VietnameseTokenizer(lexicon), new StringReader(search)));
+        final String health = "Bệnh viện đa khoa tỉnh Quảng Nam đã triển khai ứng dụng trí tuệ nhân tạo trong chẩn đoán ung thư";
+        assertEquals(List.of("Bệnh viện đa khoa:0-17", "tỉnh:18-22", "Quảng Nam:23-32", "đã:33-35", "triển khai:36-46", "ứng dụng:47-55",
+                "trí tuệ nhân tạo:56-72", "trong:73-78", "chẩn đoán:79-88", "ung thư:89-96"),
+                tokens(new VietnameseTokenizer(lexicon), new StringReader(health)));
+        final VietnameseLexicon withWords = VietnameseLexicon.withWords(List.of("Toàn  Văn Bản"));
+        assertEquals(lexicon.size() + 1, withWords.size());
+        assertEquals(List.of("Hệ thống:0-8", "toàn văn bản:9-21"),
+                tokens(new VietnameseTokenizer(withWords), new StringReader("Hệ thống toàn văn bản")));
+    }
+
+    private static List<String> tokens(final String text) throws IOException {
+        return tokens(new VietnameseTokenizer(LEXICON), new StringReader(text));
+    }
+
+    private static List<String> tokens(final VietnameseTokenizer tokenizer, final Reader reader) throws IOException {
+        final CharTermAttribute termAtt = tokenizer.addAttribute(CharTermAttribute.class);
+        final OffsetAttribute offsetAtt = tokenizer.addAttribute(OffsetAttribute.class);
+        final List<String> tokens = new ArrayList<>();
+        tokenizer.setReader(reader);
+        tokenizer.reset();
+        while (tokenizer.incrementToken()) {
+            tokens.add(termAtt.toString() + ":" + offsetAtt.startOffset() + "-" + offsetAtt.endOffset());
+        }
+        tokenizer.end();
+        tokenizer.close();
+        return tokens;
+    }
+
+    private static class OneCharReader extends StringReader {
+
+        OneCharReader(final String s) {
+            super(s);
+        }
+
+        @Override
+        public int read(final char[] cbuf, final int off, final int len) throws IOException {
+            return super.read(cbuf, off, Math.min(1, len));
+        }
+    }
+}
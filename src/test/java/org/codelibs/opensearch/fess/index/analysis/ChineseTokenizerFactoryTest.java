@@ -15,14 +15,29 @@
  */
 package org.codelibs.opensearch.fess.index.analysis;
 
+import static org.codelibs.opensearch.fess.analysis.TokenizerTestHelper.tokens;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.io.IOException;
+
 import org.apache.lucene.analysis.Tokenizer;
+import org.codelibs.opensearch.fess.analysis.BudgetTokenizer;
+import org.codelibs.opensearch.fess.analysis.CachingTokenizer;
+import org.codelibs.opensearch.fess.analysis.ChineseLexicon;
+import org.codelibs.opensearch.fess.analysis.ChineseMaxMatchTokenizer;
+import org.codelibs.opensearch.fess.analysis.ChunkedTokenizer;
 import org.codelibs.opensearch.fess.analysis.EmptyTokenizer;
+import org.codelibs.opensearch.fess.analysis.ParallelTokenizer;
+import org.codelibs.opensearch.fess.analysis.TokenCache;
 import org.codelibs.opensearch.fess.service.FessAnalysisService;
 import org.junit.Before;
 import org.junit.Test;
@@ -84,4 +99,117 @@ public class ChineseTokenizerFactoryTest {
         assertNotNull(tokenizer);
         assertTrue(tokenizer instanceof EmptyTokenizer);
     }
+
+    @Test
+    public void testQueryCache() {
+        final TokenCache cache = mock(TokenCache.class);
+        when(fessAnalysisService.getQueryCache(any(IndexSettings.class))).thenReturn(cache);
+
+        final ChineseTokenizerFactory factory = new ChineseTokenizerFactory(indexSettings, environment, "test",
+                Settings.builder().put("query_cache", true).build(), fessAnalysisService);
+        assertSame(cache, factory.getQueryCache());
+        assertTrue(factory.create() instanceof CachingTokenizer);
+
+        final ChineseTokenizerFactory uncached =
+                new ChineseTokenizerFactory(indexSettings, environment, "test", Settings.EMPTY, fessAnalysisService);
+        assertFalse(uncached.create() instanceof CachingTokenizer);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeQueryCacheMaxLength() {
+        new ChineseTokenizerFactory(indexSettings, environment, "test", Settings.builder().put("query_cache_max_length", -1).build(),
+                fessAnalysisService);
+    }
+
+    @Test
+    public void testNativeEngine() {
+        final Settings settings = Settings.builder()
+                .put("engine", "native")
+                .put("mode", "forward")
+                .putList("user_words", "全文检索")
+                .put("fallback", "fail")
+                .build();
+        final ChineseTokenizerFactory factory =
+                new ChineseTokenizerFactory(indexSettings, environment, "chinese_tokenizer", settings, fessAnalysisService);
+
+        assertTrue(factory.create() instanceof ChineseMaxMatchTokenizer);
+        assertEquals(ChineseMaxMatchTokenizer.Mode.FORWARD, factory.getMode());
+        assertTrue(factory.getLexicon().size() > ChineseLexicon.getDefault().size());
+    }
+
+    @Test
+    public void testNativeEngineDefaults() {
+        final Settings settings = Settings.builder().put("engine", "native").build();
+        final ChineseTokenizerFactory factory =
+                new ChineseTokenizerFactory(indexSettings, environment, "chinese_tokenizer", settings, fessAnalysisService);
+
+        assertSame(ChineseLexicon.getDefault(), factory.getLexicon());
+        assertEquals(ChineseMaxMatchTokenizer.Mode.BIDIRECTIONAL, factory.getMode());
+        final Settings invalidMode = Settings.builder().put("engine", "native").put("mode", "both").build();
+        assertThrows(IllegalArgumentException.class,
+                () -> new ChineseTokenizerFactory(indexSettings, environment, "chinese_tokenizer", invalidMode, fessAnalysisService));
+        final Settings invalidLength = Settings.builder().put("engine", "native").put("max_token_length", 0).build();
+        assertThrows(IllegalArgumentException.class,
+                () -> new ChineseTokenizerFactory(indexSettings, environment, "chinese_tokenizer", invalidLength, fessAnalysisService));
+    }
+
+    @Test
+    public void testChunkSize() {
+        final ChineseTokenizerFactory factory = new ChineseTokenizerFactory(indexSettings, environment, "test",
+                Settings.builder().put("engine", "native").put("chunk_size", 65536).build(), fessAnalysisService);
+        assertEquals(65536, factory.getChunkSize());
+        assertTrue(factory.create() instanceof ChunkedTokenizer);
+
+        final ChineseTokenizerFactory unchunked =
+                new ChineseTokenizerFactory(indexSettings, environment, "test", Settings.EMPTY, fessAnalysisService);
+        assertEquals(0, unchunked.getChunkSize());
+        assertFalse(unchunked.create() instanceof ChunkedTokenizer);
+        assertThrows(IllegalArgumentException.class, () -> new ChineseTokenizerFactory(indexSettings, environment, "test",
+                Settings.builder().put("chunk_size", -1).build(), fessAnalysisService));
+    }
+
+    @Test
+    public void testParallelSegmentSize() throws IOException {
+        final ChineseTokenizerFactory factory = new ChineseTokenizerFactory(indexSettings, environment, "test",
+                Settings.builder().put("engine", "native").put("parallel_segment_size", 8).put("parallel_max_segments", 3).build(),
+                fessAnalysisService);
+        assertEquals(8, factory.getParallelSegmentSize());
+        assertEquals(3, factory.getParallelMaxSegments());
+        final Tokenizer tokenizer = factory.create();
+        assertTrue(tokenizer instanceof ParallelTokenizer);
+        final ChineseTokenizerFactory chunked = new ChineseTokenizerFactory(indexSettings, environment, "test",
+                Settings.builder().put("engine", "native").put("chunk_size", 8).build(), fessAnalysisService);
+        final String text = "我们在北京大学学习中文。这是一个中文分词的例子。全文检索系统";
+        assertEquals(tokens(chunked.create(), text), tokens(tokenizer, text));
+
+        final ChineseTokenizerFactory serial =
+                new ChineseTokenizerFactory(indexSettings, environment, "test", Settings.EMPTY, fessAnalysisService);
+        assertEquals(0, serial.getParallelSegmentSize());
+        assertEquals(4, serial.getParallelMaxSegments());
+        assertThrows(IllegalArgumentException.class, () -> new ChineseTokenizerFactory(indexSettings, environment, "test",
+                Settings.builder().put("parallel_segment_size", -1).build(), fessAnalysisService));
+        assertThrows(IllegalArgumentException.class, () -> new ChineseTokenizerFactory(indexSettings, environment, "test",
+                Settings.builder().put("parallel_max_segments", 0).build(), fessAnalysisService));
+    }
+
+    @Test
+    public void testBudget() {
+        final ChineseTokenizerFactory factory = new ChineseTokenizerFactory(indexSettings, environment, "test", Settings.builder()
+                .put("engine", "native")
+                .put("budget_max_chars", 1000000)
+                .put("budget_max_tokens", 100000)
+                .put("budget_max_time", "500ms")
+                .build(), fessAnalysisService);
+        assertEquals(1000000, factory.getBudget().maxChars);
+        assertEquals(100000, factory.getBudget().maxTokens);
+        assertEquals(500_000_000L, factory.getBudget().maxNanos);
+        assertTrue(factory.create() instanceof BudgetTokenizer);
+
+        final ChineseTokenizerFactory unlimited =
+                new ChineseTokenizerFactory(indexSettings, environment, "test", Settings.EMPTY, fessAnalysisService);
+        assertSame(AnalysisBudget.UNLIMITED, unlimited.getBudget());
+        assertFalse(unlimited.create() instanceof BudgetTokenizer);
+        assertThrows(IllegalArgumentException.class, () -> new ChineseTokenizerFactory(indexSettings, environment, "test",
+                Settings.builder().put("budget_max_tokens", -1).build(), fessAnalysisService));
+    }
 }
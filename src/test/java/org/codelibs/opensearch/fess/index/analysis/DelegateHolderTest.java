@@ -0,0 +1,165 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.index.analysis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.codelibs.opensearch.fess.service.FessAnalysisService;
+import org.junit.Before;
+import org.junit.Test;
+import org.opensearch.Version;
+import org.opensearch.cluster.metadata.IndexMetadata;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.env.Environment;
+import org.opensearch.index.IndexSettings;
+import org.opensearch.index.analysis.TokenizerFactory;
+
+public class DelegateHolderTest {
+
+    private static final Logger logger = LogManager.getLogger(DelegateHolderTest.class);
+
+    private static final String[] FACTORIES = new String[] { "test.NotFoundFactory", "test.FoundFactory" };
+
+    private IndexSettings indexSettings;
+    private Environment environment;
+    private FessAnalysisService fessAnalysisService;
+    private TokenizerFactory delegate;
+
+    @Before
+    public void setUp() {
+        indexSettings = new IndexSettings(IndexMetadata.builder("test_index")
+                .settings(Settings.builder()
+                        .put(IndexMetadata.SETTING_VERSION_CREATED, Version.CURRENT)
+                        .put(IndexMetadata.SETTING_NUMBER_OF_SHARDS, 1)
+                        .put(IndexMetadata.SETTING_NUMBER_OF_REPLICAS, 0))
+                .build(), Settings.EMPTY);
+        environment = mock(Environment.class);
+        fessAnalysisService = mock(FessAnalysisService.class);
+        delegate = mock(TokenizerFactory.class);
+
+        when(fessAnalysisService.loadClass(anyString())).thenReturn(null);
+        when(fessAnalysisService.loadClass("test.FoundFactory")).thenAnswer(invocation -> String.class);
+        when(fessAnalysisService.acquireDelegate(eq(String.class), eq(TokenizerFactory.class), any(), any(), anyString(), any()))
+                .thenReturn(delegate);
+    }
+
+    @Test
+    public void testEager() {
+        final DelegateHolder<TokenizerFactory> holder = DelegateHolder.create(TokenizerFactory.class, FACTORIES, indexSettings,
+                environment, "test", Settings.EMPTY, fessAnalysisService, logger);
+
+        assertTrue(holder.isLoaded());
+        assertSame(delegate, holder.get());
+        verify(fessAnalysisService, times(1)).acquireDelegate(eq(String.class), eq(TokenizerFactory.class), any(), any(), anyString(),
+                any());
+    }
+
+    @Test
+    public void testLazy() {
+        final Settings settings = Settings.builder().put("lazy", true).build();
+        final DelegateHolder<TokenizerFactory> holder = DelegateHolder.create(TokenizerFactory.class, FACTORIES, indexSettings,
+                environment, "test", settings, fessAnalysisService, logger);
+
+        assertFalse(holder.isLoaded());
+        verify(fessAnalysisService, never()).loadClass(anyString());
+
+        assertSame(delegate, holder.get());
+        assertSame(delegate, holder.get());
+        assertTrue(holder.isLoaded());
+        verify(fessAnalysisService, times(1)).loadClass("test.FoundFactory");
+    }
+
+    @Test
+    public void testLazyByNodeSetting() {
+        when(fessAnalysisService.isLazyDelegates()).thenReturn(true);
+        final DelegateHolder<TokenizerFactory> holder = DelegateHolder.create(TokenizerFactory.class, FACTORIES, indexSettings,
+                environment, "test", Settings.EMPTY, fessAnalysisService, logger);
+        assertFalse(holder.isLoaded());
+
+        // the component setting overrides the node setting
+        final Settings settings = Settings.builder().put("lazy", false).build();
+        assertTrue(DelegateHolder.create(TokenizerFactory.class, FACTORIES, indexSettings, environment, "test", settings,
+                fessAnalysisService, logger).isLoaded());
+    }
+
+    @Test
+    public void testNotFound() {
+        final Settings settings = Settings.builder().put("lazy", true).build();
+        final DelegateHolder<TokenizerFactory> holder = DelegateHolder.create(TokenizerFactory.class, new String[] { "test.NotFound" },
+                indexSettings, environment, "test", settings, fessAnalysisService, logger);
+
+        assertNull(holder.get());
+        assertNull(holder.get());
+        assertTrue(holder.isLoaded());
+        verify(fessAnalysisService, times(1)).loadClass("test.NotFound");
+    }
+
+    @Test
+    public void testLazyConcurrentInitialization() throws Exception {
+        final Settings settings = Settings.builder().put("lazy", true).build();
+        final DelegateHolder<TokenizerFactory> holder = DelegateHolder.create(TokenizerFactory.class, FACTORIES, indexSettings,
+                environment, "test", settings, fessAnalysisService, logger);
+
+        final int numThreads = 8;
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        final List<Thread> threads = new ArrayList<>();
+        final List<TokenizerFactory> results = new ArrayList<>();
+        for (int i = 0; i < numThreads; i++) {
+            final Thread thread = new Thread(() -> {
+                try {
+                    startLatch.await();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                final TokenizerFactory factory = holder.get();
+                synchronized (results) {
+                    results.add(factory);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        startLatch.countDown();
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(numThreads, results.size());
+        for (final TokenizerFactory factory : results) {
+            assertSame(delegate, factory);
+        }
+        verify(fessAnalysisService, times(1)).acquireDelegate(eq(String.class), eq(TokenizerFactory.class), any(), any(), anyString(),
+                any());
+    }
+}
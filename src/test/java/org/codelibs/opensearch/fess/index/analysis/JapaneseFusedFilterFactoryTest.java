@@ -0,0 +1,88 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.index.analysis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Set;
+
+import org.codelibs.opensearch.fess.analysis.FakeKuromoji;
+import org.codelibs.opensearch.fess.analysis.JapaneseFusedFilter;
+import org.codelibs.opensearch.fess.service.FessAnalysisService;
+import org.junit.Before;
+import org.junit.Test;
+import org.opensearch.Version;
+import org.opensearch.cluster.metadata.IndexMetadata;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.env.Environment;
+import org.opensearch.index.IndexSettings;
+
+public class JapaneseFusedFilterFactoryTest {
+
+    private IndexSettings indexSettings;
+    private Environment environment;
+    private FessAnalysisService fessAnalysisService;
+
+    @Before
+    public void setUp() {
+        indexSettings = new IndexSettings(
+            IndexMetadata.builder("test_index")
+                .settings(Settings.builder()
+                    .put(IndexMetadata.SETTING_VERSION_CREATED, Version.CURRENT)
+                    .put(IndexMetadata.SETTING_NUMBER_OF_SHARDS, 1)
+                    .put(IndexMetadata.SETTING_NUMBER_OF_REPLICAS, 0))
+                .build(),
+            Settings.EMPTY
+        );
+        environment = mock(Environment.class);
+        fessAnalysisService = mock(FessAnalysisService.class);
+
+        when(fessAnalysisService.loadClass(anyString())).thenReturn(null);
+    }
+
+    @Test
+    public void testWithoutKuromoji() {
+        final JapaneseFusedFilterFactory factory =
+                new JapaneseFusedFilterFactory(indexSettings, environment, "test", Settings.EMPTY, fessAnalysisService);
+
+        assertEquals(Set.of(), factory.getStopTags());
+        assertTrue(factory.create(new FakeKuromoji.Tokenizer(List.of())) instanceof JapaneseFusedFilter);
+    }
+
+    @Test
+    public void testDefaultStopTags() {
+        when(fessAnalysisService.loadClass(anyString())).thenAnswer(invocation -> FakeKuromoji.loadClass(invocation.getArgument(0)));
+        final JapaneseFusedFilterFactory factory =
+                new JapaneseFusedFilterFactory(indexSettings, environment, "test", Settings.EMPTY, fessAnalysisService);
+
+        assertEquals(FakeKuromoji.DEFAULT_STOP_TAGS, factory.getStopTags());
+    }
+
+    @Test
+    public void testStopTags() {
+        when(fessAnalysisService.loadClass(anyString())).thenAnswer(invocation -> FakeKuromoji.loadClass(invocation.getArgument(0)));
+        final Settings settings = Settings.builder().putList("stoptags", "助詞", "助動詞").put("reading_form", true).build();
+        final JapaneseFusedFilterFactory factory =
+                new JapaneseFusedFilterFactory(indexSettings, environment, "test", settings, fessAnalysisService);
+
+        assertEquals(Set.of("助詞", "助動詞"), factory.getStopTags());
+    }
+}
@@ -15,13 +15,23 @@
  */
 package org.codelibs.opensearch.fess.index.analysis;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.io.IOException;
+import java.io.StringReader;
+
 import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.core.WhitespaceTokenizer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
 import org.codelibs.opensearch.fess.service.FessAnalysisService;
 import org.junit.Before;
 import org.junit.Test;
@@ -85,4 +95,39 @@ public class JapaneseKatakanaStemmerFactoryTest {
         assertNotNull(outputStream);
         assertSame(inputStream, outputStream);
     }
+
+    @Test
+    public void testNativeEngine() throws IOException {
+        final Settings settings = Settings.builder()
+                .put("engine", "native")
+                .put("minimum_length", 4)
+                .build();
+
+        final JapaneseKatakanaStemmerFactory factory =
+                new JapaneseKatakanaStemmerFactory(indexSettings, environment, "stemmer_test", settings, fessAnalysisService);
+
+        final Tokenizer tokenizer = new WhitespaceTokenizer();
+        tokenizer.setReader(new StringReader("コンピューター コピー"));
+        final TokenStream stream = factory.create(tokenizer);
+        final CharTermAttribute termAtt = stream.addAttribute(CharTermAttribute.class);
+        stream.reset();
+        assertTrue(stream.incrementToken());
+        assertEquals("コンピュータ", termAtt.toString());
+        assertTrue(stream.incrementToken());
+        assertEquals("コピー", termAtt.toString());
+        assertFalse(stream.incrementToken());
+        stream.end();
+        stream.close();
+    }
+
+    @Test
+    public void testNativeEngineInvalidMinimumLength() {
+        final Settings settings = Settings.builder()
+                .put("engine", "native")
+                .put("minimum_length", 0)
+                .build();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new JapaneseKatakanaStemmerFactory(indexSettings, environment, "stemmer_test", settings, fessAnalysisService));
+    }
 }
@@ -15,13 +15,22 @@
  */
 package org.codelibs.opensearch.fess.index.analysis;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.util.List;
+import java.util.Set;
+
 import org.apache.lucene.analysis.TokenStream;
+import org.codelibs.opensearch.fess.analysis.FakeKuromoji;
+import org.codelibs.opensearch.fess.analysis.JapanesePartOfSpeechStopFilter;
+import org.codelibs.opensearch.fess.analysis.PartOfSpeechTags;
 import org.codelibs.opensearch.fess.service.FessAnalysisService;
 import org.junit.Before;
 import org.junit.Test;
@@ -85,4 +94,42 @@ public class JapanesePartOfSpeechFilterFactoryTest {
         assertNotNull(outputStream);
         assertSame(inputStream, outputStream);
     }
+
+    @Test
+    public void testNativeEngine() {
+        final Settings settings = Settings.builder()
+                .put("engine", "native")
+                .putList("stoptags", "助詞", "記号")
+                .put("prefix_match", true)
+                .build();
+
+        final JapanesePartOfSpeechFilterFactory factory =
+                new JapanesePartOfSpeechFilterFactory(indexSettings, environment, "pos_test", settings, fessAnalysisService);
+
+        assertEquals(Set.of("助詞", "記号"), factory.getStopTags().getStopTags());
+        assertTrue(factory.getStopTags().isPrefixMatch());
+        assertTrue(factory.create(new FakeKuromoji.Tokenizer(List.of())) instanceof JapanesePartOfSpeechStopFilter);
+    }
+
+    @Test
+    public void testNativeEngineDefaultStopTags() {
+        when(fessAnalysisService.loadClass(anyString())).thenAnswer(invocation -> FakeKuromoji.loadClass(invocation.getArgument(0)));
+        final Settings settings = Settings.builder().put("engine", "native").build();
+
+        final JapanesePartOfSpeechFilterFactory factory =
+                new JapanesePartOfSpeechFilterFactory(indexSettings, environment, "pos_test", settings, fessAnalysisService);
+
+        assertEquals(FakeKuromoji.DEFAULT_STOP_TAGS, factory.getStopTags().getStopTags());
+        assertFalse(factory.getStopTags().isPrefixMatch());
+    }
+
+    @Test
+    public void testNativeEngineWithoutKuromoji() {
+        final Settings settings = Settings.builder().put("engine", "native").build();
+
+        final JapanesePartOfSpeechFilterFactory factory =
+                new JapanesePartOfSpeechFilterFactory(indexSettings, environment, "pos_test", settings, fessAnalysisService);
+
+        assertSame(PartOfSpeechTags.EMPTY, factory.getStopTags());
+    }
 }
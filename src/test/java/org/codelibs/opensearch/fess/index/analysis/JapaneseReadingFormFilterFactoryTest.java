@@ -17,11 +17,17 @@ package org.codelibs.opensearch.fess.index.analysis;
 
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.util.List;
+
 import org.apache.lucene.analysis.TokenStream;
+import org.codelibs.opensearch.fess.analysis.FakeKuromoji;
+import org.codelibs.opensearch.fess.analysis.JapaneseReadingFormFilter;
 import org.codelibs.opensearch.fess.service.FessAnalysisService;
 import org.junit.Before;
 import org.junit.Test;
@@ -85,4 +91,39 @@ public class JapaneseReadingFormFilterFactoryTest {
         assertNotNull(outputStream);
         assertSame(inputStream, outputStream);
     }
+
+    @Test
+    public void testNativeEngine() {
+        final Settings settings = Settings.builder()
+                .put("engine", "native")
+                .put("use_romaji", true)
+                .put("romaji_type", "kunrei")
+                .build();
+
+        final JapaneseReadingFormFilterFactory factory =
+                new JapaneseReadingFormFilterFactory(indexSettings, environment, "reading_test", settings, fessAnalysisService);
+
+        assertTrue(factory.create(new FakeKuromoji.Tokenizer(List.of())) instanceof JapaneseReadingFormFilter);
+    }
+
+    @Test
+    public void testNativeEngineWithoutRomajiOrKuromoji() {
+        final Settings settings = Settings.builder().put("engine", "native").build();
+
+        final JapaneseReadingFormFilterFactory factory =
+                new JapaneseReadingFormFilterFactory(indexSettings, environment, "reading_test", settings, fessAnalysisService);
+
+        final TokenStream inputStream = mock(TokenStream.class);
+        assertSame(inputStream, factory.create(inputStream));
+    }
+
+    @Test
+    public void testNativeEngineInvalidSettings() {
+        final Settings type = Settings.builder().put("engine", "native").put("use_romaji", true).put("romaji_type", "nihon").build();
+        assertThrows(IllegalArgumentException.class,
+                () -> new JapaneseReadingFormFilterFactory(indexSettings, environment, "reading_test", type, fessAnalysisService));
+        final Settings cacheSize = Settings.builder().put("engine", "native").put("romaji_cache_size", -1).build();
+        assertThrows(IllegalArgumentException.class,
+                () -> new JapaneseReadingFormFilterFactory(indexSettings, environment, "reading_test", cacheSize, fessAnalysisService));
+    }
 }
@@ -15,19 +15,38 @@
  */
 package org.codelibs.opensearch.fess.index.analysis;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.codelibs.opensearch.fess.analysis.CJKBigramTokenizer;
 import org.codelibs.opensearch.fess.analysis.EmptyTokenizer;
+import org.codelibs.opensearch.fess.analysis.MappedUserDictionary;
+import org.codelibs.opensearch.fess.analysis.UserDictionaryTokenizer;
 import org.codelibs.opensearch.fess.service.FessAnalysisService;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.opensearch.Version;
 import org.opensearch.cluster.metadata.IndexMetadata;
 import org.opensearch.common.settings.Settings;
@@ -41,6 +60,11 @@ public class JapaneseTokenizerFactoryTest {
     private Environment environment;
     private FessAnalysisService fessAnalysisService;
 
+    private static final String RULES = "関西国際空港,関西 国際 空港,カンサイ コクサイ クウコウ,カスタム名詞";
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
     @Before
     public void setUp() {
         final Index index = new Index("test_index", "test_uuid");
@@ -100,4 +124,164 @@ public class JapaneseTokenizerFactoryTest {
         // EmptyTokenizer should not produce any tokens
         assertTrue(tokenizer instanceof EmptyTokenizer);
     }
+
+    @Test
+    public void testLazyCreate() {
+        final Settings settings = Settings.builder().put("lazy", true).build();
+        final JapaneseTokenizerFactory factory =
+                new JapaneseTokenizerFactory(indexSettings, environment, "test", settings, fessAnalysisService);
+
+        // no delegate lookup until the first tokenizer is created
+        verify(fessAnalysisService, never()).loadClass(anyString());
+
+        final Tokenizer tokenizer = factory.create();
+
+        assertNotNull(tokenizer);
+        assertTrue(tokenizer instanceof EmptyTokenizer);
+        verify(fessAnalysisService, times(2)).loadClass(anyString());
+
+        factory.create();
+        verify(fessAnalysisService, times(2)).loadClass(anyString());
+    }
+
+    @Test
+    public void testFallbackBigram() throws IOException {
+        final Settings settings = Settings.builder().put("fallback", "bigram").build();
+        final JapaneseTokenizerFactory factory =
+                new JapaneseTokenizerFactory(indexSettings, environment, "test", settings, fessAnalysisService);
+
+        final Tokenizer tokenizer = factory.create();
+        assertTrue(tokenizer instanceof CJKBigramTokenizer);
+
+        final CharTermAttribute termAtt = tokenizer.addAttribute(CharTermAttribute.class);
+        tokenizer.setReader(new StringReader("東京タワー"));
+        tokenizer.reset();
+        assertTrue(tokenizer.incrementToken());
+        assertEquals("東京", termAtt.toString());
+        tokenizer.end();
+        tokenizer.close();
+    }
+
+    @Test
+    public void testFallbackFromNodeSettings() {
+        when(fessAnalysisService.getFallback()).thenReturn(TokenizerFallback.BIGRAM);
+        final JapaneseTokenizerFactory factory =
+                new JapaneseTokenizerFactory(indexSettings, environment, "test", Settings.EMPTY, fessAnalysisService);
+
+        assertEquals(TokenizerFallback.BIGRAM, factory.getFallback());
+        assertTrue(factory.create() instanceof CJKBigramTokenizer);
+
+        // the component setting wins
+        final JapaneseTokenizerFactory emptyFactory = new JapaneseTokenizerFactory(indexSettings, environment, "test",
+                Settings.builder().put("fallback", "empty").build(), fessAnalysisService);
+        assertTrue(emptyFactory.create() instanceof EmptyTokenizer);
+    }
+
+    @Test
+    public void testFallbackFail() {
+        final Settings settings = Settings.builder().put("fallback", "fail").build();
+        final IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> new JapaneseTokenizerFactory(indexSettings, environment, "test", settings, fessAnalysisService));
+        assertTrue(e.getMessage().contains("none of them is installed"));
+    }
+
+    @Test
+    public void testFallbackFailWithLazy() {
+        final Settings settings = Settings.builder().put("fallback", "fail").put("lazy", true).build();
+        assertThrows(IllegalArgumentException.class,
+                () -> new JapaneseTokenizerFactory(indexSettings, environment, "test", settings, fessAnalysisService));
+    }
+
+    @Test
+    public void testUnknownFallback() {
+        final Settings settings = Settings.builder().put("fallback", "unigram").build();
+        assertThrows(IllegalArgumentException.class,
+                () -> new JapaneseTokenizerFactory(indexSettings, environment, "test", settings, fessAnalysisService));
+    }
+
+    @Test
+    public void testMappedUserDictionary() throws IOException {
+        final MappedUserDictionary dictionary = compile(RULES);
+        when(fessAnalysisService.acquireUserDictionary(any(), eq(RULES))).thenReturn(() -> dictionary);
+        final Settings settings = Settings.builder()
+                .put("user_dictionary_mode", "mapped")
+                .putList("user_dictionary_rules", RULES)
+                .put("fallback", "bigram")
+                .build();
+        final JapaneseTokenizerFactory factory =
+                new JapaneseTokenizerFactory(indexSettings, environment, "test", settings, fessAnalysisService);
+
+        final Tokenizer tokenizer = factory.create();
+        assertTrue(tokenizer instanceof UserDictionaryTokenizer);
+        assertEquals(List.of("関西", "国際", "空港", "に行", "行く"), terms(tokenizer, "関西国際空港に行く"));
+    }
+
+    @Test
+    public void testMappedUserDictionaryFromFile() throws IOException {
+        final Path configDir = tmp.newFolder("config").toPath();
+        Files.writeString(configDir.resolve("userdict_ja.txt"), RULES, StandardCharsets.UTF_8);
+        when(environment.configDir()).thenReturn(configDir);
+        final MappedUserDictionary dictionary = compile(RULES);
+        when(fessAnalysisService.acquireUserDictionary(any(), eq(configDir.resolve("userdict_ja.txt")), eq(false)))
+                .thenReturn(() -> dictionary);
+        final Settings settings = Settings.builder()
+                .put("user_dictionary_mode", "mapped")
+                .put("user_dictionary", "userdict_ja.txt")
+                .build();
+        final JapaneseTokenizerFactory factory =
+                new JapaneseTokenizerFactory(indexSettings, environment, "test", settings, fessAnalysisService);
+
+        assertTrue(factory.create() instanceof UserDictionaryTokenizer);
+        verify(fessAnalysisService, never()).acquireUserDictionary(any(), anyString());
+
+        // reloading follows the node setting unless the component overrides it
+        when(fessAnalysisService.isReloadUserDictionaries()).thenReturn(true);
+        new JapaneseTokenizerFactory(indexSettings, environment, "test", settings, fessAnalysisService);
+        verify(fessAnalysisService).acquireUserDictionary(any(), any(Path.class), eq(true));
+        new JapaneseTokenizerFactory(indexSettings, environment, "test",
+                Settings.builder().put(settings).put("user_dictionary_reload", false).build(), fessAnalysisService);
+        verify(fessAnalysisService, times(2)).acquireUserDictionary(any(), any(Path.class), eq(false));
+    }
+
+    @Test
+    public void testDelegateUserDictionary() {
+        final Settings settings = Settings.builder().putList("user_dictionary_rules", RULES).build();
+        final JapaneseTokenizerFactory factory =
+                new JapaneseTokenizerFactory(indexSettings, environment, "test", settings, fessAnalysisService);
+
+        assertTrue(factory.create() instanceof EmptyTokenizer);
+        verify(fessAnalysisService, never()).acquireUserDictionary(any(), anyString());
+    }
+
+    @Test
+    public void testIllegalUserDictionarySettings() {
+        assertThrows(IllegalArgumentException.class, () -> new JapaneseTokenizerFactory(indexSettings, environment, "test",
+                Settings.builder().put("user_dictionary_mode", "heap").build(), fessAnalysisService));
+        assertThrows(IllegalArgumentException.class, () -> new JapaneseTokenizerFactory(indexSettings, environment, "test",
+                Settings.builder()
+                        .put("user_dictionary_mode", "mapped")
+                        .put("user_dictionary", "userdict_ja.txt")
+                        .putList("user_dictionary_rules", RULES)
+                        .build(),
+                fessAnalysisService));
+    }
+
+    private MappedUserDictionary compile(final String rules) throws IOException {
+        final Path file = tmp.newFolder().toPath().resolve("user.dic");
+        MappedUserDictionary.compile(new StringReader(rules), file);
+        return MappedUserDictionary.open(file);
+    }
+
+    private static List<String> terms(final Tokenizer tokenizer, final String text) throws IOException {
+        final CharTermAttribute termAtt = tokenizer.addAttribute(CharTermAttribute.class);
+        final List<String> terms = new ArrayList<>();
+        tokenizer.setReader(new StringReader(text));
+        tokenizer.reset();
+        while (tokenizer.incrementToken()) {
+            terms.add(termAtt.toString());
+        }
+        tokenizer.end();
+        tokenizer.close();
+        return terms;
+    }
 }
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.index.analysis;
+
+import static org.codelibs.opensearch.fess.analysis.TokenizerTestHelper.TERM;
+import static org.codelibs.opensearch.fess.analysis.TokenizerTestHelper.tokens;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.apache.lucene.analysis.Tokenizer;
+import org.codelibs.opensearch.fess.analysis.ChunkedTokenizer;
+import org.codelibs.opensearch.fess.analysis.MultilingualTokenizer;
+import org.codelibs.opensearch.fess.service.FessAnalysisService;
+import org.junit.Before;
+import org.junit.Test;
+import org.opensearch.Version;
+import org.opensearch.cluster.metadata.IndexMetadata;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.env.Environment;
+import org.opensearch.index.IndexSettings;
+
+public class MultilingualTokenizerFactoryTest {
+
+    private IndexSettings indexSettings;
+    private Environment environment;
+    private FessAnalysisService fessAnalysisService;
+
+    @Before
+    public void setUp() {
+        indexSettings = new IndexSettings(
+            IndexMetadata.builder("test_index")
+                .settings(Settings.builder()
+                    .put(IndexMetadata.SETTING_VERSION_CREATED, Version.CURRENT)
+                    .put(IndexMetadata.SETTING_NUMBER_OF_SHARDS, 1)
+                    .put(IndexMetadata.SETTING_NUMBER_OF_REPLICAS, 0))
+                .build(),
+            Settings.EMPTY
+        );
+        environment = mock(Environment.class);
+        fessAnalysisService = mock(FessAnalysisService.class);
+
+        // Mock to return null (no actual tokenizer found)
+        when(fessAnalysisService.loadClass(anyString())).thenReturn(null);
+    }
+
+    @Test
+    public void testCreateWithoutDelegates() throws IOException {
+        final MultilingualTokenizerFactory factory =
+                new MultilingualTokenizerFactory(indexSettings, environment, "test", Settings.EMPTY, fessAnalysisService);
+
+        final Tokenizer tokenizer = factory.create();
+        assertTrue(tokenizer instanceof MultilingualTokenizer);
+
+        assertEquals(List.of("日本", "本語", "한국", "Fess"), tokens(tokenizer, "日本語 한국 Fess", TERM));
+    }
+
+    @Test
+    public void testFessSettings() throws IOException {
+        // runs without a delegate produce no tokens, other scripts are still bigrams and words
+        final Settings settings = Settings.builder().put("fallback", "empty").put("chunk_size", 1000).build();
+        final MultilingualTokenizerFactory factory =
+                new MultilingualTokenizerFactory(indexSettings, environment, "test", settings, fessAnalysisService);
+        assertEquals(1000, factory.getChunkSize());
+        final Tokenizer tokenizer = factory.create();
+        assertTrue(tokenizer instanceof ChunkedTokenizer);
+        assertEquals(List.of("Fess"), tokens(tokenizer, "日本語 한국 Fess", TERM));
+
+        assertThrows(IllegalArgumentException.class, () -> new MultilingualTokenizerFactory(indexSettings, environment, "test",
+                Settings.builder().put("fallback", "fail").build(), fessAnalysisService));
+    }
+
+    @Test
+    public void testLazy() {
+        final Settings settings = Settings.builder().put("lazy", true).build();
+        new MultilingualTokenizerFactory(indexSettings, environment, "test", settings, fessAnalysisService);
+        verify(fessAnalysisService, never()).loadClass(anyString());
+    }
+
+    @Test
+    public void testHanLanguage() {
+        new MultilingualTokenizerFactory(indexSettings, environment, "test", Settings.builder().put("han_language", "ja").build(),
+                fessAnalysisService);
+        assertThrows(IllegalArgumentException.class, () -> new MultilingualTokenizerFactory(indexSettings, environment, "test",
+                Settings.builder().put("han_language", "ko").build(), fessAnalysisService));
+    }
+}
@@ -15,15 +15,20 @@
  */
 package org.codelibs.opensearch.fess.index.analysis;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.io.IOException;
 import java.io.Reader;
 import java.io.StringReader;
 
+import org.codelibs.opensearch.fess.analysis.BudgetCharFilter;
+import org.codelibs.opensearch.fess.analysis.ChineseConvertCharFilter;
 import org.codelibs.opensearch.fess.service.FessAnalysisService;
 import org.junit.Before;
 import org.junit.Test;
@@ -87,4 +92,57 @@ public class TraditionalChineseConvertCharFilterFactoryTest {
         assertNotNull(outputReader);
         assertSame(inputReader, outputReader);
     }
+
+    @Test
+    public void testNativeEngine() throws IOException {
+        final Settings settings = Settings.builder().put("engine", "native").build();
+        final TraditionalChineseConvertCharFilterFactory factory =
+                new TraditionalChineseConvertCharFilterFactory(indexSettings, environment, "test", settings, fessAnalysisService);
+
+        final Reader outputReader = factory.create(new StringReader("简体中文"));
+
+        assertSame(ChineseConvertCharFilter.class, outputReader.getClass());
+        assertEquals("簡體中文", read(outputReader));
+    }
+
+    @Test
+    public void testNativeEngineWithConvertType() throws IOException {
+        final Settings settings = Settings.builder().put("engine", "native").put("convert_type", "t2s").build();
+        final TraditionalChineseConvertCharFilterFactory factory =
+                new TraditionalChineseConvertCharFilterFactory(indexSettings, environment, "test", settings, fessAnalysisService);
+
+        assertEquals("简体中文", read(factory.create(new StringReader("簡體中文"))));
+    }
+
+    @Test
+    public void testInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new TraditionalChineseConvertCharFilterFactory(indexSettings, environment,
+                "test", Settings.builder().put("engine", "fast").build(), fessAnalysisService));
+        assertThrows(IllegalArgumentException.class, () -> new TraditionalChineseConvertCharFilterFactory(indexSettings, environment,
+                "test", Settings.builder().put("engine", "native").put("convert_type", "s2tw").build(), fessAnalysisService));
+    }
+
+    @Test
+    public void testBudget() throws IOException {
+        final Settings settings = Settings.builder().put("engine", "native").put("budget_max_chars", 2).build();
+        final TraditionalChineseConvertCharFilterFactory factory =
+                new TraditionalChineseConvertCharFilterFactory(indexSettings, environment, "test", settings, fessAnalysisService);
+
+        final Reader outputReader = factory.create(new StringReader("简体中文"));
+
+        assertSame(BudgetCharFilter.class, outputReader.getClass());
+        assertEquals("簡體", read(outputReader));
+        assertThrows(IllegalArgumentException.class, () -> new TraditionalChineseConvertCharFilterFactory(indexSettings, environment,
+                "test", Settings.builder().put("budget_max_tokens", 10).build(), fessAnalysisService));
+    }
+
+    private static String read(final Reader reader) throws IOException {
+        final StringBuilder buf = new StringBuilder();
+        final char[] chars = new char[16];
+        int n;
+        while ((n = reader.read(chars)) != -1) {
+            buf.append(chars, 0, n);
+        }
+        return buf.toString();
+    }
 }
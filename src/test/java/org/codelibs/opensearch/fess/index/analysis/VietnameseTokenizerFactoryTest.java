@@ -15,7 +15,11 @@
  */
 package org.codelibs.opensearch.fess.index.analysis;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
@@ -23,12 +27,17 @@ import static org.mockito.Mockito.when;
 
 import org.apache.lucene.analysis.Tokenizer;
 import org.codelibs.opensearch.fess.analysis.EmptyTokenizer;
+import org.codelibs.opensearch.fess.analysis.SlowLogTokenizer;
+import org.codelibs.opensearch.fess.analysis.VietnameseLexicon;
+import org.codelibs.opensearch.fess.analysis.VietnameseTokenizer;
 import org.codelibs.opensearch.fess.service.FessAnalysisService;
+import org.codelibs.opensearch.fess.stats.AnalysisSlowLog;
 import org.junit.Before;
 import org.junit.Test;
 import org.opensearch.Version;
 import org.opensearch.cluster.metadata.IndexMetadata;
 import org.opensearch.common.settings.Settings;
+import org.opensearch.common.unit.TimeValue;
 import org.opensearch.core.index.Index;
 import org.opensearch.env.Environment;
 import org.opensearch.index.IndexSettings;
@@ -70,6 +79,19 @@ public class VietnameseTokenizerFactoryTest {
         assertTrue(tokenizer instanceof EmptyTokenizer);
     }
 
+    @Test
+    public void testSlowLog() {
+        final AnalysisSlowLog slowLog = new AnalysisSlowLog(indexSettings.getIndex(), Settings.EMPTY);
+        when(fessAnalysisService.getSlowLog(indexSettings)).thenReturn(slowLog);
+        final VietnameseTokenizerFactory factory =
+                new VietnameseTokenizerFactory(indexSettings, environment, "test", Settings.EMPTY, fessAnalysisService);
+
+        assertFalse(factory.create() instanceof SlowLogTokenizer);
+
+        slowLog.setWarnThreshold(TimeValue.timeValueSeconds(1));
+        assertTrue(factory.create() instanceof SlowLogTokenizer);
+    }
+
     @Test
     public void testCreateWithCustomName() {
         final Settings settings = Settings.EMPTY;
@@ -81,4 +103,30 @@ public class VietnameseTokenizerFactoryTest {
         assertNotNull(tokenizer);
         assertTrue(tokenizer instanceof EmptyTokenizer);
     }
+
+    @Test
+    public void testNativeEngine() {
+        final Settings settings = Settings.builder()
+                .put("engine", "native")
+                .putList("user_words", "máy chủ tìm kiếm")
+                .put("fallback", "fail")
+                .build();
+        final VietnameseTokenizerFactory factory =
+                new VietnameseTokenizerFactory(indexSettings, environment, "vietnamese_tokenizer", settings, fessAnalysisService);
+
+        assertTrue(factory.create() instanceof VietnameseTokenizer);
+        assertEquals(VietnameseLexicon.getDefault().size() + 1, factory.getLexicon().size());
+    }
+
+    @Test
+    public void testNativeEngineDefaultLexicon() {
+        final Settings settings = Settings.builder().put("engine", "native").build();
+        final VietnameseTokenizerFactory factory =
+                new VietnameseTokenizerFactory(indexSettings, environment, "vietnamese_tokenizer", settings, fessAnalysisService);
+
+        assertSame(VietnameseLexicon.getDefault(), factory.getLexicon());
+        final Settings invalid = Settings.builder().put("engine", "native").put("max_token_length", 0).build();
+        assertThrows(IllegalArgumentException.class,
+                () -> new VietnameseTokenizerFactory(indexSettings, environment, "vietnamese_tokenizer", invalid, fessAnalysisService));
+    }
 }
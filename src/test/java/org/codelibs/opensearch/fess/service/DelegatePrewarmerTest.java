@@ -0,0 +1,125 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+
+import java.io.Reader;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+import org.codelibs.opensearch.fess.FessAnalysisPlugin;
+import org.junit.Before;
+import org.junit.Test;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.env.Environment;
+import org.opensearch.index.IndexSettings;
+import org.opensearch.index.analysis.CharFilterFactory;
+import org.opensearch.index.analysis.TokenFilterFactory;
+import org.opensearch.index.analysis.TokenizerFactory;
+import org.opensearch.plugins.PluginsService;
+
+public class DelegatePrewarmerTest {
+
+    private static final AtomicInteger CREATED = new AtomicInteger();
+
+    private DelegatePrewarmer prewarmer;
+
+    @Before
+    public void setUp() {
+        CREATED.set(0);
+        final FessAnalysisService service =
+                new FessAnalysisService(Settings.EMPTY, mock(PluginsService.class), new FessAnalysisPlugin.PluginComponent());
+        prewarmer = new DelegatePrewarmer(service, Settings.EMPTY, mock(Environment.class), "prewarm sample text", 10);
+    }
+
+    @Test
+    public void testPrewarmTokenizer() {
+        assertEquals(10, prewarmer.prewarm(TestTokenizerFactory.class, () -> true));
+        assertEquals(10, CREATED.get());
+    }
+
+    @Test
+    public void testPrewarmTokenFilter() {
+        assertEquals(10, prewarmer.prewarm(TestTokenFilterFactory.class, () -> true));
+        assertEquals(10, CREATED.get());
+    }
+
+    @Test
+    public void testPrewarmCharFilter() {
+        assertEquals(10, prewarmer.prewarm(TestCharFilterFactory.class, () -> true));
+        assertEquals(10, CREATED.get());
+    }
+
+    @Test
+    public void testPrewarmStopped() {
+        assertEquals(0, prewarmer.prewarm(TestTokenizerFactory.class, () -> false));
+        assertEquals(0, CREATED.get());
+    }
+
+    public static class TestTokenizerFactory implements TokenizerFactory {
+        public TestTokenizerFactory(final IndexSettings indexSettings, final Environment env, final String name, final Settings settings) {
+        }
+
+        @Override
+        public String name() {
+            return "test";
+        }
+
+        @Override
+        public Tokenizer create() {
+            CREATED.incrementAndGet();
+            return new StandardTokenizer();
+        }
+    }
+
+    public static class TestTokenFilterFactory implements TokenFilterFactory {
+        public TestTokenFilterFactory(final IndexSettings indexSettings, final Environment env, final String name,
+                final Settings settings) {
+        }
+
+        @Override
+        public String name() {
+            return "test";
+        }
+
+        @Override
+        public TokenStream create(final TokenStream tokenStream) {
+            CREATED.incrementAndGet();
+            return tokenStream;
+        }
+    }
+
+    public static class TestCharFilterFactory implements CharFilterFactory {
+        public TestCharFilterFactory(final IndexSettings indexSettings, final Environment env, final String name,
+                final Settings settings) {
+        }
+
+        @Override
+        public String name() {
+            return "test";
+        }
+
+        @Override
+        public Reader create(final Reader reader) {
+            CREATED.incrementAndGet();
+            return reader;
+        }
+    }
+}
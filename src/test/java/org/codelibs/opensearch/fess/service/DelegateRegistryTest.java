@@ -0,0 +1,154 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.codelibs.opensearch.fess.service.DelegateRegistry.DelegateKey;
+import org.junit.Test;
+import org.opensearch.Version;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.core.index.Index;
+
+public class DelegateRegistryTest {
+
+    private final AtomicInteger created = new AtomicInteger();
+
+    private Object newDelegate() {
+        created.incrementAndGet();
+        return new Object();
+    }
+
+    @Test
+    public void testSharedBetweenIndices() {
+        final DelegateRegistry registry = new DelegateRegistry();
+        final Index index1 = new Index("index1", "uuid1");
+        final Index index2 = new Index("index2", "uuid2");
+
+        final Object delegate1 = registry.acquire(index1, key("normal"), this::newDelegate);
+        final Object delegate2 = registry.acquire(index2, key("normal"), this::newDelegate);
+        final Object delegate3 = registry.acquire(index2, key("search"), this::newDelegate);
+
+        assertSame(delegate1, delegate2);
+        assertNotSame(delegate1, delegate3);
+        assertEquals(2, created.get());
+        assertEquals(2, registry.size());
+    }
+
+    @Test
+    public void testReleasedByLastIndex() {
+        final DelegateRegistry registry = new DelegateRegistry();
+        final Index index1 = new Index("index1", "uuid1");
+        final Index index2 = new Index("index2", "uuid2");
+
+        final Object delegate = registry.acquire(index1, key("normal"), this::newDelegate);
+        // the same index acquiring again does not hold an additional reference
+        registry.acquire(index1, key("normal"), this::newDelegate);
+        registry.acquire(index2, key("normal"), this::newDelegate);
+        assertEquals(1, created.get());
+
+        assertEquals(0, registry.release(index1));
+        assertSame(delegate, registry.get(key("normal")));
+
+        assertEquals(1, registry.release(index2));
+        assertNull(registry.get(key("normal")));
+        assertEquals(0, registry.size());
+        assertEquals(0, registry.release(index2));
+
+        assertNotSame(delegate, registry.acquire(index1, key("normal"), this::newDelegate));
+        assertEquals(2, created.get());
+    }
+
+    @Test
+    public void testBuiltOutsideLock() throws Exception {
+        final DelegateRegistry registry = new DelegateRegistry();
+        final CountDownLatch building = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Future<Object> slow = executor.submit(() -> registry.acquire(new Index("index1", "uuid1"), key("normal"), () -> {
+                building.countDown();
+                try {
+                    release.await();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return newDelegate();
+            }));
+            assertTrue(building.await(10, TimeUnit.SECONDS));
+            // another key, a release and a borrow do not wait for the slow build
+            assertNotNull(registry.acquire(new Index("index2", "uuid2"), key("search"), this::newDelegate));
+            assertEquals(0, registry.release(new Index("index3", "uuid3")));
+            assertNull(registry.get(key("normal")));
+            // the same key waits for it
+            final Future<Object> waiting =
+                    executor.submit(() -> registry.acquire(new Index("index2", "uuid2"), key("normal"), this::newDelegate));
+            assertFalse(waiting.isDone());
+            release.countDown();
+            assertSame(slow.get(10, TimeUnit.SECONDS), waiting.get(10, TimeUnit.SECONDS));
+            assertSame(slow.get(), registry.get(key("normal")));
+            assertEquals(2, created.get());
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testFailedBuild() {
+        final DelegateRegistry registry = new DelegateRegistry();
+        final Index index = new Index("index1", "uuid1");
+        final IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> registry.acquire(index, key("normal"), () -> {
+                    throw new IllegalArgumentException("broken");
+                }));
+        assertEquals("broken", e.getMessage());
+        assertEquals(0, registry.size());
+        assertEquals(0, registry.release(index));
+
+        // the next acquire builds it again
+        assertNotNull(registry.acquire(index, key("normal"), this::newDelegate));
+        assertEquals(1, registry.release(index));
+    }
+
+    @Test
+    public void testKey() {
+        assertEquals(key("normal"), key("normal"));
+        assertEquals(key("normal").hashCode(), key("normal").hashCode());
+        assertEquals(new DelegateKey("a", Version.CURRENT, Settings.builder().put("x", "1").put("y", "2").build()),
+                new DelegateKey("a", Version.CURRENT, Settings.builder().put("y", "2").put("x", "1").build()));
+        assertFalse(key("normal").equals(new DelegateKey("b", Version.CURRENT, Settings.builder().put("mode", "normal").build())));
+        assertFalse(key("normal").equals(key("search")));
+    }
+
+    private DelegateKey key(final String mode) {
+        return new DelegateKey("a", Version.CURRENT, Settings.builder().put("mode", mode).build());
+    }
+}
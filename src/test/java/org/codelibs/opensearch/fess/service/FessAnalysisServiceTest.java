@@ -16,17 +16,43 @@
 package org.codelibs.opensearch.fess.service;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.apache.lucene.analysis.Tokenizer;
 import org.codelibs.opensearch.fess.FessAnalysisPlugin;
+import org.codelibs.opensearch.fess.analysis.EmptyTokenizer;
+import org.codelibs.opensearch.fess.analysis.MappedUserDictionary;
+import org.codelibs.opensearch.fess.index.analysis.FessAnalysisComponent;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.opensearch.OpenSearchException;
+import org.opensearch.Version;
+import org.opensearch.cluster.metadata.IndexMetadata;
 import org.opensearch.common.settings.Settings;
+import org.opensearch.env.Environment;
+import org.opensearch.env.NodeEnvironment;
+import org.opensearch.index.IndexSettings;
+import org.opensearch.index.analysis.TokenizerFactory;
 import org.opensearch.plugins.PluginsService;
 
 public class FessAnalysisServiceTest {
 
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
     @Test
     public void testServiceCreation() {
         final Settings settings = Settings.EMPTY;
@@ -72,4 +98,185 @@ public class FessAnalysisServiceTest {
         // After service creation, plugin component should have reference
         assertEquals(service, pluginComponent.getFessAnalysisService());
     }
+
+    @Test
+    public void testLoadClassFromIndex() {
+        final PluginsService pluginsService = mock(PluginsService.class);
+        final FessAnalysisPlugin.PluginComponent pluginComponent = new FessAnalysisPlugin.PluginComponent();
+        final FessAnalysisService service = new FessAnalysisService(Settings.EMPTY, pluginsService, pluginComponent);
+
+        service.initClassIndex(List.of(getClass().getClassLoader()));
+
+        // delegate classes are indexed at start, so a missing plugin is a negative hit
+        assertNull(service.loadClass("org.opensearch.index.analysis.NoriTokenizerFactory"));
+        assertEquals(1, service.getClassIndexHits());
+        assertEquals(0, service.getClassIndexMisses());
+
+        // unknown classes are probed once and then served from the index
+        assertEquals(FessAnalysisServiceTest.class, service.loadClass(FessAnalysisServiceTest.class.getName()));
+        assertEquals(FessAnalysisServiceTest.class, service.loadClass(FessAnalysisServiceTest.class.getName()));
+        assertEquals(2, service.getClassIndexHits());
+        assertEquals(1, service.getClassIndexMisses());
+
+        assertNull(service.loadClass("org.codelibs.opensearch.fess.NotFound"));
+        assertNull(service.loadClass("org.codelibs.opensearch.fess.NotFound"));
+        assertEquals(3, service.getClassIndexHits());
+        assertEquals(2, service.getClassIndexMisses());
+    }
+
+    @Test
+    public void testNewInstance() {
+        final PluginsService pluginsService = mock(PluginsService.class);
+        final FessAnalysisPlugin.PluginComponent pluginComponent = new FessAnalysisPlugin.PluginComponent();
+        final FessAnalysisService service = new FessAnalysisService(Settings.EMPTY, pluginsService, pluginComponent);
+        final Settings settings = Settings.builder().put("mode", "search").build();
+
+        final TokenizerFactory factory = service.newInstance(TestTokenizerFactory.class, TokenizerFactory.class, null, null, "test", settings);
+        assertEquals("test", factory.name());
+        assertSame(settings, ((TestTokenizerFactory) factory).settings);
+
+        // the cached constructor is reused
+        assertEquals("test2", service.newInstance(TestTokenizerFactory.class, TokenizerFactory.class, null, null, "test2", settings).name());
+
+        try {
+            service.newInstance(String.class, TokenizerFactory.class, null, null, "test", settings);
+            fail();
+        } catch (final OpenSearchException e) {
+            assertEquals("Failed to load java.lang.String", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testAcquireDelegate() {
+        final PluginsService pluginsService = mock(PluginsService.class);
+        final FessAnalysisPlugin.PluginComponent pluginComponent = new FessAnalysisPlugin.PluginComponent();
+        final FessAnalysisService service = new FessAnalysisService(Settings.EMPTY, pluginsService, pluginComponent);
+        final IndexSettings indexSettings1 = indexSettings("index1", "uuid1");
+        final IndexSettings indexSettings2 = indexSettings("index2", "uuid2");
+        final Settings settings = Settings.builder().put("mode", "search").build();
+        service.registerIndex(indexSettings1.getIndex(), List.of());
+        service.registerIndex(indexSettings2.getIndex(), List.of());
+
+        final TokenizerFactory factory1 =
+                service.acquireDelegate(TestTokenizerFactory.class, TokenizerFactory.class, indexSettings1, null, "test", settings);
+        final TokenizerFactory factory2 =
+                service.acquireDelegate(TestTokenizerFactory.class, TokenizerFactory.class, indexSettings2, null, "test", settings);
+        assertSame(factory1, factory2);
+        assertEquals(1, service.getSharedDelegateCount());
+
+        service.releaseDelegates(indexSettings1.getIndex());
+        assertEquals(1, service.getSharedDelegateCount());
+        service.releaseDelegates(indexSettings2.getIndex());
+        assertEquals(0, service.getSharedDelegateCount());
+    }
+
+    @Test
+    public void testTemporaryIndexService() {
+        final PluginsService pluginsService = mock(PluginsService.class);
+        final FessAnalysisPlugin.PluginComponent pluginComponent = new FessAnalysisPlugin.PluginComponent();
+        final FessAnalysisService service = new FessAnalysisService(Settings.EMPTY, pluginsService, pluginComponent);
+        final IndexSettings indexSettings = indexSettings("index1", "uuid1");
+        final Settings settings = Settings.builder().put("mode", "search").build();
+
+        // a temporary index service, e.g. one validating a mapping, has the real UUID but is never registered, so it borrows
+        final TokenizerFactory borrowed =
+                service.acquireDelegate(TestTokenizerFactory.class, TokenizerFactory.class, indexSettings, null, "test", settings);
+        assertEquals(0, service.getSharedDelegateCount());
+        assertSame(borrowed, service.registerDelegate(TestTokenizerFactory.class, TokenizerFactory.class, indexSettings, settings,
+                borrowed));
+        assertEquals(0, service.getSharedDelegateCount());
+
+        // the index service that the node creates registers the delegate it borrowed, and releases it when removed
+        final TokenizerFactory[] held = new TokenizerFactory[1];
+        final FessAnalysisComponent component = () -> held[0] =
+                service.registerDelegate(TestTokenizerFactory.class, TokenizerFactory.class, indexSettings, settings, borrowed);
+        service.registerIndex(indexSettings.getIndex(), List.of(component, component));
+        assertSame(borrowed, held[0]);
+        assertEquals(1, service.getSharedDelegateCount());
+        // a temporary index service of a registered index shares its delegate
+        assertSame(borrowed,
+                service.acquireDelegate(TestTokenizerFactory.class, TokenizerFactory.class, indexSettings, null, "test", settings));
+        service.unregisterIndex(indexSettings.getIndex());
+        service.releaseDelegates(indexSettings.getIndex());
+        assertEquals(0, service.getSharedDelegateCount());
+
+        // transient analysis is never registered
+        final IndexSettings transientSettings = indexSettings("_na_", IndexMetadata.INDEX_UUID_NA_VALUE);
+        service.registerIndex(transientSettings.getIndex(), List.of());
+        service.acquireDelegate(TestTokenizerFactory.class, TokenizerFactory.class, transientSettings, null, "test", settings);
+        assertEquals(0, service.getSharedDelegateCount());
+    }
+
+    @Test
+    public void testTemporaryIndexServiceUserDictionary() {
+        final NodeEnvironment nodeEnvironment = mock(NodeEnvironment.class);
+        when(nodeEnvironment.hasNodeFile()).thenReturn(true);
+        when(nodeEnvironment.nodeDataPaths()).thenReturn(new Path[] { tmp.getRoot().toPath() });
+        final FessAnalysisPlugin.PluginComponent pluginComponent = new FessAnalysisPlugin.PluginComponent();
+        pluginComponent.setNodeEnvironment(nodeEnvironment);
+        final FessAnalysisService service = new FessAnalysisService(Settings.EMPTY, mock(PluginsService.class), pluginComponent);
+        final IndexSettings indexSettings = indexSettings("index1", "uuid1");
+        final String rules = "関西国際空港,関西 国際 空港,カンサイ コクサイ クウコウ,カスタム名詞";
+
+        final Supplier<MappedUserDictionary> borrowed = service.acquireUserDictionary(indexSettings, rules);
+        assertNotNull(borrowed.get());
+        assertEquals(0, service.getUserDictionaryCount());
+        assertFalse(service.registerUserDictionary(indexSettings, borrowed));
+        assertEquals(0, service.getUserDictionaryCount());
+
+        final FessAnalysisComponent component = () -> assertTrue(service.registerUserDictionary(indexSettings, borrowed));
+        service.registerIndex(indexSettings.getIndex(), List.of(component));
+        assertEquals(1, service.getUserDictionaryCount());
+        assertSame(borrowed.get(), service.acquireUserDictionary(indexSettings, rules).get());
+        service.unregisterIndex(indexSettings.getIndex());
+        service.releaseUserDictionaries(indexSettings.getIndex());
+        assertEquals(0, service.getUserDictionaryCount());
+    }
+
+    @Test
+    public void testAcquireDelegateWithoutSharing() {
+        final PluginsService pluginsService = mock(PluginsService.class);
+        final FessAnalysisPlugin.PluginComponent pluginComponent = new FessAnalysisPlugin.PluginComponent();
+        final Settings nodeSettings = Settings.builder().put(FessAnalysisService.SHARED_DELEGATES_SETTING.getKey(), false).build();
+        final FessAnalysisService service = new FessAnalysisService(nodeSettings, pluginsService, pluginComponent);
+        final Settings settings = Settings.builder().put("mode", "search").build();
+
+        final TokenizerFactory factory1 = service.acquireDelegate(TestTokenizerFactory.class, TokenizerFactory.class,
+                indexSettings("index1", "uuid1"), null, "test", settings);
+        final TokenizerFactory factory2 = service.acquireDelegate(TestTokenizerFactory.class, TokenizerFactory.class,
+                indexSettings("index2", "uuid2"), null, "test", settings);
+        assertNotSame(factory1, factory2);
+        assertEquals(0, service.getSharedDelegateCount());
+    }
+
+    private static IndexSettings indexSettings(final String name, final String uuid) {
+        return new IndexSettings(IndexMetadata.builder(name)
+                .settings(Settings.builder()
+                        .put(IndexMetadata.SETTING_VERSION_CREATED, Version.CURRENT)
+                        .put(IndexMetadata.SETTING_INDEX_UUID, uuid)
+                        .put(IndexMetadata.SETTING_NUMBER_OF_SHARDS, 1)
+                        .put(IndexMetadata.SETTING_NUMBER_OF_REPLICAS, 0))
+                .build(), Settings.EMPTY);
+    }
+
+    public static class TestTokenizerFactory implements TokenizerFactory {
+        private final String name;
+
+        private final Settings settings;
+
+        public TestTokenizerFactory(final IndexSettings indexSettings, final Environment env, final String name, final Settings settings) {
+            this.name = name;
+            this.settings = settings;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public Tokenizer create() {
+            return new EmptyTokenizer();
+        }
+    }
 }
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.apache.lucene.analysis.Tokenizer;
+import org.codelibs.opensearch.fess.analysis.CJKBigramTokenizer;
+import org.codelibs.opensearch.fess.analysis.CachedTokens;
+import org.codelibs.opensearch.fess.analysis.CachingTokenizer;
+import org.codelibs.opensearch.fess.analysis.TokenCache;
+import org.codelibs.opensearch.fess.stats.QueryCacheStats;
+import org.junit.Test;
+import org.opensearch.core.index.Index;
+
+public class QueryCacheTest {
+
+    private final Index index1 = new Index("index1", "uuid1");
+
+    private final Index index2 = new Index("index2", "uuid2");
+
+    @Test
+    public void testOwnerAndGeneration() throws IOException {
+        final QueryCache queryCache = new QueryCache(1024 * 1024);
+        final TokenCache cache = queryCache.forIndex(index1);
+        final Object owner = new Object();
+        final Object generation = new Object();
+        final CachedTokens tokens = tokens(cache, owner, generation, "東京タワー");
+
+        assertSame(tokens, cache.get(owner, generation, "東京タワー"));
+        assertNull(cache.get(owner, generation, "東京"));
+        assertNull(cache.get(new Object(), generation, "東京タワー"));
+        assertNull(cache.get(owner, new Object(), "東京タワー"));
+        assertNull(cache.get(owner, null, "東京タワー"));
+        assertNull(queryCache.forIndex(index2).get(owner, generation, "東京タワー"));
+
+        final QueryCacheStats stats = queryCache.stats();
+        assertEquals(2, stats.getHitCount());
+        assertEquals(6, stats.getMissCount());
+        assertEquals(1, stats.getEntryCount());
+        assertTrue(stats.getSizeInBytes() > tokens.ramBytesUsed());
+    }
+
+    @Test
+    public void testInvalidate() throws IOException {
+        final QueryCache queryCache = new QueryCache(1024 * 1024);
+        final Object owner = new Object();
+        tokens(queryCache.forIndex(index1), owner, null, "東京");
+        tokens(queryCache.forIndex(index1), owner, null, "大阪");
+        tokens(queryCache.forIndex(index2), owner, null, "東京");
+
+        assertEquals(2, queryCache.invalidate(index1));
+        assertNull(queryCache.forIndex(index1).get(owner, null, "東京"));
+        assertEquals(1, queryCache.stats().getEntryCount());
+        assertEquals(0, queryCache.invalidate(index1));
+    }
+
+    @Test
+    public void testEviction() throws IOException {
+        final QueryCache queryCache = new QueryCache(4096);
+        final TokenCache cache = queryCache.forIndex(index1);
+        final Object owner = new Object();
+        for (int i = 0; i < 100; i++) {
+            tokens(cache, owner, null, "東京" + i);
+        }
+        final QueryCacheStats stats = queryCache.stats();
+        assertTrue(stats.getEvictionCount() > 0);
+        assertTrue(stats.getSizeInBytes() <= 4096);
+        assertEquals(100, stats.getEntryCount() + stats.getEvictionCount());
+    }
+
+    private static CachedTokens tokens(final TokenCache cache, final Object owner, final Object generation, final String text)
+            throws IOException {
+        final Tokenizer tokenizer = new CachingTokenizer(new CJKBigramTokenizer(), cache, owner, () -> generation, 64);
+        tokenizer.setReader(new StringReader(text));
+        tokenizer.reset();
+        while (tokenizer.incrementToken()) {
+            // consume
+        }
+        tokenizer.end();
+        tokenizer.close();
+        return cache.get(owner, generation, text);
+    }
+}
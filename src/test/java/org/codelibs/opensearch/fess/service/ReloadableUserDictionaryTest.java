@@ -0,0 +1,166 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.codelibs.opensearch.fess.analysis.MappedUserDictionary;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.opensearch.core.index.Index;
+import org.opensearch.watcher.FileWatcher;
+
+public class ReloadableUserDictionaryTest {
+
+    private static final String RULES1 = "関西国際空港,関西 国際 空港,カンサイ コクサイ クウコウ,カスタム名詞\n";
+
+    private static final String RULES2 = RULES1 + "東京スカイツリー,東京 スカイツリー,トウキョウ スカイツリー,カスタム名詞\n";
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    private UserDictionaryRegistry registry;
+
+    private Path file;
+
+    private final Index index = new Index("index1", "uuid1");
+
+    @Before
+    public void setUp() throws IOException {
+        final Path dir = tmp.newFolder("user_dictionary").toPath();
+        registry = new UserDictionaryRegistry(() -> dir);
+        file = tmp.getRoot().toPath().resolve("userdict_ja.txt");
+        Files.writeString(file, RULES1, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testReload() throws IOException {
+        final ReloadableUserDictionary dictionary = new ReloadableUserDictionary(registry, index, file, Runnable::run);
+        final MappedUserDictionary first = dictionary.get();
+        assertEquals(1, first.size());
+        assertEquals(0, dictionary.getGeneration());
+
+        // an unchanged source keeps the generation
+        dictionary.onFileChanged(file);
+        assertSame(first, dictionary.get());
+
+        Files.writeString(file, RULES2, StandardCharsets.UTF_8);
+        dictionary.onFileChanged(file);
+        assertEquals(2, dictionary.get().size());
+        assertEquals(1, dictionary.getGeneration());
+        // the previous generation is released, and stays readable for streams that hold it
+        assertEquals(1, registry.size());
+        assertFalse(Files.exists(first.getFile()));
+        final char[] chars = "関西国際空港".toCharArray();
+        assertEquals(6, (int) first.longestMatch(chars, 0, chars.length));
+    }
+
+    @Test
+    public void testBrokenSource() throws IOException {
+        final ReloadableUserDictionary dictionary = new ReloadableUserDictionary(registry, index, file, Runnable::run);
+        final MappedUserDictionary first = dictionary.get();
+
+        Files.writeString(file, "関西国際空港,関西 国際,カンサイ,カスタム名詞\n", StandardCharsets.UTF_8);
+        dictionary.onFileChanged(file);
+        assertSame(first, dictionary.get());
+        assertEquals(0, dictionary.getGeneration());
+    }
+
+    @Test
+    public void testFileWatcher() throws IOException {
+        final ReloadableUserDictionary dictionary = new ReloadableUserDictionary(registry, index, file, Runnable::run);
+        final FileWatcher watcher = new FileWatcher(file);
+        watcher.addListener(dictionary);
+        watcher.init();
+
+        Files.writeString(file, RULES2, StandardCharsets.UTF_8);
+        watcher.checkAndNotify();
+        assertEquals(1, dictionary.getGeneration());
+        assertEquals(2, dictionary.get().size());
+    }
+
+    @Test
+    public void testClosed() throws IOException {
+        final ReloadableUserDictionary dictionary = new ReloadableUserDictionary(registry, index, file, Runnable::run);
+        final MappedUserDictionary first = dictionary.get();
+        dictionary.close();
+        assertTrue(dictionary.isClosed());
+
+        Files.writeString(file, RULES2, StandardCharsets.UTF_8);
+        dictionary.onFileChanged(file);
+        assertSame(first, dictionary.get());
+        assertEquals(1, registry.size());
+        assertEquals(1, registry.release(index));
+    }
+
+    @Test
+    public void testReleasedWhileReloading() throws Exception {
+        final Path dir = tmp.getRoot().toPath().resolve("user_dictionary");
+        final CountDownLatch compiling = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicBoolean block = new AtomicBoolean(false);
+        registry = new UserDictionaryRegistry(() -> {
+            // the compile of the reload waits until it is released
+            if (block.getAndSet(false)) {
+                compiling.countDown();
+                try {
+                    release.await();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return dir;
+        });
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final ReloadableUserDictionary dictionary = new ReloadableUserDictionary(registry, index, file, executor);
+            final MappedUserDictionary first = dictionary.get();
+            block.set(true);
+            Files.writeString(file, RULES2, StandardCharsets.UTF_8);
+            dictionary.onFileChanged(file);
+            assertTrue(compiling.await(10, TimeUnit.SECONDS));
+
+            // the index is released as FessAnalysisService does, while the new generation compiles
+            dictionary.close();
+            registry.release(index);
+            release.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+            assertSame(first, dictionary.get());
+            assertEquals(0, dictionary.getGeneration());
+            assertEquals(0, registry.size());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+}
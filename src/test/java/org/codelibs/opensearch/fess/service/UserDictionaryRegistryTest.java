@@ -0,0 +1,170 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import org.codelibs.opensearch.fess.analysis.MappedUserDictionary;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.opensearch.core.index.Index;
+
+public class UserDictionaryRegistryTest {
+
+    private static final String RULES1 = "関西国際空港,関西 国際 空港,カンサイ コクサイ クウコウ,カスタム名詞";
+
+    private static final String RULES2 = "東京スカイツリー,東京 スカイツリー,トウキョウ スカイツリー,カスタム名詞";
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void testSharedBetweenIndices() throws IOException {
+        final Path dir = tmp.getRoot().toPath().resolve("user_dictionary");
+        final UserDictionaryRegistry registry = new UserDictionaryRegistry(() -> dir);
+        final Index index1 = new Index("index1", "uuid1");
+        final Index index2 = new Index("index2", "uuid2");
+
+        final MappedUserDictionary dictionary1 = registry.acquire(index1, RULES1);
+        final MappedUserDictionary dictionary2 = registry.acquire(index2, RULES1);
+        final MappedUserDictionary dictionary3 = registry.acquire(index2, RULES2);
+
+        assertSame(dictionary1, dictionary2);
+        assertNotSame(dictionary1, dictionary3);
+        assertEquals(2, registry.size());
+        assertEquals(dictionary1.getSizeInBytes() + dictionary3.getSizeInBytes(), registry.sizeInBytes());
+        assertEquals(dir.resolve(UserDictionaryRegistry.digest(RULES1) + ".dic"), dictionary1.getFile());
+    }
+
+    @Test
+    public void testReleasedByLastIndex() throws IOException {
+        final Path dir = tmp.getRoot().toPath();
+        final UserDictionaryRegistry registry = new UserDictionaryRegistry(() -> dir);
+        final Index index1 = new Index("index1", "uuid1");
+        final Index index2 = new Index("index2", "uuid2");
+
+        final MappedUserDictionary dictionary = registry.acquire(index1, RULES1);
+        registry.acquire(index1, RULES1);
+        registry.acquire(index2, RULES1);
+
+        assertEquals(0, registry.release(index1));
+        assertTrue(Files.exists(dictionary.getFile()));
+        assertEquals(1, registry.release(index2));
+        assertFalse(Files.exists(dictionary.getFile()));
+        assertEquals(0, registry.size());
+        // the mapping is still readable
+        final char[] chars = "関西国際空港".toCharArray();
+        assertEquals(6, (int) dictionary.longestMatch(chars, 0, chars.length));
+    }
+
+    @Test
+    public void testBorrowed() throws IOException {
+        final Path dir = tmp.getRoot().toPath();
+        final UserDictionaryRegistry registry = new UserDictionaryRegistry(() -> dir);
+        final MappedUserDictionary borrowed = registry.acquire(null, RULES1);
+        assertEquals(0, registry.size());
+        // nothing holds a borrowed dictionary, so it leaves no file behind
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(0, files.count());
+        }
+        final char[] chars = "関西国際空港".toCharArray();
+        assertEquals(6, (int) borrowed.longestMatch(chars, 0, chars.length));
+
+        // a dictionary held by an index is lent as is
+        final MappedUserDictionary acquired = registry.acquire(new Index("index1", "uuid1"), RULES1);
+        assertTrue(Files.exists(acquired.getFile()));
+        assertSame(acquired, registry.acquire(null, RULES1));
+        assertEquals(1, registry.size());
+    }
+
+    @Test
+    public void testCompiledOutsideLock() throws Exception {
+        final Path dir = tmp.getRoot().toPath();
+        final CountDownLatch compiling = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicBoolean first = new AtomicBoolean(true);
+        final UserDictionaryRegistry registry = new UserDictionaryRegistry(() -> {
+            // the first compile waits until it is released
+            if (first.getAndSet(false)) {
+                compiling.countDown();
+                try {
+                    release.await();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return dir;
+        });
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Future<MappedUserDictionary> slow = executor.submit(() -> registry.acquire(new Index("index1", "uuid1"), RULES1));
+            assertTrue(compiling.await(10, TimeUnit.SECONDS));
+            // another dictionary and a release do not wait for the slow compile
+            assertNotNull(registry.acquire(new Index("index2", "uuid2"), RULES2));
+            assertEquals(0, registry.release(new Index("index3", "uuid3")));
+            assertEquals(2, registry.size());
+            // the same dictionary waits for it
+            final Future<MappedUserDictionary> waiting = executor.submit(() -> registry.acquire(new Index("index2", "uuid2"), RULES1));
+            assertFalse(waiting.isDone());
+            release.countDown();
+            assertSame(slow.get(10, TimeUnit.SECONDS), waiting.get(10, TimeUnit.SECONDS));
+            assertEquals(2, registry.size());
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testFailedCompile() throws IOException {
+        final Path dir = tmp.getRoot().toPath();
+        final AtomicBoolean fail = new AtomicBoolean(true);
+        final UserDictionaryRegistry registry = new UserDictionaryRegistry(() -> {
+            if (fail.getAndSet(false)) {
+                throw new UncheckedIOException(new IOException("broken"));
+            }
+            return dir;
+        });
+        final Index index = new Index("index1", "uuid1");
+        final UncheckedIOException e = assertThrows(UncheckedIOException.class, () -> registry.acquire(index, RULES1));
+        assertEquals("broken", e.getCause().getMessage());
+        assertEquals(0, registry.size());
+        assertEquals(0, registry.release(index));
+
+        // the next acquire compiles it again
+        assertNotNull(registry.acquire(index, RULES1));
+        assertEquals(1, registry.release(index));
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.stats;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.charfilter.MappingCharFilter;
+import org.apache.lucene.analysis.charfilter.NormalizeCharMap;
+import org.apache.lucene.analysis.core.LowerCaseFilter;
+import org.apache.lucene.analysis.core.WhitespaceTokenizer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.codelibs.opensearch.fess.analysis.ProfilingCharFilter;
+import org.codelibs.opensearch.fess.analysis.ProfilingTokenFilter;
+import org.codelibs.opensearch.fess.analysis.ProfilingTokenizer;
+import org.junit.Test;
+import org.opensearch.common.settings.Settings;
+
+public class AnalysisProfilerTest {
+
+    @Test
+    public void testBuckets() {
+        for (long value = 0; value < 100_000; value++) {
+            final int bucket = NanosHistogram.bucket(value);
+            assertTrue(value + " <= " + NanosHistogram.highestValue(bucket), value <= NanosHistogram.highestValue(bucket));
+            if (bucket > 0) {
+                assertTrue(value + " > " + NanosHistogram.highestValue(bucket - 1), value > NanosHistogram.highestValue(bucket - 1));
+            }
+        }
+        assertEquals(NanosHistogram.BUCKETS - 1, NanosHistogram.bucket(Long.MAX_VALUE));
+        assertEquals(Long.MAX_VALUE, NanosHistogram.highestValue(NanosHistogram.BUCKETS - 1));
+        for (final long value : new long[] { 8, 1000, 123_456_789L, 1L << 40 }) {
+            final long highest = NanosHistogram.highestValue(NanosHistogram.bucket(value));
+            assertTrue(value + " -> " + highest, highest - value < value / NanosHistogram.SUB_BUCKETS + 1);
+        }
+    }
+
+    @Test
+    public void testPercentiles() {
+        final NanosHistogram histogram = new NanosHistogram();
+        assertEquals(0, histogram.stats().getCount());
+        assertEquals(0, histogram.stats().getMinInNanos());
+        assertEquals(0, histogram.percentile(99));
+
+        for (long value = 1; value <= 1000; value++) {
+            histogram.record(value * 1000);
+        }
+        final StageStats stats = histogram.stats();
+        assertEquals(1000, stats.getCount());
+        assertEquals(500_500_000L, stats.getSumInNanos());
+        assertEquals(1000, stats.getMinInNanos());
+        assertEquals(1_000_000, stats.getMaxInNanos());
+        assertWithin(500_000, stats.getP50InNanos());
+        assertWithin(900_000, stats.getP90InNanos());
+        assertWithin(990_000, stats.getP99InNanos());
+        assertEquals(1_000_000, stats.getP999InNanos());
+        assertEquals(1_000_000, histogram.percentile(100));
+    }
+
+    private static void assertWithin(final long expected, final long actual) {
+        assertTrue(expected + " ~ " + actual, actual >= expected && actual <= expected + expected / NanosHistogram.SUB_BUCKETS);
+    }
+
+    @Test
+    public void testSampleInterval() {
+        final AnalysisProfiler profiler = new AnalysisProfiler(Settings.EMPTY);
+        assertFalse(profiler.isEnabled());
+        assertFalse(profiler.sample());
+
+        profiler.setSampleInterval(10);
+        assertTrue(profiler.isEnabled());
+        int sampled = 0;
+        for (int i = 0; i < 10000; i++) {
+            if (profiler.sample()) {
+                sampled++;
+            }
+        }
+        assertTrue(String.valueOf(sampled), sampled > 500 && sampled < 1500);
+
+        profiler.setSampleInterval(1);
+        assertTrue(profiler.sample());
+    }
+
+    @Test
+    public void testStages() throws IOException {
+        final AnalysisProfiler profiler =
+                new AnalysisProfiler(Settings.builder().put(AnalysisProfiler.SAMPLE_INTERVAL_SETTING.getKey(), 1).build());
+        final ProfilingTokenizer tokenizer = new ProfilingTokenizer(new WhitespaceTokenizer(), profiler, "test", "ws");
+        final TokenStream stream = new ProfilingTokenFilter(new LowerCaseFilter(tokenizer), profiler, "test", "lower");
+
+        assertEquals(List.of("one", "two", "three"), analyze(tokenizer, stream, charFilter(profiler, "One Two Three")));
+        assertEquals(List.of("four"), analyze(tokenizer, stream, charFilter(profiler, "Four")));
+
+        Map<String, Map<String, StageStats>> stages = profiler.snapshot().get("test");
+        assertEquals(3, stages.size());
+        assertEquals(2, stages.get("char_filter").get("mapping").getCount());
+        assertEquals(2, stages.get("tokenizer").get("ws").getCount());
+        assertEquals(2, stages.get("token_filter").get("lower").getCount());
+
+        // unsampled streams are only forwarded
+        profiler.setSampleInterval(0);
+        assertEquals(List.of("five"), analyze(tokenizer, stream, charFilter(profiler, "Five")));
+        stages = profiler.snapshot().get("test");
+        assertEquals(2, stages.get("char_filter").get("mapping").getCount());
+        assertEquals(2, stages.get("tokenizer").get("ws").getCount());
+        assertEquals(2, stages.get("token_filter").get("lower").getCount());
+
+        profiler.remove("test");
+        assertNull(profiler.snapshot().get("test"));
+    }
+
+    private static Reader charFilter(final AnalysisProfiler profiler, final String text) {
+        final NormalizeCharMap.Builder builder = new NormalizeCharMap.Builder();
+        builder.add("-", " ");
+        final Reader upstream = new StringReader(text);
+        return new ProfilingCharFilter(new MappingCharFilter(builder.build(), upstream), upstream, profiler, "test", "mapping");
+    }
+
+    private static List<String> analyze(final Tokenizer tokenizer, final TokenStream stream, final Reader reader) throws IOException {
+        final CharTermAttribute termAtt = stream.addAttribute(CharTermAttribute.class);
+        tokenizer.setReader(reader);
+        stream.reset();
+        final List<String> terms = new ArrayList<>();
+        while (stream.incrementToken()) {
+            terms.add(termAtt.toString());
+        }
+        stream.end();
+        stream.close();
+        return terms;
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.stats;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.appender.AbstractAppender;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.core.WhitespaceTokenizer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.codelibs.opensearch.fess.analysis.SlowLogCharFilter;
+import org.codelibs.opensearch.fess.analysis.SlowLogTokenizer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.opensearch.common.logging.Loggers;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.common.unit.TimeValue;
+import org.opensearch.core.index.Index;
+
+public class AnalysisSlowLogTest {
+
+    private final Logger logger = LogManager.getLogger("index.fess.analysis.slowlog");
+
+    private final Index index = new Index("test", "uuid");
+
+    private final List<LogEvent> events = new ArrayList<>();
+
+    private final AbstractAppender appender = new AbstractAppender("slowlog", null, null, true, null) {
+        @Override
+        public void append(final LogEvent event) {
+            events.add(event.toImmutable());
+        }
+    };
+
+    @Before
+    public void setUp() {
+        appender.start();
+        Loggers.addAppender(logger, appender);
+        Loggers.setLevel(logger, Level.TRACE);
+    }
+
+    @After
+    public void tearDown() {
+        Loggers.removeAppender(logger, appender);
+        appender.stop();
+    }
+
+    @Test
+    public void testThresholds() {
+        final AnalysisSlowLog slowLog = new AnalysisSlowLog(index, Settings.builder()
+                .put("index.fess.analysis.slowlog.threshold.warn", "1s")
+                .put("index.fess.analysis.slowlog.threshold.info", "100ms")
+                .put("index.fess.analysis.slowlog.threshold.trace", "0ms")
+                .build());
+        assertTrue(slowLog.isEnabled());
+        slowLog.onStream("ja_content", "fess_japanese_tokenizer", 1000, 200, 2_000_000_000L);
+        slowLog.onStream("ja_content", "fess_japanese_tokenizer", 1000, 200, 200_000_000L);
+        slowLog.onStream("ja_content", "fess_japanese_tokenizer", 1000, 200, 50_000_000L);
+        slowLog.onStream("ja_content", "fess_japanese_tokenizer", 1000, 200, 0);
+        assertEquals(3, events.size());
+        assertEquals(Level.WARN, events.get(0).getLevel());
+        assertEquals(Level.INFO, events.get(1).getLevel());
+        assertEquals(Level.TRACE, events.get(2).getLevel());
+        assertEquals(
+                "[test/uuid] took[2s], took_millis[2000], component[ja_content], type[fess_japanese_tokenizer], chars[1000], tokens[200]",
+                events.get(0).getMessage().getFormattedMessage());
+        assertEquals("[test/uuid] took[50ms], took_millis[50], component[tc], type[fess_traditional_chinese_convert], chars[10]",
+                slowLog.message("tc", "fess_traditional_chinese_convert", 10, -1, 50_000_000L));
+    }
+
+    @Test
+    public void testDisabled() {
+        final AnalysisSlowLog slowLog = new AnalysisSlowLog(index, Settings.EMPTY);
+        assertFalse(slowLog.isEnabled());
+        assertFalse(slowLog.sample());
+        slowLog.onStream("ja_content", "fess_japanese_tokenizer", 1000, 200, Long.MAX_VALUE - 1);
+        assertTrue(events.isEmpty());
+
+        slowLog.setInfoThreshold(TimeValue.timeValueMillis(10));
+        assertTrue(slowLog.isEnabled());
+        assertTrue(slowLog.sample());
+        slowLog.setInfoThreshold(TimeValue.MINUS_ONE);
+        assertFalse(slowLog.sample());
+    }
+
+    @Test
+    public void testSampleInterval() {
+        final AnalysisSlowLog slowLog = new AnalysisSlowLog(index, Settings.builder()
+                .put("index.fess.analysis.slowlog.threshold.warn", "0ms")
+                .put("index.fess.analysis.slowlog.sample_interval", 10)
+                .build());
+        int sampled = 0;
+        for (int i = 0; i < 10000; i++) {
+            if (slowLog.sample()) {
+                sampled++;
+            }
+        }
+        assertTrue(String.valueOf(sampled), sampled > 500 && sampled < 1500);
+        slowLog.setSampleInterval(1);
+        assertTrue(slowLog.sample());
+    }
+
+    @Test
+    public void testWrappers() throws IOException {
+        final AnalysisSlowLog slowLog =
+                new AnalysisSlowLog(index, Settings.builder().put("index.fess.analysis.slowlog.threshold.warn", "10ms").build());
+        final Tokenizer tokenizer = new SlowLogTokenizer(new WhitespaceTokenizer(), slowLog, "ws", "whitespace");
+        final CharTermAttribute termAtt = tokenizer.addAttribute(CharTermAttribute.class);
+        tokenizer.setReader(new SlowReader("one two three four five"));
+        tokenizer.reset();
+        final List<String> terms = new ArrayList<>();
+        while (tokenizer.incrementToken()) {
+            terms.add(termAtt.toString());
+        }
+        tokenizer.end();
+        tokenizer.close();
+        assertEquals(List.of("one", "two", "three", "four", "five"), terms);
+        assertEquals(1, events.size());
+        assertTrue(events.get(0).getMessage().getFormattedMessage(),
+                events.get(0).getMessage().getFormattedMessage().endsWith("component[ws], type[whitespace], chars[23], tokens[5]"));
+
+        // fast streams are not logged
+        tokenizer.setReader(new StringReader("six"));
+        tokenizer.reset();
+        while (tokenizer.incrementToken()) {
+            // consume
+        }
+        tokenizer.end();
+        tokenizer.close();
+        assertEquals(1, events.size());
+
+        final Reader reader = new SlowLogCharFilter(new SlowReader("abcdefghijklmnop"), slowLog, "cf", "fess_traditional_chinese_convert");
+        final char[] buffer = new char[16];
+        while (reader.read(buffer, 0, buffer.length) != -1) {
+            // consume
+        }
+        reader.close();
+        reader.close();
+        assertEquals(2, events.size());
+        final String message = events.get(1).getMessage().getFormattedMessage();
+        assertTrue(message, message.endsWith("component[cf], type[fess_traditional_chinese_convert], chars[16]"));
+    }
+
+    /**
+     * Returns one char per read, sleeping 1ms before each.
+     */
+    private static final class SlowReader extends Reader {
+
+        private final String text;
+
+        private int offset;
+
+        SlowReader(final String text) {
+            this.text = text;
+        }
+
+        @Override
+        public int read(final char[] cbuf, final int off, final int len) throws IOException {
+            if (offset >= text.length()) {
+                return -1;
+            }
+            try {
+                Thread.sleep(1);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            cbuf[off] = text.charAt(offset++);
+            return 1;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.stats;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+
+import org.opensearch.common.io.stream.BytesStreamOutput;
+import org.opensearch.core.common.io.stream.StreamInput;
+import org.junit.Test;
+
+public class FessAnalysisStatsTest {
+
+    @Test
+    public void testGetCounters() {
+        final FessAnalysisStats stats = new FessAnalysisStats();
+        final AnalysisCounters counters = stats.getCounters("index1", "fess_japanese_tokenizer");
+        assertSame(counters, stats.getCounters("index1", "fess_japanese_tokenizer"));
+        assertNotSame(counters, stats.getCounters("index2", "fess_japanese_tokenizer"));
+        assertNotSame(counters, stats.getCounters("index1", "fess_japanese_stemmer"));
+    }
+
+    @Test
+    public void testSnapshotAndRemove() {
+        final FessAnalysisStats stats = new FessAnalysisStats();
+        final AnalysisCounters counters = stats.getCounters("index1", "fess_korean_tokenizer");
+        counters.onCreate();
+        counters.onStream(3, 10, 100);
+        counters.onStream(2, 5, 50);
+        counters.onTruncated();
+
+        final Map<String, Map<String, ComponentStats>> snapshot = stats.snapshot();
+        final ComponentStats componentStats = snapshot.get("index1").get("fess_korean_tokenizer");
+        assertEquals(1, componentStats.getCreateCount());
+        assertEquals(2, componentStats.getStreamCount());
+        assertEquals(5, componentStats.getTokenCount());
+        assertEquals(15, componentStats.getCharCount());
+        assertEquals(150, componentStats.getTimeInNanos());
+        assertEquals(1, componentStats.getTruncatedCount());
+
+        stats.remove("index1");
+        assertTrue(stats.snapshot().isEmpty());
+    }
+
+    @Test
+    public void testSerialization() throws Exception {
+        final ComponentStats stats = new ComponentStats(1, 2, 3, 4, 5, 6);
+        try (BytesStreamOutput out = new BytesStreamOutput()) {
+            stats.writeTo(out);
+            try (StreamInput in = out.bytes().streamInput()) {
+                final ComponentStats read = new ComponentStats(in);
+                assertEquals(1, read.getCreateCount());
+                assertEquals(2, read.getStreamCount());
+                assertEquals(3, read.getTokenCount());
+                assertEquals(4, read.getCharCount());
+                assertEquals(5, read.getTimeInNanos());
+                assertEquals(6, read.getTruncatedCount());
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2012-2025 CodeLibs Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.codelibs.opensearch.fess.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+public class DoubleArrayTrieTest {
+
+    @Test
+    public void testGet() {
+        final List<String> keys = List.of("中", "中国", "中国人", "人", "国人", "abc");
+        final List<String> sorted = new ArrayList<>(new TreeSet<>(keys));
+        final DoubleArrayTrie trie = DoubleArrayTrie.build(sorted);
+        assertEquals(6, trie.size());
+        assertEquals(3, trie.getMaxKeyLength());
+        for (int i = 0; i < sorted.size(); i++) {
+            assertEquals(i, trie.get(sorted.get(i)));
+        }
+        assertEquals(-1, trie.get("国"));
+        assertEquals(-1, trie.get("中国人民"));
+        assertEquals(-1, trie.get("ab"));
+        assertEquals(-1, trie.get(""));
+    }
+
+    @Test
+    public void testLongestMatch() {
+        final List<String> keys = new ArrayList<>(new TreeSet<>(List.of("中", "中国", "中国人", "人民")));
+        final DoubleArrayTrie trie = DoubleArrayTrie.build(keys);
+        final char[] chars = "中国人民中国x".toCharArray();
+        assertEquals(((long) keys.indexOf("中国人") << 32) | 3, trie.longestMatch(chars, 0, chars.length));
+        assertEquals(((long) keys.indexOf("中国") << 32) | 2, trie.longestMatch(chars, 0, 2));
+        assertEquals(((long) keys.indexOf("人民") << 32) | 2, trie.longestMatch(chars, 2, chars.length - 2));
+        assertEquals(((long) keys.indexOf("中国") << 32) | 2, trie.longestMatch(chars, 4, chars.length - 4));
+        assertEquals(-1, trie.longestMatch(chars, 1, chars.length - 1));
+        assertEquals(-1, trie.longestMatch(chars, 6, 1));
+    }
+
+    @Test
+    public void testRandomKeys() {
+        final Random random = new Random(1);
+        final TreeSet<String> set = new TreeSet<>();
+        while (set.size() < 5000) {
+            final char[] chars = new char[1 + random.nextInt(6)];
+            for (int i = 0; i < chars.length; i++) {
+                chars[i] = (char) ('一' + random.nextInt(200));
+            }
+            set.add(new String(chars));
+        }
+        final List<String> keys = new ArrayList<>(set);
+        final DoubleArrayTrie trie = DoubleArrayTrie.build(keys);
+        for (int i = 0; i < keys.size(); i++) {
+            assertEquals(i, trie.get(keys.get(i)));
+            final char[] chars = keys.get(i).toCharArray();
+            assertEquals(i, trie.get(chars, 0, chars.length));
+        }
+        for (int i = 0; i < 5000; i++) {
+            final String key = keys.get(random.nextInt(keys.size())) + "一";
+            assertEquals(set.contains(key) ? keys.indexOf(key) : -1, trie.get(key));
+        }
+    }
+
+    @Test
+    public void testEmpty() {
+        final DoubleArrayTrie trie = DoubleArrayTrie.build(List.of());
+        assertEquals(0, trie.size());
+        assertEquals(-1, trie.get("a"));
+        assertEquals(-1, trie.longestMatch("a".toCharArray(), 0, 1));
+    }
+
+    @Test
+    public void testUnsortedKeys() {
+        assertThrows(IllegalArgumentException.class, () -> DoubleArrayTrie.build(List.of("b", "a")));
+        assertThrows(IllegalArgumentException.class, () -> DoubleArrayTrie.build(List.of("a", "a")));
+    }
+}